@@ -21,15 +21,19 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -51,20 +55,22 @@ import org.apache.poi.ss.util.DateFormatConverter;
 import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.dashbuilder.DataSetCore;
+import org.dashbuilder.config.Config;
 import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
-import org.dashbuilder.dataset.DataSetDefRegistryCDI;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetManagerCDI;
+import org.dashbuilder.dataset.DataSetOp;
 import org.dashbuilder.dataset.group.Interval;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.DataSetSort;
+import org.dashbuilder.dataset.sort.SortOrder;
 import org.dashbuilder.dataset.uuid.UUIDGenerator;
 import org.dashbuilder.exception.ExceptionManager;
 import org.jboss.errai.bus.server.annotations.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.uberfire.backend.server.util.Paths;
-import org.uberfire.java.nio.file.Files;
-import org.uberfire.java.nio.file.Path;
+import org.uberfire.backend.vfs.PathFactory;
 
 @ApplicationScoped
 @Service
@@ -73,7 +79,6 @@ public class DataSetExportServicesImpl implements DataSetExportServices {
     private static final String TEXT_CELL = "text_cell";
     protected static Logger log = LoggerFactory.getLogger(DataSetExportServicesImpl.class);
     protected DataSetManagerCDI dataSetManager;
-    protected DataSetDefRegistryCDI gitStorage;
     protected UUIDGenerator uuidGenerator;
     protected ExceptionManager exceptionManager;
 
@@ -84,25 +89,49 @@ public class DataSetExportServicesImpl implements DataSetExportServices {
     protected String dateFormatPattern = "dd/MM/yyyy HH:mm:ss";
     protected String numberFormatPattern = "#,###.##########";
 
-    protected DecimalFormat decf = new DecimalFormat(numberFormatPattern);
-    protected DateFormat datef = new SimpleDateFormat(dateFormatPattern);
+    // Formats aren't thread safe and exports run concurrently
+    protected ThreadLocal<DecimalFormat> decf = ThreadLocal.withInitial(() -> new DecimalFormat(numberFormatPattern));
+    protected ThreadLocal<DateFormat> datef = ThreadLocal.withInitial(() -> new SimpleDateFormat(dateFormatPattern));
+
+    /**
+     * Number of rows fetched on every data set lookup while exporting, so only one page is kept in memory.
+     */
+    @Inject
+    @Config("5000")
+    protected int exportPageSize = 5000;
+
+    /**
+     * Number of rows, after the header, used to compute the width of the Excel columns.
+     */
+    @Inject
+    @Config("100")
+    protected int autoSizeSampleRows = 100;
+
+    /**
+     * Local directory the exported files are written to. They are served, and then deleted, by the
+     * {@link DataSetExportServlet}, so exports never reach the versioned data set file system.
+     */
+    protected Path exportDir = Paths.get(System.getProperty("java.io.tmpdir"),
+                                         "dashbuilder-exports");
 
     public DataSetExportServicesImpl() {
     }
 
     @Inject
     public DataSetExportServicesImpl(DataSetManagerCDI dataSetManager,
-                                     DataSetDefRegistryCDI gitStorage,
                                      ExceptionManager exceptionManager) {
         this.dataSetManager = dataSetManager;
-        this.gitStorage = gitStorage;
         this.uuidGenerator = DataSetCore.get().getUuidGenerator();
         this.exceptionManager = exceptionManager;
     }
 
     public org.uberfire.backend.vfs.Path exportDataSetCSV(DataSetLookup lookup) {
-        DataSet dataSet = dataSetManager.lookupDataSet(lookup);
-        return exportDataSetCSV(dataSet);
+        try {
+            return writeCSV(writer -> forEachPage(lookup,
+                                                  new CSVPageWriter(writer)));
+        } catch (Exception e) {
+            throw exceptionManager.handleException(e);
+        }
     }
 
     public org.uberfire.backend.vfs.Path exportDataSetCSV(DataSet dataSet) {
@@ -110,153 +139,349 @@ public class DataSetExportServicesImpl implements DataSetExportServices {
             if (dataSet == null) {
                 throw new IllegalArgumentException("Null dataSet specified!");
             }
-            int columnCount = dataSet.getColumns().size();
-            int rowCount = dataSet.getRowCount();
-
-            List<String[]> lines = new ArrayList<>(rowCount+1);
+            return writeCSV(writer -> new CSVPageWriter(writer).write(dataSet));
+        } catch (Exception e) {
+            throw exceptionManager.handleException(e);
+        }
+    }
 
-            String[] line = new String[columnCount];
-            for (int cc = 0; cc < columnCount; cc++) {
-                DataColumn dc = dataSet.getColumnByIndex(cc);
-                line[cc] = dc.getId();
+    @Override
+    public org.uberfire.backend.vfs.Path exportDataSetExcel(DataSetLookup dataSetLookup) {
+        try {
+            ExcelPageWriter excel = new ExcelPageWriter();
+            try {
+                forEachPage(dataSetLookup,
+                            excel);
+            } catch (Exception e) {
+                excel.dispose();
+                throw e;
             }
-            lines.add(line);
+            return writeExcel(excel.finish());
+        } catch (Exception e) {
+            throw exceptionManager.handleException(e);
+        }
+    }
 
-            for (int rc = 0; rc < rowCount; rc++) {
-                line = new String[columnCount];
-                for (int cc = 0; cc < columnCount; cc++) {
-                    line[cc] = formatAsString(dataSet.getValueAt(rc, cc));
-                }
-                lines.add(line);
-            }
+    @Override
+    public org.uberfire.backend.vfs.Path exportDataSetExcel(DataSet dataSet) {
+        try {
+            return writeExcel(dataSetToWorkbook(dataSet));
+        } catch (Exception e) {
+            throw exceptionManager.handleException(e);
+        }
+    }
+
+    //Package private to enable testing
+    SXSSFWorkbook dataSetToWorkbook(DataSet dataSet) {
+        if (dataSet == null) {
+            throw new IllegalArgumentException("Null dataSet specified!");
+        }
+        ExcelPageWriter excel = new ExcelPageWriter();
+        excel.write(dataSet);
+        return excel.finish();
+    }
+
+    /**
+     * Looks up the data set page by page, from the lookup's row offset and up to its number of rows, and passes
+     * every page to the writer. The first page is always looked up, so the writer gets the columns even if there
+     * are no rows.
+     * <p>
+     * If the first page is full, the export is looked up again sorted by all its columns, so that rows can't move
+     * between pages and end up skipped or exported twice.
+     */
+    //Package private to enable testing
+    void forEachPage(DataSetLookup lookup,
+                     PageWriter writer) throws IOException {
+        int offset = Math.max(lookup.getRowOffset(),
+                              0);
+        int limit = lookup.getNumberOfRows();
+        int pageSize = exportPageSize > 0 ? exportPageSize : Integer.MAX_VALUE;
+        int rows = limit > 0 ? Math.min(pageSize,
+                                        limit) : pageSize;
+        DataSet page = lookupPage(lookup,
+                                  offset,
+                                  rows);
+        if (page == null) {
+            throw new IllegalArgumentException("Null dataSet specified!");
+        }
+        if (page.getRowCount() < rows || rows == limit) {
+            writer.write(page);
+            return;
+        }
 
-            String tempCsvFile = uuidGenerator.newUuid() + ".csv";
-            Path tempCsvPath = gitStorage.createTempFile(tempCsvFile);
-
-            try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tempCsvPath)));
-                 CSVWriter writer = new CSVWriter(bw,
-                                                  DEFAULT_SEPARATOR_CHAR.charAt(0),
-                                                  DEFAULT_QUOTE_CHAR.charAt(0),
-                                                  DEFAULT_ESCAPE_CHAR.charAt(0))
-                 ) {
-                     writer.writeAll(lines);
-                     writer.flush();
+        DataSetLookup sortedLookup = sortByAllColumns(lookup,
+                                                      page);
+        int exported = 0;
+        while (true) {
+            rows = limit > 0 ? Math.min(pageSize,
+                                        limit - exported) : pageSize;
+            page = lookupPage(sortedLookup,
+                              offset + exported,
+                              rows);
+            if (page == null) {
+                return;
             }
+            writer.write(page);
+            exported += page.getRowCount();
+            if (page.getRowCount() < rows || (limit > 0 && exported >= limit)) {
+                return;
+            }
+        }
+    }
+
+    private DataSet lookupPage(DataSetLookup lookup,
+                               int offset,
+                               int rows) {
+        DataSetLookup pageLookup = lookup.cloneInstance();
+        pageLookup.setRowOffset(offset);
+        pageLookup.setNumberOfRows(rows);
+        return dataSetManager.lookupDataSet(pageLookup);
+    }
 
-            return Paths.convert(tempCsvPath);
+    /**
+     * Appends the columns of the page, after the lookup's own sort columns, to the last sort of the lookup. Rows that
+     * tie on every column are equal, so the resulting order is the same on every page lookup.
+     */
+    //Package private to enable testing
+    DataSetLookup sortByAllColumns(DataSetLookup lookup,
+                                   DataSet page) {
+        DataSetLookup sortedLookup = lookup.cloneInstance();
+        List<DataSetOp> operations = sortedLookup.getOperationList();
+        DataSetOp last = operations.isEmpty() ? null : operations.get(operations.size() - 1);
+        DataSetSort sort;
+        if (last instanceof DataSetSort) {
+            sort = (DataSetSort) last;
+        } else {
+            sort = new DataSetSort();
+            sortedLookup.addOperation(sort);
         }
-        catch (Exception e) {
-            throw exceptionManager.handleException(e);
+        Set<String> sorted = new HashSet<>();
+        for (ColumnSort columnSort : sort.getColumnSortList()) {
+            sorted.add(columnSort.getColumnId());
         }
+        for (DataColumn column : page.getColumns()) {
+            if (sorted.add(column.getId())) {
+                sort.addSortColumn(new ColumnSort(column.getId(),
+                                                  SortOrder.ASCENDING));
+            }
+        }
+        return sortedLookup;
     }
 
-    @Override
-    public org.uberfire.backend.vfs.Path exportDataSetExcel(DataSetLookup dataSetLookup) {
-        DataSet dataSet = dataSetManager.lookupDataSet( dataSetLookup );
-        return exportDataSetExcel( dataSet );
+    /**
+     * @return the exported file with the given name, or null if the name doesn't denote a file of the export
+     * directory.
+     */
+    public Path getExportFile(String fileName) {
+        if (fileName == null || fileName.isEmpty()) {
+            return null;
+        }
+        Path file = exportDir.resolve(fileName).normalize();
+        return exportDir.equals(file.getParent()) ? file : null;
     }
 
-    @Override
-    public org.uberfire.backend.vfs.Path exportDataSetExcel(DataSet dataSet) {
-        try {
-            SXSSFWorkbook wb = dataSetToWorkbook(dataSet);
+    private Path createExportFile(String fileName) throws IOException {
+        Files.createDirectories(exportDir);
+        return exportDir.resolve(fileName);
+    }
+
+    private org.uberfire.backend.vfs.Path toExportPath(Path file) {
+        return PathFactory.newPath(file.getFileName().toString(),
+                                   file.toUri().toString());
+    }
+
+    private org.uberfire.backend.vfs.Path writeCSV(CSVContent content) throws IOException {
+        String tempCsvFile = uuidGenerator.newUuid() + ".csv";
+        Path tempCsvPath = createExportFile(tempCsvFile);
+
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tempCsvPath)));
+             CSVWriter writer = new CSVWriter(bw,
+                                              DEFAULT_SEPARATOR_CHAR.charAt(0),
+                                              DEFAULT_QUOTE_CHAR.charAt(0),
+                                              DEFAULT_ESCAPE_CHAR.charAt(0))
+        ) {
+            content.writeTo(writer);
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempCsvPath);
+            throw e;
+        }
+        return toExportPath(tempCsvPath);
+    }
 
+    private org.uberfire.backend.vfs.Path writeExcel(SXSSFWorkbook wb) throws IOException {
+        try {
             // Write workbook to Path
             String tempXlsFile = uuidGenerator.newUuid() + ".xlsx";
-            Path tempXlsPath = gitStorage.createTempFile(tempXlsFile);
+            Path tempXlsPath = createExportFile(tempXlsFile);
             try (OutputStream os = Files.newOutputStream(tempXlsPath)) {
                 wb.write(os);
                 os.flush();
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tempXlsPath);
+                throw e;
             }
-
+            return toExportPath(tempXlsPath);
+        } finally {
             // Dispose of temporary files backing this workbook on disk
             if (!wb.dispose()) {
                 log.warn("Could not dispose of temporary file associated to data export!");
             }
-            return Paths.convert(tempXlsPath);
-        } catch (Exception e) {
-            throw exceptionManager.handleException(e);
         }
     }
 
-    //Package private to enable testing
-    SXSSFWorkbook dataSetToWorkbook(DataSet dataSet) {
+    private String formatAsString(Object value) {
+        if (value == null) return "";
+        if (value instanceof Number) return decf.get().format(value);
+        else if (value instanceof Date) return datef.get().format(value);
+        // TODO verify if this is correct
+        else if (value instanceof Interval) return ((Interval)value).getName();
+        else return value.toString();
+    }
+
+    interface PageWriter {
+
+        void write(DataSet page) throws IOException;
+    }
+
+    private interface CSVContent {
+
+        void writeTo(CSVWriter writer) throws IOException;
+    }
+
+    private class CSVPageWriter implements PageWriter {
+
+        private final CSVWriter writer;
+        private String[] line;
+
+        CSVPageWriter(CSVWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(DataSet page) {
+            int columnCount = page.getColumns().size();
+            if (line == null) {
+                line = new String[columnCount];
+                for (int cc = 0; cc < columnCount; cc++) {
+                    DataColumn dc = page.getColumnByIndex(cc);
+                    line[cc] = dc.getId();
+                }
+                writer.writeNext(line);
+            }
+            int rowCount = page.getRowCount();
+            for (int rc = 0; rc < rowCount; rc++) {
+                for (int cc = 0; cc < columnCount; cc++) {
+                    line[cc] = formatAsString(page.getValueAt(rc, cc));
+                }
+                writer.writeNext(line);
+            }
+        }
+    }
+
+    /**
+     * Writes the pages to a streaming workbook, which only keeps a window of rows in memory. Column widths are
+     * computed from the header and the first sampled rows instead of tracking every cell for auto sizing.
+     */
+    private class ExcelPageWriter implements PageWriter {
+
         // TODO?: Excel 2010 limits: 1,048,576 rows by 16,384 columns; row width 255 characters
-        if (dataSet == null) {
-            throw new IllegalArgumentException("Null dataSet specified!");
+        private final SXSSFWorkbook wb = new SXSSFWorkbook(100); // keep 100 rows in memory, exceeding rows will be flushed to disk
+        private final Map<String, CellStyle> styles = createStyles(wb);
+        private final SXSSFSheet sh = wb.createSheet("Sheet 1");
+        private int[] widths;
+        private int row = 0;
+
+        ExcelPageWriter() {
+            // General setup
+            sh.setDisplayGridlines(true);
+            sh.setPrintGridlines(false);
+            sh.setFitToPage(true);
+            sh.setHorizontallyCenter(true);
+            PrintSetup printSetup = sh.getPrintSetup();
+            printSetup.setLandscape(true);
         }
-        int columnCount = dataSet.getColumns().size();
-        int rowCount = dataSet.getRowCount() + 1; //Include header row;
-        int row = 0;
-
-        SXSSFWorkbook wb = new SXSSFWorkbook(100); // keep 100 rows in memory, exceeding rows will be flushed to disk
-        Map<String, CellStyle> styles = createStyles(wb);
-        SXSSFSheet sh = wb.createSheet("Sheet 1");
-
-        // General setup
-        sh.setDisplayGridlines(true);
-        sh.setPrintGridlines(false);
-        sh.setFitToPage(true);
-        sh.setHorizontallyCenter(true);
-        sh.trackAllColumnsForAutoSizing();
-        PrintSetup printSetup = sh.getPrintSetup();
-        printSetup.setLandscape(true);
-
-        // Create header
-        Row header = sh.createRow(row++);
-        header.setHeightInPoints(20f);
-        for (int i = 0; i < columnCount; i++) {
-            Cell cell = header.createCell(i);
-            cell.setCellStyle(styles.get("header"));
-            cell.setCellValue(dataSet.getColumnByIndex(i).getId());
+
+        @Override
+        public void write(DataSet page) {
+            int columnCount = page.getColumns().size();
+            if (widths == null) {
+                widths = new int[columnCount];
+                // Create header
+                Row header = sh.createRow(row++);
+                header.setHeightInPoints(20f);
+                for (int i = 0; i < columnCount; i++) {
+                    Cell cell = header.createCell(i);
+                    cell.setCellStyle(styles.get("header"));
+                    String id = page.getColumnByIndex(i).getId();
+                    cell.setCellValue(id);
+                    sample(i,
+                           id);
+                }
+            }
+
+            // Create data rows
+            int rowCount = page.getRowCount();
+            for (int rc = 0; rc < rowCount; rc++, row++) {
+                boolean sampled = row <= autoSizeSampleRows;
+                Row _row = sh.createRow(row);
+                for (int cellnum = 0; cellnum < columnCount; cellnum++) {
+                    Cell cell = _row.createCell(cellnum);
+                    Object value = page.getValueAt(rc,
+                                                   cellnum);
+                    if (value instanceof Short || value instanceof Long || value instanceof Integer || value instanceof BigInteger) {
+                        cell.setCellType(CellType.NUMERIC);
+                        cell.setCellStyle(styles.get("integer_number_cell"));
+                        cell.setCellValue(((Number) value).doubleValue());
+                    } else if (value instanceof Float || value instanceof Double || value instanceof BigDecimal) {
+                        cell.setCellType(CellType.NUMERIC);
+                        cell.setCellStyle(styles.get("decimal_number_cell"));
+                        cell.setCellValue(((Number) value).doubleValue());
+                    } else if (value instanceof Date) {
+                        cell.setCellType(CellType.STRING);
+                        cell.setCellStyle(styles.get("date_cell"));
+                        cell.setCellValue((Date) value);
+                    } else if (value instanceof Interval) {
+                        cell.setCellType(CellType.STRING);
+                        cell.setCellStyle(styles.get(TEXT_CELL));
+                        cell.setCellValue(((Interval) value).getName());
+                    } else {
+                        cell.setCellType(CellType.STRING);
+                        cell.setCellStyle(styles.get(TEXT_CELL));
+                        String val = value == null ? "" : value.toString();
+                        cell.setCellValue(val);
+                    }
+                    if (sampled) {
+                        sample(cellnum,
+                               formatAsString(value));
+                    }
+                }
+            }
         }
 
-        // Create data rows
-        for (; row < rowCount; row++) {
-            Row _row = sh.createRow(row);
-            for (int cellnum = 0; cellnum < columnCount; cellnum++) {
-                Cell cell = _row.createCell(cellnum);
-                Object value = dataSet.getValueAt(row - 1,
-                                                  cellnum);
-                if (value instanceof Short || value instanceof Long || value instanceof Integer || value instanceof BigInteger) {
-                    cell.setCellType(CellType.NUMERIC);
-                    cell.setCellStyle(styles.get("integer_number_cell"));
-                    cell.setCellValue(((Number) value).doubleValue());
-                } else if (value instanceof Float || value instanceof Double || value instanceof BigDecimal) {
-                    cell.setCellType(CellType.NUMERIC);
-                    cell.setCellStyle(styles.get("decimal_number_cell"));
-                    cell.setCellValue(((Number) value).doubleValue());
-                } else if (value instanceof Date) {
-                    cell.setCellType(CellType.STRING);
-                    cell.setCellStyle(styles.get("date_cell"));
-                    cell.setCellValue((Date) value);
-                } else if (value instanceof Interval) {
-                    cell.setCellType(CellType.STRING);
-                    cell.setCellStyle(styles.get(TEXT_CELL));
-                    cell.setCellValue(((Interval) value).getName());
-                } else {
-                    cell.setCellType(CellType.STRING);
-                    cell.setCellStyle(styles.get(TEXT_CELL));
-                    String val = value == null ? "" : value.toString();
-                    cell.setCellValue(val);
+        SXSSFWorkbook finish() {
+            // Adjust column size
+            if (widths != null) {
+                for (int i = 0; i < widths.length; i++) {
+                    sh.setColumnWidth(i,
+                                      Math.min(widths[i] + 2,
+                                               255) * 256);
                 }
             }
+            return wb;
         }
 
-        // Adjust column size
-        for (int i = 0; i < columnCount; i++) {
-            sh.autoSizeColumn(i);
+        void dispose() {
+            if (!wb.dispose()) {
+                log.warn("Could not dispose of temporary file associated to data export!");
+            }
         }
-        return wb;
-    }
 
-    private String formatAsString(Object value) {
-        if (value == null) return "";
-        if (value instanceof Number) return decf.format(value);
-        else if (value instanceof Date) return datef.format(value);
-        // TODO verify if this is correct
-        else if (value instanceof Interval) return ((Interval)value).getName();
-        else return value.toString();
+        private void sample(int column,
+                            String text) {
+            widths[column] = Math.max(widths[column],
+                                      text.length());
+        }
     }
 
     private Map<String, CellStyle> createStyles(Workbook wb){
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.inject.Inject;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.lang.String.format;
+
+/**
+ * Serves the files written by the {@link DataSetExportServicesImpl}. The <code>path</code> parameter is the name of
+ * the exported file, which is deleted once it has been sent.
+ */
+public class DataSetExportServlet extends HttpServlet {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSetExportServlet.class);
+
+    @Inject
+    DataSetExportServicesImpl exportServices;
+
+    @Override
+    protected void doGet(HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path file = exportServices.getExportFile(request.getParameter("path"));
+        if (file == null || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        try {
+            response.setHeader("Content-Disposition",
+                               format("attachment; filename=\"%s\";",
+                                      file.getFileName().toString()));
+            response.setContentType("application/octet-stream");
+            response.setContentLengthLong(Files.size(file));
+            Files.copy(file,
+                       response.getOutputStream());
+        } catch (IOException e) {
+            logger.error("Failed to download the exported file " + file,
+                         e);
+            return;
+        }
+        Files.deleteIfExists(file);
+    }
+}
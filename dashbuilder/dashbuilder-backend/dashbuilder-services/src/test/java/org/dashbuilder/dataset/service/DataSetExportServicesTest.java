@@ -1,20 +1,34 @@
 package org.dashbuilder.dataset.service;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.dashbuilder.dataset.DataSet;
-import org.dashbuilder.dataset.DataSetDefRegistryCDI;
 import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetManagerCDI;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.DataSetSort;
+import org.dashbuilder.dataset.sort.SortOrder;
 import org.dashbuilder.exception.ExceptionManager;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DataSetExportServicesTest {
@@ -25,10 +39,11 @@ public class DataSetExportServicesTest {
     @Mock
     DataSetManagerCDI dataSetManagerM;
     @Mock
-    DataSetDefRegistryCDI gitStorageM;
-    @Mock
     ExceptionManager exceptionManagerM;
 
+    @Rule
+    public TemporaryFolder exportDir = new TemporaryFolder();
+
     @BeforeClass
     public static void setUp() {
         /*
@@ -84,7 +99,6 @@ public class DataSetExportServicesTest {
     @Test
     public void exportToExcelWorksWhenDataSetHasNulls() {
         DataSetExportServicesImpl exporter = new DataSetExportServicesImpl(dataSetManagerM,
-                                                                           gitStorageM,
                                                                            exceptionManagerM);
 
         DataSet dataSetWithNulls = DataSetFactory.newDataSetBuilder()
@@ -111,4 +125,137 @@ public class DataSetExportServicesTest {
         assertEquals("", secondRow.getCell(1).getStringCellValue());
         assertEquals("", secondRow.getCell(2).getStringCellValue());
     }
+
+    @Test
+    public void exportLooksUpTheDataSetByPages() throws Exception {
+        DataSetExportServicesImpl exporter = new DataSetExportServicesImpl(dataSetManagerM,
+                                                                           exceptionManagerM);
+        exporter.exportPageSize = 2;
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .number("Id")
+                .row(1).row(2).row(3).row(4).row(5)
+                .buildDataSet();
+        List<Integer> offsets = new ArrayList<>();
+        when(dataSetManagerM.lookupDataSet(any(DataSetLookup.class))).then(invocation -> {
+            DataSetLookup page = (DataSetLookup) invocation.getArguments()[0];
+            offsets.add(page.getRowOffset());
+            return dataSet.trim(page.getRowOffset(),
+                                page.getNumberOfRows());
+        });
+
+        List<Integer> rows = new ArrayList<>();
+        exporter.forEachPage(DataSetFactory.newDataSetLookupBuilder().dataset("uuid").buildLookup(),
+                             page -> rows.add(page.getRowCount()));
+        //the first page is full, so the export starts over sorted by all the columns
+        assertEquals(Arrays.asList(0, 0, 2, 4), offsets);
+        assertEquals(Arrays.asList(2, 2, 1), rows);
+
+        offsets.clear();
+        rows.clear();
+        DataSetLookup limited = DataSetFactory.newDataSetLookupBuilder().dataset("uuid").rowOffset(1).rowNumber(3).buildLookup();
+        exporter.forEachPage(limited,
+                             page -> rows.add(page.getRowCount()));
+        assertEquals(Arrays.asList(1, 1, 3), offsets);
+        assertEquals(Arrays.asList(2, 1), rows);
+        verify(dataSetManagerM, times(7)).lookupDataSet(any(DataSetLookup.class));
+    }
+
+    @Test
+    public void singlePageExportIsLookedUpOnce() throws Exception {
+        DataSetExportServicesImpl exporter = new DataSetExportServicesImpl(dataSetManagerM,
+                                                                           exceptionManagerM);
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .number("Id")
+                .row(1).row(2)
+                .buildDataSet();
+        List<DataSetLookup> lookups = new ArrayList<>();
+        when(dataSetManagerM.lookupDataSet(any(DataSetLookup.class))).then(invocation -> {
+            DataSetLookup page = (DataSetLookup) invocation.getArguments()[0];
+            lookups.add(page);
+            return dataSet;
+        });
+
+        List<Integer> rows = new ArrayList<>();
+        exporter.forEachPage(DataSetFactory.newDataSetLookupBuilder().dataset("uuid").buildLookup(),
+                             page -> rows.add(page.getRowCount()));
+        assertEquals(Arrays.asList(2), rows);
+        assertEquals(1, lookups.size());
+        assertTrue(lookups.get(0).getOperationList(DataSetSort.class).isEmpty());
+    }
+
+    @Test
+    public void pagesAreSortedByAllColumnsAfterTheLookupSort() {
+        DataSetExportServicesImpl exporter = new DataSetExportServicesImpl(dataSetManagerM,
+                                                                           exceptionManagerM);
+        DataSet page = DataSetFactory.newDataSetBuilder()
+                .number("Id")
+                .text("Name")
+                .row(1, "a")
+                .buildDataSet();
+        DataSetLookup lookup = DataSetFactory.newDataSetLookupBuilder()
+                .dataset("uuid")
+                .sort("Name", SortOrder.DESCENDING)
+                .buildLookup();
+
+        DataSetLookup sorted = exporter.sortByAllColumns(lookup, page);
+        List<DataSetSort> sortOps = sorted.getOperationList(DataSetSort.class);
+        assertEquals(1, sortOps.size());
+        List<ColumnSort> columns = sortOps.get(0).getColumnSortList();
+        assertEquals(2, columns.size());
+        assertEquals("Name", columns.get(0).getColumnId());
+        assertEquals(SortOrder.DESCENDING, columns.get(0).getOrder());
+        assertEquals("Id", columns.get(1).getColumnId());
+        assertEquals(SortOrder.ASCENDING, columns.get(1).getOrder());
+        //the lookup of the caller is left as it was
+        assertEquals(1, lookup.getOperationList(DataSetSort.class).get(0).getColumnSortList().size());
+    }
+
+    @Test
+    public void exportIsWrittenToTheLocalExportDirectory() throws Exception {
+        DataSetExportServicesImpl exporter = new DataSetExportServicesImpl(dataSetManagerM,
+                                                                           exceptionManagerM);
+        exporter.exportDir = exportDir.getRoot().toPath();
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .text("Name")
+                .row("a")
+                .buildDataSet();
+
+        org.uberfire.backend.vfs.Path exported = exporter.exportDataSetCSV(dataSet);
+        Path file = exporter.getExportFile(exported.getFileName());
+        assertNotNull(file);
+        assertEquals(Arrays.asList("\"Name\"", "\"a\""), Files.readAllLines(file));
+    }
+
+    @Test
+    public void onlyFilesOfTheExportDirectoryAreServed() {
+        DataSetExportServicesImpl exporter = new DataSetExportServicesImpl(dataSetManagerM,
+                                                                           exceptionManagerM);
+        exporter.exportDir = exportDir.getRoot().toPath();
+
+        assertNotNull(exporter.getExportFile("export.csv"));
+        assertNull(exporter.getExportFile("../export.csv"));
+        assertNull(exporter.getExportFile("dir/../../export.csv"));
+        assertNull(exporter.getExportFile(exportDir.getRoot().getParent() + "/export.csv"));
+        assertNull(exporter.getExportFile(""));
+        assertNull(exporter.getExportFile(null));
+    }
+
+    @Test
+    public void excelColumnsAreSizedFromSampledRows() {
+        DataSetExportServicesImpl exporter = new DataSetExportServicesImpl(dataSetManagerM,
+                                                                           exceptionManagerM);
+        exporter.autoSizeSampleRows = 1;
+
+        DataSet dataSet = DataSetFactory.newDataSetBuilder()
+                .text("Id")
+                .row("a sampled value")
+                .row("a much longer value that is not sampled")
+                .buildDataSet();
+
+        SXSSFWorkbook workbook = exporter.dataSetToWorkbook(dataSet);
+        SXSSFSheet sheet = workbook.getSheetAt(0);
+        assertFalse(sheet.isColumnTrackedForAutoSizing(0));
+        assertEquals(("a sampled value".length() + 2) * 256, sheet.getColumnWidth(0));
+        workbook.dispose();
+    }
 }
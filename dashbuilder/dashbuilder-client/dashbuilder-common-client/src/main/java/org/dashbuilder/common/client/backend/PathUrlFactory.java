@@ -14,6 +14,7 @@ public class PathUrlFactory {
 
     private static final String UPLOAD_SERVLET_URL = "defaulteditor/upload";
     private static final String DOWNLOAD_SERVLET_URL = "defaulteditor/download";
+    private static final String EXPORT_SERVLET_URL = "defaulteditor/export";
 
     private String getUrl(String context, String path) {
         return new StringBuilder(GWT.getModuleBaseURL())
@@ -41,6 +42,14 @@ public class PathUrlFactory {
         return getUrl(DOWNLOAD_SERVLET_URL, path);
     }
 
+    /**
+     * <p>Returns the download URL for a data set export file.</p>
+     * @param path The path of the exported file.
+     */
+    public String getExportFileUrl(final Path path) {
+        return getUrl(EXPORT_SERVLET_URL, path.getFileName());
+    }
+
     /**
      * <p>Returns the upload URL for a given file provided by a servlet method.</p>
      * @param path The path of the file.
@@ -492,6 +492,15 @@ public class DataSetClientServices {
         return pathUrlFactory.getDownloadFileUrl(path);
     }
 
+    /**
+     * <p>Returns the download URL for a file returned by a data set export.</p>
+     *
+     * @param path The path of the exported file.
+     */
+    public String getExportFileUrl(final Path path) {
+        return pathUrlFactory.getExportFileUrl(path);
+    }
+
     /**
      * <p>Returns the upload URL for a given file provided by a servlet method.</p>
      *
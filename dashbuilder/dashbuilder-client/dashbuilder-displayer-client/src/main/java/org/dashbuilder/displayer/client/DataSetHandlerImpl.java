@@ -266,7 +266,7 @@ public class DataSetHandlerImpl implements DataSetHandler {
 
                 @Override
                 public void exportReady(Path exportFilePath) {
-                    final String u = clientServices.getDownloadFileUrl(exportFilePath);
+                    final String u = clientServices.getExportFileUrl(exportFilePath);
                     callback.exportFileUrl(u);
                 }
                 @Override
@@ -105,6 +105,10 @@ public class LockClientNotifier {
 
                 final List<WatchEvent<?>> events = wk.pollEvents();
                 for (final WatchEvent<?> event : events) {
+                    // lost events have no context, the clients read the lock state again when opening a file
+                    if (event.kind().equals(StandardWatchEventKind.OVERFLOW)) {
+                        continue;
+                    }
                     final boolean created = event.kind().equals(StandardWatchEventKind.ENTRY_CREATE);
                     final boolean deleted = event.kind().equals(StandardWatchEventKind.ENTRY_DELETE);
 
@@ -29,6 +29,8 @@ import javax.enterprise.event.Event;
 import javax.inject.Inject;
 
 import org.jboss.errai.security.shared.api.identity.UserImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.util.Filter;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.commons.data.Pair;
@@ -59,6 +61,8 @@ import static org.uberfire.backend.server.util.Paths.convert;
 @AccessTimeout(value = 30, unit = java.util.concurrent.TimeUnit.SECONDS)
 public class IOWatchServiceExecutorImpl implements IOWatchServiceExecutor {
 
+    private static final Logger LOG = LoggerFactory.getLogger(IOWatchServiceExecutorImpl.class);
+
     @Inject
     private Event<ResourceBatchChangesEvent> resourceBatchChanges;
 
@@ -89,9 +93,16 @@ public class IOWatchServiceExecutorImpl implements IOWatchServiceExecutor {
     @Override
     public void execute(final WatchKey wk,
                         final Filter<WatchEvent<?>> filter) {
-        final List<WatchEvent<?>> events = wk.pollEvents();
+        final List<WatchEvent<?>> events = new ArrayList<>(wk.pollEvents());
         WatchContext firstContext = null;
 
+        if (events.removeIf(event -> event.kind().equals(StandardWatchEventKind.OVERFLOW))) {
+            // the dropped changes can't be rebuilt here, observers only get the changes that were kept
+            LOG.warn("Watch events of '{}' were dropped because the watch queue was full, " +
+                             "resource change observers missed those changes.",
+                     wk.watchable());
+        }
+
         if (events.size() > 1) {
             final Map<Path, Collection<ResourceChange>> changes = new HashMap<>();
             for (final WatchEvent event : events) {
@@ -55,6 +55,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -260,6 +261,29 @@ public class IOWatchServiceExecutorImplTest {
                              ResourceChangeType.DELETE);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testOverflowEvent() throws Exception {
+        WatchEvent<?> overflow = mock(WatchEvent.class);
+        when(overflow.kind()).thenReturn(StandardWatchEventKind.OVERFLOW);
+        List<WatchEvent<?>> events = new ArrayList<>();
+        events.add(overflow);
+
+        WatchKey watchKey = mock(WatchKey.class);
+        Filter<WatchEvent<?>> filter = mock(Filter.class);
+        when(watchKey.pollEvents()).thenReturn(events);
+
+        watchServiceExecutor.execute(watchKey,
+                                     filter);
+
+        verifyZeroInteractions(filter,
+                               resourceBatchChanges,
+                               resourceUpdatedEvent,
+                               resourceRenamedEvent,
+                               resourceDeletedEvent,
+                               resourceAddedEvent);
+    }
+
     private void verifyResourceChange(ResourceBatchChangesEvent resourceBatchChanges,
                                       String originalFile1Uri,
                                       String commitMessage,
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.commons;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uberfire.commons.regex.util.AntPathMatcher;
+
+/**
+ * Include/exclude pattern matching as done for every path that goes through the file system filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AntPathMatcherBenchmark {
+
+    private static final String[] PATTERNS = {
+            "**/*.java",
+            "**/.*",
+            "/src/main/resources/**/*.drl",
+            "default://master@*/**"
+    };
+
+    private static final String[] PATHS = {
+            "/src/main/java/org/kie/example/project/model/Applicant.java",
+            "/src/main/resources/org/kie/example/project/rules/approval.drl",
+            "/.gitkeep",
+            "default://master@myrepo/src/main/resources/META-INF/kmodule.xml"
+    };
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    @Benchmark
+    public void match(final Blackhole blackhole) {
+        for (String pattern : PATTERNS) {
+            for (String path : PATHS) {
+                blackhole.consume(matcher.match(pattern,
+                                                path));
+            }
+        }
+    }
+
+    @Benchmark
+    public void isPattern(final Blackhole blackhole) {
+        for (String path : PATHS) {
+            blackhole.consume(matcher.isPattern(path));
+        }
+    }
+}
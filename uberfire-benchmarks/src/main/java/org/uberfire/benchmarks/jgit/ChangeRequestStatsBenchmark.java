@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.benchmarks.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.guvnor.structure.backend.repositories.ChangeRequestMergeStats;
+import org.guvnor.structure.backend.repositories.ChangeRequestStatsCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.uberfire.java.nio.base.TextualDiff;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProvider;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.path;
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.write;
+
+/**
+ * Merge base, conflict check and textual diff of every open change request of a repository, which is what listing
+ * and opening change requests costs. Every tenth change request touches a file that master changed after the fork, so
+ * its merge has conflicts. {@code uncached} merges on every call, {@code memory} and {@code disk} answer from the
+ * change request stats cache, the latter from a cache that was just reopened over a filled directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChangeRequestStatsBenchmark {
+
+    private static final String REPOSITORY = "change-request-bench";
+    private static final String TARGET = "master";
+    private static final int FILES = 200;
+    private static final int COMMITS_PER_CHANGE_REQUEST = 3;
+
+    @Param({"100", "400"})
+    public int changeRequests;
+
+    @Param({"uncached", "memory", "disk"})
+    public String cache;
+
+    private File gitDir;
+    private File cacheDir;
+    private JGitFileSystemProvider provider;
+    private Git git;
+    private RevCommit targetCommit;
+    private String[] sourceBranches;
+    private RevCommit[] sourceCommits;
+    private ChangeRequestStatsCache statsCache;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gitDir = JGitBenchmarkSupport.createTempDirectory("change-request-bench");
+        cacheDir = new File(gitDir,
+                            ".changerequest-stats");
+        provider = JGitBenchmarkSupport.newProvider(gitDir);
+        JGitBenchmarkSupport.newRepository(provider,
+                                           REPOSITORY);
+
+        final Random random = new Random(JGitBenchmarkSupport.SEED);
+        JGitBenchmarkSupport.batch(provider,
+                                   root(TARGET),
+                                   () -> {
+                                       for (int i = 0; i < FILES; i++) {
+                                           write(provider,
+                                                 file(TARGET,
+                                                      i),
+                                                 JGitBenchmarkSupport.content(random,
+                                                                              1024));
+                                       }
+                                   });
+
+        sourceBranches = new String[changeRequests];
+        for (int i = 0; i < changeRequests; i++) {
+            sourceBranches[i] = "cr-" + i;
+            provider.copy(root(TARGET),
+                          root(sourceBranches[i]));
+            for (int commit = 0; commit < COMMITS_PER_CHANGE_REQUEST; commit++) {
+                final int changed = i % 10 == 0 ? 0 : 1 + random.nextInt(FILES - 1);
+                write(provider,
+                      file(sourceBranches[i],
+                           changed),
+                      ("change request " + i + " commit " + commit).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        write(provider,
+              file(TARGET,
+                   0),
+              "master moved on".getBytes(StandardCharsets.UTF_8));
+
+        git = ((JGitFileSystem) provider.getFileSystem(URI.create("git://" + REPOSITORY))).getGit();
+        targetCommit = git.getLastCommit(TARGET);
+        sourceCommits = new RevCommit[changeRequests];
+        for (int i = 0; i < changeRequests; i++) {
+            sourceCommits[i] = git.getLastCommit(sourceBranches[i]);
+        }
+
+        if (!"uncached".equals(cache)) {
+            final ChangeRequestStatsCache filled = new ChangeRequestStatsCache(Runnable::run,
+                                                                               "disk".equals(cache) ? cacheDir : null,
+                                                                               changeRequests * 2);
+            statsOfAllChangeRequests(filled);
+            statsCache = "disk".equals(cache) ? null : filled;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        provider.shutdown();
+        JGitBenchmarkSupport.deleteDirectory(gitDir);
+    }
+
+    @Benchmark
+    public int statsOfOpenChangeRequests() {
+        switch (cache) {
+            case "uncached":
+                return statsOfAllChangeRequests(null);
+            case "disk":
+                // a fresh instance has nothing in memory, so every lookup is read from the cache directory
+                statsCache = new ChangeRequestStatsCache(Runnable::run,
+                                                         cacheDir,
+                                                         changeRequests * 2);
+                return statsOfAllChangeRequests(statsCache);
+            default:
+                return statsOfAllChangeRequests(statsCache);
+        }
+    }
+
+    private int statsOfAllChangeRequests(final ChangeRequestStatsCache stats) {
+        int result = 0;
+        for (int i = 0; i < changeRequests; i++) {
+            final RevCommit sourceCommit = sourceCommits[i];
+            final String sourceBranch = sourceBranches[i];
+
+            final ChangeRequestMergeStats mergeStats = stats == null ?
+                    merge(sourceCommit) :
+                    stats.getMergeStats(targetCommit.getName(),
+                                        sourceCommit.getName(),
+                                        () -> merge(sourceCommit));
+
+            final List<TextualDiff> diffs = stats == null ?
+                    diff(sourceBranch,
+                         mergeStats.getMergeBaseId(),
+                         sourceCommit) :
+                    stats.getTextualDiffs(mergeStats.getMergeBaseId(),
+                                          sourceCommit.getName(),
+                                          () -> diff(sourceBranch,
+                                                     mergeStats.getMergeBaseId(),
+                                                     sourceCommit));
+
+            result += mergeStats.getConflicts().size() + diffs.size();
+        }
+        return result;
+    }
+
+    private ChangeRequestMergeStats merge(final RevCommit sourceCommit) {
+        final RevCommit mergeBase = git.getCommonAncestorCommit(targetCommit,
+                                                                sourceCommit);
+        return new ChangeRequestMergeStats(mergeBase != null ? mergeBase.getName() : null,
+                                           git.conflictCommitsChecker(targetCommit,
+                                                                      sourceCommit));
+    }
+
+    private List<TextualDiff> diff(final String sourceBranch,
+                                   final String mergeBaseId,
+                                   final RevCommit sourceCommit) {
+        return git.textualDiffRefs(TARGET,
+                                   sourceBranch,
+                                   mergeBaseId,
+                                   sourceCommit.getName());
+    }
+
+    private Path root(final String branch) {
+        return path(provider,
+                    branch,
+                    REPOSITORY,
+                    "/");
+    }
+
+    private Path file(final String branch,
+                      final int index) {
+        return path(provider,
+                    branch,
+                    REPOSITORY,
+                    "/files/file" + index + ".txt");
+    }
+}
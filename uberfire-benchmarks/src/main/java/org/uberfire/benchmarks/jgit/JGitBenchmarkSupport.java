@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.uberfire.commons.cluster.ClusterParameters;
+import org.uberfire.commons.cluster.ConnectionMode;
+import org.uberfire.java.nio.base.FileSystemState;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProvider;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProviderConfiguration;
+
+/**
+ * Creates standalone git file system providers and fills them with synthetic, reproducible content.
+ */
+final class JGitBenchmarkSupport {
+
+    static final long SEED = 42L;
+
+    private JGitBenchmarkSupport() {
+    }
+
+    static File createTempDirectory(final String prefix) throws IOException {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    static void deleteDirectory(final File dir) throws IOException {
+        if (dir == null || !dir.exists()) {
+            return;
+        }
+        try (Stream<java.nio.file.Path> paths = Files.walk(dir.toPath())) {
+            paths.sorted(Comparator.reverseOrder())
+                    .map(java.nio.file.Path::toFile)
+                    .forEach(File::delete);
+        }
+    }
+
+    /**
+     * A provider storing its repositories in the given directory, without daemons nor clustering.
+     */
+    static JGitFileSystemProvider newProvider(final File gitDir) {
+        System.setProperty(ClusterParameters.APPFORMER_JMS_CONNECTION_MODE,
+                           ConnectionMode.NONE.toString());
+        final Map<String, String> gitPrefs = new HashMap<>();
+        gitPrefs.put(JGitFileSystemProviderConfiguration.GIT_NIO_DIR,
+                     gitDir.getAbsolutePath());
+        gitPrefs.put(JGitFileSystemProviderConfiguration.GIT_DAEMON_ENABLED,
+                     "false");
+        gitPrefs.put(JGitFileSystemProviderConfiguration.GIT_SSH_ENABLED,
+                     "false");
+        return new JGitFileSystemProvider(gitPrefs);
+    }
+
+    static void newRepository(final JGitFileSystemProvider provider,
+                              final String name) {
+        final Map<String, Object> env = new HashMap<>();
+        env.put(JGitFileSystemProviderConfiguration.GIT_ENV_KEY_INIT,
+                "true");
+        provider.newFileSystem(URI.create("git://" + name),
+                               env);
+    }
+
+    static Path path(final JGitFileSystemProvider provider,
+                     final String branch,
+                     final String repository,
+                     final String path) {
+        return provider.getPath(URI.create("git://" + branch + "@" + repository + path));
+    }
+
+    static void write(final JGitFileSystemProvider provider,
+                      final Path path,
+                      final byte[] content) throws IOException {
+        try (OutputStream out = provider.newOutputStream(path)) {
+            out.write(content);
+        }
+    }
+
+    static byte[] content(final Random random,
+                          final int size) {
+        final byte[] content = new byte[size];
+        // printable content, so it compresses like source files rather than like noise
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) ('a' + random.nextInt(26));
+        }
+        return content;
+    }
+
+    /**
+     * Runs the given writes as a single commit.
+     */
+    static void batch(final JGitFileSystemProvider provider,
+                      final Path anyPath,
+                      final IORunnable writes) throws IOException {
+        provider.setAttribute(anyPath,
+                              FileSystemState.FILE_SYSTEM_STATE_ATTR,
+                              FileSystemState.BATCH);
+        try {
+            writes.run();
+        } finally {
+            provider.setAttribute(anyPath,
+                                  FileSystemState.FILE_SYSTEM_STATE_ATTR,
+                                  FileSystemState.NORMAL);
+        }
+    }
+
+    /**
+     * Fills the branch with a directory chain of the given depth, each directory holding {@code filesPerDir} files,
+     * all in a single commit. Returns the path of the deepest directory.
+     */
+    static String populateTree(final JGitFileSystemProvider provider,
+                               final String repository,
+                               final String branch,
+                               final int depth,
+                               final int filesPerDir,
+                               final int fileSize) throws IOException {
+        final Random random = new Random(SEED);
+        final StringBuilder dir = new StringBuilder();
+        final String[] dirs = new String[depth];
+        for (int level = 0; level < depth; level++) {
+            dir.append("/dir").append(level);
+            dirs[level] = dir.toString();
+        }
+        batch(provider,
+              path(provider,
+                   branch,
+                   repository,
+                   "/"),
+              () -> {
+                  for (String current : dirs) {
+                      for (int file = 0; file < filesPerDir; file++) {
+                          write(provider,
+                                path(provider,
+                                     branch,
+                                     repository,
+                                     current + "/file" + file + ".txt"),
+                                content(random,
+                                        fileSize));
+                      }
+                  }
+              });
+        return depth == 0 ? "/" : dirs[depth - 1];
+    }
+
+    @FunctionalInterface
+    interface IORunnable {
+
+        void run() throws IOException;
+    }
+}
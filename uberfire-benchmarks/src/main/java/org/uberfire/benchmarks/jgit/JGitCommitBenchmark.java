@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProvider;
+
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.batch;
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.content;
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.path;
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.write;
+
+/**
+ * Latency of committing through {@link JGitFileSystemProvider#newOutputStream}: one file per commit, and a batch of
+ * small files in a single commit, on a repository that already holds {@code existingFiles} files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JGitCommitBenchmark {
+
+    private static final String REPOSITORY = "commit-bench";
+    private static final int ROTATING_FILES = 64;
+
+    @Param({"100", "10000"})
+    public int existingFiles;
+
+    @Param({"1024"})
+    public int fileSize;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private File gitDir;
+    private JGitFileSystemProvider provider;
+    private Path[] singlePaths;
+    private Path[] batchPaths;
+    private byte[][] contents;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gitDir = JGitBenchmarkSupport.createTempDirectory("commit-bench");
+        provider = JGitBenchmarkSupport.newProvider(gitDir);
+        JGitBenchmarkSupport.newRepository(provider,
+                                           REPOSITORY);
+        // a flat tree of existingFiles files spread over 100 directories
+        final Random random = new Random(JGitBenchmarkSupport.SEED);
+        batch(provider,
+              path(provider,
+                   "master",
+                   REPOSITORY,
+                   "/"),
+              () -> {
+                  for (int i = 0; i < existingFiles; i++) {
+                      write(provider,
+                            path(provider,
+                                 "master",
+                                 REPOSITORY,
+                                 "/existing" + (i % 100) + "/file" + i + ".txt"),
+                            content(random,
+                                    fileSize));
+                  }
+              });
+
+        singlePaths = new Path[ROTATING_FILES];
+        for (int i = 0; i < ROTATING_FILES; i++) {
+            singlePaths[i] = path(provider,
+                                  "master",
+                                  REPOSITORY,
+                                  "/single/file" + i + ".txt");
+        }
+        batchPaths = new Path[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            batchPaths[i] = path(provider,
+                                 "master",
+                                 REPOSITORY,
+                                 "/batch/file" + i + ".txt");
+        }
+        // distinct contents, so every commit really changes the tree
+        contents = new byte[ROTATING_FILES][];
+        for (int i = 0; i < ROTATING_FILES; i++) {
+            contents[i] = content(random,
+                                  fileSize);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        provider.shutdown();
+        JGitBenchmarkSupport.deleteDirectory(gitDir);
+    }
+
+    @Benchmark
+    public void singleFileCommit() throws IOException {
+        final int i = counter++;
+        write(provider,
+              singlePaths[i % ROTATING_FILES],
+              contents[(i / ROTATING_FILES + i) % ROTATING_FILES]);
+    }
+
+    @Benchmark
+    public void batchCommit() throws IOException {
+        final int round = counter++;
+        batch(provider,
+              batchPaths[0],
+              () -> {
+                  for (int i = 0; i < batchPaths.length; i++) {
+                      write(provider,
+                            batchPaths[i],
+                            contents[(round + i) % ROTATING_FILES]);
+                  }
+              });
+    }
+}
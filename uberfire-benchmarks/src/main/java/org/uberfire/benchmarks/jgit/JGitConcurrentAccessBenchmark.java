@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProvider;
+
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.path;
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.write;
+
+/**
+ * Readers of master running next to writers that commit on {@code writerBranches} branches. The number of readers
+ * and writers is changed with {@code -tg <readers>,<writers>}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JGitConcurrentAccessBenchmark {
+
+    private static final String REPOSITORY = "concurrent-bench";
+    private static final int FILES = 200;
+    private static final int WRITTEN_FILES = 32;
+
+    @Param({"1", "4"})
+    public int writerBranches;
+
+    private File gitDir;
+    private JGitFileSystemProvider provider;
+    private Path[] masterFiles;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gitDir = JGitBenchmarkSupport.createTempDirectory("concurrent-bench");
+        provider = JGitBenchmarkSupport.newProvider(gitDir);
+        JGitBenchmarkSupport.newRepository(provider,
+                                           REPOSITORY);
+        final Random random = new Random(JGitBenchmarkSupport.SEED);
+        masterFiles = new Path[FILES];
+        for (int i = 0; i < FILES; i++) {
+            masterFiles[i] = path(provider,
+                                  "master",
+                                  REPOSITORY,
+                                  "/files/file" + i + ".txt");
+        }
+        JGitBenchmarkSupport.batch(provider,
+                                   masterFiles[0],
+                                   () -> {
+                                       for (Path file : masterFiles) {
+                                           write(provider,
+                                                 file,
+                                                 JGitBenchmarkSupport.content(random,
+                                                                              1024));
+                                       }
+                                   });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        provider.shutdown();
+        JGitBenchmarkSupport.deleteDirectory(gitDir);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(4)
+    public byte[] readMaster(final ThreadState thread) {
+        return Files.readAllBytes(masterFiles[thread.random.nextInt(FILES)]);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void commitOnBranch(final ThreadState thread) throws IOException {
+        final int i = thread.counter++;
+        write(provider,
+              thread.writePaths[i % WRITTEN_FILES],
+              ("thread " + thread.index + " write " + i).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        Random random;
+        Path[] writePaths;
+        int index;
+        int counter;
+
+        @Setup(Level.Trial)
+        public void setup(final JGitConcurrentAccessBenchmark benchmark,
+                          final ThreadParams params) {
+            index = params.getGroupThreadIndex();
+            random = new Random(JGitBenchmarkSupport.SEED + params.getThreadIndex());
+            final String branch = "writer" + (index % benchmark.writerBranches);
+            writePaths = new Path[WRITTEN_FILES];
+            for (int i = 0; i < WRITTEN_FILES; i++) {
+                writePaths[i] = path(benchmark.provider,
+                                     branch,
+                                     REPOSITORY,
+                                     "/writes/thread" + index + "/file" + i + ".txt");
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProvider;
+
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.content;
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.path;
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.write;
+
+/**
+ * Reading a single blob, streamed or fully loaded. Run with {@code -prof gc} to see the allocated bytes per read,
+ * and with {@code -p blobSizeMb=200} for the large blob case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class JGitReadBenchmark {
+
+    private static final String REPOSITORY = "read-bench";
+
+    @Param({"1", "16"})
+    public int blobSizeMb;
+
+    private File gitDir;
+    private JGitFileSystemProvider provider;
+    private Path blob;
+    private final byte[] buffer = new byte[64 * 1024];
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gitDir = JGitBenchmarkSupport.createTempDirectory("read-bench");
+        provider = JGitBenchmarkSupport.newProvider(gitDir);
+        JGitBenchmarkSupport.newRepository(provider,
+                                           REPOSITORY);
+        blob = path(provider,
+                    "master",
+                    REPOSITORY,
+                    "/blobs/blob.bin");
+        write(provider,
+              blob,
+              content(new Random(JGitBenchmarkSupport.SEED),
+                      blobSizeMb * 1024 * 1024));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        provider.shutdown();
+        JGitBenchmarkSupport.deleteDirectory(gitDir);
+    }
+
+    @Benchmark
+    public long streamRead() throws IOException {
+        long total = 0;
+        try (InputStream in = provider.newInputStream(blob)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public void readAllBytes(final Blackhole blackhole) {
+        blackhole.consume(Files.readAllBytes(blob));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.file.Files;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProvider;
+import org.uberfire.java.nio.fs.jgit.JGitVersionAttributeView;
+
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.path;
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.write;
+
+/**
+ * Directory listing, existence checks and history queries on a deep synthetic repository whose tracked file has
+ * {@code historySize} commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JGitTreeBenchmark {
+
+    private static final String REPOSITORY = "tree-bench";
+
+    @Param({"10"})
+    public int depth;
+
+    @Param({"50"})
+    public int filesPerDir;
+
+    @Param({"100", "1000"})
+    public int historySize;
+
+    private File gitDir;
+    private JGitFileSystemProvider provider;
+    private Path deepestDir;
+    private Path deepFile;
+    private Path missingFile;
+    private Path trackedFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gitDir = JGitBenchmarkSupport.createTempDirectory("tree-bench");
+        provider = JGitBenchmarkSupport.newProvider(gitDir);
+        JGitBenchmarkSupport.newRepository(provider,
+                                           REPOSITORY);
+        final String deepest = JGitBenchmarkSupport.populateTree(provider,
+                                                                 REPOSITORY,
+                                                                 "master",
+                                                                 depth,
+                                                                 filesPerDir,
+                                                                 256);
+        deepestDir = path(provider,
+                          "master",
+                          REPOSITORY,
+                          deepest);
+        deepFile = path(provider,
+                        "master",
+                        REPOSITORY,
+                        deepest + "/file0.txt");
+        missingFile = path(provider,
+                           "master",
+                           REPOSITORY,
+                           deepest + "/missing.txt");
+        trackedFile = path(provider,
+                           "master",
+                           REPOSITORY,
+                           "/tracked.txt");
+        for (int i = 0; i < historySize; i++) {
+            write(provider,
+                  trackedFile,
+                  ("version " + i).getBytes());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        provider.shutdown();
+        JGitBenchmarkSupport.deleteDirectory(gitDir);
+    }
+
+    @Benchmark
+    public int listDeepestDirectory() throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> stream = provider.newDirectoryStream(deepestDir,
+                                                                        null)) {
+            for (Path ignored : stream) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void exists(final Blackhole blackhole) {
+        blackhole.consume(Files.exists(deepFile));
+        blackhole.consume(Files.exists(missingFile));
+    }
+
+    @Benchmark
+    public int history() {
+        return provider.getFileAttributeView(trackedFile,
+                                             JGitVersionAttributeView.class)
+                .readAttributes()
+                .history()
+                .records()
+                .size();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProvider;
+import org.uberfire.java.nio.fs.jgit.ws.JGitFileSystemsEventsManager;
+import org.uberfire.java.nio.fs.jgit.ws.JGitWatchEvent;
+import org.uberfire.java.nio.fs.jgit.ws.cluster.WatchEventsCodec;
+import org.uberfire.java.nio.fs.jgit.ws.cluster.WatchEventsWrapper;
+
+import static org.uberfire.benchmarks.jgit.JGitBenchmarkSupport.path;
+
+/**
+ * Delivery of commit events to {@code watchers} watch services of a file system, and their encoding for the cluster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WatchEventsFanOutBenchmark {
+
+    private static final String REPOSITORY = "watch-bench";
+
+    @Param({"1", "16"})
+    public int watchers;
+
+    @Param({"1", "100"})
+    public int eventsPerCommit;
+
+    private File gitDir;
+    private JGitFileSystemProvider provider;
+    private JGitFileSystemsEventsManager eventsManager;
+    private List<WatchService> watchServices;
+    private Path root;
+    private List<WatchEvent<?>> events;
+    private List<WatchEventsWrapper> wrappers;
+    private final WatchEventsCodec codec = new WatchEventsCodec();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        gitDir = JGitBenchmarkSupport.createTempDirectory("watch-bench");
+        provider = JGitBenchmarkSupport.newProvider(gitDir);
+        JGitBenchmarkSupport.newRepository(provider,
+                                           REPOSITORY);
+        root = path(provider,
+                    "master",
+                    REPOSITORY,
+                    "/");
+
+        eventsManager = new JGitFileSystemsEventsManager();
+        watchServices = new ArrayList<>();
+        for (int i = 0; i < watchers; i++) {
+            watchServices.add(eventsManager.newWatchService(REPOSITORY));
+        }
+
+        events = new ArrayList<>();
+        for (int i = 0; i < eventsPerCommit; i++) {
+            events.add(new JGitWatchEvent("session",
+                                          "user",
+                                          "commit message",
+                                          "ADD",
+                                          null,
+                                          path(provider,
+                                               "master",
+                                               REPOSITORY,
+                                               "/dir" + (i % 10) + "/file" + i + ".txt")));
+        }
+        events = Collections.unmodifiableList(events);
+        wrappers = Collections.singletonList(new WatchEventsWrapper("node",
+                                                                    REPOSITORY,
+                                                                    root,
+                                                                    events));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        eventsManager.shutdown();
+        provider.shutdown();
+        JGitBenchmarkSupport.deleteDirectory(gitDir);
+    }
+
+    @Benchmark
+    public void publishAndDrain(final Blackhole blackhole) {
+        eventsManager.publishEvents(REPOSITORY,
+                                    root,
+                                    events,
+                                    false);
+        for (WatchService watchService : watchServices) {
+            final WatchKey key = watchService.poll();
+            if (key != null) {
+                blackhole.consume(key.pollEvents());
+                key.reset();
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeForCluster() throws IOException {
+        return codec.encode(wrappers);
+    }
+}
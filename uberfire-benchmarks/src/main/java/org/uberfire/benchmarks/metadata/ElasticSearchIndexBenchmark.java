@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.metadata;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.backend.elastic.index.ElasticSearchBulkIndexer;
+import org.uberfire.ext.metadata.io.MetadataConfigBuilder;
+
+/**
+ * Indexing throughput of the elasticsearch backend: {@code documents} documents are sent through the bulk processor
+ * in a single batch, with and without the refresh barrier at the end of the batch. Needs a running elasticsearch
+ * node, configured through the usual {@code org.appformer.ext.metadata.elastic.*} system properties.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ElasticSearchIndexBenchmark {
+
+    @Param({"10000"})
+    public int documents;
+
+    @Param({"500", "5000"})
+    public int bulkActions;
+
+    @Param({"true", "false"})
+    public boolean consistent;
+
+    private MetadataConfig config;
+    private String clusterId;
+    private int iteration;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        System.setProperty(ElasticSearchBulkIndexer.BULK_ACTIONS,
+                           String.valueOf(bulkActions));
+        System.setProperty(ElasticSearchBulkIndexer.BULK_CONSISTENT,
+                           String.valueOf(consistent));
+        config = new MetadataConfigBuilder("elastic")
+                .withInMemoryMetaModelStore()
+                .build();
+        clusterId = "es-index-bench-" + iteration++;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        config.getIndexEngine().delete(MetadataBenchmarkSupport.cluster(clusterId));
+        config.dispose();
+    }
+
+    @Benchmark
+    public void bulkIndex() {
+        MetadataBenchmarkSupport.populate(config.getIndexEngine(),
+                                          clusterId,
+                                          documents);
+    }
+}
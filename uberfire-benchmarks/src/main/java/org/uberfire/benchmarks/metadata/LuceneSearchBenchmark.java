@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.metadata;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.search.ClusterSegment;
+import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.SearchIndex;
+import org.uberfire.ext.metadata.search.SearchPage;
+
+/**
+ * Attribute and full text queries over an index of {@code documents} documents, each attribute value matching a
+ * tenth of them. Run with {@code -p documents=100000} for a quicker, smaller index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LuceneSearchBenchmark {
+
+    private static final String CLUSTER = "search-bench";
+    private static final int PAGE_SIZE = 10;
+    private static final IOSearchService.Filter NO_FILTER = new IOSearchService.NoOpFilter();
+
+    @Param({"1000000"})
+    public int documents;
+
+    private MetadataConfig config;
+    private SearchIndex searchIndex;
+    private ClusterSegment clusterSegment;
+    private Map<String, String> attrs;
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = MetadataBenchmarkSupport.newLuceneConfig();
+        MetadataBenchmarkSupport.populate(config.getIndexEngine(),
+                                          CLUSTER,
+                                          documents);
+        searchIndex = config.getSearchIndex();
+        clusterSegment = MetadataBenchmarkSupport.clusterSegment(CLUSTER);
+        attrs = Collections.singletonMap("category",
+                                         "c3");
+        secondPageCursor = firstPage().getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        config.dispose();
+    }
+
+    @Benchmark
+    public SearchPage<KObject> firstPage() {
+        return searchIndex.searchByAttrs(attrs,
+                                         NO_FILTER,
+                                         PageRequest.of(0,
+                                                        PAGE_SIZE),
+                                         clusterSegment);
+    }
+
+    @Benchmark
+    public SearchPage<KObject> nextPage() {
+        return searchIndex.searchByAttrs(attrs,
+                                         NO_FILTER,
+                                         PageRequest.after(secondPageCursor,
+                                                           PAGE_SIZE),
+                                         clusterSegment);
+    }
+
+    @Benchmark
+    public SearchPage<KObject> deepOffsetPage() {
+        return searchIndex.searchByAttrs(attrs,
+                                         NO_FILTER,
+                                         PageRequest.of(documents / MetadataBenchmarkSupport.CATEGORIES - PAGE_SIZE,
+                                                        PAGE_SIZE),
+                                         clusterSegment);
+    }
+
+    @Benchmark
+    public int hits() {
+        return searchIndex.searchByAttrsHits(attrs,
+                                             clusterSegment);
+    }
+
+    @Benchmark
+    public SearchPage<KObject> fullText() {
+        return searchIndex.fullTextSearch("decision",
+                                          NO_FILTER,
+                                          PageRequest.of(0,
+                                                         PAGE_SIZE),
+                                          clusterSegment);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.io.MetadataConfigBuilder;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.KProperty;
+import org.uberfire.ext.metadata.model.impl.KObjectImpl;
+import org.uberfire.ext.metadata.model.impl.KPropertyImpl;
+import org.uberfire.ext.metadata.search.ClusterSegment;
+
+/**
+ * Builds in memory lucene indexes filled with synthetic documents, always generated from the same seed so results
+ * are comparable between runs.
+ */
+final class MetadataBenchmarkSupport {
+
+    static final long SEED = 42L;
+    static final String TYPE = "bench";
+    static final String SEGMENT = "master";
+    static final int CATEGORIES = 10;
+
+    private static final String[] WORDS = {"rule", "process", "decision", "table", "model", "form", "case", "task", "data", "object"};
+
+    private MetadataBenchmarkSupport() {
+    }
+
+    static MetadataConfig newLuceneConfig() {
+        return new MetadataConfigBuilder("lucene")
+                .withInMemoryMetaModelStore()
+                .useInMemoryDirectory()
+                .build();
+    }
+
+    static KCluster cluster(final String clusterId) {
+        return new KClusterImpl(clusterId);
+    }
+
+    static ClusterSegment clusterSegment(final String clusterId) {
+        return new ClusterSegment() {
+            @Override
+            public String getClusterId() {
+                return clusterId;
+            }
+
+            @Override
+            public String[] segmentIds() {
+                return new String[]{SEGMENT};
+            }
+        };
+    }
+
+    static KObject document(final Random random,
+                            final String clusterId,
+                            final int i) {
+        final String key = "/src/main/resources/org/bench/p" + (i % 100) + "/asset" + i + ".txt";
+        final List<KProperty<?>> properties = new ArrayList<>();
+        properties.add(new KPropertyImpl<>("category",
+                                           "c" + (i % CATEGORIES),
+                                           true));
+        properties.add(new KPropertyImpl<>("name",
+                                           "asset" + i,
+                                           true));
+        properties.add(new KPropertyImpl<>("description",
+                                           text(random,
+                                                20),
+                                           true));
+        return new KObjectImpl(clusterId + "|" + key,
+                               TYPE,
+                               clusterId,
+                               SEGMENT,
+                               key,
+                               properties,
+                               true);
+    }
+
+    static String text(final Random random,
+                       final int words) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Indexes {@code documents} synthetic documents on the cluster in a single batch.
+     */
+    static void populate(final MetaIndexEngine indexEngine,
+                         final String clusterId,
+                         final int documents) {
+        final Random random = new Random(SEED);
+        final KCluster cluster = cluster(clusterId);
+        indexEngine.startBatch(cluster);
+        for (int i = 0; i < documents; i++) {
+            indexEngine.index(document(random,
+                                       clusterId,
+                                       i));
+        }
+        indexEngine.commit(cluster,
+                           "benchmark");
+    }
+}
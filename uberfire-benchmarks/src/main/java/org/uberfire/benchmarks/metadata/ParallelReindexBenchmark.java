@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.metadata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.uberfire.commons.async.DescriptiveThreadFactory;
+import org.uberfire.ext.metadata.MetadataConfig;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.io.util.PartitionedWork;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.KProperty;
+import org.uberfire.ext.metadata.model.impl.KObjectImpl;
+import org.uberfire.ext.metadata.model.impl.KPropertyImpl;
+
+/**
+ * Full reindex of a cluster as an indexer job does it: documents are built by {@code workers} threads a window at a
+ * time, and handed in order to the batch of the index engine. Building a document generates and analyzes its content,
+ * standing for the file read and the indexer work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ParallelReindexBenchmark {
+
+    private static final int EVENTS_BY_WORKER = 64;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    @Param({"20000"})
+    public int documents;
+
+    @Param({"2000"})
+    public int wordsByDocument;
+
+    private MetadataConfig config;
+    private ExecutorService executor;
+    private int iteration;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        config = MetadataBenchmarkSupport.newLuceneConfig();
+        executor = Executors.newCachedThreadPool(new DescriptiveThreadFactory());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executor.shutdownNow();
+        config.dispose();
+    }
+
+    @Benchmark
+    public void reindex() {
+        final MetaIndexEngine indexEngine = config.getIndexEngine();
+        final String clusterId = "reindex-bench-" + iteration++;
+        final KCluster cluster = MetadataBenchmarkSupport.cluster(clusterId);
+        final int windowSize = workers * EVENTS_BY_WORKER;
+
+        indexEngine.startBatch(cluster);
+        final List<Integer> window = new ArrayList<>(windowSize);
+        for (int i = 0; i < documents; i++) {
+            window.add(i);
+            if (window.size() == windowSize || i == documents - 1) {
+                PartitionedWork.map(window,
+                                    doc -> build(clusterId,
+                                                 doc),
+                                    executor,
+                                    workers)
+                        .forEach(indexEngine::index);
+                window.clear();
+            }
+        }
+        indexEngine.commit(cluster,
+                           "benchmark");
+    }
+
+    private KObject build(final String clusterId,
+                          final int i) {
+        final Random random = new Random(MetadataBenchmarkSupport.SEED + i);
+        final String content = MetadataBenchmarkSupport.text(random,
+                                                             wordsByDocument);
+        final Map<String, Integer> occurrences = new HashMap<>();
+        for (final String word : content.split(" ")) {
+            occurrences.merge(word,
+                              1,
+                              Integer::sum);
+        }
+
+        final String key = "/src/main/resources/org/bench/p" + (i % 100) + "/asset" + i + ".txt";
+        final List<KProperty<?>> properties = new ArrayList<>();
+        properties.add(new KPropertyImpl<>("name",
+                                           "asset" + i,
+                                           true));
+        properties.add(new KPropertyImpl<>("description",
+                                           content,
+                                           true));
+        occurrences.forEach((word, count) -> properties.add(new KPropertyImpl<>("count." + word,
+                                                                                count.toString(),
+                                                                                true)));
+        return new KObjectImpl(clusterId + "|" + key,
+                               MetadataBenchmarkSupport.TYPE,
+                               clusterId,
+                               MetadataBenchmarkSupport.SEGMENT,
+                               key,
+                               properties,
+                               true);
+    }
+}
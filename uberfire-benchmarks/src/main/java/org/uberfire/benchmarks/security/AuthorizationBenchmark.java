@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.benchmarks.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.errai.security.shared.api.GroupImpl;
+import org.jboss.errai.security.shared.api.Role;
+import org.jboss.errai.security.shared.api.RoleImpl;
+import org.jboss.errai.security.shared.api.identity.User;
+import org.jboss.errai.security.shared.api.identity.UserImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.uberfire.security.authz.AuthorizationPolicy;
+import org.uberfire.security.authz.AuthorizationResult;
+import org.uberfire.security.authz.Permission;
+import org.uberfire.security.impl.authz.AuthorizationPolicyBuilder;
+import org.uberfire.security.impl.authz.DefaultAuthorizationManager;
+import org.uberfire.security.impl.authz.DefaultAuthzResultCache;
+import org.uberfire.security.impl.authz.DefaultPermissionManager;
+import org.uberfire.security.impl.authz.DefaultPermissionTypeRegistry;
+
+/**
+ * Permission checks for a population of users against a policy with {@code roles} roles and {@code permissions}
+ * permissions per role, with and without the authorization result cache. {@link #authorizeContended} runs the same
+ * checks from several threads at once to measure contention on the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int USERS = 200;
+    private static final int ROLES_PER_USER = 3;
+    private static final int CHECKS = 4096;
+
+    @Param({"4", "32"})
+    public int roles;
+
+    @Param({"100", "1000"})
+    public int permissions;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private DefaultAuthorizationManager authorizationManager;
+    private User[] users;
+    private String[] checks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final DefaultAuthzResultCache cache = cached ? new DefaultAuthzResultCache() : new UncachedResults();
+        final DefaultPermissionManager permissionManager = new DefaultPermissionManager(new DefaultPermissionTypeRegistry(),
+                                                                                        cache);
+        permissionManager.setAuthorizationPolicy(policy(permissionManager));
+        authorizationManager = new DefaultAuthorizationManager(permissionManager);
+
+        final Random random = new Random(SEED);
+        users = new User[USERS];
+        for (int i = 0; i < USERS; i++) {
+            final List<Role> userRoles = new ArrayList<>();
+            for (int r = 0; r < ROLES_PER_USER; r++) {
+                userRoles.add(new RoleImpl("role" + random.nextInt(roles)));
+            }
+            users[i] = new UserImpl("user" + i,
+                                    userRoles,
+                                    new ArrayList<GroupImpl>());
+        }
+        checks = new String[CHECKS];
+        for (int i = 0; i < CHECKS; i++) {
+            checks[i] = "resource.read." + random.nextInt(permissions);
+        }
+    }
+
+    private AuthorizationPolicy policy(final DefaultPermissionManager permissionManager) {
+        final AuthorizationPolicyBuilder builder = permissionManager.newAuthorizationPolicy();
+        for (int r = 0; r < roles; r++) {
+            builder.role("role" + r,
+                         r);
+            for (int p = 0; p < permissions; p++) {
+                builder.permission("resource.read." + p,
+                                   (p + r) % 3 != 0);
+            }
+        }
+        return builder.build();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private static final AtomicLong THREADS = new AtomicLong();
+
+        // each thread draws its own sequence, so concurrent threads do not check the same pairs in lockstep
+        private final Random random = new Random(SEED + THREADS.getAndIncrement());
+
+        int next(final int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Benchmark
+    public boolean authorize(final ThreadState state) {
+        return authorizationManager.authorize(checks[state.next(CHECKS)],
+                                              users[state.next(USERS)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean authorizeContended(final ThreadState state) {
+        return authorize(state);
+    }
+
+    /**
+     * Never returns a cached result, so every check resolves the permission against the policy.
+     */
+    private static class UncachedResults extends DefaultAuthzResultCache {
+
+        @Override
+        public AuthorizationResult get(final User user,
+                                       final Permission permission) {
+            return null;
+        }
+    }
+}
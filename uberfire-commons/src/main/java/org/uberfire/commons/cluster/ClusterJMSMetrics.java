@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.commons.cluster;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected by {@link ClusterJMSService} for the messages it sends.
+ */
+public class ClusterJMSMetrics {
+
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+    private final AtomicLong totalSendNanos = new AtomicLong();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+
+    void onSent(final long bytes,
+                final long sendNanos) {
+        messagesSent.incrementAndGet();
+        bytesSent.addAndGet(bytes);
+        totalSendNanos.addAndGet(sendNanos);
+        maxSendNanos.accumulateAndGet(sendNanos,
+                                      Math::max);
+    }
+
+    void onFailed() {
+        failures.incrementAndGet();
+    }
+
+    void onSessionCreated() {
+        sessionsCreated.incrementAndGet();
+    }
+
+    public long getMessagesSent() {
+        return messagesSent.get();
+    }
+
+    /**
+     * Size of the binary messages sent, java serialized messages are not accounted.
+     */
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    public long getTotalSendNanos() {
+        return totalSendNanos.get();
+    }
+
+    public long getMaxSendNanos() {
+        return maxSendNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ClusterJMSMetrics{" +
+                "messagesSent=" + messagesSent +
+                ", bytesSent=" + bytesSent +
+                ", failures=" + failures +
+                ", sessionsCreated=" + sessionsCreated +
+                ", totalSendNanos=" + totalSendNanos +
+                ", maxSendNanos=" + maxSendNanos +
+                '}';
+    }
+}
@@ -16,17 +16,24 @@
 
 package org.uberfire.commons.cluster;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
 import javax.jms.MessageProducer;
 import javax.jms.ObjectMessage;
 import javax.jms.Session;
@@ -37,6 +44,10 @@ import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * JMS cluster service. Messages are sent through a pool of sessions, each with its own anonymous producer, so
+ * broadcasts from different threads don't wait for each other; sessions are never shared by two threads at once.
+ */
 public class ClusterJMSService implements ClusterService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClusterJMSService.class);
@@ -44,6 +55,10 @@ public class ClusterJMSService implements ClusterService {
     private Connection connection;
     private ClusterParameters clusterParameters;
     private Map<String, Session> consumerSessions = new ConcurrentHashMap();
+    private final ConcurrentLinkedDeque<ProducerSession> idleProducers = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleProducersCount = new AtomicInteger();
+    private final ClusterJMSMetrics metrics = new ClusterJMSMetrics();
+    private volatile boolean closed = false;
 
     public ClusterJMSService() {
         clusterParameters = loadParameters();
@@ -108,6 +123,54 @@ public class ClusterJMSService implements ClusterService {
                                    Class<T> objectMessageClass,
                                    Consumer<T> listener) {
 
+        createConsumer(type,
+                       channel,
+                       session -> message -> {
+                           if (message instanceof ObjectMessage) {
+                               try {
+                                   Serializable object = ((ObjectMessage) message).getObject();
+                                   if (objectMessageClass.isInstance(object)) {
+                                       if (LOGGER.isTraceEnabled()) {
+                                           LOGGER.trace("JSM: Consumer for channel {} - {} and session {} is accepting ObjectMessage", type, channel, session);
+                                       }
+                                       listener.accept((T) object);
+                                   }
+                               } catch (JMSException e) {
+                                   LOGGER.error("Exception receiving JMS message: " + e.getMessage());
+                               }
+                           }
+                       });
+    }
+
+    @Override
+    public <T> void createConsumer(DestinationType type,
+                                   String channel,
+                                   ClusterMessageCodec<T> codec,
+                                   Consumer<T> listener) {
+
+        createConsumer(type,
+                       channel,
+                       session -> message -> {
+                           if (message instanceof BytesMessage) {
+                               try {
+                                   final BytesMessage bytesMessage = (BytesMessage) message;
+                                   final byte[] bytes = new byte[(int) bytesMessage.getBodyLength()];
+                                   bytesMessage.readBytes(bytes);
+                                   if (LOGGER.isTraceEnabled()) {
+                                       LOGGER.trace("JSM: Consumer for channel {} - {} and session {} is accepting BytesMessage", type, channel, session);
+                                   }
+                                   listener.accept(codec.decode(bytes));
+                               } catch (JMSException | IOException e) {
+                                   LOGGER.error("Exception receiving JMS message: " + e.getMessage());
+                               }
+                           }
+                       });
+    }
+
+    private void createConsumer(DestinationType type,
+                                String channel,
+                                MessageListenerFactory listenerFactory) {
+
         consumerSessions.computeIfAbsent(channel, (key) -> {
             Session newSession = createConsumerSession();
             try {
@@ -116,21 +179,7 @@ public class ClusterJMSService implements ClusterService {
                                                       newSession);
                 MessageConsumer messageConsumer = newSession.createConsumer(topic);
 
-                messageConsumer.setMessageListener(message -> {
-                    if (message instanceof ObjectMessage) {
-                        try {
-                            Serializable object = ((ObjectMessage) message).getObject();
-                            if (objectMessageClass.isInstance(object)) {
-                                if (LOGGER.isTraceEnabled()) {
-                                    LOGGER.trace("JSM: Consumer for channel {} - {} and session {} is accepting ObjectMessage", type, channel, newSession);
-                                }
-                                listener.accept((T) object);
-                            }
-                        } catch (JMSException e) {
-                            LOGGER.error("Exception receiving JMS message: " + e.getMessage());
-                        }
-                    }
-                });
+                messageConsumer.setMessageListener(listenerFactory.create(newSession));
                 return newSession;
             } catch (Exception e) {
                 try {
@@ -145,36 +194,108 @@ public class ClusterJMSService implements ClusterService {
     }
 
     @Override
-    public synchronized void broadcast(DestinationType type,
-                                       String channel,
-                                       Serializable object) {
+    public void broadcast(DestinationType type,
+                          String channel,
+                          Serializable object) {
+        send(type,
+             channel,
+             session -> session.createObjectMessage(object),
+             0);
+    }
 
-        Session session = null;
+    @Override
+    public <T> void broadcast(DestinationType type,
+                              String channel,
+                              T object,
+                              ClusterMessageCodec<T> codec) {
+        final byte[] bytes;
         try {
-            session = connection.createSession(false,
-                                               Session.AUTO_ACKNOWLEDGE);
-            Destination destination = createDestination(type,
-                                                        channel,
-                                                        session);
-            ObjectMessage objectMessage = session.createObjectMessage(object);
+            bytes = codec.encode(object);
+        } catch (IOException e) {
+            metrics.onFailed();
+            LOGGER.error("Exception encoding JMS message: " + e.getMessage());
+            return;
+        }
+        send(type,
+             channel,
+             session -> {
+                 final BytesMessage message = session.createBytesMessage();
+                 message.writeBytes(bytes);
+                 return message;
+             },
+             bytes.length);
+    }
+
+    private void send(DestinationType type,
+                      String channel,
+                      MessageFactory messageFactory,
+                      long size) {
+        final long start = System.nanoTime();
+        ProducerSession producer = null;
+        boolean sent = false;
+        try {
+            producer = borrowProducer();
+            final Message message = messageFactory.create(producer.session);
             if (clusterParameters.getJmsThrottle() > 0) {
-                objectMessage.setLongProperty("_AMQ_SCHED_DELIVERY", System.currentTimeMillis() + clusterParameters.getJmsThrottle());
+                message.setLongProperty("_AMQ_SCHED_DELIVERY", System.currentTimeMillis() + clusterParameters.getJmsThrottle());
             }
-            MessageProducer messageProducer = session.createProducer(destination);
-            messageProducer.send(objectMessage);
+            producer.send(type,
+                          channel,
+                          message);
+            sent = true;
+            metrics.onSent(size,
+                           System.nanoTime() - start);
         } catch (JMSException e) {
             LOGGER.error("Exception on JMS broadcast: " + e.getMessage());
         } finally {
-            if (session != null) {
-                try {
-                    session.close();
-                } catch (JMSException e) {
-                    LOGGER.error("Exception on closing JMS session (this could trigger a leak) " + e.getMessage());
+            if (!sent) {
+                metrics.onFailed();
+            }
+            if (producer != null) {
+                // a session that failed to send may be broken, so it is never handed back to the pool
+                if (sent) {
+                    releaseProducer(producer);
+                } else {
+                    producer.close();
                 }
             }
         }
     }
 
+    private ProducerSession borrowProducer() throws JMSException {
+        final ProducerSession producer = idleProducers.pollFirst();
+        if (producer != null) {
+            idleProducersCount.decrementAndGet();
+            return producer;
+        }
+        final Session session = connection.createSession(false,
+                                                         Session.AUTO_ACKNOWLEDGE);
+        metrics.onSessionCreated();
+        try {
+            return new ProducerSession(session,
+                                       session.createProducer(null));
+        } catch (JMSException e) {
+            closeSession(session);
+            throw e;
+        }
+    }
+
+    private void releaseProducer(final ProducerSession producer) {
+        // sessions released after close are closed along with the connection
+        if (!closed) {
+            if (idleProducersCount.incrementAndGet() <= clusterParameters.getJmsProducerPoolSize()) {
+                idleProducers.addFirst(producer);
+                return;
+            }
+            idleProducersCount.decrementAndGet();
+        }
+        producer.close();
+    }
+
+    public ClusterJMSMetrics getMetrics() {
+        return metrics;
+    }
+
     protected Destination createDestination(DestinationType type,
                                             String channel,
                                             Session session) throws JMSException {
@@ -210,13 +331,69 @@ public class ClusterJMSService implements ClusterService {
 
     @Override
     public void close() {
+        closed = true;
         try {
             for (Session s : consumerSessions.values()) {
                 s.close();
             }
+            ProducerSession producer;
+            while ((producer = idleProducers.pollFirst()) != null) {
+                idleProducersCount.decrementAndGet();
+                producer.close();
+            }
             connection.close();
         } catch (JMSException e) {
             LOGGER.error("Exception closing JMS connection and consumerSessions: " + e.getMessage());
         }
     }
+
+    private static void closeSession(final Session session) {
+        try {
+            session.close();
+        } catch (JMSException e) {
+            LOGGER.error("Exception on closing JMS session (this could trigger a leak) " + e.getMessage());
+        }
+    }
+
+    private interface MessageFactory {
+
+        Message create(Session session) throws JMSException;
+    }
+
+    private interface MessageListenerFactory {
+
+        MessageListener create(Session session);
+    }
+
+    private class ProducerSession {
+
+        private final Session session;
+        private final MessageProducer producer;
+        private final Map<String, Destination> destinations = new HashMap<>();
+
+        ProducerSession(final Session session,
+                        final MessageProducer producer) {
+            this.session = session;
+            this.producer = producer;
+        }
+
+        void send(final DestinationType type,
+                  final String channel,
+                  final Message message) throws JMSException {
+            Destination destination = destinations.get(type + ":" + channel);
+            if (destination == null) {
+                destination = createDestination(type,
+                                                channel,
+                                                session);
+                destinations.put(type + ":" + channel,
+                                 destination);
+            }
+            producer.send(destination,
+                          message);
+        }
+
+        void close() {
+            closeSession(session);
+        }
+    }
 }
@@ -35,6 +35,15 @@ public class ClusterParameters {
     //The specified value must be a positive long corresponding to the time the message must be delivered (in milliseconds)
     public static final String APPFORMER_JMS_THROTTLE = "appformer-jms-throttle";
 
+    //Idle sessions kept for sending messages
+    public static final String APPFORMER_JMS_PRODUCER_POOL_SIZE = "appformer-jms-producer-pool-size";
+
+    //Time window (in milliseconds) used to group events before sending them, 0 sends them right away
+    public static final String APPFORMER_JMS_BATCH_WINDOW = "appformer-jms-batch-window";
+
+    //Events sent right away once a group reaches this size
+    public static final String APPFORMER_JMS_BATCH_SIZE = "appformer-jms-batch-size";
+
     private final Properties initialContextFactory = new Properties();
     private final ConnectionMode connectionMode;
     private final String providerUrl;
@@ -42,6 +51,9 @@ public class ClusterParameters {
     private final String jmsUserName;
     private final String jmsPassword;
     private long jmsThrottle;
+    private final int jmsProducerPoolSize;
+    private final long jmsBatchWindow;
+    private final int jmsBatchSize;
 
     public ClusterParameters() {
         ConnectionMode connectionMode;
@@ -67,6 +79,28 @@ public class ClusterParameters {
         } catch (NumberFormatException e) {
             this.jmsThrottle = -1;
         }
+
+        this.jmsProducerPoolSize = parseInt(APPFORMER_JMS_PRODUCER_POOL_SIZE,
+                                            8,
+                                            1);
+        this.jmsBatchWindow = parseInt(APPFORMER_JMS_BATCH_WINDOW,
+                                       20,
+                                       0);
+        this.jmsBatchSize = parseInt(APPFORMER_JMS_BATCH_SIZE,
+                                     1000,
+                                     1);
+    }
+
+    private static int parseInt(final String key,
+                                final int defaultValue,
+                                final int minValue) {
+        try {
+            final int value = Integer.parseInt(System.getProperty(key,
+                                                                  String.valueOf(defaultValue)));
+            return value < minValue ? defaultValue : value;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
     }
 
     public boolean isAppFormerClustered() {
@@ -101,4 +135,16 @@ public class ClusterParameters {
         return jmsThrottle;
     }
 
+    public int getJmsProducerPoolSize() {
+        return jmsProducerPoolSize;
+    }
+
+    public long getJmsBatchWindow() {
+        return jmsBatchWindow;
+    }
+
+    public int getJmsBatchSize() {
+        return jmsBatchSize;
+    }
+
 }
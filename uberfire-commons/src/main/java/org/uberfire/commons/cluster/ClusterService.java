@@ -17,6 +17,22 @@ public interface ClusterService {
                    String channel,
                    Serializable object);
 
+    /**
+     * Creates a consumer for messages sent through {@link #broadcast(DestinationType, String, Object, ClusterMessageCodec)}.
+     */
+    <T> void createConsumer(DestinationType type,
+                            String channel,
+                            ClusterMessageCodec<T> codec,
+                            Consumer<T> listener);
+
+    /**
+     * Broadcasts the given object encoded with the given codec, instead of using java serialization.
+     */
+    <T> void broadcast(DestinationType type,
+                       String channel,
+                       T object,
+                       ClusterMessageCodec<T> codec);
+
     boolean isAppFormerClustered();
 
     void close();
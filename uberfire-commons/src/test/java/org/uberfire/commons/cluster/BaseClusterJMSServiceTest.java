@@ -16,18 +16,31 @@
  */
 package org.uberfire.commons.cluster;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.ObjectMessage;
 import javax.jms.Session;
+import javax.jms.Topic;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -63,6 +76,7 @@ public abstract class BaseClusterJMSServiceTest {
         System.clearProperty(ClusterParameters.APPFORMER_JMS_CONNECTION_FACTORY);
         System.clearProperty(ClusterParameters.APPFORMER_JMS_USERNAME);
         System.clearProperty(ClusterParameters.APPFORMER_JMS_PASSWORD);
+        System.clearProperty(ClusterParameters.APPFORMER_JMS_PRODUCER_POOL_SIZE);
     }
 
     @Test
@@ -107,4 +121,139 @@ public abstract class BaseClusterJMSServiceTest {
         verify(session2).close();
         verify(connection).close();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void producerSessionIsReusedBetweenBroadcasts() throws JMSException {
+        final MessageProducer producer = mockProducer(session1);
+        final Topic topic = mock(Topic.class);
+        when(session1.createTopic("dora_destination")).thenReturn(topic);
+        when(session1.createObjectMessage(any())).thenReturn(mock(ObjectMessage.class));
+
+        clusterService.connect();
+        clusterService.broadcast(ClusterJMSService.DestinationType.PubSub,
+                                 "dora_destination",
+                                 "first");
+        clusterService.broadcast(ClusterJMSService.DestinationType.PubSub,
+                                 "dora_destination",
+                                 "second");
+
+        verify(connection,
+               times(1)).createSession(false,
+                                       Session.AUTO_ACKNOWLEDGE);
+        verify(session1,
+               times(1)).createTopic("dora_destination");
+        verify(producer,
+               times(2)).send(eq(topic),
+                              any());
+        assertEquals(2,
+                     ((ClusterJMSService) clusterService).getMetrics().getMessagesSent());
+
+        clusterService.close();
+        verify(session1).close();
+        verify(connection).close();
+    }
+
+    @Test
+    public void concurrentBroadcastsUseDifferentSessions() throws Exception {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final MessageProducer producer1 = mockProducer(session1);
+        final MessageProducer producer2 = mockProducer(session2);
+        when(session1.createObjectMessage(any())).thenReturn(mock(ObjectMessage.class));
+        when(session2.createObjectMessage(any())).thenReturn(mock(ObjectMessage.class));
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(5,
+                          TimeUnit.SECONDS);
+            return null;
+        }).when(producer1).send(any(),
+                                any());
+
+        clusterService.connect();
+        final Thread blocked = new Thread(() -> clusterService.broadcast(ClusterJMSService.DestinationType.PubSub,
+                                                                         "dora_destination",
+                                                                         "first"));
+        blocked.start();
+        assertTrue(sending.await(5,
+                                 TimeUnit.SECONDS));
+
+        clusterService.broadcast(ClusterJMSService.DestinationType.PubSub,
+                                 "dora_destination",
+                                 "second");
+        verify(producer2).send(any(),
+                               any());
+
+        release.countDown();
+        blocked.join(5000);
+        clusterService.close();
+        verify(session1).close();
+        verify(session2).close();
+    }
+
+    @Test
+    public void broadcastWithCodecSendsBytes() throws Exception {
+        final MessageProducer producer = mockProducer(session1);
+        final BytesMessage message = mock(BytesMessage.class);
+        when(session1.createBytesMessage()).thenReturn(message);
+
+        clusterService.connect();
+        clusterService.broadcast(ClusterJMSService.DestinationType.PubSub,
+                                 "dora_destination",
+                                 "bento",
+                                 new ClusterMessageCodec<String>() {
+                                     @Override
+                                     public byte[] encode(final String value) {
+                                         return value.getBytes();
+                                     }
+
+                                     @Override
+                                     public String decode(final byte[] bytes) {
+                                         return new String(bytes);
+                                     }
+                                 });
+
+        verify(message).writeBytes("bento".getBytes());
+        verify(producer).send(any(),
+                              eq(message));
+        assertEquals(5,
+                     ((ClusterJMSService) clusterService).getMetrics().getBytesSent());
+    }
+
+    @Test
+    public void producerSessionIsClosedWhenCreatingTheMessageFails() throws JMSException {
+        final MessageProducer producer = mockProducer(session1);
+        mockProducer(session2);
+        when(session1.createObjectMessage(any())).thenThrow(new IllegalStateException("not serializable"));
+        when(session2.createObjectMessage(any())).thenReturn(mock(ObjectMessage.class));
+
+        clusterService.connect();
+        try {
+            clusterService.broadcast(ClusterJMSService.DestinationType.PubSub,
+                                     "dora_destination",
+                                     "first");
+            fail("runtime failures are not swallowed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        verify(session1).close();
+        verify(producer,
+               never()).send(any(),
+                             any());
+        assertEquals(1,
+                     ((ClusterJMSService) clusterService).getMetrics().getFailures());
+
+        // the failed session was not returned to the pool
+        clusterService.broadcast(ClusterJMSService.DestinationType.PubSub,
+                                 "dora_destination",
+                                 "second");
+        verify(connection,
+               times(2)).createSession(false,
+                                       Session.AUTO_ACKNOWLEDGE);
+    }
+
+    private MessageProducer mockProducer(final Session session) throws JMSException {
+        final MessageProducer producer = mock(MessageProducer.class);
+        when(session.createProducer(any())).thenReturn(producer);
+        return producer;
+    }
+}
@@ -19,6 +19,11 @@ import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.model.KObjectKey;
 import org.uberfire.java.nio.file.Path;
 
+/**
+ * Builds the index objects of the files it supports. Indexer jobs build documents on several threads, so
+ * {@link #toKObject(Path)} and {@link #toKObjectKey(Path)} may be called concurrently and implementations must be
+ * thread safe. Setting {@code org.appformer.ext.metadata.index.workers} to 1 calls each indexer from one thread.
+ */
 public interface Indexer {
 
     /**
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.uberfire.ext.metadata.model.KObject;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * The index, rename and delete operations of one batch, in the order they were requested.
+ */
+public class IndexBatch {
+
+    public enum Kind {
+        INDEX,
+        RENAME,
+        DELETE
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    public IndexBatch index(final KObject kObject) {
+        operations.add(new Operation(Kind.INDEX,
+                                     checkNotNull("kObject",
+                                                  kObject).getId(),
+                                     kObject));
+        return this;
+    }
+
+    public IndexBatch rename(final String id,
+                             final KObject to) {
+        operations.add(new Operation(Kind.RENAME,
+                                     checkNotNull("id",
+                                                  id),
+                                     checkNotNull("to",
+                                                  to)));
+        return this;
+    }
+
+    public IndexBatch delete(final String id) {
+        operations.add(new Operation(Kind.DELETE,
+                                     checkNotNull("id",
+                                                  id),
+                                     null));
+        return this;
+    }
+
+    public List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    /**
+     * Applies the batch through the bulk operations of the provider, one call for each run of consecutive operations
+     * of the same kind, which keeps the order of the batch. This is what {@link IndexProvider#apply} does for
+     * providers that cannot commit mixed writes at once.
+     */
+    public void applyInRuns(final IndexProvider provider,
+                     final String index) {
+        final List<KObject> indexed = new ArrayList<>();
+        final Map<String, KObject> renamed = new LinkedHashMap<>();
+        final List<String> deleted = new ArrayList<>();
+        for (final Operation operation : operations) {
+            switch (operation.getKind()) {
+                case INDEX:
+                    if (!renamed.isEmpty() || !deleted.isEmpty()) {
+                        applyRun(provider,
+                                 index,
+                                 indexed,
+                                 renamed,
+                                 deleted);
+                    }
+                    indexed.add(operation.getKObject());
+                    break;
+                case RENAME:
+                    if (!indexed.isEmpty() || !deleted.isEmpty() || renamed.containsKey(operation.getId())) {
+                        applyRun(provider,
+                                 index,
+                                 indexed,
+                                 renamed,
+                                 deleted);
+                    }
+                    renamed.put(operation.getId(),
+                                operation.getKObject());
+                    break;
+                default:
+                    if (!indexed.isEmpty() || !renamed.isEmpty()) {
+                        applyRun(provider,
+                                 index,
+                                 indexed,
+                                 renamed,
+                                 deleted);
+                    }
+                    deleted.add(operation.getId());
+            }
+        }
+        applyRun(provider,
+                 index,
+                 indexed,
+                 renamed,
+                 deleted);
+    }
+
+    private static void applyRun(final IndexProvider provider,
+                                 final String index,
+                                 final List<KObject> indexed,
+                                 final Map<String, KObject> renamed,
+                                 final List<String> deleted) {
+        if (!indexed.isEmpty()) {
+            provider.index(new ArrayList<>(indexed));
+            indexed.clear();
+        }
+        if (!renamed.isEmpty()) {
+            provider.rename(index,
+                            new LinkedHashMap<>(renamed));
+            renamed.clear();
+        }
+        if (!deleted.isEmpty()) {
+            provider.delete(index,
+                            new ArrayList<>(deleted));
+            deleted.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IndexBatch{" +
+                "operations=" + operations +
+                '}';
+    }
+
+    public static class Operation {
+
+        private final Kind kind;
+        private final String id;
+        private final KObject kObject;
+
+        Operation(final Kind kind,
+                  final String id,
+                  final KObject kObject) {
+            this.kind = kind;
+            this.id = id;
+            this.kObject = kObject;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * The id of the indexed, renamed (source) or deleted document.
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * The indexed object or the rename target; {@code null} for deletes.
+         */
+        public KObject getKObject() {
+            return kObject;
+        }
+
+        @Override
+        public String toString() {
+            return kind + ":" + id;
+        }
+    }
+}
@@ -18,12 +18,16 @@ package org.uberfire.ext.metadata.provider;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.uberfire.commons.lifecycle.Disposable;
 import org.uberfire.ext.metadata.model.KCluster;
 import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.search.OffsetPaging;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.SearchPage;
 
 public interface IndexProvider extends Disposable {
 
@@ -41,6 +45,16 @@ public interface IndexProvider extends Disposable {
     void delete(String index,
                 String id);
 
+    /**
+     * Deletes several documents of the same index at once. Providers able to do it should apply all the deletes in a
+     * single write.
+     */
+    default void delete(String index,
+                        List<String> ids) {
+        ids.forEach(id -> delete(index,
+                                 id));
+    }
+
     List<KObject> findById(String index,
                            String id) throws IOException;
 
@@ -48,6 +62,26 @@ public interface IndexProvider extends Disposable {
                 String id,
                 KObject to);
 
+    /**
+     * Renames several documents of the same index at once, keyed by the id of the document being renamed.
+     */
+    default void rename(String index,
+                        Map<String, KObject> renames) {
+        renames.forEach((id, to) -> rename(index,
+                                           id,
+                                           to));
+    }
+
+    /**
+     * Applies all the operations of a batch, in order, to the given index. Providers able to do it should commit the
+     * whole batch once. By default each run of operations of the same kind goes through the bulk methods above.
+     */
+    default void apply(String index,
+                       IndexBatch batch) {
+        batch.applyInRuns(this,
+                          index);
+    }
+
     long getIndexSize(String index);
 
     List<KObject> findByQuery(List<String> indices,
@@ -59,6 +93,27 @@ public interface IndexProvider extends Disposable {
                               Sort sort,
                               int limit);
 
+    /**
+     * Finds a single page of the query hits. Providers without a native cursor page by offset, fetching just the hits
+     * up to the requested page.
+     */
+    default SearchPage<KObject> findByQuery(List<String> indices,
+                                            Query query,
+                                            Sort sort,
+                                            PageRequest page) {
+        final int offset = OffsetPaging.offsetOf(page);
+        final List<KObject> hits = findByQuery(indices,
+                                               query,
+                                               sort,
+                                               offset + page.getLimit() + 1);
+        return OffsetPaging.toPage(hits.subList(Math.min(offset,
+                                                         hits.size()),
+                                                hits.size()),
+                                   page,
+                                   offset,
+                                   -1);
+    }
+
     long findHitsByQuery(List<String> indices,
                          Query query);
 
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.uberfire.ext.metadata.model.KObject;
+
+/**
+ * Fills a page of filtered results for search indexes that page through the provider and filter the hits afterwards.
+ */
+public final class FilteredPaging {
+
+    private FilteredPaging() {
+    }
+
+    /**
+     * Fetches provider pages until the requested number of hits are accepted by the filter or there are no more hits.
+     * Each request after the first asks only for the missing results, so the page is never overfilled.
+     */
+    public static SearchPage<KObject> page(final Function<PageRequest, SearchPage<KObject>> fetch,
+                                           final IOSearchService.Filter filter,
+                                           final PageRequest page) {
+        final List<KObject> results = new ArrayList<>(page.getLimit());
+        SearchPage<KObject> hits = fetch.apply(page);
+        final long totalHits = hits.getTotalHits();
+        while (true) {
+            hits.getResults().stream().filter(filter::accept).forEach(results::add);
+            if (results.size() >= page.getLimit() || !hits.hasNext()) {
+                return new SearchPage<>(results,
+                                        totalHits,
+                                        hits.getNextCursor());
+            }
+            hits = fetch.apply(PageRequest.after(hits.getNextCursor(),
+                                                 page.getLimit() - results.size()));
+        }
+    }
+}
@@ -32,6 +32,22 @@ public interface IOSearchService {
                               final Filter filter,
                               final Path... roots);
 
+    /**
+     * Searches a single page of results; paths are only resolved when read from the page.
+     */
+    SearchPage<Path> searchByAttrs(final Map<String, ?> attrs,
+                                   final Filter filter,
+                                   final PageRequest page,
+                                   final Path... roots);
+
+    /**
+     * Searches a single page of results; paths are only resolved when read from the page.
+     */
+    SearchPage<Path> fullTextSearch(final String term,
+                                    final Filter filter,
+                                    final PageRequest page,
+                                    final Path... roots);
+
     int searchByAttrsHits(final Map<String, ?> attrs,
                           final Path... roots);
 
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.search;
+
+import java.util.List;
+
+/**
+ * Paging for backends without a native cursor: the cursor is just the offset of the next page.
+ */
+public final class OffsetPaging {
+
+    private static final String CURSOR_PREFIX = "offset:";
+
+    private OffsetPaging() {
+    }
+
+    public static int offsetOf(final PageRequest page) {
+        if (!page.hasCursor()) {
+            return page.getOffset();
+        }
+        try {
+            if (page.getCursor().startsWith(CURSOR_PREFIX)) {
+                return Integer.parseInt(page.getCursor().substring(CURSOR_PREFIX.length()));
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid search cursor: " + page.getCursor());
+    }
+
+    /**
+     * Builds the page out of up to limit + 1 hits starting at the given offset; the extra hit only tells whether there
+     * is a next page. A negative total is estimated from the hits seen so far.
+     */
+    public static <T> SearchPage<T> toPage(final List<T> hits,
+                                           final PageRequest page,
+                                           final int offset,
+                                           final long totalHits) {
+        final boolean hasNext = hits.size() > page.getLimit();
+        final List<T> results = hasNext ? hits.subList(0,
+                                                       page.getLimit()) : hits;
+        final long total = totalHits >= 0 ? totalHits : offset + hits.size();
+        return new SearchPage<>(results,
+                                total,
+                                hasNext ? CURSOR_PREFIX + (offset + page.getLimit()) : null);
+    }
+}
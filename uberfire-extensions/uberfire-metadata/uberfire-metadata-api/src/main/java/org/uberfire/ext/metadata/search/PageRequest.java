@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.search;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkCondition;
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotEmpty;
+
+/**
+ * Page of search results to be fetched: either an offset into the hits, or the cursor returned with the previous page.
+ * Cursors are opaque and only valid for the same query, while the index doesn't change.
+ */
+public class PageRequest {
+
+    private final int offset;
+    private final int limit;
+    private final String cursor;
+
+    private PageRequest(final int offset,
+                        final int limit,
+                        final String cursor) {
+        checkCondition("offset must be zero or positive",
+                       offset >= 0);
+        checkCondition("limit must be positive",
+                       limit > 0);
+        this.offset = offset;
+        this.limit = limit;
+        this.cursor = cursor;
+    }
+
+    public static PageRequest of(final int offset,
+                                 final int limit) {
+        return new PageRequest(offset,
+                               limit,
+                               null);
+    }
+
+    public static PageRequest after(final String cursor,
+                                    final int limit) {
+        return new PageRequest(0,
+                               limit,
+                               checkNotEmpty("cursor",
+                                             cursor));
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public boolean hasCursor() {
+        return cursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{" +
+                "offset=" + offset +
+                ", limit=" + limit +
+                ", cursor='" + cursor + '\'' +
+                '}';
+    }
+}
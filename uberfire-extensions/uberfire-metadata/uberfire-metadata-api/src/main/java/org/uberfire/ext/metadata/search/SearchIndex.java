@@ -34,6 +34,16 @@ public interface SearchIndex {
                                  final IOSearchService.Filter filter,
                                  final ClusterSegment... clusterSegments);
 
+    SearchPage<KObject> searchByAttrs(final Map<String, ?> attrs,
+                                      final IOSearchService.Filter filter,
+                                      final PageRequest page,
+                                      final ClusterSegment... clusterSegments);
+
+    SearchPage<KObject> fullTextSearch(final String term,
+                                       final IOSearchService.Filter filter,
+                                       final PageRequest page,
+                                       final ClusterSegment... clusterSegments);
+
     int searchByAttrsHits(final Map<String, ?> attrs,
                           final ClusterSegment... clusterSegments);
 
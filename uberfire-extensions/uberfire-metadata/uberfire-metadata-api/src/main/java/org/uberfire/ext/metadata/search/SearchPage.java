@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.search;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of search results. The total is an estimate of the hits of the whole query (before filtering), and the next
+ * cursor is null once the last page has been reached.
+ */
+public class SearchPage<T> {
+
+    private final List<T> results;
+    private final long totalHits;
+    private final String nextCursor;
+
+    public SearchPage(final List<T> results,
+                      final long totalHits,
+                      final String nextCursor) {
+        this.results = Collections.unmodifiableList(results);
+        this.totalHits = totalHits;
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> SearchPage<T> empty() {
+        return new SearchPage<>(Collections.emptyList(),
+                                0,
+                                null);
+    }
+
+    public List<T> getResults() {
+        return results;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
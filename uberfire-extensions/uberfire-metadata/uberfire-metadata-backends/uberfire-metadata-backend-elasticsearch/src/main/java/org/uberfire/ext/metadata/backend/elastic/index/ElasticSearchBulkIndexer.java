@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.backend.elastic.index;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.support.WriteRequest.RefreshPolicy;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.ext.metadata.backend.elastic.exceptions.MetadataException;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Sends index and delete requests through a {@link BulkProcessor}, which groups them by number of actions, size and
+ * time. Bulk requests don't refresh the index by default, {@link Batch#await()} and a refresh are the barrier for
+ * callers needing their writes to be visible. At most one bulk request is in flight, so the requests are applied in
+ * the order they were added.
+ */
+public class ElasticSearchBulkIndexer {
+
+    public static final String BULK_ACTIONS = "org.appformer.ext.metadata.elastic.bulk.actions";
+    public static final String BULK_SIZE_MB = "org.appformer.ext.metadata.elastic.bulk.size.mb";
+    public static final String BULK_FLUSH_INTERVAL = "org.appformer.ext.metadata.elastic.bulk.flush.interval";
+    public static final String BULK_CONCURRENT_REQUESTS = "org.appformer.ext.metadata.elastic.bulk.concurrent.requests";
+    public static final String BULK_REFRESH_POLICY = "org.appformer.ext.metadata.elastic.bulk.refresh";
+    public static final String BULK_AWAIT_TIMEOUT = "org.appformer.ext.metadata.elastic.bulk.await.timeout";
+    public static final String BULK_CONSISTENT = "org.appformer.ext.metadata.elastic.bulk.consistent";
+
+    private static final Logger logger = LoggerFactory.getLogger(ElasticSearchBulkIndexer.class);
+
+    private final BulkProcessor processor;
+    private final RefreshPolicy refreshPolicy;
+    private final long awaitTimeoutMillis;
+    private final Map<DocWriteRequest, Batch> batchesByRequest = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public ElasticSearchBulkIndexer(final Client client,
+                                    final int bulkActions,
+                                    final int bulkSizeMb,
+                                    final long flushIntervalMillis,
+                                    final int concurrentRequests,
+                                    final RefreshPolicy refreshPolicy,
+                                    final long awaitTimeoutMillis) {
+        this.refreshPolicy = checkNotNull("refreshPolicy",
+                                          refreshPolicy);
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+        this.processor = BulkProcessor.builder(checkNotNull("client",
+                                                            client),
+                                               new Listener())
+                .setBulkActions(bulkActions)
+                .setBulkSize(new ByteSizeValue(bulkSizeMb,
+                                               ByteSizeUnit.MB))
+                .setFlushInterval(TimeValue.timeValueMillis(flushIntervalMillis))
+                .setConcurrentRequests(orderedConcurrentRequests(concurrentRequests))
+                .setBackoffPolicy(BackoffPolicy.exponentialBackoff())
+                .build();
+    }
+
+    public static ElasticSearchBulkIndexer fromSystemProperties(final Client client) {
+        return new ElasticSearchBulkIndexer(client,
+                                            Integer.parseInt(System.getProperty(BULK_ACTIONS,
+                                                                                "1000")),
+                                            Integer.parseInt(System.getProperty(BULK_SIZE_MB,
+                                                                                "5")),
+                                            Long.parseLong(System.getProperty(BULK_FLUSH_INTERVAL,
+                                                                              "1000")),
+                                            Integer.parseInt(System.getProperty(BULK_CONCURRENT_REQUESTS,
+                                                                                "1")),
+                                            RefreshPolicy.parse(System.getProperty(BULK_REFRESH_POLICY,
+                                                                                   RefreshPolicy.NONE.getValue())),
+                                            Long.parseLong(System.getProperty(BULK_AWAIT_TIMEOUT,
+                                                                              "60000")));
+    }
+
+    /**
+     * Deletes and index requests of two bulk requests in flight at once could be applied out of order, so concurrent
+     * requests are limited to one. Zero keeps the requests synchronous.
+     */
+    private static int orderedConcurrentRequests(final int concurrentRequests) {
+        if (concurrentRequests > 1) {
+            logger.warn("Property {} set to {}, using 1 to keep the requests in order.",
+                        BULK_CONCURRENT_REQUESTS,
+                        concurrentRequests);
+            return 1;
+        }
+        return concurrentRequests;
+    }
+
+    /**
+     * @return a batch tracking the responses of the requests added through it only.
+     */
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    public long getPending() {
+        return pending.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public void close() {
+        try {
+            processor.awaitClose(awaitTimeoutMillis,
+                                 TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void done(final List<DocWriteRequest> requests,
+                      final BulkItemResponse[] items) {
+        for (int i = 0; i < requests.size(); i++) {
+            final boolean failed = items == null || items[i].isFailed();
+            if (failed) {
+                failures.incrementAndGet();
+            }
+            pending.decrementAndGet();
+            final Batch batch = batchesByRequest.remove(requests.get(i));
+            if (batch != null) {
+                batch.done(failed);
+            }
+        }
+    }
+
+    /**
+     * Requests of one caller, {@link #await()} only waits for these and only reports their failures.
+     */
+    public class Batch {
+
+        private final Object monitor = new Object();
+        private long pendingRequests;
+        private long failedRequests;
+
+        public void add(final DocWriteRequest request) {
+            synchronized (monitor) {
+                pendingRequests++;
+            }
+            pending.incrementAndGet();
+            batchesByRequest.put(request,
+                                 this);
+            try {
+                processor.add(request);
+            } catch (RuntimeException e) {
+                batchesByRequest.remove(request);
+                pending.decrementAndGet();
+                done(false);
+                throw e;
+            }
+        }
+
+        /**
+         * Sends the queued requests and waits until every request of this batch got its response.
+         *
+         * @throws MetadataException if some of those requests failed or the responses didn't arrive in time.
+         */
+        public void await() {
+            processor.flush();
+            final long deadline = System.currentTimeMillis() + awaitTimeoutMillis;
+            synchronized (monitor) {
+                long remaining;
+                while (pendingRequests > 0 && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    try {
+                        monitor.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new MetadataException("Interrupted while waiting for bulk requests",
+                                                    e);
+                    }
+                }
+                if (pendingRequests > 0) {
+                    throw new MetadataException("Bulk requests still pending after " + awaitTimeoutMillis + "ms: " + pendingRequests);
+                }
+                if (failedRequests > 0) {
+                    throw new MetadataException("Bulk requests failed: " + failedRequests);
+                }
+            }
+        }
+
+        private void done(final boolean failed) {
+            synchronized (monitor) {
+                pendingRequests--;
+                if (failed) {
+                    failedRequests++;
+                }
+                if (pendingRequests <= 0) {
+                    monitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    private class Listener implements BulkProcessor.Listener {
+
+        @Override
+        public void beforeBulk(final long executionId,
+                               final BulkRequest request) {
+            request.setRefreshPolicy(refreshPolicy);
+        }
+
+        @Override
+        public void afterBulk(final long executionId,
+                              final BulkRequest request,
+                              final BulkResponse response) {
+            if (response.hasFailures()) {
+                logger.error("Bulk request [{}] had failures: {}",
+                             executionId,
+                             response.buildFailureMessage());
+            }
+            done(request.requests(),
+                 response.getItems());
+        }
+
+        @Override
+        public void afterBulk(final long executionId,
+                              final BulkRequest request,
+                              final Throwable failure) {
+            logger.error("Bulk request [" + executionId + "] failed",
+                         failure);
+            done(request.requests(),
+                 null);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.uberfire.ext.metadata.backend.elastic.index;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -37,7 +38,6 @@ import org.apache.lucene.search.TermQuery;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ResourceAlreadyExistsException;
 import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsResponse;
-import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.index.IndexRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.support.WriteRequest;
@@ -49,6 +49,7 @@ import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.QueryStringQueryBuilder;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.ext.metadata.analyzer.ElasticSearchAnalyzerWrapper;
@@ -57,12 +58,16 @@ import org.uberfire.ext.metadata.backend.elastic.metamodel.ElasticMetaProperty;
 import org.uberfire.ext.metadata.backend.elastic.metamodel.ElasticSearchMappingStore;
 import org.uberfire.ext.metadata.backend.elastic.provider.ElasticSearchContext;
 import org.uberfire.ext.metadata.backend.elastic.provider.MappingFieldFactory;
+import org.uberfire.ext.metadata.backend.elastic.search.ElasticSearchPaging;
 import org.uberfire.ext.metadata.engine.MetaModelStore;
 import org.uberfire.ext.metadata.model.KCluster;
 import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.model.schema.MetaObject;
 import org.uberfire.ext.metadata.model.schema.MetaProperty;
 import org.uberfire.ext.metadata.provider.IndexProvider;
+import org.uberfire.ext.metadata.search.OffsetPaging;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.SearchPage;
 
 import static org.kie.soup.commons.validation.PortablePreconditions.checkCondition;
 import static org.kie.soup.commons.validation.PortablePreconditions.checkNotEmpty;
@@ -73,11 +78,15 @@ public class ElasticSearchIndexProvider implements IndexProvider {
     public static final int ELASTICSEARCH_MAX_SIZE = 10000;
     public static final String ES_TEXT_TYPE = "text";
     public static final String ES_KEYWORD_TYPE = "keyword";
+    private static final String UID_FIELD = "_uid";
     private final ElasticSearchContext elasticSearchContext;
     private final MappingFieldFactory fieldFactory;
     private final ElasticSearchMappingStore elasticSearchMappingStore;
     private final MetaModelStore metaModelStore;
     private final Analyzer analyzer;
+    private final boolean consistentBulks = Boolean.parseBoolean(System.getProperty(ElasticSearchBulkIndexer.BULK_CONSISTENT,
+                                                                                    "true"));
+    private volatile ElasticSearchBulkIndexer bulkIndexer;
     private Logger logger = LoggerFactory.getLogger(ElasticSearchIndexProvider.class);
 
     public ElasticSearchIndexProvider(MetaModelStore metaModelStore,
@@ -106,7 +115,7 @@ public class ElasticSearchIndexProvider implements IndexProvider {
                                                   metaObject);
         this.deleteIfExists(object);
         this.createIndexRequest((ElasticMetaObject) metaObject)
-                .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE)
+                .setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL)
                 .execute().actionGet();
     }
 
@@ -118,25 +127,65 @@ public class ElasticSearchIndexProvider implements IndexProvider {
         }
     }
 
+    /**
+     * Documents are indexed under the id of their object, so an index request replaces the previous version of the
+     * object without looking it up first. The requests go through the bulk indexer; unless
+     * {@link ElasticSearchBulkIndexer#BULK_CONSISTENT} is disabled, the call returns once all of them are applied and
+     * the touched indices refreshed.
+     */
     @Override
     public void index(List<KObject> elements) {
+        final ElasticSearchBulkIndexer.Batch bulk = this.getBulkIndexer().newBatch();
 
-        elements.forEach(kObject -> this.deleteIfExists(kObject));
-
-        BulkRequestBuilder bulk = this.getClient().prepareBulk();
         elements.forEach(elem -> {
             MetaObject metaObject = fieldFactory.build(elem);
             elasticSearchMappingStore.updateMetaModel(elem,
                                                       metaObject);
-            bulk.add(this.createIndexRequest((ElasticMetaObject) metaObject));
+            bulk.add(this.createIndexRequest((ElasticMetaObject) metaObject).request());
         });
-        bulk.setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE)
-                .execute().actionGet();
+
+        if (this.consistentBulks) {
+            bulk.await();
+            this.refresh(elements.stream()
+                                 .map(KObject::getClusterId)
+                                 .distinct()
+                                 .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Makes the writes applied so far on the indices visible to searches.
+     */
+    public void refresh(List<String> indices) {
+        if (indices.isEmpty()) {
+            return;
+        }
+        try {
+            this.getClient().admin().indices()
+                    .prepareRefresh(sanitizeIndexes(indices).toArray(new String[indices.size()]))
+                    .get();
+        } catch (IndexNotFoundException ex) {
+            logger.debug("Index not found on refresh: " + ex.getMessage());
+        }
+    }
+
+    protected ElasticSearchBulkIndexer getBulkIndexer() {
+        if (this.bulkIndexer == null) {
+            synchronized (this) {
+                if (this.bulkIndexer == null) {
+                    this.bulkIndexer = ElasticSearchBulkIndexer.fromSystemProperties(this.getClient());
+                }
+            }
+        }
+        return this.bulkIndexer;
     }
 
     public IndexRequestBuilder createIndexRequest(ElasticMetaObject object) {
         String clusterId = ((ElasticMetaProperty) object.getProperty(MetaObject.META_OBJECT_CLUSTER_ID).get()).getValue().toLowerCase();
         String type = ((ElasticMetaProperty) object.getProperty(MetaObject.META_OBJECT_TYPE).get()).getValue().toLowerCase();
+        String id = object.getProperty(MetaObject.META_OBJECT_ID)
+                .map(metaProperty -> ((ElasticMetaProperty) metaProperty).getValue())
+                .orElse(null);
 
         Map<String, Object> document = object.getProperties().stream()
                 .map(metaProperty -> ((ElasticMetaProperty) metaProperty))
@@ -145,7 +194,8 @@ public class ElasticSearchIndexProvider implements IndexProvider {
                                           (mp1, mp2) -> mp2));
 
         return this.getClient().prepareIndex(sanitizeIndex(clusterId),
-                                             sanitizeIndex(type)).setSource(document);
+                                             sanitizeIndex(type),
+                                             id).setSource(document);
     }
 
     @Override
@@ -179,7 +229,7 @@ public class ElasticSearchIndexProvider implements IndexProvider {
                 this.getClient().prepareDelete(hits[0].getIndex(),
                                                hits[0].getType(),
                                                hits[0].getId())
-                        .setRefreshPolicy(WriteRequest.RefreshPolicy.IMMEDIATE).get();
+                        .setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL).get();
             }
         }
     }
@@ -239,6 +289,13 @@ public class ElasticSearchIndexProvider implements IndexProvider {
                                      Query query,
                                      Sort sort,
                                      int limit) {
+        if (limit <= 0 || limit > ELASTICSEARCH_MAX_SIZE) {
+            return hitsToKObjects(this.findAllHits(indices,
+                                                   query,
+                                                   sort,
+                                                   0,
+                                                   limit));
+        }
         Optional<SearchResponse> response = this.findByQueryRaw(indices,
                                                                 query,
                                                                 sort,
@@ -248,15 +305,178 @@ public class ElasticSearchIndexProvider implements IndexProvider {
     }
 
     private List<KObject> hitsToKObjects(SearchResponse response) {
-        return Arrays.stream(response.getHits().getHits())
+        return hitsToKObjects(Arrays.asList(response.getHits().getHits()));
+    }
+
+    private List<KObject> hitsToKObjects(List<SearchHit> hits) {
+        return hits.stream()
                 .map(searchHit -> fieldFactory.fromDocument(searchHit.getSource()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Pages are read with {@code search_after}, sorted by the requested fields (or relevance) and the document uid, and
+     * their cursors hold the sort values of their last hit. Offsets beyond the result window of a single request are
+     * reached the same way, a window at a time.
+     */
+    @Override
+    public SearchPage<KObject> findByQuery(List<String> indices,
+                                           Query query,
+                                           Sort sort,
+                                           PageRequest page) {
+        final int requested = page.getLimit() + 1;
+        if (page.hasCursor() && ElasticSearchPaging.isSearchAfterCursor(page.getCursor())) {
+            return this.search(indices,
+                               query,
+                               sort,
+                               0,
+                               requested,
+                               ElasticSearchPaging.sortValuesOf(page.getCursor()))
+                    .map(res -> toPage(Arrays.asList(res.getHits().getHits()),
+                                       page,
+                                       res.getHits().getTotalHits()))
+                    .orElse(SearchPage.empty());
+        }
+
+        final int offset = OffsetPaging.offsetOf(page);
+        if (offset + requested <= ELASTICSEARCH_MAX_SIZE) {
+            return this.search(indices,
+                               query,
+                               sort,
+                               offset,
+                               requested,
+                               null)
+                    .map(res -> toPage(Arrays.asList(res.getHits().getHits()),
+                                       page,
+                                       res.getHits().getTotalHits()))
+                    .orElse(SearchPage.empty());
+        }
+        return toPage(this.findAllHits(indices,
+                                       query,
+                                       sort,
+                                       offset,
+                                       requested),
+                      page,
+                      this.findHitsByQuery(indices,
+                                           query));
+    }
+
+    private SearchPage<KObject> toPage(List<SearchHit> hits,
+                                       PageRequest page,
+                                       long totalHits) {
+        final boolean hasNext = hits.size() > page.getLimit();
+        final List<SearchHit> results = hasNext ? hits.subList(0,
+                                                               page.getLimit()) : hits;
+        return new SearchPage<>(hitsToKObjects(results),
+                                totalHits,
+                                hasNext ? ElasticSearchPaging.cursorOf(results.get(results.size() - 1).getSortValues()) : null);
+    }
+
+    /**
+     * Reads the hits a window of {@link #ELASTICSEARCH_MAX_SIZE} at a time with {@code search_after}, skipping the
+     * first {@code skip} ones. A {@code limit} of zero or less reads all of them.
+     */
+    protected List<SearchHit> findAllHits(List<String> indices,
+                                          Query query,
+                                          Sort sort,
+                                          int skip,
+                                          int limit) {
+        final List<SearchHit> hits = new ArrayList<>();
+        int toSkip = skip;
+        Object[] after = null;
+        while (limit <= 0 || hits.size() < limit) {
+            final Optional<SearchResponse> response = this.search(indices,
+                                                                  query,
+                                                                  sort,
+                                                                  0,
+                                                                  ELASTICSEARCH_MAX_SIZE,
+                                                                  after);
+            if (!response.isPresent()) {
+                break;
+            }
+            final SearchHit[] window = response.get().getHits().getHits();
+            for (SearchHit hit : window) {
+                if (toSkip > 0) {
+                    toSkip--;
+                } else if (limit <= 0 || hits.size() < limit) {
+                    hits.add(hit);
+                }
+            }
+            if (window.length < ELASTICSEARCH_MAX_SIZE) {
+                break;
+            }
+            after = window[window.length - 1].getSortValues();
+        }
+        return hits;
+    }
+
+    private Optional<SearchResponse> search(List<String> indices,
+                                            Query query,
+                                            Sort sort,
+                                            int from,
+                                            int size,
+                                            Object[] searchAfter) {
+        try {
+            List<String> indexes = indices;
+            if (indices.isEmpty()) {
+                indexes = this.getIndices();
+            }
+            SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+            searchSourceBuilder.query(QueryBuilders.queryStringQuery(escapeSpecialCharacters(query.toString())));
+            if (hasFieldSort(sort)) {
+                addSorts(searchSourceBuilder,
+                         sort);
+            } else {
+                searchSourceBuilder.sort(SortBuilders.scoreSort());
+            }
+            // unique tie breaker, so search_after never skips nor repeats hits with the same sort values
+            searchSourceBuilder.sort(SortBuilders.fieldSort(UID_FIELD));
+            if (searchAfter != null) {
+                searchSourceBuilder.searchAfter(searchAfter);
+            } else {
+                searchSourceBuilder.from(from);
+            }
+            searchSourceBuilder.size(size);
+            return Optional.of(this.getClient()
+                                       .prepareSearch(sanitizeIndexes(indexes).toArray(new String[indexes.size()]))
+                                       .setSource(searchSourceBuilder).get());
+        } catch (ElasticsearchException e) {
+            logger.debug(MessageFormat.format("Unable to perform search: {0}",
+                                              e.getMessage()));
+        }
+        return Optional.empty();
+    }
+
+    private static boolean hasFieldSort(Sort sort) {
+        return sort != null && Arrays.stream(sort.getSort()).anyMatch(sortField -> sortField.getField() != null);
+    }
+
+    private void addSorts(SearchSourceBuilder searchSourceBuilder,
+                          Sort sort) {
+        Arrays.stream(sort.getSort())
+                .filter(sortField -> sortField.getField() != null)
+                .forEach(sortField -> {
+                    addSort(searchSourceBuilder,
+                            sortField);
+                });
+    }
+
     protected Optional<SearchResponse> findByQueryRaw(List<String> indices,
                                                       Query query,
                                                       Sort sort,
                                                       int limit) {
+        return findByQueryRaw(indices,
+                              query,
+                              sort,
+                              0,
+                              limit);
+    }
+
+    protected Optional<SearchResponse> findByQueryRaw(List<String> indices,
+                                                      Query query,
+                                                      Sort sort,
+                                                      int from,
+                                                      int limit) {
         try {
 
             List<String> indexes = indices;
@@ -267,13 +487,10 @@ public class ElasticSearchIndexProvider implements IndexProvider {
             SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
             searchSourceBuilder.query(queryBuilder);
             if (sort != null) {
-                Arrays.stream(sort.getSort())
-                        .filter(sortField -> sortField.getField() != null)
-                        .forEach(sortField -> {
-                            addSort(searchSourceBuilder,
-                                    sortField);
-                        });
+                addSorts(searchSourceBuilder,
+                         sort);
             }
+            searchSourceBuilder.from(from);
             if (limit > 0 && limit <= ELASTICSEARCH_MAX_SIZE) {
                 searchSourceBuilder.size(limit);
             } else {
@@ -346,12 +563,24 @@ public class ElasticSearchIndexProvider implements IndexProvider {
     @Override
     public long findHitsByQuery(List<String> indices,
                                 Query query) {
-        Optional<SearchResponse> response = this.findByQueryRaw(indices,
-                                                                query,
-                                                                null,
-                                                                0);
-
-        return response.map(res -> res.getHits().getTotalHits()).orElse(0L);
+        try {
+            List<String> indexes = indices;
+            if (indices.isEmpty()) {
+                indexes = this.getIndices();
+            }
+            // only the total is needed, no hit is fetched
+            return this.getClient()
+                    .prepareSearch(sanitizeIndexes(indexes).toArray(new String[indexes.size()]))
+                    .setQuery(QueryBuilders.queryStringQuery(escapeSpecialCharacters(query.toString())))
+                    .setSize(0)
+                    .get()
+                    .getHits()
+                    .getTotalHits();
+        } catch (ElasticsearchException e) {
+            logger.debug(MessageFormat.format("Unable to perform search: {0}",
+                                              e.getMessage()));
+        }
+        return 0L;
     }
 
     @Override
@@ -472,6 +701,9 @@ public class ElasticSearchIndexProvider implements IndexProvider {
 
     @Override
     public void dispose() {
+        if (this.bulkIndexer != null) {
+            this.bulkIndexer.close();
+        }
         this.metaModelStore.dispose();
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.backend.elastic.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Cursors of the pages read with {@code search_after}. A cursor holds the sort values of the last hit of a page, each
+ * one tagged with its type so it is sent back to Elasticsearch as it was received.
+ */
+public final class ElasticSearchPaging {
+
+    private static final String CURSOR_PREFIX = "after:";
+    private static final String SEPARATOR = ".";
+
+    private ElasticSearchPaging() {
+    }
+
+    public static boolean isSearchAfterCursor(final String cursor) {
+        return cursor != null && cursor.startsWith(CURSOR_PREFIX);
+    }
+
+    public static String cursorOf(final Object[] sortValues) {
+        return CURSOR_PREFIX + Arrays.stream(sortValues)
+                .map(ElasticSearchPaging::encode)
+                .collect(Collectors.joining(SEPARATOR));
+    }
+
+    public static Object[] sortValuesOf(final String cursor) {
+        try {
+            if (isSearchAfterCursor(cursor) && cursor.length() > CURSOR_PREFIX.length()) {
+                return Arrays.stream(cursor.substring(CURSOR_PREFIX.length()).split("\\" + SEPARATOR))
+                        .map(ElasticSearchPaging::decode)
+                        .toArray();
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+    }
+
+    private static String encode(final Object value) {
+        final char type;
+        if (value instanceof Long) {
+            type = 'l';
+        } else if (value instanceof Integer) {
+            type = 'i';
+        } else if (value instanceof Double) {
+            type = 'd';
+        } else if (value instanceof Float) {
+            type = 'f';
+        } else if (value instanceof Boolean) {
+            type = 'b';
+        } else {
+            type = 's';
+        }
+        return type + Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object decode(final String encoded) {
+        if (encoded.isEmpty()) {
+            throw new IllegalArgumentException("Empty sort value");
+        }
+        final String value = new String(Base64.getUrlDecoder().decode(encoded.substring(1)),
+                                        StandardCharsets.UTF_8);
+        switch (encoded.charAt(0)) {
+            case 'l':
+                return Long.valueOf(value);
+            case 'i':
+                return Integer.valueOf(value);
+            case 'd':
+                return Double.valueOf(value);
+            case 'f':
+                return Float.valueOf(value);
+            case 'b':
+                return Boolean.valueOf(value);
+            case 's':
+                return value;
+            default:
+                throw new IllegalArgumentException("Unknown sort value type: " + encoded.charAt(0));
+        }
+    }
+}
@@ -36,8 +36,11 @@ import org.uberfire.ext.metadata.model.schema.MetaObject;
 import org.uberfire.ext.metadata.provider.IndexProvider;
 import org.uberfire.ext.metadata.search.ClusterSegment;
 import org.uberfire.ext.metadata.search.DateRange;
+import org.uberfire.ext.metadata.search.FilteredPaging;
 import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
 import org.uberfire.ext.metadata.search.SearchIndex;
+import org.uberfire.ext.metadata.search.SearchPage;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Collections.emptyList;
@@ -93,6 +96,39 @@ public class ElasticSearchSearchIndex implements SearchIndex {
                       clusterSegments);
     }
 
+    @Override
+    public SearchPage<KObject> searchByAttrs(final Map<String, ?> attrs,
+                                             final IOSearchService.Filter filter,
+                                             final PageRequest page,
+                                             final ClusterSegment... clusterSegments) {
+        if (clusterSegments == null || clusterSegments.length == 0) {
+            return SearchPage.empty();
+        }
+        if (attrs == null || attrs.size() == 0) {
+            return SearchPage.empty();
+        }
+        return search(buildQuery(attrs,
+                                 clusterSegments),
+                      filter,
+                      page,
+                      clusterSegments);
+    }
+
+    @Override
+    public SearchPage<KObject> fullTextSearch(final String term,
+                                              final IOSearchService.Filter filter,
+                                              final PageRequest page,
+                                              final ClusterSegment... clusterSegments) {
+        if (clusterSegments == null || clusterSegments.length == 0) {
+            return SearchPage.empty();
+        }
+        return search(buildQuery(term,
+                                 clusterSegments),
+                      filter,
+                      page,
+                      clusterSegments);
+    }
+
     @Override
     public int searchByAttrsHits(final Map<String, ?> attrs,
                                  final ClusterSegment... clusterSegments) {
@@ -141,6 +177,19 @@ public class ElasticSearchSearchIndex implements SearchIndex {
         return hits.stream().filter(kObject -> filter.accept(kObject)).collect(Collectors.toList());
     }
 
+    private SearchPage<KObject> search(final Query query,
+                                       final IOSearchService.Filter filter,
+                                       final PageRequest page,
+                                       final ClusterSegment... clusterSegments) {
+        final List<String> indices = this.getIndices(clusterSegments);
+        return FilteredPaging.page(request -> this.indexProvider.findByQuery(indices,
+                                                                           query,
+                                                                           null,
+                                                                           request),
+                                   filter,
+                                   page);
+    }
+
     private Query buildQuery(final Map<String, ?> attrs,
                              final ClusterSegment... clusterSegments) {
         final BooleanQuery.Builder query = new BooleanQuery.Builder();
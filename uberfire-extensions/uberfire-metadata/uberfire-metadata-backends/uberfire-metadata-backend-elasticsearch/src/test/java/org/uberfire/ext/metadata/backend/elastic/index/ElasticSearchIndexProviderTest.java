@@ -25,11 +25,15 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.ext.metadata.backend.elastic.metamodel.ElasticMetaObject;
@@ -125,10 +129,14 @@ public class ElasticSearchIndexProviderTest {
         obj.addProperty(new ElasticMetaProperty("type",
                                                 "plugins",
                                                 Sets.newHashSet(String.class)));
+        obj.addProperty(new ElasticMetaProperty("id",
+                                                "git://master@plugins/file.txt",
+                                                Sets.newHashSet(String.class)));
         this.provider.createIndexRequest(obj);
 
         verify(transportClient).prepareIndex(eq("system_ou_plugins"),
-                                             eq("plugins"));
+                                             eq("plugins"),
+                                             eq("git://master@plugins/file.txt"));
     }
 
     @Test
@@ -161,4 +169,24 @@ public class ElasticSearchIndexProviderTest {
                times(1)).addSort(any(),
                                  eq(sortField));
     }
+
+    @Test
+    public void testFindHitsByQueryFetchesNoHits() {
+        SearchRequestBuilder searchBuilder = mock(SearchRequestBuilder.class);
+        SearchResponse response = mock(SearchResponse.class,
+                                       RETURNS_DEEP_STUBS);
+        doReturn(searchBuilder).when(transportClient).prepareSearch(Matchers.<String>anyVararg());
+        when(searchBuilder.setQuery(any(QueryBuilder.class))).thenReturn(searchBuilder);
+        when(searchBuilder.setSize(anyInt())).thenReturn(searchBuilder);
+        when(searchBuilder.get()).thenReturn(response);
+        when(response.getHits().getTotalHits()).thenReturn(3L);
+
+        long hits = this.provider.findHitsByQuery(Arrays.asList("index"),
+                                                  new TermQuery(new Term("field",
+                                                                         "value")));
+
+        assertEquals(3L,
+                     hits);
+        verify(searchBuilder).setSize(0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.backend.elastic.search;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ElasticSearchPagingTest {
+
+    @Test
+    public void sortValuesSurviveTheCursor() {
+        final Object[] sortValues = {1.5f, 42L, 7, 0.25d, true, "type#a.b:c/d e"};
+
+        final String cursor = ElasticSearchPaging.cursorOf(sortValues);
+
+        assertTrue(ElasticSearchPaging.isSearchAfterCursor(cursor));
+        assertArrayEquals(sortValues,
+                          ElasticSearchPaging.sortValuesOf(cursor));
+    }
+
+    @Test
+    public void offsetCursorsAreNotSearchAfterCursors() {
+        assertFalse(ElasticSearchPaging.isSearchAfterCursor("offset:10"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCursorIsRejected() {
+        ElasticSearchPaging.sortValuesOf("after:x!!");
+    }
+}
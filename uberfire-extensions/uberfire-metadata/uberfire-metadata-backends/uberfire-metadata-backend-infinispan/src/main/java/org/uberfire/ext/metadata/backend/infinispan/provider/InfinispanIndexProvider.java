@@ -161,7 +161,8 @@ public class InfinispanIndexProvider implements IndexProvider {
                                                      query,
                                                      null)
                 .stream()
-                .map(q -> this.checkQuery(() -> q.list()))
+                .map(q -> this.checkQuery(() -> limit(q,
+                                                      limit).list()))
                 .flatMap(x -> x.stream())
                 .map(this::toKObject);
         if (limit > 0) {
@@ -180,7 +181,8 @@ public class InfinispanIndexProvider implements IndexProvider {
                                                      query,
                                                      sort)
                 .stream()
-                .map(q -> this.checkQuery(() -> q.list()))
+                .map(q -> this.checkQuery(() -> limit(q,
+                                                      limit).list()))
                 .flatMap(x -> x.stream())
                 .map(this::toKObject);
         if (limit > 0) {
@@ -190,6 +192,12 @@ public class InfinispanIndexProvider implements IndexProvider {
                 .collect(toList());
     }
 
+    private org.infinispan.query.dsl.Query limit(org.infinispan.query.dsl.Query query,
+                                                 int limit) {
+        // each query is bounded too, so no more than the needed hits are fetched from every type
+        return limit > 0 ? query.maxResults(limit) : query;
+    }
+
     private List<KObject> checkQuery(Supplier<List<KObject>> supplier) {
         try {
             return supplier.get();
@@ -24,11 +24,13 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.index.TermsEnum;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
+import org.uberfire.ext.metadata.model.schema.MetaObject;
 
 public abstract class BaseLuceneIndex implements LuceneIndex {
 
@@ -36,8 +38,22 @@ public abstract class BaseLuceneIndex implements LuceneIndex {
     public void indexDocument(final String id,
                               final Document doc) {
         try {
-            deleteIfExists(id);
-            writer().addDocument(doc);
+            // replaces any document with the same id, without opening a searcher to look it up
+            writer().updateDocument(idTerm(id),
+                                    doc);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void deleteDocuments(final String... ids) {
+        final Term[] terms = new Term[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            terms[i] = idTerm(ids[i]);
+        }
+        try {
+            writer().deleteDocuments(terms);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -69,22 +85,22 @@ public abstract class BaseLuceneIndex implements LuceneIndex {
     @Override
     public void rename(final String sourceId,
                        final Document doc) {
-        final IndexSearcher searcher = nrtSearcher();
-        try {
-            int docId = lookupDocIdByPK(searcher,
-                                        sourceId)[0];
-            if (docId != -1) {
-                writer().tryDeleteDocument(searcher.getIndexReader(),
-                                           docId);
-            }
+        final String targetId = doc.get(MetaObject.META_OBJECT_ID);
+        if (targetId != null && !targetId.equals(sourceId)) {
+            deleteDocuments(sourceId);
+            indexDocument(targetId,
+                          doc);
+        } else {
             indexDocument(sourceId,
                           doc);
-        } catch (IOException ex) {
-        } finally {
-            nrtRelease(searcher);
         }
     }
 
+    private static Term idTerm(final String id) {
+        return new Term(MetaObject.META_OBJECT_ID,
+                        id);
+    }
+
     protected int[] lookupDocIdByPK(final IndexSearcher searcher,
                                     final String... ids) throws IOException {
         final List<LeafReaderContext> subReaders = searcher.getIndexReader().leaves();
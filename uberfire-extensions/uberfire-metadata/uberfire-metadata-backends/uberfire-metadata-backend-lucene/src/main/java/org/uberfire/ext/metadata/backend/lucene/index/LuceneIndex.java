@@ -33,6 +33,8 @@ public interface LuceneIndex extends Index {
 
     boolean deleteIfExists(final String... ids);
 
+    void deleteDocuments(final String... ids);
+
     void rename(final String sourceId,
                 final Document doc);
 
@@ -18,18 +18,18 @@ package org.uberfire.ext.metadata.backend.lucene.index;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.MultiReader;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.SearcherFactory;
 import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
 import org.uberfire.ext.metadata.engine.Index;
 import org.uberfire.ext.metadata.engine.IndexManager;
@@ -41,8 +41,11 @@ import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull
 
 public class LuceneIndexManager implements IndexManager {
 
+    static final int MAX_CACHED_SEARCHERS = 32;
+
     private final LuceneIndexFactory factory;
     private final Map<KCluster, LuceneIndex> indexes = new ConcurrentHashMap<KCluster, LuceneIndex>();
+    private final Map<Set<KCluster>, ClusterSetSearcher> searchers = new ConcurrentHashMap<>();
 
     public LuceneIndexManager(final LuceneIndexFactory factory) {
         this.factory = checkNotNull("factory",
@@ -56,17 +59,16 @@ public class LuceneIndexManager implements IndexManager {
     }
 
     @Override
-    public synchronized LuceneIndex indexOf(final KObjectKey object) {
+    public LuceneIndex indexOf(final KObjectKey object) {
         final KCluster kcluster = kcluster(object);
         final LuceneIndex currentSetup = indexes.get(kcluster);
         if (currentSetup != null) {
             return currentSetup;
         }
 
-        final LuceneIndex index = factory.newCluster(kcluster);
-        indexes.put(kcluster,
-                    index);
-        return index;
+        // only creations of the same cluster wait on each other, lookups of existing ones never block
+        return indexes.computeIfAbsent(kcluster,
+                                       factory::newCluster);
     }
 
     @Override
@@ -76,6 +78,7 @@ public class LuceneIndexManager implements IndexManager {
 
     @Override
     public void delete(KCluster cluster) {
+        retireSearchers(clusters -> clusters.contains(cluster));
         final LuceneIndex setup = indexes.remove(cluster);
         factory.remove(cluster);
         if (setup != null) {
@@ -85,6 +88,7 @@ public class LuceneIndexManager implements IndexManager {
 
     @Override
     public void dispose() {
+        retireSearchers(clusters -> true);
         for (final LuceneIndex index : indexes.values()) {
             index.dispose();
         }
@@ -96,6 +100,12 @@ public class LuceneIndexManager implements IndexManager {
         return indexes.get(cluster);
     }
 
+    /**
+     * Returns a searcher over the given clusters, or over all of them when none is given. Searchers are cached by
+     * set of clusters and shared between callers; a cached one is reused as long as every cluster still has the same
+     * near real time reader, so searching unchanged indexes doesn't open readers. Every searcher must be given back
+     * with {@link #release(IndexSearcher)}.
+     */
     public IndexSearcher getIndexSearcher(final ClusterSegment... clusterSegments) {
         final Set<KCluster> clusters;
         if (clusterSegments == null || clusterSegments.length == 0) {
@@ -107,30 +117,112 @@ public class LuceneIndexManager implements IndexManager {
             }
         }
 
-        final Collection<IndexReader> readers = new ArrayList<IndexReader>(clusters.size());
-        for (final KCluster cluster : clusters) {
-            final LuceneIndex index = indexes.get(cluster);
-            readers.add(index.nrtReader());
-        }
-
+        final List<LuceneIndex> clusterIndexes = new ArrayList<LuceneIndex>(clusters.size());
+        final List<IndexSearcher> current = new ArrayList<IndexSearcher>(clusters.size());
         try {
-            return new SearcherFactory().newSearcher(new MultiReader(readers.toArray(new IndexReader[readers.size()])),
-                                                     null);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            // always in the same order, so the readers can be compared with the ones of the cached searcher
+            final List<KCluster> ordered = new ArrayList<KCluster>(clusters);
+            ordered.sort(Comparator.comparing(KCluster::getClusterId));
+            for (final KCluster cluster : ordered) {
+                final LuceneIndex index = indexes.get(cluster);
+                if (index != null) {
+                    current.add(index.nrtSearcher());
+                    clusterIndexes.add(index);
+                }
+            }
+            while (true) {
+                if (searchers.size() > MAX_CACHED_SEARCHERS && !searchers.containsKey(clusters)) {
+                    retireSearchers(cached -> true);
+                }
+                final ClusterSetSearcher searcher = searchers.compute(clusters,
+                                                                      (key, cached) -> {
+                                                                          if (cached != null && cached.isOn(current)) {
+                                                                              return cached;
+                                                                          }
+                                                                          if (cached != null) {
+                                                                              cached.retire();
+                                                                          }
+                                                                          return new ClusterSetSearcher(current);
+                                                                      });
+                // a searcher retired by a concurrent refresh can't be handed out anymore, look it up again
+                if (searcher.acquire()) {
+                    return searcher.searcher;
+                }
+            }
+        } finally {
+            for (int i = 0; i < current.size(); i++) {
+                clusterIndexes.get(i).nrtRelease(current.get(i));
+            }
         }
     }
 
     public void release(final IndexSearcher index) {
         try {
-            index.getIndexReader().close();
+            index.getIndexReader().decRef();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void retireSearchers(final Predicate<Set<KCluster>> which) {
+        for (final Map.Entry<Set<KCluster>, ClusterSetSearcher> entry : searchers.entrySet()) {
+            if (which.test(entry.getKey()) && searchers.remove(entry.getKey(),
+                                                               entry.getValue())) {
+                entry.getValue().retire();
+            }
+        }
+    }
+
     @Override
     public List<String> getIndices() {
         return indexes.keySet().stream().map(kCluster -> kCluster.getClusterId()).collect(Collectors.toList());
     }
+
+    /**
+     * A searcher over the readers of a set of clusters. The cache owns one reference on its multi reader and every
+     * caller holds another one until it releases the searcher; the cluster readers are closed once all are gone.
+     */
+    private static class ClusterSetSearcher {
+
+        private final IndexReader[] readers;
+        private final IndexSearcher searcher;
+
+        ClusterSetSearcher(final List<IndexSearcher> clusterSearchers) {
+            this.readers = new IndexReader[clusterSearchers.size()];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = clusterSearchers.get(i).getIndexReader();
+            }
+            try {
+                // doesn't close the cluster readers, it takes a reference on each of them instead
+                this.searcher = new IndexSearcher(new MultiReader(readers,
+                                                                  false));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        boolean isOn(final List<IndexSearcher> clusterSearchers) {
+            if (clusterSearchers.size() != readers.length) {
+                return false;
+            }
+            for (int i = 0; i < readers.length; i++) {
+                if (clusterSearchers.get(i).getIndexReader() != readers[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean acquire() {
+            return searcher.getIndexReader().tryIncRef();
+        }
+
+        void retire() {
+            try {
+                searcher.getIndexReader().decRef();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
@@ -19,12 +19,11 @@ package org.uberfire.ext.metadata.backend.lucene.index.directory;
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
 import org.uberfire.ext.metadata.backend.lucene.index.BaseLuceneIndex;
 import org.uberfire.ext.metadata.model.KCluster;
 
@@ -38,6 +37,7 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
     private final KCluster cluster;
     private final IndexWriter writer;
     private final Directory directory;
+    private final SearcherManager searcherManager;
     private AtomicBoolean freshIndex;
     private AtomicBoolean isDisposed = new AtomicBoolean(false);
 
@@ -51,6 +51,9 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
                                           directory);
             this.writer = new IndexWriter(directory.getDirectory(),
                                           config);
+            this.searcherManager = new SearcherManager(writer,
+                                                       true,
+                                                       null);
             this.freshIndex = new AtomicBoolean(directory.freshIndex());
         } catch (final Exception ex) {
             throw new RuntimeException(ex);
@@ -67,29 +70,42 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
         return cluster;
     }
 
+    /**
+     * The returned reader holds a reference on the current near real time reader, which must be given back with
+     * {@link #nrtRelease(IndexReader)}.
+     */
     @Override
     public IndexReader nrtReader() {
+        final IndexSearcher searcher = nrtSearcher();
         try {
-            return DirectoryReader.open(writer);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            final IndexReader reader = searcher.getIndexReader();
+            reader.incRef();
+            return reader;
+        } finally {
+            nrtRelease(searcher);
         }
     }
 
     @Override
     public void nrtRelease(final IndexReader reader) {
         try {
-            reader.close();
+            reader.decRef();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Acquires the shared searcher. It is only reopened when the writer has changes the current one does not see,
+     * so repeated searches on an unchanged index reuse the same reader.
+     */
     @Override
     public IndexSearcher nrtSearcher() {
         try {
-            return new SearcherFactory().newSearcher(nrtReader(),
-                                                     null);
+            if (!searcherManager.isSearcherCurrent()) {
+                searcherManager.maybeRefreshBlocking();
+            }
+            return searcherManager.acquire();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -98,7 +114,7 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
     @Override
     public void nrtRelease(final IndexSearcher searcher) {
         try {
-            searcher.getIndexReader().close();
+            searcherManager.release(searcher);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -109,11 +125,20 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
         if (isDisposed.get()) {
             return;
         }
+        closeSearcherManager();
         closeWriter();
         directory.close();
         isDisposed.set(true);
     }
 
+    private void closeSearcherManager() {
+        try {
+            searcherManager.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private void closeWriter() {
         try {
             writer.commit();
@@ -133,6 +158,7 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
         try {
             writer.commit();
             freshIndex.set(false);
+            searcherManager.maybeRefresh();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -140,6 +166,7 @@ public class DirectoryLuceneIndex extends BaseLuceneIndex {
 
     @Override
     public void delete() {
+        closeSearcherManager();
         closeWriter();
         directory.delete();
         isDisposed.set(true);
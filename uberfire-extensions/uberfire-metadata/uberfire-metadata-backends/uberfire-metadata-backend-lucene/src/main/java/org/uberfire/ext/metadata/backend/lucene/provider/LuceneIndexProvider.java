@@ -17,14 +17,18 @@
 package org.uberfire.ext.metadata.backend.lucene.provider;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
@@ -37,14 +41,18 @@ import org.uberfire.ext.metadata.backend.lucene.fields.FieldFactory;
 import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndex;
 import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndexManager;
 import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
+import org.uberfire.ext.metadata.backend.lucene.search.LucenePaging;
 import org.uberfire.ext.metadata.engine.Index;
 import org.uberfire.ext.metadata.engine.IndexManager;
 import org.uberfire.ext.metadata.model.KCluster;
 import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.model.KProperty;
 import org.uberfire.ext.metadata.model.schema.MetaObject;
+import org.uberfire.ext.metadata.provider.IndexBatch;
 import org.uberfire.ext.metadata.provider.IndexProvider;
 import org.uberfire.ext.metadata.search.ClusterSegment;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.SearchPage;
 
 import static org.kie.soup.commons.validation.PortablePreconditions.checkCondition;
 import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
@@ -78,15 +86,14 @@ public class LuceneIndexProvider implements IndexProvider {
 
     @Override
     public void index(List<KObject> elements) {
+        final Set<LuceneIndex> modified = new LinkedHashSet<>();
         elements.forEach(ko -> {
             final LuceneIndex index = (LuceneIndex) indexManager.indexOf(ko);
             index.indexDocument(ko.getId(),
                                 newDocument(ko));
+            modified.add(index);
         });
-        elements.stream()
-                .map(ko -> (LuceneIndex) indexManager.indexOf(ko))
-                .collect(Collectors.toSet())
-                .forEach(luceneIndex -> luceneIndex.commit());
+        modified.forEach(LuceneIndex::commit);
     }
 
     @Override
@@ -105,24 +112,26 @@ public class LuceneIndexProvider implements IndexProvider {
     public void delete(String index,
                        String id) {
         final LuceneIndex luceneIndex = (LuceneIndex) indexManager.get(new KClusterImpl(index));
-        luceneIndex.deleteIfExists(id);
+        luceneIndex.deleteDocuments(id);
+        luceneIndex.commit();
+    }
+
+    @Override
+    public void delete(String index,
+                       List<String> ids) {
+        final LuceneIndex luceneIndex = (LuceneIndex) indexManager.get(new KClusterImpl(index));
+        luceneIndex.deleteDocuments(ids.toArray(new String[ids.size()]));
         luceneIndex.commit();
     }
 
     @Override
     public List<KObject> findById(String index,
                                   String id) {
-        List<String> indices = Arrays.asList(index);
-        ScoreDoc[] docs = this.findRawByQuery(indices,
-                                              new TermQuery(new Term("id",
-                                                                     id)),
-                                              null,
-                                              0);
-
-        return Arrays.stream(docs)
-                .map(scoreDoc -> createKObject(indices,
-                                               scoreDoc))
-                .collect(Collectors.toList());
+        return this.findByQuery(Arrays.asList(index),
+                                new TermQuery(new Term("id",
+                                                       id)),
+                                null,
+                                0);
     }
 
     @Override
@@ -140,26 +149,78 @@ public class LuceneIndexProvider implements IndexProvider {
                            newDocument(to));
     }
 
+    @Override
+    public void rename(String index,
+                       Map<String, KObject> renames) {
+        checkNotNull("from",
+                     index);
+        checkNotNull("renames",
+                     renames);
+        renames.values().forEach(to -> checkCondition("renames are allowed only from same cluster",
+                                                      index.equals(to.getClusterId())));
+        final LuceneIndex luceneIndex = ((LuceneIndex) indexManager.get(new KClusterImpl(index)));
+        renames.forEach((id, to) -> luceneIndex.rename(id,
+                                                       newDocument(to)));
+        luceneIndex.commit();
+    }
+
+    @Override
+    public void apply(String index,
+                      IndexBatch batch) {
+        checkNotNull("index",
+                     index);
+        checkNotNull("batch",
+                     batch);
+        final KCluster cluster = new KClusterImpl(index);
+        final Set<LuceneIndex> modified = new LinkedHashSet<>();
+        for (final IndexBatch.Operation operation : batch.getOperations()) {
+            switch (operation.getKind()) {
+                case INDEX: {
+                    final LuceneIndex target = (LuceneIndex) indexManager.indexOf(operation.getKObject());
+                    target.indexDocument(operation.getId(),
+                                         newDocument(operation.getKObject()));
+                    modified.add(target);
+                    break;
+                }
+                case RENAME: {
+                    checkCondition("renames are allowed only from same cluster",
+                                   index.equals(operation.getKObject().getClusterId()));
+                    // looked up per operation, as an index operation earlier in the batch may have created it
+                    final LuceneIndex luceneIndex = (LuceneIndex) indexManager.get(cluster);
+                    luceneIndex.rename(operation.getId(),
+                                       newDocument(operation.getKObject()));
+                    modified.add(luceneIndex);
+                    break;
+                }
+                default: {
+                    final LuceneIndex luceneIndex = (LuceneIndex) indexManager.get(cluster);
+                    luceneIndex.deleteDocuments(operation.getId());
+                    modified.add(luceneIndex);
+                }
+            }
+        }
+        modified.forEach(LuceneIndex::commit);
+    }
+
     @Override
     public long getIndexSize(String index) {
-        LuceneIndex luceneIndex = ((LuceneIndex) indexManager.get(new KClusterImpl(index)));
-        return luceneIndex.nrtReader().numDocs();
+        final LuceneIndex luceneIndex = ((LuceneIndex) indexManager.get(new KClusterImpl(index)));
+        final IndexReader reader = luceneIndex.nrtReader();
+        try {
+            return reader.numDocs();
+        } finally {
+            luceneIndex.nrtRelease(reader);
+        }
     }
 
     @Override
     public List<KObject> findByQuery(List<String> indices,
                                      Query query,
                                      int limit) {
-
-        ScoreDoc[] docs = this.findRawByQuery(indices,
-                                              query,
-                                              null,
-                                              0);
-
-        return Arrays.stream(docs)
-                .map(scoreDoc -> createKObject(indices,
-                                               scoreDoc))
-                .collect(Collectors.toList());
+        return this.findByQuery(indices,
+                                query,
+                                null,
+                                limit);
     }
 
     @Override
@@ -167,36 +228,63 @@ public class LuceneIndexProvider implements IndexProvider {
                                      Query query,
                                      Sort sort,
                                      int limit) {
-        ScoreDoc[] docs = this.findRawByQuery(indices,
-                                              query,
-                                              sort,
-                                              0);
-
-        return Arrays.stream(docs)
-                .map(scoreDoc -> createKObject(indices,
-                                               scoreDoc))
-                .collect(Collectors.toList());
+        final IndexSearcher searcher = getIndexSearcher(indices);
+        try {
+            // documents are loaded from the same searcher that found them
+            final ScoreDoc[] docs = this.findRawByQuery(searcher,
+                                                        query,
+                                                        sort,
+                                                        limit);
+            final List<KObject> result = new ArrayList<>(docs.length);
+            for (final ScoreDoc doc : docs) {
+                result.add(toKObject(searcher.doc(doc.doc)));
+            }
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("Can't convert document to KObject",
+                                       e);
+        } finally {
+            release(searcher);
+        }
     }
 
-    private KObject createKObject(List<String> indices,
-                                  ScoreDoc scoreDoc) {
+    @Override
+    public SearchPage<KObject> findByQuery(List<String> indices,
+                                           Query query,
+                                           Sort sort,
+                                           PageRequest page) {
+        if (sort != null) {
+            return IndexProvider.super.findByQuery(indices,
+                                                   query,
+                                                   sort,
+                                                   page);
+        }
+        final IndexSearcher searcher = getIndexSearcher(indices);
         try {
-            IndexSearcher searcher = ((LuceneIndexManager) indexManager)
-                    .getIndexSearcher(toClusterSegments(indices));
-            return toKObject(searcher.doc(scoreDoc.doc));
+            return LucenePaging.page(searcher,
+                                     query,
+                                     page,
+                                     kObject -> true);
         } catch (IOException e) {
-            throw new RuntimeException("Can't convert document to KObject");
+            throw new RuntimeException("Error during Query!",
+                                       e);
+        } finally {
+            release(searcher);
         }
     }
 
     @Override
     public long findHitsByQuery(List<String> indices,
                                 Query query) {
-
-        return this.findRawByQuery(indices,
-                                   query,
-                                   null,
-                                   0).length;
+        final IndexSearcher searcher = getIndexSearcher(indices);
+        try {
+            return searcher.count(query);
+        } catch (IOException e) {
+            throw new RuntimeException("Error during Query!",
+                                       e);
+        } finally {
+            release(searcher);
+        }
     }
 
     @Override
@@ -218,31 +306,50 @@ public class LuceneIndexProvider implements IndexProvider {
                                      Query query,
                                      Sort sort,
                                      int limit) {
-
+        final IndexSearcher searcher = getIndexSearcher(indices);
         try {
-            ClusterSegment[] clusterSegments = toClusterSegments(indices);
-            IndexSearcher searcher = ((LuceneIndexManager) indexManager).getIndexSearcher(clusterSegments);
-            int n = Integer.MAX_VALUE;
-            if (limit > 0) {
-                n = limit;
-            }
-            TopDocs topDocs;
-            if (sort != null) {
-                topDocs = searcher.search(query,
-                                          n,
-                                          sort);
-            } else {
-                topDocs = searcher.search(query,
-                                          n);
-            }
-            return topDocs.scoreDocs;
+            return findRawByQuery(searcher,
+                                  query,
+                                  sort,
+                                  limit);
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            release(searcher);
         }
 
         return new ScoreDoc[0];
     }
 
+    private ScoreDoc[] findRawByQuery(IndexSearcher searcher,
+                                      Query query,
+                                      Sort sort,
+                                      int limit) throws IOException {
+        // no limit means all the hits; the searcher caps it to the number of documents
+        int n = Integer.MAX_VALUE;
+        if (limit > 0) {
+            n = limit;
+        }
+        TopDocs topDocs;
+        if (sort != null) {
+            topDocs = searcher.search(query,
+                                      n,
+                                      sort);
+        } else {
+            topDocs = searcher.search(query,
+                                      n);
+        }
+        return topDocs.scoreDocs;
+    }
+
+    private IndexSearcher getIndexSearcher(List<String> indices) {
+        return ((LuceneIndexManager) indexManager).getIndexSearcher(toClusterSegments(indices));
+    }
+
+    private void release(IndexSearcher searcher) {
+        ((LuceneIndexManager) indexManager).release(searcher);
+    }
+
     private ClusterSegment[] toClusterSegments(List<String> indices) {
         return indices.stream().map(index -> new ClusterSegment() {
 
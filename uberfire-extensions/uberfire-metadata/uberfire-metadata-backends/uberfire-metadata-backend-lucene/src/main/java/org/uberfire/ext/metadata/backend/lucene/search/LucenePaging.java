@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.backend.lucene.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.SearchPage;
+
+import static org.uberfire.ext.metadata.backend.lucene.util.KObjectUtil.toKObject;
+
+/**
+ * Relevance ordered paging over a searcher. Only the hits of the requested page are collected and loaded; the cursor
+ * of the next page is the last hit read, so the following page is fetched with {@link IndexSearcher#searchAfter}.
+ */
+public final class LucenePaging {
+
+    private static final String CURSOR_PREFIX = "score:";
+
+    private LucenePaging() {
+    }
+
+    /**
+     * Reads a page of the hits accepted by the filter. Hits rejected by the filter don't count for the page limit, so
+     * more hits are read until the page is full or there are no more hits.
+     */
+    public static SearchPage<KObject> page(final IndexSearcher searcher,
+                                           final Query query,
+                                           final PageRequest page,
+                                           final Predicate<KObject> filter) throws IOException {
+        final int limit = page.getLimit();
+        final List<KObject> results = new ArrayList<>(limit);
+        // one more hit than needed tells whether there is a next page
+        int requested = limit + 1;
+        TopDocs topDocs = firstHits(searcher,
+                                    query,
+                                    page,
+                                    requested);
+        final long totalHits = topDocs.totalHits;
+        ScoreDoc last = null;
+        while (true) {
+            final ScoreDoc[] hits = topDocs.scoreDocs;
+            int read = 0;
+            while (read < hits.length && results.size() < limit) {
+                last = hits[read++];
+                final KObject kObject = toKObject(searcher.doc(last.doc));
+                if (filter.test(kObject)) {
+                    results.add(kObject);
+                }
+            }
+            if (read < hits.length) {
+                return new SearchPage<>(results,
+                                        totalHits,
+                                        cursorOf(last));
+            }
+            if (hits.length < requested) {
+                return new SearchPage<>(results,
+                                        totalHits,
+                                        null);
+            }
+            requested = limit - results.size() + 1;
+            topDocs = searcher.searchAfter(last,
+                                           query,
+                                           requested);
+        }
+    }
+
+    private static TopDocs firstHits(final IndexSearcher searcher,
+                                     final Query query,
+                                     final PageRequest page,
+                                     final int requested) throws IOException {
+        if (page.hasCursor()) {
+            return searcher.searchAfter(scoreDocOf(page.getCursor()),
+                                        query,
+                                        requested);
+        }
+        if (page.getOffset() == 0) {
+            return searcher.search(query,
+                                   requested);
+        }
+        final TopScoreDocCollector collector = TopScoreDocCollector.create(page.getOffset() + requested);
+        searcher.search(query,
+                        collector);
+        return collector.topDocs(page.getOffset(),
+                                 requested);
+    }
+
+    static String cursorOf(final ScoreDoc scoreDoc) {
+        return CURSOR_PREFIX + Integer.toHexString(Float.floatToIntBits(scoreDoc.score)) + ":" + scoreDoc.doc;
+    }
+
+    static ScoreDoc scoreDocOf(final String cursor) {
+        try {
+            if (cursor.startsWith(CURSOR_PREFIX)) {
+                final String[] parts = cursor.substring(CURSOR_PREFIX.length()).split(":");
+                if (parts.length == 2) {
+                    return new ScoreDoc(Integer.parseInt(parts[1]),
+                                        Float.intBitsToFloat(Integer.parseUnsignedInt(parts[0],
+                                                                                      16)));
+                }
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+    }
+}
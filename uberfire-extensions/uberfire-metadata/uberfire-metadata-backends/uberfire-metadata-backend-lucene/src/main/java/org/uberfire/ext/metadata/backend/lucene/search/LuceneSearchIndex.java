@@ -39,7 +39,9 @@ import org.uberfire.ext.metadata.model.schema.MetaObject;
 import org.uberfire.ext.metadata.search.ClusterSegment;
 import org.uberfire.ext.metadata.search.DateRange;
 import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
 import org.uberfire.ext.metadata.search.SearchIndex;
+import org.uberfire.ext.metadata.search.SearchPage;
 
 import static java.util.Collections.emptyList;
 import static org.apache.lucene.search.BooleanClause.Occur.MUST;
@@ -101,6 +103,39 @@ public class LuceneSearchIndex implements SearchIndex {
                       clusterSegments);
     }
 
+    @Override
+    public SearchPage<KObject> searchByAttrs(final Map<String, ?> attrs,
+                                             final IOSearchService.Filter filter,
+                                             final PageRequest page,
+                                             final ClusterSegment... clusterSegments) {
+        if (clusterSegments == null || clusterSegments.length == 0) {
+            return SearchPage.empty();
+        }
+        if (attrs == null || attrs.size() == 0) {
+            return SearchPage.empty();
+        }
+        return search(buildQuery(attrs,
+                                 clusterSegments),
+                      filter,
+                      page,
+                      clusterSegments);
+    }
+
+    @Override
+    public SearchPage<KObject> fullTextSearch(final String term,
+                                              final IOSearchService.Filter filter,
+                                              final PageRequest page,
+                                              final ClusterSegment... clusterSegments) {
+        if (clusterSegments == null || clusterSegments.length == 0) {
+            return SearchPage.empty();
+        }
+        return search(buildQuery(term,
+                                 clusterSegments),
+                      filter,
+                      page,
+                      clusterSegments);
+    }
+
     @Override
     public int searchByAttrsHits(final Map<String, ?> attrs,
                                  final ClusterSegment... clusterSegments) {
@@ -169,6 +204,24 @@ public class LuceneSearchIndex implements SearchIndex {
         return result;
     }
 
+    private SearchPage<KObject> search(final Query query,
+                                       final IOSearchService.Filter filter,
+                                       final PageRequest page,
+                                       final ClusterSegment... clusterSegments) {
+        final IndexSearcher index = indexManager.getIndexSearcher(clusterSegments);
+        try {
+            return LucenePaging.page(index,
+                                     query,
+                                     page,
+                                     filter::accept);
+        } catch (final Exception ex) {
+            throw new RuntimeException("Error during Query!",
+                                       ex);
+        } finally {
+            indexManager.release(index);
+        }
+    }
+
     private Query buildQuery(final Map<String, ?> attrs,
                              final ClusterSegment... clusterSegments) {
         final BooleanQuery.Builder query = new BooleanQuery.Builder();
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.backend.lucene.index;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.uberfire.ext.metadata.backend.lucene.index.directory.DirectoryFactory;
+import org.uberfire.ext.metadata.backend.lucene.index.directory.DirectoryType;
+import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.ext.metadata.model.schema.MetaObject;
+import org.uberfire.ext.metadata.search.ClusterSegment;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class LuceneIndexManagerTest {
+
+    @Rule
+    public TemporaryFolder hostingDir = new TemporaryFolder();
+
+    private DirectoryFactory factory;
+    private LuceneIndexManager indexManager;
+    private LuceneIndex first;
+    private LuceneIndex second;
+
+    @Before
+    public void setup() {
+        factory = new DirectoryFactory(DirectoryType.INMEMORY,
+                                       new StandardAnalyzer(),
+                                       hostingDir.getRoot());
+        first = factory.newCluster(cluster("first"));
+        second = factory.newCluster(cluster("second"));
+        indexManager = new LuceneIndexManager(factory);
+    }
+
+    @After
+    public void tearDown() {
+        indexManager.dispose();
+    }
+
+    @Test
+    public void searcherIsReusedWhileIndexesDoNotChange() throws Exception {
+        index(first,
+              "1");
+        index(second,
+              "2");
+
+        final IndexSearcher searcher = indexManager.getIndexSearcher(segment("first"),
+                                                                     segment("second"));
+        final IndexSearcher again = indexManager.getIndexSearcher(segment("second"),
+                                                                  segment("first"));
+        try {
+            assertThat(again).isSameAs(searcher);
+            assertThat(searcher.count(new MatchAllDocsQuery())).isEqualTo(2);
+        } finally {
+            indexManager.release(searcher);
+            indexManager.release(again);
+        }
+    }
+
+    @Test
+    public void searcherSeesChangesOfAnyCluster() throws Exception {
+        index(first,
+              "1");
+
+        final IndexSearcher before = indexManager.getIndexSearcher(segment("first"),
+                                                                   segment("second"));
+        index(second,
+              "2");
+        final IndexSearcher after = indexManager.getIndexSearcher(segment("first"),
+                                                                  segment("second"));
+        try {
+            assertThat(after).isNotSameAs(before);
+            assertThat(after.count(new MatchAllDocsQuery())).isEqualTo(2);
+            // a searcher in use keeps working after it has been replaced
+            assertThat(before.count(new MatchAllDocsQuery())).isEqualTo(1);
+        } finally {
+            indexManager.release(before);
+            indexManager.release(after);
+        }
+    }
+
+    @Test
+    public void uncommittedChangesAreVisible() throws Exception {
+        first.indexDocument("1",
+                            document("1"));
+
+        final IndexSearcher searcher = indexManager.getIndexSearcher(segment("first"));
+        try {
+            assertThat(searcher.count(new MatchAllDocsQuery())).isEqualTo(1);
+        } finally {
+            indexManager.release(searcher);
+        }
+    }
+
+    @Test
+    public void deletedClusterIsNotSearchedAnymore() throws Exception {
+        index(first,
+              "1");
+        index(second,
+              "2");
+        final IndexSearcher searcher = indexManager.getIndexSearcher();
+        indexManager.release(searcher);
+
+        indexManager.delete(cluster("second"));
+
+        final IndexSearcher afterDelete = indexManager.getIndexSearcher();
+        try {
+            assertThat(afterDelete).isNotSameAs(searcher);
+            assertThat(afterDelete.count(new MatchAllDocsQuery())).isEqualTo(1);
+        } finally {
+            indexManager.release(afterDelete);
+        }
+    }
+
+    private static void index(final LuceneIndex index,
+                              final String id) {
+        index.indexDocument(id,
+                            document(id));
+        index.commit();
+    }
+
+    private static Document document(final String id) {
+        final Document doc = new Document();
+        doc.add(new StringField(MetaObject.META_OBJECT_ID,
+                                id,
+                                Field.Store.YES));
+        return doc;
+    }
+
+    private static KCluster cluster(final String id) {
+        return new KClusterImpl(id);
+    }
+
+    private static ClusterSegment segment(final String clusterId) {
+        return new ClusterSegment() {
+            @Override
+            public String getClusterId() {
+                return clusterId;
+            }
+
+            @Override
+            public String[] segmentIds() {
+                return new String[0];
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.backend.lucene.index.directory;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndex;
+import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
+import org.uberfire.ext.metadata.model.schema.MetaObject;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+public class DirectoryLuceneIndexTest {
+
+    private LuceneIndex index;
+
+    @Before
+    public void setup() {
+        index = DirectoryType.INMEMORY.newIndex(new KClusterImpl("myteam/myproject/master"),
+                                                new IndexWriterConfig(new StandardAnalyzer()));
+    }
+
+    @After
+    public void tearDown() {
+        index.dispose();
+    }
+
+    @Test
+    public void indexDocumentReplacesSameId() throws Exception {
+        index.indexDocument("1",
+                            document("1",
+                                     "first"));
+        index.indexDocument("1",
+                            document("1",
+                                     "second"));
+        index.indexDocument("2",
+                            document("2",
+                                     "other"));
+        index.commit();
+
+        assertThat(numDocs()).isEqualTo(2);
+        assertThat(count("value",
+                           "first")).isEqualTo(0);
+        assertThat(count("value",
+                           "second")).isEqualTo(1);
+    }
+
+    @Test
+    public void deleteDocuments() throws Exception {
+        index.indexDocument("1",
+                            document("1",
+                                     "first"));
+        index.indexDocument("2",
+                            document("2",
+                                     "second"));
+        index.indexDocument("3",
+                            document("3",
+                                     "third"));
+        index.commit();
+
+        index.deleteDocuments("1",
+                              "3",
+                              "missing");
+        index.commit();
+
+        assertThat(numDocs()).isEqualTo(1);
+        assertThat(count(MetaObject.META_OBJECT_ID,
+                           "2")).isEqualTo(1);
+    }
+
+    @Test
+    public void renameReplacesSourceDocument() throws Exception {
+        index.indexDocument("1",
+                            document("1",
+                                     "first"));
+        index.commit();
+
+        index.rename("1",
+                     document("2",
+                              "renamed"));
+        index.commit();
+
+        assertThat(numDocs()).isEqualTo(1);
+        assertThat(count(MetaObject.META_OBJECT_ID,
+                           "1")).isEqualTo(0);
+        assertThat(count(MetaObject.META_OBJECT_ID,
+                           "2")).isEqualTo(1);
+    }
+
+    private int numDocs() {
+        final IndexReader reader = index.nrtReader();
+        try {
+            return reader.numDocs();
+        } finally {
+            index.nrtRelease(reader);
+        }
+    }
+
+    private int count(final String field,
+                      final String value) throws Exception {
+        final IndexSearcher searcher = index.nrtSearcher();
+        try {
+            return searcher.count(new TermQuery(new Term(field,
+                                                         value)));
+        } finally {
+            index.nrtRelease(searcher);
+        }
+    }
+
+    private static Document document(final String id,
+                                     final String value) {
+        final Document doc = new Document();
+        doc.add(new StringField(MetaObject.META_OBJECT_ID,
+                                id,
+                                Field.Store.YES));
+        doc.add(new StringField("value",
+                                value,
+                                Field.Store.YES));
+        return doc;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.backend.lucene.provider;
+
+import java.util.Collections;
+
+import org.apache.lucene.document.Document;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.ext.metadata.backend.lucene.fields.FieldFactory;
+import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndex;
+import org.uberfire.ext.metadata.backend.lucene.index.LuceneIndexManager;
+import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.impl.KObjectImpl;
+import org.uberfire.ext.metadata.provider.IndexBatch;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LuceneIndexProviderTest {
+
+    private static final String CLUSTER = "myteam/myproject/master";
+
+    @Mock
+    private LuceneIndexManager indexManager;
+
+    @Mock
+    private FieldFactory fieldFactory;
+
+    @Mock
+    private LuceneIndex index;
+
+    private LuceneIndexProvider provider;
+
+    @Before
+    public void setup() {
+        when(indexManager.get(new KClusterImpl(CLUSTER))).thenReturn(index);
+        when(indexManager.indexOf(any())).thenReturn(index);
+        provider = new LuceneIndexProvider(indexManager,
+                                           fieldFactory);
+    }
+
+    @Test
+    public void mixedBatchIsCommittedOnce() {
+        final KObject first = kObject("1");
+        final KObject second = kObject("2");
+
+        provider.apply(CLUSTER,
+                       new IndexBatch()
+                               .index(first)
+                               .delete("3")
+                               .rename("4",
+                                       second)
+                               .index(first));
+
+        final InOrder order = inOrder(index);
+        order.verify(index).indexDocument(eq("1"),
+                                          any(Document.class));
+        order.verify(index).deleteDocuments("3");
+        order.verify(index).rename(eq("4"),
+                                   any(Document.class));
+        order.verify(index).indexDocument(eq("1"),
+                                          any(Document.class));
+        order.verify(index).commit();
+        verify(index,
+               times(1)).commit();
+    }
+
+    private static KObject kObject(final String id) {
+        return new KObjectImpl(id,
+                               "java",
+                               CLUSTER,
+                               "master",
+                               "key" + id,
+                               Collections.emptyList(),
+                               true);
+    }
+}
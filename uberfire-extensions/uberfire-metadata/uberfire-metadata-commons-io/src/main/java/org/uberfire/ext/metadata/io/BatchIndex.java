@@ -18,8 +18,13 @@ package org.uberfire.ext.metadata.io;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,9 +33,13 @@ import org.uberfire.ext.metadata.engine.BatchIndexListener;
 import org.uberfire.ext.metadata.engine.MetaIndexEngine;
 import org.uberfire.ext.metadata.engine.Observer;
 import org.uberfire.ext.metadata.io.IndexerDispatcher.IndexerDispatcherFactory;
+import org.uberfire.ext.metadata.io.util.PartitionedWork;
 import org.uberfire.ext.metadata.model.KCluster;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.base.FileSystemId;
+import org.uberfire.java.nio.base.SegmentChanges;
+import org.uberfire.java.nio.base.SegmentChangesAware;
+import org.uberfire.java.nio.base.SegmentedPath;
 import org.uberfire.java.nio.file.DirectoryStream;
 import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.FileVisitResult;
@@ -55,6 +64,11 @@ public final class BatchIndex {
     private final IndexersFactory indexersFactory;
     private final IndexerDispatcherFactory dispatcherFactory;
     private final BatchIndexListener batchIndexListener;
+    private final IndexWatermarks watermarks;
+    private final BatchIndexMetrics metrics = new BatchIndexMetrics();
+    private final Set<String> checkedClusters = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> indexingClusters = new ConcurrentHashMap<>();
+    private final int walkers = Runtime.getRuntime().availableProcessors();
 
     @SafeVarargs
     public BatchIndex(final MetaIndexEngine indexEngine,
@@ -64,6 +78,25 @@ public final class BatchIndex {
                       final IndexerDispatcherFactory dispatcherFactory,
                       final BatchIndexListener batchIndexListener,
                       final Class<? extends FileAttributeView>... views) {
+        this(indexEngine,
+             observer,
+             executorService,
+             indexersFactory,
+             dispatcherFactory,
+             batchIndexListener,
+             IndexWatermarks.inDefaultIndexDir(),
+             views);
+    }
+
+    @SafeVarargs
+    public BatchIndex(final MetaIndexEngine indexEngine,
+                      final Observer observer,
+                      final ExecutorService executorService,
+                      final IndexersFactory indexersFactory,
+                      final IndexerDispatcherFactory dispatcherFactory,
+                      final BatchIndexListener batchIndexListener,
+                      final IndexWatermarks watermarks,
+                      final Class<? extends FileAttributeView>... views) {
         this.indexersFactory = indexersFactory;
         this.dispatcherFactory = dispatcherFactory;
         this.indexEngine = checkNotNull("indexEngine",
@@ -73,6 +106,8 @@ public final class BatchIndex {
         this.views = views;
 
         this.batchIndexListener = batchIndexListener;
+        this.watermarks = checkNotNull("watermarks",
+                                       watermarks);
 
         this.executorService = executorService;
     }
@@ -132,71 +167,353 @@ public final class BatchIndex {
 
         final Collection<Runnable> exceptionCleanup = new ArrayList<>(1);
         for (Path rootPath : fs.getRootDirectories()) {
+            if (indexDisposed.get()) {
+                break;
+            }
             final KCluster cluster = KObjectUtil.toKCluster(rootPath);
 
-            if (indexEngine.freshIndex(cluster) && hasContent(rootPath)) {
-                indexEngine.prepareBatch(cluster);
+            if (indexEngine.freshIndex(cluster)) {
+                checkedClusters.add(cluster.getClusterId());
+                if (hasContent(rootPath)) {
+                    metrics.onFullIndex();
+                    index(cluster,
+                          rootPath,
+                          segmentHead(fs,
+                                      rootPath),
+                          dispatcher -> queueIndexingEvents(rootPath,
+                                                            dispatcher),
+                          callback,
+                          exceptionCleanup);
+                }
+            } else if (fs instanceof SegmentChangesAware && checkedClusters.add(cluster.getClusterId())) {
+                indexChangesSinceWatermark((SegmentChangesAware) fs,
+                                           cluster,
+                                           rootPath,
+                                           callback,
+                                           exceptionCleanup);
+            }
+        }
+    }
 
-                try {
-                    final IndexerDispatcher dispatcher = dispatcherFactory.create(indexersFactory.getIndexers(), cluster);
+    /**
+     * An existing index is brought up to date with the changes between the last indexed version of its segment and the
+     * current one. When the last indexed version is unknown, as on a node that never indexed the cluster, every file is
+     * indexed again over the existing documents, the index may be shared with other nodes so it is never dropped here.
+     * Only a last indexed version that is not reachable anymore, a rewritten history, drops the cluster first.
+     */
+    private void indexChangesSinceWatermark(final SegmentChangesAware fs,
+                                            final KCluster cluster,
+                                            final Path rootPath,
+                                            final Runnable callback,
+                                            final Collection<Runnable> exceptionCleanup) {
+        final String segment = segmentOf(rootPath);
+        final String head = segment != null ? fs.getSegmentHead(segment) : null;
+        if (head == null) {
+            return;
+        }
+        final String watermark = watermarks.get(cluster);
+        if (head.equals(watermark)) {
+            metrics.onUpToDate();
+            return;
+        }
 
-                    if (indexDisposed.get()) {
-                        break;
-                    }
-                    exceptionCleanup.add(() -> dispatcher.dispose());
+        final SegmentChanges changes = watermark != null ? fs.getSegmentChanges(segment,
+                                                                                watermark) : null;
+        if (changes == null) {
+            metrics.onWatermarkFallback();
+            if (watermark == null) {
+                logInformation("Index of " + cluster.getClusterId() + " has no watermark, indexing it again ...");
+            } else {
+                logInformation("Index of " + cluster.getClusterId() + " has no reachable watermark, rebuilding it ...");
+                indexEngine.delete(cluster);
+            }
+            if (hasContent(rootPath)) {
+                metrics.onFullIndex();
+                index(cluster,
+                      rootPath,
+                      head,
+                      dispatcher -> queueIndexingEvents(rootPath,
+                                                        dispatcher),
+                      callback,
+                      exceptionCleanup);
+            } else {
+                watermarks.put(cluster,
+                               head);
+            }
+            return;
+        }
 
-                    queueIndexingEvents(rootPath, dispatcher);
+        metrics.onIncrementalIndex();
+        index(cluster,
+              rootPath,
+              changes.getHead(),
+              dispatcher -> queueChangedEvents(rootPath,
+                                               changes,
+                                               dispatcher),
+              callback,
+              exceptionCleanup);
+    }
 
-                    if (!indexDisposed.get()) {
-                        logInformation("Starting indexing of " + cluster.getClusterId() + " ...");
+    private void index(final KCluster cluster,
+                       final Path rootPath,
+                       final String head,
+                       final ToLongFunction<IndexerDispatcher> queueEvents,
+                       final Runnable callback,
+                       final Collection<Runnable> exceptionCleanup) {
+        indexEngine.prepareBatch(cluster);
+        startIndexing(cluster);
+
+        boolean scheduled = false;
+        try {
+            final IndexerDispatcher dispatcher = dispatcherFactory.create(indexersFactory.getIndexers(), cluster);
+
+            if (indexDisposed.get()) {
+                return;
+            }
+            exceptionCleanup.add(() -> dispatcher.dispose());
 
-                        if (batchIndexListener != null) {
-                            batchIndexListener.notifyIndexIngStarted(cluster, rootPath);
-                        }
+            final long queued = queueEvents.applyAsLong(dispatcher);
+            metrics.onQueued(queued);
 
-                        dispatcher.schedule(executorService)
-                        .thenRun(() -> {
-                            logInformation("Completed indexing of " + cluster.getClusterId());
+            if (!indexDisposed.get()) {
+                logInformation("Starting indexing of " + cluster.getClusterId() + " ...");
 
-                            if (batchIndexListener != null) {
-                                batchIndexListener.notifyIndexIngFinished(cluster, rootPath);
-                            }
+                if (batchIndexListener != null) {
+                    batchIndexListener.notifyIndexIngStarted(cluster, rootPath);
+                }
 
-                            if (callback != null) {
-                                callback.run();
-                            }
-                        })
-                        .exceptionally(ex -> {
-                            try {
-                                throw ex;
-                            } catch (DisposedException de) {
-                                logWarning("Batch index couldn't finish. [@" + cluster.getClusterId() + "]");
-                            } catch (IllegalStateException ise) {
-                                logError("Index fails - Index has an invalid state. [@" + cluster.getClusterId() + "]", ex);
-                            } catch (Throwable t) {
-                                logError("Index fails. [@" + cluster.getClusterId() + "]", ex);
-                            }
-                            return null;
-                        });
-                    } else {
-                        logWarning("Batch index couldn't finish. [@" + cluster.getClusterId() + "]");
+                final long start = System.currentTimeMillis();
+                scheduled = true;
+                dispatcher.schedule(executorService)
+                .thenRun(() -> {
+                    logInformation("Completed indexing of " + cluster.getClusterId());
+                    metrics.onIndexed(queued,
+                                      System.currentTimeMillis() - start);
+
+                    if (head != null) {
+                        watermarks.put(cluster,
+                                       head);
                     }
-                } catch (final Exception ex) {
-                    if (indexDisposed.get()) {
+
+                    if (batchIndexListener != null) {
+                        batchIndexListener.notifyIndexIngFinished(cluster, rootPath);
+                    }
+
+                    if (callback != null) {
+                        callback.run();
+                    }
+                })
+                .exceptionally(ex -> {
+                    try {
+                        throw ex;
+                    } catch (DisposedException de) {
                         logWarning("Batch index couldn't finish. [@" + cluster.getClusterId() + "]");
-                    } else {
+                    } catch (IllegalStateException ise) {
+                        logError("Index fails - Index has an invalid state. [@" + cluster.getClusterId() + "]", ex);
+                        watermarks.remove(cluster);
+                    } catch (Throwable t) {
                         logError("Index fails. [@" + cluster.getClusterId() + "]", ex);
-                        exceptionCleanup.forEach(action -> action.run());
+                        watermarks.remove(cluster);
+                    }
+                    return null;
+                })
+                .whenComplete((result, ex) -> endIndexing(cluster));
+            } else {
+                logWarning("Batch index couldn't finish. [@" + cluster.getClusterId() + "]");
+            }
+        } catch (final Exception ex) {
+            if (indexDisposed.get()) {
+                logWarning("Batch index couldn't finish. [@" + cluster.getClusterId() + "]");
+            } else {
+                logError("Index fails. [@" + cluster.getClusterId() + "]", ex);
+                watermarks.remove(cluster);
+                exceptionCleanup.forEach(action -> action.run());
+            }
+        } finally {
+            if (!scheduled) {
+                endIndexing(cluster);
+            }
+        }
+    }
+
+    private void startIndexing(final KCluster cluster) {
+        indexingClusters.merge(cluster.getClusterId(),
+                               1,
+                               Integer::sum);
+    }
+
+    private void endIndexing(final KCluster cluster) {
+        indexingClusters.computeIfPresent(cluster.getClusterId(),
+                                          (clusterId, running) -> running > 1 ? running - 1 : null);
+    }
+
+    /**
+     * Indexes the changes of a file system whose watch events were lost, from the watermark of each cluster when the
+     * file system tracks versions or every file otherwise. Watermarks aren't advanced by watch events meanwhile, as
+     * those would move them past the lost changes.
+     */
+    public void reindexAsync(final FileSystem fs) {
+        if (fs == null || !this.indexEngine.isAlive()) {
+            return;
+        }
+        final List<KCluster> clusters = new ArrayList<>();
+        fs.getRootDirectories().forEach(rootPath -> clusters.add(KObjectUtil.toKCluster(rootPath)));
+        clusters.forEach(this::startIndexing);
+
+        try {
+            executeReindex(fs,
+                           clusters);
+        } catch (RuntimeException e) {
+            clusters.forEach(cluster -> endIndexing(cluster));
+            throw e;
+        }
+    }
+
+    private void executeReindex(final FileSystem fs,
+                                final List<KCluster> clusters) {
+        executorService.execute(new DescriptiveRunnable() {
+            @Override
+            public String getDescription() {
+                return "FS Reindex [" + fs.getName() + "]";
+            }
+
+            @Override
+            public void run() {
+                try {
+                    final Collection<Runnable> exceptionCleanup = new ArrayList<>(1);
+                    for (Path rootPath : fs.getRootDirectories()) {
+                        if (indexDisposed.get()) {
+                            break;
+                        }
+                        final KCluster cluster = KObjectUtil.toKCluster(rootPath);
+                        if (fs instanceof SegmentChangesAware) {
+                            indexChangesSinceWatermark((SegmentChangesAware) fs,
+                                                       cluster,
+                                                       rootPath,
+                                                       null,
+                                                       exceptionCleanup);
+                        } else if (hasContent(rootPath)) {
+                            metrics.onFullIndex();
+                            index(cluster,
+                                  rootPath,
+                                  null,
+                                  dispatcher -> queueIndexingEvents(rootPath,
+                                                                    dispatcher),
+                                  null,
+                                  exceptionCleanup);
+                        }
+                    }
+                } catch (Exception ex) {
+                    if (!indexDisposed.get()) {
+                        logError("FileSystem Reindex fails. [@" + fs.getName() + "]", ex);
                     }
+                } finally {
+                    clusters.forEach(cluster -> endIndexing(cluster));
                 }
+            }
+        });
+    }
+
+    /**
+     * Moves the watermark of a cluster to a version whose changes were all applied to the index outside of a batch, as
+     * the indexing of watch events does. Clusters with a batch running, or without a completed one, are left alone.
+     * @param head version of the segment the applied changes lead to, captured when they were published.
+     */
+    public void advanceWatermark(final KCluster cluster,
+                                 final String head) {
+        if (head == null || indexingClusters.containsKey(cluster.getClusterId()) || watermarks.get(cluster) == null) {
+            return;
+        }
+        watermarks.put(cluster,
+                       head);
+    }
+
+    /**
+     * True if the cluster was completely indexed up to the given version of its segment, so a batch index of it has
+     * nothing to do.
+     */
+    public boolean isIndexedUpTo(final KCluster cluster,
+                                 final String head) {
+        return head != null
+                && !indexEngine.freshIndex(cluster)
+                && head.equals(watermarks.get(cluster));
+    }
 
+    /**
+     * @return the current version of the segment of the root, null if the file system doesn't track versions.
+     */
+    private static String segmentHead(final FileSystem fs,
+                                      final Path rootPath) {
+        final String segment = segmentOf(rootPath);
+        if (!(fs instanceof SegmentChangesAware) || segment == null) {
+            return null;
+        }
+        return ((SegmentChangesAware) fs).getSegmentHead(segment);
+    }
+
+    private long queueChangedEvents(final Path root,
+                                    final SegmentChanges changes,
+                                    final IndexerDispatcher dispatcher) {
+        long queued = 0;
+        for (final String deleted : changes.getDeletedPaths()) {
+            if (!isHidden(deleted)) {
+                dispatcher.offer(new IndexableIOEvent.DeletedFileEvent(root.resolve(deleted)));
+                queued++;
             }
         }
+        for (final String changed : changes.getChangedPaths()) {
+            if (!isHidden(changed)) {
+                dispatcher.offer(new IndexableIOEvent.NewFileEvent(root.resolve(changed)));
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    private static boolean isHidden(final String path) {
+        return path.substring(path.lastIndexOf('/') + 1).startsWith(".");
     }
 
-    private void queueIndexingEvents(Path root, final IndexerDispatcher dispatcher) {
-        walkFileTree(checkNotNull("root",
-                                  root),
+    private static String segmentOf(final Path rootPath) {
+        return rootPath instanceof SegmentedPath ? ((SegmentedPath) rootPath).getSegmentId() : null;
+    }
+
+    public BatchIndexMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Each top level entry of the root is walked on its own, in parallel. The files found are queued afterwards, in the
+     * order of the entries, so the indexers receive them as a serial walk would.
+     */
+    private long queueIndexingEvents(Path root, final IndexerDispatcher dispatcher) {
+        final List<Path> partitions = new ArrayList<>();
+        try (DirectoryStream<Path> children = newDirectoryStream(checkNotNull("root",
+                                                                              root))) {
+            children.forEach(partitions::add);
+        }
+
+        long queued = 0;
+        for (final List<Path> files : PartitionedWork.map(partitions,
+                                                          partition -> collectFiles(root,
+                                                                                    partition),
+                                                          executorService,
+                                                          walkers)) {
+            for (final Path file : files) {
+                if (indexDisposed.get()) {
+                    return queued;
+                }
+                dispatcher.offer(new IndexableIOEvent.NewFileEvent(file));
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    private List<Path> collectFiles(final Path root,
+                                    final Path partition) {
+        final List<Path> files = new ArrayList<>();
+        walkFileTree(partition,
                      new SimpleFileVisitor<Path>() {
 
             @Override
@@ -212,12 +529,7 @@ public final class BatchIndex {
                                  attrs);
 
                     if (!file.getFileName().toString().startsWith(".")) {
-
-                        if (!indexDisposed.get()) {
-                            dispatcher.offer(new IndexableIOEvent.NewFileEvent(file));
-                        } else {
-                            return FileVisitResult.TERMINATE;
-                        }
+                        files.add(file);
                     }
                 } catch (final Exception ex) {
                     if (indexDisposed.get()) {
@@ -234,6 +546,7 @@ public final class BatchIndex {
                 return FileVisitResult.CONTINUE;
             }
         });
+        return files;
     }
 
     private void logInformation(final String message) {
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the batch indexing done by {@link BatchIndex}. Paths are accounted once their cluster finishes, the
+ * remaining time is estimated from the throughput of the clusters finished so far.
+ */
+public class BatchIndexMetrics {
+
+    private final AtomicLong fullIndexes = new AtomicLong();
+    private final AtomicLong incrementalIndexes = new AtomicLong();
+    private final AtomicLong upToDate = new AtomicLong();
+    private final AtomicLong watermarkFallbacks = new AtomicLong();
+    private final AtomicLong queuedPaths = new AtomicLong();
+    private final AtomicLong indexedPaths = new AtomicLong();
+    private final AtomicLong indexingMillis = new AtomicLong();
+
+    void onFullIndex() {
+        fullIndexes.incrementAndGet();
+    }
+
+    void onIncrementalIndex() {
+        incrementalIndexes.incrementAndGet();
+    }
+
+    void onUpToDate() {
+        upToDate.incrementAndGet();
+    }
+
+    void onWatermarkFallback() {
+        watermarkFallbacks.incrementAndGet();
+    }
+
+    void onQueued(final long paths) {
+        queuedPaths.addAndGet(paths);
+    }
+
+    void onIndexed(final long paths,
+                   final long millis) {
+        indexedPaths.addAndGet(paths);
+        indexingMillis.addAndGet(millis);
+    }
+
+    public long getFullIndexes() {
+        return fullIndexes.get();
+    }
+
+    public long getIncrementalIndexes() {
+        return incrementalIndexes.get();
+    }
+
+    /**
+     * Clusters whose watermark was the current head, nothing to index.
+     */
+    public long getUpToDate() {
+        return upToDate.get();
+    }
+
+    /**
+     * Clusters fully indexed because their watermark was missing or not reachable anymore.
+     */
+    public long getWatermarkFallbacks() {
+        return watermarkFallbacks.get();
+    }
+
+    public long getQueuedPaths() {
+        return queuedPaths.get();
+    }
+
+    public long getIndexedPaths() {
+        return indexedPaths.get();
+    }
+
+    /**
+     * @return the fraction of the queued paths already indexed, 1 when nothing is queued.
+     */
+    public double getProgress() {
+        final long queued = queuedPaths.get();
+        return queued == 0 ? 1d : Math.min(1d,
+                                           (double) indexedPaths.get() / queued);
+    }
+
+    /**
+     * @return estimated milliseconds to index the pending paths, -1 until a cluster finishes.
+     */
+    public long getEstimatedRemainingMillis() {
+        final long indexed = indexedPaths.get();
+        final long millis = indexingMillis.get();
+        if (indexed == 0 || millis == 0) {
+            return -1;
+        }
+        final long pending = Math.max(0,
+                                      queuedPaths.get() - indexed);
+        return pending * millis / indexed;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchIndexMetrics{" +
+                "fullIndexes=" + fullIndexes +
+                ", incrementalIndexes=" + incrementalIndexes +
+                ", upToDate=" + upToDate +
+                ", watermarkFallbacks=" + watermarkFallbacks +
+                ", queuedPaths=" + queuedPaths +
+                ", indexedPaths=" + indexedPaths +
+                ", indexingMillis=" + indexingMillis +
+                '}';
+    }
+}
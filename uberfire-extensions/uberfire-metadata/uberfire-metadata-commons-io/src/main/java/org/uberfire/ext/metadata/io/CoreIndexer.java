@@ -23,6 +23,10 @@ import org.uberfire.java.nio.file.Path;
 import org.uberfire.java.nio.file.attribute.FileAttribute;
 import org.uberfire.java.nio.file.attribute.FileAttributeView;
 
+/**
+ * Default indexing of the attributes of every file. Holds no state besides the immutable setup, so it is safe to call
+ * from several indexing workers at once.
+ */
 public class CoreIndexer implements Indexer {
 
     private final IOService ioService;
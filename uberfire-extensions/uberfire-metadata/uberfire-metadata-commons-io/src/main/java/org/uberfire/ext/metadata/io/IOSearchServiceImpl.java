@@ -17,6 +17,7 @@
 package org.uberfire.ext.metadata.io;
 
 import java.net.URI;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -25,7 +26,9 @@ import java.util.Map;
 import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.search.ClusterSegment;
 import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
 import org.uberfire.ext.metadata.search.SearchIndex;
+import org.uberfire.ext.metadata.search.SearchPage;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.base.FileSystemId;
 import org.uberfire.java.nio.base.SegmentedPath;
@@ -83,6 +86,43 @@ public class IOSearchServiceImpl implements IOSearchService {
         }};
     }
 
+    @Override
+    public SearchPage<Path> searchByAttrs(final Map<String, ?> attrs,
+                                          final Filter filter,
+                                          final PageRequest page,
+                                          final Path... roots) {
+        checkNotNull("page",
+                     page);
+        return toPaths(searchIndex.searchByAttrs(attrs,
+                                                 filter,
+                                                 page,
+                                                 buildClusterSegments(roots)));
+    }
+
+    @Override
+    public SearchPage<Path> fullTextSearch(final String _term,
+                                           final Filter filter,
+                                           final PageRequest page,
+                                           final Path... roots) {
+        final String term = checkNotNull("term",
+                                         _term).trim();
+        checkNotNull("page",
+                     page);
+        if (term.isEmpty()) {
+            return SearchPage.empty();
+        }
+        return toPaths(searchIndex.fullTextSearch(term,
+                                                  filter,
+                                                  page,
+                                                  buildClusterSegments(roots)));
+    }
+
+    private SearchPage<Path> toPaths(final SearchPage<KObject> page) {
+        return new SearchPage<>(new LazyPaths(page.getResults()),
+                                page.getTotalHits(),
+                                page.getNextCursor());
+    }
+
     @Override
     public int searchByAttrsHits(final Map<String, ?> attrs,
                                  final Path... roots) {
@@ -120,4 +160,33 @@ public class IOSearchServiceImpl implements IOSearchService {
         }
         return clusterSegments;
     }
+
+    /**
+     * Resolves the paths of the hits only when they are read, once per hit.
+     */
+    private class LazyPaths extends AbstractList<Path> {
+
+        private final List<KObject> kObjects;
+        private final Path[] paths;
+
+        LazyPaths(final List<KObject> kObjects) {
+            this.kObjects = kObjects;
+            this.paths = new Path[kObjects.size()];
+        }
+
+        @Override
+        public Path get(final int index) {
+            Path path = paths[index];
+            if (path == null) {
+                path = ioService.get(URI.create(kObjects.get(index).getKey()));
+                paths[index] = path;
+            }
+            return path;
+        }
+
+        @Override
+        public int size() {
+            return kObjects.size();
+        }
+    }
 }
@@ -17,6 +17,7 @@
 package org.uberfire.ext.metadata.io;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -43,6 +44,9 @@ import org.uberfire.io.IOWatchService;
 import org.uberfire.io.impl.IOServiceDotFileImpl;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.base.FSPath;
+import org.uberfire.java.nio.base.FileSystemId;
+import org.uberfire.java.nio.base.SegmentedPath;
+import org.uberfire.java.nio.base.WarmStartAware;
 import org.uberfire.java.nio.base.WatchContext;
 import org.uberfire.java.nio.base.dotfiles.DotFileUtils;
 import org.uberfire.java.nio.file.DeleteOption;
@@ -307,9 +311,35 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
     }
 
     private void setupBatchIndex(FileSystem fs) {
+        if (isIndexUpToDate(fs)) {
+            LOGGER.debug("Skipping batch index of unchanged file system [{}].",
+                         fs.getName());
+            return;
+        }
         batchIndex.runAsync(fs);
     }
 
+    /**
+     * A warm started file system has the content it had on the last shutdown, it only needs a batch index if some of
+     * its branches weren't indexed up to the heads recorded then, e.g. when the node stopped with indexing pending.
+     * Checking it this way keeps the file system unopened.
+     */
+    private boolean isIndexUpToDate(final FileSystem fs) {
+        if (!(fs instanceof WarmStartAware && fs instanceof FileSystemId)) {
+            return false;
+        }
+        final Map<String, String> heads = ((WarmStartAware) fs).getWarmStartHeads();
+        if (heads.isEmpty()) {
+            return false;
+        }
+        final String fsId = ((FileSystemId) fs).id();
+        return heads.entrySet()
+                .stream()
+                .allMatch(head -> batchIndex.isIndexedUpTo(KObjectUtil.toKCluster(fsId,
+                                                                                  head.getKey()),
+                                                           head.getValue()));
+    }
+
     protected void setupWatchService(final FileSystem fs) {
         if (watchServicesByFS.containsKey(fs.getName())) {
             return;
@@ -336,7 +366,12 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
                         break;
                     }
 
-                    final List<WatchEvent<?>> events = wk.pollEvents();
+                    final List<WatchEvent<?>> events = new ArrayList<>(wk.pollEvents());
+                    if (events.removeIf(event -> event.kind() == StandardWatchEventKind.OVERFLOW)) {
+                        LOGGER.warn("Watch events of [{}] were lost, indexing its changes again.",
+                                    fs.getName());
+                        batchIndex.reindexAsync(fs);
+                    }
                     DescriptiveRunnable job = new DescriptiveRunnable() {
                         @Override
                         public String getDescription() {
@@ -345,8 +380,10 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
 
                         @Override
                         public void run() {
+                            final Map<String, String> heads = getPublishedHeads(events);
                             fs.getRootDirectories().forEach(rootPath -> {
                                 final KCluster kCluster = KObjectUtil.toKCluster(rootPath);
+                                final String head = heads.get(kCluster.getClusterId());
                                 IndexerDispatcher dispatcher = dispatcherFactory.create(indexersFactory.getIndexers(),
                                                                                         kCluster);
                                 final Set<Path> eventRealPaths = getRealCreatedPaths(events);
@@ -356,7 +393,8 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
                                                 dispatcher);
                                     scheduleIndexing(dispatcher,
                                                      events,
-                                                     kCluster);
+                                                     kCluster,
+                                                     head);
                                 } catch (DisposedException e) {
                                     return;
                                 }
@@ -365,12 +403,17 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
 
                         private void scheduleIndexing(IndexerDispatcher dispatcher,
                                                       List<WatchEvent<?>> events,
-                                                      KCluster kCluster) {
+                                                      KCluster kCluster,
+                                                      String head) {
                             activeIndexerDispatchers.add(dispatcher);
                             dispatcher.schedule(executorService)
-                                    .thenRun(() -> LOGGER.info("Completed indexing {} events in cluster [{}].",
-                                                               events.size(),
-                                                               kCluster))
+                                    .thenRun(() -> {
+                                        LOGGER.info("Completed indexing {} events in cluster [{}].",
+                                                    events.size(),
+                                                    kCluster);
+                                        batchIndex.advanceWatermark(kCluster,
+                                                                    head);
+                                    })
                                     .whenComplete((result, exception) -> activeIndexerDispatchers.remove(dispatcher));
                         }
 
@@ -494,6 +537,26 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
         }
     }
 
+    /**
+     * Head of each cluster right after the last of the given changes, as captured when the changes were published.
+     * Reading the heads when the changes are applied instead could cover commits whose events are still queued.
+     */
+    Map<String, String> getPublishedHeads(final List<WatchEvent<?>> events) {
+        final Map<String, String> heads = new HashMap<>();
+        for (final WatchEvent<?> event : events) {
+            final WatchContext context = (WatchContext) event.context();
+            if (context == null || context.getHead() == null) {
+                continue;
+            }
+            final Path path = context.getPath() != null ? context.getPath() : context.getOldPath();
+            if (path instanceof SegmentedPath && path.getFileSystem() instanceof FileSystemId) {
+                heads.put(KObjectUtil.toKCluster(path).getClusterId(),
+                          context.getHead());
+            }
+        }
+        return heads;
+    }
+
     protected Set<Path> getRealCreatedPaths(final List<WatchEvent<?>> events) {
         // Get a set of "real paths" to be indexed. The "dot path" associated with the "real path"
         // is automatically indexed because the "dot path" contains content for FileAttributeView(s)
@@ -554,6 +617,10 @@ public class IOServiceIndexedImpl extends IOServiceDotFileImpl {
         return indexEngine;
     }
 
+    public BatchIndexMetrics getBatchIndexMetrics() {
+        return batchIndex.getMetrics();
+    }
+
     /**
      * A "No Operation" Observer, used by default
      */
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.ext.metadata.backend.lucene.index.directory.DirectoryFactory;
+import org.uberfire.ext.metadata.model.KCluster;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotEmpty;
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Last version indexed by the {@link BatchIndex} for each cluster. Stored in a properties file next to the index, so a
+ * restarted node only indexes what changed since then. The file is local to the node, a node without it indexes the
+ * clusters again over what a shared index already has.
+ */
+public class IndexWatermarks {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndexWatermarks.class);
+
+    static final String WATERMARKS_FILE_NAME = ".watermarks";
+
+    private final File file;
+    private final Map<String, String> watermarks = new ConcurrentHashMap<>();
+
+    /**
+     * @param dir where the watermarks are persisted, null keeps them in memory only.
+     */
+    public IndexWatermarks(final File dir) {
+        this.file = dir != null ? new File(dir,
+                                           WATERMARKS_FILE_NAME) : null;
+        load();
+    }
+
+    public static IndexWatermarks inDefaultIndexDir() {
+        return new IndexWatermarks(DirectoryFactory.defaultHostingDir());
+    }
+
+    public static IndexWatermarks inMemory() {
+        return new IndexWatermarks(null);
+    }
+
+    /**
+     * @return the last version indexed for the cluster, null if unknown.
+     */
+    public String get(final KCluster cluster) {
+        return watermarks.get(checkNotNull("cluster",
+                                           cluster).getClusterId());
+    }
+
+    public void put(final KCluster cluster,
+                    final String head) {
+        watermarks.put(checkNotNull("cluster",
+                                    cluster).getClusterId(),
+                       checkNotEmpty("head",
+                                     head));
+        store();
+    }
+
+    public void remove(final KCluster cluster) {
+        if (watermarks.remove(checkNotNull("cluster",
+                                           cluster).getClusterId()) != null) {
+            store();
+        }
+    }
+
+    private void load() {
+        if (file == null || !file.isFile()) {
+            return;
+        }
+        final Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (final IOException | IllegalArgumentException e) {
+            LOG.warn("Unable to read the index watermarks from [" + file + "], clusters will be fully indexed.",
+                     e);
+            return;
+        }
+        properties.stringPropertyNames().forEach(clusterId -> watermarks.put(clusterId,
+                                                                             properties.getProperty(clusterId)));
+    }
+
+    private synchronized void store() {
+        if (file == null) {
+            return;
+        }
+        final Properties properties = new Properties();
+        properties.putAll(watermarks);
+        final File tmp = new File(file.getParentFile(),
+                                  WATERMARKS_FILE_NAME + ".tmp");
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (OutputStream out = new FileOutputStream(tmp)) {
+                properties.store(out,
+                                 "last indexed version by cluster");
+            }
+            Files.move(tmp.toPath(),
+                       file.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOG.warn("Unable to store the index watermarks on [" + file + "].",
+                     e);
+        }
+    }
+}
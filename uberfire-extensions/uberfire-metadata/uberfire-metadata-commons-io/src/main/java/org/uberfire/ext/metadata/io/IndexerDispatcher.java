@@ -43,6 +43,7 @@ import org.uberfire.ext.metadata.event.IndexEvent;
 import org.uberfire.ext.metadata.io.IndexableIOEvent.DeletedFileEvent;
 import org.uberfire.ext.metadata.io.IndexableIOEvent.NewFileEvent;
 import org.uberfire.ext.metadata.io.IndexableIOEvent.RenamedFileEvent;
+import org.uberfire.ext.metadata.io.util.PartitionedWork;
 import org.uberfire.ext.metadata.model.KCluster;
 import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.model.KObjectKey;
@@ -67,7 +68,38 @@ public class IndexerDispatcher {
                                                          IndexerScheduler.Factory schedulerFactory,
                                                          Event<BatchIndexEvent> batchIndexEvent,
                                                          Logger logger) {
-        return (indexers, cluster) -> new IndexerDispatcher(indexEngine, indexers, cluster, schedulerFactory, batchIndexEvent, logger);
+        return createFactory(indexEngine, schedulerFactory, batchIndexEvent, logger, configuredWorkers());
+    }
+
+    /**
+     * @param workers The number of threads building the documents of each indexer job, 1 builds them on the job thread.
+     */
+    public static IndexerDispatcherFactory createFactory(MetaIndexEngine indexEngine,
+                                                         IndexerScheduler.Factory schedulerFactory,
+                                                         Event<BatchIndexEvent> batchIndexEvent,
+                                                         Logger logger,
+                                                         int workers) {
+        return (indexers, cluster) -> new IndexerDispatcher(indexEngine, indexers, cluster, schedulerFactory, batchIndexEvent, logger, workers);
+    }
+
+    /**
+     * Threads used to build the documents of an indexer job, defaults to the available processors. The
+     * {@link Indexer Indexers} are called from all of them at once; set it to 1 when an indexer is not thread safe.
+     */
+    public static final String INDEX_WORKERS = "org.appformer.ext.metadata.index.workers";
+
+    /**
+     * Documents built ahead of their write, by worker. Bounds the memory taken by the file contents being indexed.
+     */
+    static final int EVENTS_BY_WORKER = 64;
+
+    static int configuredWorkers() {
+        final String workers = System.getProperty(INDEX_WORKERS);
+        try {
+            return workers == null ? Runtime.getRuntime().availableProcessors() : Math.max(1, Integer.parseInt(workers.trim()));
+        } catch (NumberFormatException e) {
+            return Runtime.getRuntime().availableProcessors();
+        }
     }
 
     private final Collection<IndexerJob> jobs;
@@ -81,11 +113,21 @@ public class IndexerDispatcher {
                              IndexerScheduler.Factory schedulerFactory,
                              Event<BatchIndexEvent> batchIndexEvent,
                              Logger logger) {
+        this(indexEngine, indexers, cluster, schedulerFactory, batchIndexEvent, logger, 1);
+    }
+
+    public IndexerDispatcher(MetaIndexEngine indexEngine,
+                             Collection<? extends Indexer> indexers,
+                             KCluster cluster,
+                             IndexerScheduler.Factory schedulerFactory,
+                             Event<BatchIndexEvent> batchIndexEvent,
+                             Logger logger,
+                             int workers) {
         this.schedulerFactory = schedulerFactory;
         this.batchIndexEvent = batchIndexEvent;
         this.logger = logger;
         jobs = indexers.stream()
-                       .map(indexer -> new IndexerJob(indexEngine, indexer, cluster, logger))
+                       .map(indexer -> new IndexerJob(indexEngine, indexer, cluster, logger, workers))
                        .collect(Collectors.toList());
     }
 
@@ -120,6 +162,7 @@ public class IndexerDispatcher {
         final Map<String, ? extends Supplier<List<IndexEvent>>> jobsById =
                 jobs.stream()
                     .collect(Collectors.toMap(job -> job.indexer.getIndexerId(), Function.identity()));
+        jobs.forEach(job -> job.executor = executor);
         final IndexerScheduler scheduler = schedulerFactory.create(jobsById);
 
         CompletableFuture<?>[] allFutures = scheduler.schedule(executor)
@@ -169,12 +212,15 @@ public class IndexerDispatcher {
         private final AtomicBoolean disposed = new AtomicBoolean(false);
         private final Logger logger;
         private final KCluster cluster;
+        private final int workers;
+        private volatile ExecutorService executor;
 
-        IndexerJob(MetaIndexEngine indexEngine, Indexer indexer, KCluster cluster, Logger logger) {
+        IndexerJob(MetaIndexEngine indexEngine, Indexer indexer, KCluster cluster, Logger logger, int workers) {
             this.indexEngine = indexEngine;
             this.indexer = indexer;
             this.cluster = cluster;
             this.logger = logger;
+            this.workers = workers;
         }
 
         void offer(IndexableIOEvent event) {
@@ -206,26 +252,44 @@ public class IndexerDispatcher {
             }
         }
 
+        /**
+         * Documents are built (file reads and {@link Indexer} invocation) by up to {@code workers} threads, a window of
+         * events at a time. They are then handed to the index engine in order, from this thread, which owns the batch.
+         */
         private List<IndexEvent> processEvents() {
             List<IndexEvent> outputEvents = new ArrayList<>(inputEvents.size());
-            IndexableIOEvent event;
+            final int windowSize = workers * EVENTS_BY_WORKER;
+            final List<IndexableIOEvent> window = new ArrayList<>(Math.min(windowSize, inputEvents.size()));
             while (!inputEvents.isEmpty()) {
-                event = inputEvents.poll();
-                if (disposed.get()) {
-                    throw new DisposedException();
-                } else if (isFileSystemOpen(event)) {
-                    processEvent(event).ifPresent(outputEvents::add);
-                } else {
-                    logger.debug("Skipping indexing of [{}] for indexer [id={}], because the filesystem [{}] is closed.",
-                                 event,
-                                 indexer.getIndexerId(),
-                                 fileSystemOf(event));
+                window.clear();
+                while (window.size() < windowSize && !inputEvents.isEmpty()) {
+                    window.add(inputEvents.poll());
+                }
+                for (Supplier<Optional<IndexEvent>> action : PartitionedWork.map(window, this::prepareEvent, executor, workers)) {
+                    if (disposed.get()) {
+                        throw new DisposedException();
+                    }
+                    action.get().ifPresent(outputEvents::add);
                 }
             }
 
             return outputEvents;
         }
 
+        private Supplier<Optional<IndexEvent>> prepareEvent(IndexableIOEvent event) {
+            if (disposed.get()) {
+                throw new DisposedException();
+            } else if (isFileSystemOpen(event)) {
+                return processEvent(event);
+            } else {
+                logger.debug("Skipping indexing of [{}] for indexer [id={}], because the filesystem [{}] is closed.",
+                             event,
+                             indexer.getIndexerId(),
+                             fileSystemOf(event));
+                return Optional::empty;
+            }
+        }
+
         private static boolean isFileSystemOpen(IndexableIOEvent event) {
             return fileSystemOf(event).isOpen();
         }
@@ -236,46 +300,52 @@ public class IndexerDispatcher {
                                evt -> evt.getFile().getFileSystem());
         }
 
-        private Optional<IndexEvent> processEvent(IndexableIOEvent event) {
+        private Supplier<Optional<IndexEvent>> processEvent(IndexableIOEvent event) {
             logger.debug("Processing event [{}] for indexer [id={}].", event, indexer.getIndexerId());
             return event.apply(this::processNew,
                                this::processRenamed,
                                this::processDeleted);
         }
 
-        private Optional<IndexEvent> processRenamed(RenamedFileEvent event) {
+        private Supplier<Optional<IndexEvent>> processRenamed(RenamedFileEvent event) {
             final Path sourcePath = event.getOldPath();
             final Path destinationPath = event.getNewPath();
             final KObjectKey kObjectSource = indexer.toKObjectKey(sourcePath );
             final KObject kObjectDestination = indexer.toKObject(destinationPath);
-            if (kObjectSource != null && kObjectDestination != null) {
-                indexEngine.rename(kObjectSource, kObjectDestination);
-                return Optional.of(new IndexEvent.RenamedEvent(kObjectSource, kObjectDestination));
-            } else {
-                return Optional.empty();
-            }
+            return () -> {
+                if (kObjectSource != null && kObjectDestination != null) {
+                    indexEngine.rename(kObjectSource, kObjectDestination);
+                    return Optional.of(new IndexEvent.RenamedEvent(kObjectSource, kObjectDestination));
+                } else {
+                    return Optional.empty();
+                }
+            };
         }
 
-        private Optional<IndexEvent> processNew(NewFileEvent event) {
+        private Supplier<Optional<IndexEvent>> processNew(NewFileEvent event) {
             Path path = event.getFile();
             final KObject kObject = indexer.toKObject(path);
-            if (kObject != null) {
-                indexEngine.index(kObject);
-                return Optional.of(new IndexEvent.NewlyIndexedEvent(kObject));
-            } else {
-                return Optional.empty();
-            }
+            return () -> {
+                if (kObject != null) {
+                    indexEngine.index(kObject);
+                    return Optional.of(new IndexEvent.NewlyIndexedEvent(kObject));
+                } else {
+                    return Optional.empty();
+                }
+            };
         }
 
-        private Optional<IndexEvent> processDeleted(DeletedFileEvent event) {
+        private Supplier<Optional<IndexEvent>> processDeleted(DeletedFileEvent event) {
             final Path oldPath = event.getFile();
             final KObjectKey kObject = indexer.toKObjectKey(oldPath);
-            if (kObject != null) {
-                indexEngine.delete(kObject);
-                return Optional.of(new IndexEvent.DeletedEvent(kObject));
-            } else {
-                return Optional.empty();
-            }
+            return () -> {
+                if (kObject != null) {
+                    indexEngine.delete(kObject);
+                    return Optional.of(new IndexEvent.DeletedEvent(kObject));
+                } else {
+                    return Optional.empty();
+                }
+            };
         }
     }
 
@@ -242,6 +242,12 @@ public final class KObjectUtil {
     public static KCluster toKCluster(final Path fsPath) {
         final String fsId = ((FileSystemId) fsPath.getFileSystem()).id();
         final String segmentId = ((SegmentedPath) fsPath).getSegmentId();
+        return toKCluster(fsId,
+                          segmentId);
+    }
+
+    public static KCluster toKCluster(final String fsId,
+                                      final String segmentId) {
         return new KClusterImpl(fsId + CLUSTER_ID_SEGMENT_SEPARATOR + segmentId);
     }
 
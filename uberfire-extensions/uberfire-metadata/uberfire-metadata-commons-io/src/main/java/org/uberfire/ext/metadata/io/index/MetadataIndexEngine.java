@@ -41,6 +41,7 @@ import org.uberfire.ext.metadata.metamodel.MetaModelBuilder;
 import org.uberfire.ext.metadata.model.KCluster;
 import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.model.KObjectKey;
+import org.uberfire.ext.metadata.provider.IndexBatch;
 import org.uberfire.ext.metadata.provider.IndexProvider;
 
 import static org.kie.soup.commons.validation.PortablePreconditions.checkCondition;
@@ -74,7 +75,7 @@ public class MetadataIndexEngine implements MetaIndexEngine {
     }
 
     @Override
-    public synchronized boolean freshIndex(KCluster cluster) {
+    public boolean freshIndex(KCluster cluster) {
         boolean containsKey = batchLocks.containsKey(cluster);
         boolean isFreshIndex = this.provider.isFreshIndex(cluster) && !containsKey;
         if (logger.isDebugEnabled()) {
@@ -254,13 +255,49 @@ public class MetadataIndexEngine implements MetaIndexEngine {
                           String indexerId) {
         try {
             lock.lock(indexerId);
-            batchSet.forEach(this::doAction);
+            applyBatch(cluster,
+                       batchSet);
             removeThreadLocalBatchState(cluster);
         } finally {
             lock.unlock(indexerId);
         }
     }
 
+    /**
+     * Collects the whole batch, in order, and hands it to the provider at once, so indexed, renamed and deleted
+     * objects of one batch are written with a single commit.
+     */
+    private void applyBatch(KCluster cluster,
+                            List<IndexEvent> batchSet) {
+        final IndexBatch batch = new IndexBatch();
+        for (final IndexEvent event : batchSet) {
+            switch (event.getKind()) {
+                case NewlyIndexed: {
+                    final KObject kObject = ((NewlyIndexedEvent) event).getKObject();
+                    this.metaModelBuilder.updateMetaModel(kObject);
+                    batch.index(kObject);
+                    break;
+                }
+                case Renamed: {
+                    final RenamedEvent renamedEvent = (RenamedEvent) event;
+                    batch.rename(renamedEvent.getSource().getId(),
+                                 renamedEvent.getTarget());
+                    break;
+                }
+                case Deleted: {
+                    batch.delete(((DeletedEvent) event).getDeleted().getId());
+                    break;
+                }
+                default:
+                    throw new UnsupportedOperationException("Unrecognized index event kind: " + event.getKind());
+            }
+        }
+        if (!batch.isEmpty()) {
+            provider.apply(cluster.getClusterId(),
+                           batch);
+        }
+    }
+
     @Override
     public void abort(KCluster cluster) {
         removeThreadLocalBatchState(cluster);
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.io.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkCondition;
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * <p>
+ * Maps a list of items with up to {@code workers} threads of an executor, keeping the order of the items.
+ * <p>
+ * The calling thread takes items too and only waits for the items other threads already took. The caller is usually a
+ * task of the same executor, so waiting for workers that may never get a thread of a bounded executor would deadlock.
+ */
+public final class PartitionedWork {
+
+    private PartitionedWork() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, R> List<R> map(final List<T> items,
+                                     final Function<T, R> function,
+                                     final Executor executor,
+                                     final int workers) {
+        checkNotNull("items",
+                     items);
+        checkNotNull("function",
+                     function);
+        checkCondition("workers greater than zero",
+                       workers > 0);
+
+        final int size = items.size();
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        if (workers == 1 || size == 1 || executor == null) {
+            final List<R> results = new ArrayList<>(size);
+            items.forEach(item -> results.add(function.apply(item)));
+            return results;
+        }
+
+        final Object[] results = new Object[size];
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch completed = new CountDownLatch(size);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Runnable worker = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < size) {
+                try {
+                    if (failure.get() == null) {
+                        results[i] = function.apply(items.get(i));
+                    }
+                } catch (final Throwable t) {
+                    failure.compareAndSet(null,
+                                          t);
+                } finally {
+                    completed.countDown();
+                }
+            }
+        };
+
+        for (int i = 1; i < Math.min(workers,
+                                     size); i++) {
+            try {
+                executor.execute(worker);
+            } catch (final RejectedExecutionException e) {
+                // the calling thread takes the remaining items
+                break;
+            }
+        }
+        worker.run();
+
+        try {
+            completed.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the partitioned work to finish.",
+                                            e);
+        }
+
+        final Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t != null) {
+            throw new RuntimeException(t);
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+}
@@ -35,6 +35,8 @@ import org.uberfire.ext.metadata.io.common.util.TestFileSystemProvider.MockFileS
 import org.uberfire.ext.metadata.model.KCluster;
 import org.uberfire.java.nio.base.AttrsStorage;
 import org.uberfire.java.nio.base.FSPath;
+import org.uberfire.java.nio.base.FileSystemId;
+import org.uberfire.java.nio.base.SegmentedPath;
 import org.uberfire.java.nio.base.WatchContext;
 import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.Path;
@@ -52,6 +54,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 import static org.junit.Assert.*;
 import static org.uberfire.java.nio.file.StandardWatchEventKind.ENTRY_MODIFY;
 
@@ -156,6 +159,54 @@ public class IOServiceIndexedTest {
         assertTrue(ioService.isIgnored(path));
     }
 
+    @Test
+    public void publishedHeadsAreTheLastOfEachClusterTest() throws Exception {
+        final Path master = segmentPath("repo",
+                                        "master");
+        final Path dev = segmentPath("repo",
+                                     "dev");
+
+        final Map<String, String> heads = ioService.getPublishedHeads(Arrays.asList(watchEvent(master,
+                                                                                               "c1"),
+                                                                                    watchEvent(dev,
+                                                                                               "d1"),
+                                                                                    watchEvent(master,
+                                                                                               "c2"),
+                                                                                    watchEvent(master,
+                                                                                               null)));
+
+        assertEquals(2,
+                     heads.size());
+        assertEquals("c2",
+                     heads.get(KObjectUtil.toKCluster("repo",
+                                                      "master").getClusterId()));
+        assertEquals("d1",
+                     heads.get(KObjectUtil.toKCluster("repo",
+                                                      "dev").getClusterId()));
+    }
+
+    private Path segmentPath(final String fsId,
+                             final String segment) {
+        final FileSystem fileSystem = mock(FileSystem.class,
+                                           withSettings().extraInterfaces(FileSystemId.class));
+        when(((FileSystemId) fileSystem).id()).thenReturn(fsId);
+        final Path path = mock(Path.class,
+                               withSettings().extraInterfaces(SegmentedPath.class));
+        when(((SegmentedPath) path).getSegmentId()).thenReturn(segment);
+        when(path.getFileSystem()).thenReturn(fileSystem);
+        return path;
+    }
+
+    private WatchEvent<?> watchEvent(final Path path,
+                                     final String head) {
+        final WatchContext context = mock(WatchContext.class);
+        when(context.getPath()).thenReturn(path);
+        when(context.getHead()).thenReturn(head);
+        final WatchEvent<?> event = mock(WatchEvent.class);
+        doReturn(context).when(event).context();
+        return event;
+    }
+
     @Test
     public void queueRenameShouldDispatchIndexEventTest() throws Exception {
         WatchContext context = mock(WatchContext.class);
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.io.common;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.ext.metadata.engine.Indexer;
+import org.uberfire.ext.metadata.engine.MetaIndexEngine;
+import org.uberfire.ext.metadata.engine.Observer;
+import org.uberfire.ext.metadata.io.BatchIndex;
+import org.uberfire.ext.metadata.io.IndexWatermarks;
+import org.uberfire.ext.metadata.io.IndexableIOEvent;
+import org.uberfire.ext.metadata.io.IndexableIOEvent.DeletedFileEvent;
+import org.uberfire.ext.metadata.io.IndexableIOEvent.NewFileEvent;
+import org.uberfire.ext.metadata.io.IndexerDispatcher;
+import org.uberfire.ext.metadata.io.IndexerDispatcher.IndexerDispatcherFactory;
+import org.uberfire.ext.metadata.io.IndexersFactory;
+import org.uberfire.ext.metadata.io.KObjectUtil;
+import org.uberfire.ext.metadata.model.KCluster;
+import org.uberfire.java.nio.base.FileSystemId;
+import org.uberfire.java.nio.base.SegmentChanges;
+import org.uberfire.java.nio.base.SegmentChangesAware;
+import org.uberfire.java.nio.base.SegmentedPath;
+import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.spi.FileSystemProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchIndexWatermarkTest {
+
+    private static final String SEGMENT = "master";
+
+    @Mock
+    private MetaIndexEngine indexEngine;
+
+    @Mock
+    private Observer observer;
+
+    @Mock
+    private ExecutorService executorService;
+
+    @Mock
+    private IndexerDispatcherFactory dispatcherFactory;
+
+    @Mock
+    private IndexerDispatcher dispatcher;
+
+    private FileSystem fs;
+    private Path root;
+    private KCluster cluster;
+    private IndexWatermarks watermarks;
+    private BatchIndex batchIndex;
+
+    @Before
+    public void setup() {
+        fs = mock(FileSystem.class,
+                  withSettings().extraInterfaces(SegmentChangesAware.class,
+                                                 FileSystemId.class));
+        when(((FileSystemId) fs).id()).thenReturn("repo");
+        root = mock(Path.class,
+                    withSettings().extraInterfaces(SegmentedPath.class));
+        when(((SegmentedPath) root).getSegmentId()).thenReturn(SEGMENT);
+        when(root.getFileSystem()).thenReturn(fs);
+        when(fs.getRootDirectories()).thenReturn(Collections.singletonList(root));
+        final FileSystemProvider provider = mock(FileSystemProvider.class);
+        final DirectoryStream<Path> children = mock(DirectoryStream.class);
+        when(children.iterator()).thenReturn(Collections.<Path>emptyList().iterator());
+        when(fs.provider()).thenReturn(provider);
+        when(provider.newDirectoryStream(any(Path.class),
+                                         any(DirectoryStream.Filter.class))).thenReturn(children);
+        cluster = KObjectUtil.toKCluster(root);
+
+        when(indexEngine.freshIndex(any(KCluster.class))).thenReturn(false);
+        when(dispatcherFactory.create(anyListOf(Indexer.class),
+                                      any(KCluster.class))).thenReturn(dispatcher);
+        when(dispatcher.schedule(executorService)).thenReturn(CompletableFuture.completedFuture(null));
+
+        watermarks = IndexWatermarks.inMemory();
+        batchIndex = new BatchIndex(indexEngine,
+                                    observer,
+                                    executorService,
+                                    new IndexersFactory(),
+                                    dispatcherFactory,
+                                    null,
+                                    watermarks);
+    }
+
+    @Test
+    public void upToDateClusterIsNotIndexed() {
+        watermarks.put(cluster,
+                       "c2");
+        when(((SegmentChangesAware) fs).getSegmentHead(SEGMENT)).thenReturn("c2");
+
+        batchIndex.run(fs,
+                       null);
+
+        verify(dispatcherFactory,
+               never()).create(anyListOf(Indexer.class),
+                               any(KCluster.class));
+        verify(indexEngine,
+               never()).delete(any(KCluster.class));
+        assertEquals(1,
+                     batchIndex.getMetrics().getUpToDate());
+    }
+
+    @Test
+    public void clusterIsIndexedUpToItsWatermark() {
+        watermarks.put(cluster,
+                       "c1");
+
+        assertTrue(batchIndex.isIndexedUpTo(cluster,
+                                            "c1"));
+        assertFalse(batchIndex.isIndexedUpTo(cluster,
+                                             "c2"));
+        assertFalse(batchIndex.isIndexedUpTo(cluster,
+                                             null));
+
+        when(indexEngine.freshIndex(cluster)).thenReturn(true);
+        assertFalse(batchIndex.isIndexedUpTo(cluster,
+                                             "c1"));
+    }
+
+    @Test
+    public void onlyChangesSinceWatermarkAreIndexed() {
+        final Path changed = mock(Path.class);
+        final Path deleted = mock(Path.class);
+        when(root.resolve("src/changed.txt")).thenReturn(changed);
+        when(root.resolve("src/deleted.txt")).thenReturn(deleted);
+        watermarks.put(cluster,
+                       "c1");
+        when(((SegmentChangesAware) fs).getSegmentHead(SEGMENT)).thenReturn("c2");
+        when(((SegmentChangesAware) fs).getSegmentChanges(SEGMENT,
+                                                          "c1")).thenReturn(new SegmentChanges("c2",
+                                                                                               Arrays.asList("src/changed.txt",
+                                                                                                             "src/.changed.txt"),
+                                                                                               Collections.singletonList("src/deleted.txt")));
+
+        batchIndex.run(fs,
+                       null);
+
+        final ArgumentCaptor<IndexableIOEvent> events = ArgumentCaptor.forClass(IndexableIOEvent.class);
+        verify(dispatcher,
+               times(2)).offer(events.capture());
+        final List<IndexableIOEvent> offered = events.getAllValues();
+        assertTrue(offered.get(0) instanceof DeletedFileEvent);
+        assertSame(deleted,
+                   ((DeletedFileEvent) offered.get(0)).getFile());
+        assertTrue(offered.get(1) instanceof NewFileEvent);
+        assertSame(changed,
+                   ((NewFileEvent) offered.get(1)).getFile());
+
+        verify(indexEngine,
+               never()).delete(any(KCluster.class));
+        assertEquals("c2",
+                     watermarks.get(cluster));
+        assertEquals(1,
+                     batchIndex.getMetrics().getIncrementalIndexes());
+        assertEquals(2,
+                     batchIndex.getMetrics().getIndexedPaths());
+    }
+
+    @Test
+    public void changesAreCheckedOncePerCluster() {
+        watermarks.put(cluster,
+                       "c1");
+        when(((SegmentChangesAware) fs).getSegmentHead(SEGMENT)).thenReturn("c2");
+        when(((SegmentChangesAware) fs).getSegmentChanges(SEGMENT,
+                                                          "c1")).thenReturn(new SegmentChanges("c2",
+                                                                                               Collections.emptyList(),
+                                                                                               Collections.emptyList()));
+
+        batchIndex.run(fs,
+                       null);
+        batchIndex.run(fs,
+                       null);
+
+        verify(((SegmentChangesAware) fs),
+               times(1)).getSegmentHead(SEGMENT);
+    }
+
+    @Test
+    public void clusterWithoutWatermarkIsIndexedAgainWithoutDroppingIt() {
+        when(((SegmentChangesAware) fs).getSegmentHead(SEGMENT)).thenReturn("c2");
+
+        batchIndex.run(fs,
+                       null);
+
+        verify(indexEngine,
+               never()).delete(any(KCluster.class));
+        assertEquals("c2",
+                     watermarks.get(cluster));
+        assertEquals(1,
+                     batchIndex.getMetrics().getWatermarkFallbacks());
+    }
+
+    @Test
+    public void clusterWithUnreachableWatermarkIsRebuilt() {
+        watermarks.put(cluster,
+                       "rewritten");
+        when(((SegmentChangesAware) fs).getSegmentHead(SEGMENT)).thenReturn("c2");
+
+        batchIndex.run(fs,
+                       null);
+
+        verify(indexEngine).delete(cluster);
+        assertEquals("c2",
+                     watermarks.get(cluster));
+    }
+
+    @Test
+    public void watermarkIsAdvancedByAppliedChanges() {
+        watermarks.put(cluster,
+                       "c1");
+
+        batchIndex.advanceWatermark(cluster,
+                                    "c2");
+
+        assertEquals("c2",
+                     watermarks.get(cluster));
+    }
+
+    @Test
+    public void watermarkIsNotAdvancedWithoutACompletedBatch() {
+        batchIndex.advanceWatermark(cluster,
+                                    "c2");
+
+        assertNull(watermarks.get(cluster));
+    }
+
+    @Test
+    public void watermarkIsHeldUntilLostChangesAreIndexed() {
+        watermarks.put(cluster,
+                       "c1");
+        when(indexEngine.isAlive()).thenReturn(true);
+        when(((SegmentChangesAware) fs).getSegmentHead(SEGMENT)).thenReturn("c2");
+        when(((SegmentChangesAware) fs).getSegmentChanges(SEGMENT,
+                                                          "c1")).thenReturn(new SegmentChanges("c2",
+                                                                                               Collections.emptyList(),
+                                                                                               Collections.emptyList()));
+
+        batchIndex.reindexAsync(fs);
+        batchIndex.advanceWatermark(cluster,
+                                    "c3");
+
+        assertEquals("c1",
+                     watermarks.get(cluster));
+
+        final ArgumentCaptor<Runnable> reindex = ArgumentCaptor.forClass(Runnable.class);
+        verify(executorService).execute(reindex.capture());
+        reindex.getValue().run();
+
+        assertEquals("c2",
+                     watermarks.get(cluster));
+        batchIndex.advanceWatermark(cluster,
+                                    "c3");
+        assertEquals("c3",
+                     watermarks.get(cluster));
+    }
+}
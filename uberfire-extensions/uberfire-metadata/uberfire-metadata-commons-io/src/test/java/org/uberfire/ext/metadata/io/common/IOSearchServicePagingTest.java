@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.io.common;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.ext.metadata.io.IOSearchServiceImpl;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.impl.KObjectImpl;
+import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.SearchIndex;
+import org.uberfire.ext.metadata.search.SearchPage;
+import org.uberfire.io.IOService;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IOSearchServicePagingTest {
+
+    @Mock
+    private SearchIndex searchIndex;
+
+    @Mock
+    private IOService ioService;
+
+    private IOSearchService searchService;
+
+    @Before
+    public void setup() {
+        searchService = new IOSearchServiceImpl(searchIndex,
+                                                ioService);
+    }
+
+    @Test
+    public void pathsAreResolvedWhenRead() {
+        final Map<String, Object> attrs = Collections.singletonMap("filename",
+                                                                   "*.txt");
+        final PageRequest request = PageRequest.of(0,
+                                                   2);
+        when(searchIndex.searchByAttrs(eq(attrs),
+                                       any(IOSearchService.Filter.class),
+                                       eq(request))).thenReturn(new SearchPage<>(Arrays.asList(kObject("git://master@repo/a.txt"),
+                                                                                               kObject("git://master@repo/b.txt")),
+                                                                                 10,
+                                                                                 "next"));
+        final Path path = mock(Path.class);
+        when(ioService.get(URI.create("git://master@repo/a.txt"))).thenReturn(path);
+
+        final SearchPage<Path> page = searchService.searchByAttrs(attrs,
+                                                                  new IOSearchService.NoOpFilter(),
+                                                                  request);
+
+        assertEquals(2,
+                     page.getResults().size());
+        assertEquals(10,
+                     page.getTotalHits());
+        assertEquals("next",
+                     page.getNextCursor());
+        verify(ioService,
+               never()).get(any(URI.class));
+
+        assertSame(path,
+                   page.getResults().get(0));
+        assertSame(path,
+                   page.getResults().get(0));
+        verify(ioService,
+               times(1)).get(any(URI.class));
+    }
+
+    @Test
+    public void emptyTermReturnsEmptyPage() {
+        final SearchPage<Path> page = searchService.fullTextSearch("  ",
+                                                                   new IOSearchService.NoOpFilter(),
+                                                                   PageRequest.of(0,
+                                                                                  10));
+
+        assertTrue(page.getResults().isEmpty());
+        verify(searchIndex,
+               never()).fullTextSearch(any(String.class),
+                                       any(IOSearchService.Filter.class),
+                                       any(PageRequest.class));
+    }
+
+    private static KObject kObject(final String key) {
+        return new KObjectImpl(key,
+                               "java",
+                               "cluster",
+                               "segment",
+                               key,
+                               Collections.emptyList(),
+                               true);
+    }
+}
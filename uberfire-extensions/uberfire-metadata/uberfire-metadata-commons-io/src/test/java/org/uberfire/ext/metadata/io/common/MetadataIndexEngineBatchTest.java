@@ -15,11 +15,15 @@
 
 package org.uberfire.ext.metadata.io.common;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.ext.metadata.backend.lucene.model.KClusterImpl;
@@ -31,13 +35,21 @@ import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.model.KObjectKey;
 import org.uberfire.ext.metadata.model.impl.KObjectImpl;
 import org.uberfire.ext.metadata.model.impl.KObjectKeyImpl;
+import org.uberfire.ext.metadata.provider.IndexBatch;
 import org.uberfire.ext.metadata.provider.IndexProvider;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -78,6 +90,13 @@ public class MetadataIndexEngineBatchTest {
                                         "java",
                                         cluster.getClusterId(),
                                         "segment");
+        // mocks don't run default methods, so apply the batch the way the default implementation does
+        doAnswer(invocation -> {
+            ((IndexBatch) invocation.getArguments()[1]).applyInRuns(provider,
+                                                                    (String) invocation.getArguments()[0]);
+            return null;
+        }).when(provider).apply(anyString(),
+                                any(IndexBatch.class));
         indexEngine = new MetadataIndexEngine(provider, metaModelStore, () -> lock);
     }
 
@@ -95,7 +114,8 @@ public class MetadataIndexEngineBatchTest {
         indexDeferredInBatchMode();
 
         indexEngine.commit(cluster, TEST_INDEXER);
-        verify(provider).index(same(kObject));
+        verify(provider).index(Collections.singletonList(kObject));
+        verify(provider, never()).index(same(kObject));
     }
 
     @Test
@@ -119,7 +139,9 @@ public class MetadataIndexEngineBatchTest {
         renameDeferredInBatchMode();
 
         indexEngine.commit(cluster, TEST_INDEXER);
-        verify(provider).rename(any(), any(), same(kObject));
+        verify(provider).rename(cluster.getClusterId(),
+                                Collections.singletonMap(kObjectKey.getId(),
+                                                         kObject));
     }
 
     @Test
@@ -143,7 +165,8 @@ public class MetadataIndexEngineBatchTest {
         deleteDeferredInBatchMode();
 
         indexEngine.commit(cluster, TEST_INDEXER);
-        verify(provider).delete(kObjectKey.getClusterId(), kObjectKey.getId());
+        verify(provider).delete(kObjectKey.getClusterId(),
+                                Collections.singletonList(kObjectKey.getId()));
     }
 
     @Test
@@ -202,6 +225,101 @@ public class MetadataIndexEngineBatchTest {
         indexEngine.commit(cluster, "test-indexer");
 
         verify(provider, never()).index(any(KObject.class));
+        verify(provider, never()).index(anyListOf(KObject.class));
+    }
+
+    @Test
+    public void batchEventsOfSameKindAreAppliedTogether() throws Exception {
+        final KObject other = new KObjectImpl("3",
+                                              "java",
+                                              cluster.getClusterId(),
+                                              "segment",
+                                              "other",
+                                              Collections.emptyList(),
+                                              true);
+        final KObjectKey otherKey = new KObjectKeyImpl("other",
+                                                       "4",
+                                                       "java",
+                                                       cluster.getClusterId(),
+                                                       "segment");
+
+        indexEngine.startBatch(cluster);
+        indexEngine.index(kObject);
+        indexEngine.index(other);
+        indexEngine.delete(kObjectKey);
+        indexEngine.delete(otherKey);
+        indexEngine.index(kObject);
+        indexEngine.commit(cluster, TEST_INDEXER);
+
+        final InOrder order = inOrder(provider);
+        order.verify(provider).index(Arrays.asList(kObject,
+                                                   other));
+        order.verify(provider).delete(cluster.getClusterId(),
+                                      Arrays.asList(kObjectKey.getId(),
+                                                    otherKey.getId()));
+        order.verify(provider).index(Collections.singletonList(kObject));
+        verify(provider, times(2)).index(anyListOf(KObject.class));
+        verify(provider, never()).delete(anyString(), anyString());
+    }
+
+    @Test
+    public void mixedBatchIsAppliedOnce() throws Exception {
+        indexEngine.startBatch(cluster);
+        indexEngine.index(kObject);
+        indexEngine.delete(kObjectKey);
+        indexEngine.rename(kObjectKey, kObject);
+        indexEngine.index(kObject);
+        indexEngine.commit(cluster, TEST_INDEXER);
+
+        final ArgumentCaptor<IndexBatch> batch = ArgumentCaptor.forClass(IndexBatch.class);
+        verify(provider).apply(eq(cluster.getClusterId()),
+                               batch.capture());
+        assertEquals(Arrays.asList(IndexBatch.Kind.INDEX,
+                                   IndexBatch.Kind.DELETE,
+                                   IndexBatch.Kind.RENAME,
+                                   IndexBatch.Kind.INDEX),
+                     batch.getValue().getOperations().stream()
+                             .map(IndexBatch.Operation::getKind)
+                             .collect(Collectors.toList()));
+        assertEquals(Arrays.asList(kObject.getId(),
+                                   kObjectKey.getId(),
+                                   kObjectKey.getId(),
+                                   kObject.getId()),
+                     batch.getValue().getOperations().stream()
+                             .map(IndexBatch.Operation::getId)
+                             .collect(Collectors.toList()));
     }
 
+    @Test
+    public void emptyBatchIsNotApplied() throws Exception {
+        indexEngine.startBatch(cluster);
+        indexEngine.commit(cluster, TEST_INDEXER);
+
+        verify(provider, never()).apply(anyString(), any(IndexBatch.class));
+    }
+
+    @Test
+    public void renamesOfSameObjectAreNotMerged() throws Exception {
+        final KObject other = new KObjectImpl("3",
+                                              "java",
+                                              cluster.getClusterId(),
+                                              "segment",
+                                              "other",
+                                              Collections.emptyList(),
+                                              true);
+
+        indexEngine.startBatch(cluster);
+        indexEngine.rename(kObjectKey, kObject);
+        indexEngine.rename(kObjectKey, other);
+        indexEngine.commit(cluster, TEST_INDEXER);
+
+        final InOrder order = inOrder(provider);
+        order.verify(provider).rename(cluster.getClusterId(),
+                                      Collections.singletonMap(kObjectKey.getId(),
+                                                               kObject));
+        order.verify(provider).rename(cluster.getClusterId(),
+                                      Collections.singletonMap(kObjectKey.getId(),
+                                                               other));
+        verify(provider, never()).rename(anyString(), anyString(), any(KObject.class));
+    }
 }
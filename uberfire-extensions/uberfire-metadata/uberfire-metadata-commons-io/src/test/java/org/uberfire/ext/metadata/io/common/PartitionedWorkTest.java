@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.ext.metadata.io.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.ext.metadata.io.util.PartitionedWork;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PartitionedWorkTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void resultsKeepTheOrderOfTheItems() {
+        final List<Integer> items = range(1000);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        final List<Integer> results = PartitionedWork.map(items,
+                                                          i -> {
+                                                              threads.add(Thread.currentThread().getName());
+                                                              return i * 2;
+                                                          },
+                                                          executor,
+                                                          4);
+
+        assertEquals(1000,
+                     results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i * 2,
+                         (int) results.get(i));
+        }
+        assertTrue(threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test(timeout = 10000)
+    public void callerOnABusyExecutorDoesNotDeadlock() throws Exception {
+        final ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            single.execute(() -> {
+                // the only thread of the executor is the caller, the workers it submits can't start before it ends
+                PartitionedWork.map(range(100),
+                                    i -> i,
+                                    single,
+                                    4);
+                done.countDown();
+            });
+            assertTrue(done.await(5,
+                                  TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failureOfAnItemIsRethrown() {
+        try {
+            PartitionedWork.map(range(100),
+                                i -> {
+                                    if (i == 42) {
+                                        throw new IllegalArgumentException("item " + i);
+                                    }
+                                    return i;
+                                },
+                                executor,
+                                4);
+            fail("failure expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("item 42",
+                         e.getMessage());
+        }
+    }
+
+    private static List<Integer> range(final int size) {
+        final List<Integer> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(i);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.ext.metadata.io.lucene;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.uberfire.ext.metadata.io.CoreIndexer;
+import org.uberfire.ext.metadata.model.KObject;
+import org.uberfire.ext.metadata.model.KProperty;
+import org.uberfire.io.attribute.DublinCoreView;
+import org.uberfire.java.nio.base.version.VersionAttributeView;
+import org.uberfire.java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Indexer jobs call their indexers from several workers at once, so the in-tree indexer must give the same objects
+ * when called concurrently as when called from a single thread.
+ */
+public class CoreIndexerConcurrencyTest extends BaseIndexTest {
+
+    private static final int FILES = 64;
+    private static final int THREADS = 8;
+
+    @Override
+    protected String[] getRepositoryNames() {
+        return new String[]{this.getClass().getSimpleName()};
+    }
+
+    @Test
+    public void toKObjectIsThreadSafe() throws Exception {
+        final List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            final Path path = getBasePath(this.getClass().getSimpleName()).resolve("dir" + (i % 4) + "/file" + i + ".txt");
+            ioService().write(path,
+                              "content " + i);
+            paths.add(path);
+        }
+
+        final CoreIndexer indexer = new CoreIndexer(ioService(),
+                                                    DublinCoreView.class,
+                                                    VersionAttributeView.class);
+        final List<String> expected = new ArrayList<>();
+        for (final Path path : paths) {
+            expected.add(describe(indexer.toKObject(path)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 4; round++) {
+                final List<Future<String>> results = new ArrayList<>();
+                for (final Path path : paths) {
+                    final Callable<String> task = () -> describe(indexer.toKObject(path));
+                    results.add(executor.submit(task));
+                }
+                for (int i = 0; i < FILES; i++) {
+                    assertEquals(expected.get(i),
+                                 results.get(i).get());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String describe(final KObject kObject) {
+        assertNotNull(kObject);
+        final TreeSet<String> properties = new TreeSet<>();
+        for (final KProperty<?> property : kObject.getProperties()) {
+            properties.add(property.getName());
+        }
+        return kObject.getId() + "|" + kObject.getKey() + "|" + kObject.getClusterId() + "|" + kObject.getSegmentId() + "|" + properties;
+    }
+}
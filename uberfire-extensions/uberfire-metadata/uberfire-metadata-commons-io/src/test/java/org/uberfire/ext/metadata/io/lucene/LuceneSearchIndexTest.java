@@ -18,8 +18,10 @@ package org.uberfire.ext.metadata.io.lucene;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.jboss.byteman.contrib.bmunit.BMScript;
 import org.junit.Test;
@@ -27,6 +29,8 @@ import org.junit.runner.RunWith;
 import org.uberfire.ext.metadata.model.KObject;
 import org.uberfire.ext.metadata.search.ClusterSegment;
 import org.uberfire.ext.metadata.search.IOSearchService;
+import org.uberfire.ext.metadata.search.PageRequest;
+import org.uberfire.ext.metadata.search.SearchPage;
 import org.uberfire.java.nio.base.FileSystemId;
 import org.uberfire.java.nio.base.SegmentedPath;
 import org.uberfire.java.nio.file.Path;
@@ -182,4 +186,85 @@ public class LuceneSearchIndexTest extends BaseIndexTest {
                          results.size());
         }
     }
+
+    @Test
+    public void testPaging() throws IOException, InterruptedException {
+        final String repository = this.getClass().getSimpleName() + "_1";
+        setupCountDown(5);
+        for (int i = 0; i < 5; i++) {
+            ioService().write(getBasePath(repository).resolve("pagedFile" + i + ".txt"),
+                              "content" + i);
+        }
+
+        final ClusterSegment cs = new ClusterSegment() {
+            @Override
+            public String getClusterId() {
+                return ((FileSystemId) getBasePath(repository).getFileSystem()).id();
+            }
+
+            @Override
+            public String[] segmentIds() {
+                return new String[]{((SegmentedPath) getBasePath(repository)).getSegmentId()};
+            }
+        };
+
+        waitForCountDown(5000);
+
+        final Map<String, Object> attributes = new HashMap<String, Object>() {{
+            put("filename",
+                "pagedFile*.txt");
+        }};
+
+        //Cursor pages
+        {
+            final Set<String> keys = new HashSet<>();
+            SearchPage<KObject> page = config.getSearchIndex().searchByAttrs(attributes,
+                                                                             new IOSearchService.NoOpFilter(),
+                                                                             PageRequest.of(0,
+                                                                                            2),
+                                                                             cs);
+            assertEquals(5,
+                         page.getTotalHits());
+            int pages = 1;
+            page.getResults().forEach(kObject -> keys.add(kObject.getKey()));
+            while (page.hasNext()) {
+                assertEquals(2,
+                             page.getResults().size());
+                page = config.getSearchIndex().searchByAttrs(attributes,
+                                                             new IOSearchService.NoOpFilter(),
+                                                             PageRequest.after(page.getNextCursor(),
+                                                                               2),
+                                                             cs);
+                page.getResults().forEach(kObject -> keys.add(kObject.getKey()));
+                pages++;
+            }
+            assertEquals(3,
+                         pages);
+            assertEquals(5,
+                         keys.size());
+        }
+
+        //Offset page
+        {
+            final SearchPage<KObject> page = config.getSearchIndex().searchByAttrs(attributes,
+                                                                                   new IOSearchService.NoOpFilter(),
+                                                                                   PageRequest.of(4,
+                                                                                                  2),
+                                                                                   cs);
+            assertEquals(1,
+                         page.getResults().size());
+            assertFalse(page.hasNext());
+        }
+
+        //Filtered page is filled with the following hits
+        {
+            final SearchPage<KObject> page = config.getSearchIndex().searchByAttrs(attributes,
+                                                                                   kObject -> !kObject.getKey().endsWith("pagedFile0.txt"),
+                                                                                   PageRequest.of(0,
+                                                                                                  4),
+                                                                                   cs);
+            assertEquals(4,
+                         page.getResults().size());
+        }
+    }
 }
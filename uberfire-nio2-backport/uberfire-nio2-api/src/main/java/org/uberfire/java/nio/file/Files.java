@@ -18,7 +18,6 @@ package org.uberfire.java.nio.file;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -27,6 +26,7 @@ import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
@@ -69,6 +69,7 @@ public final class Files {
      */
     private static final int TEMP_DIR_ATTEMPTS = 10000;
     private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
     //TODO remove it
     private static File BASE_TEMP_DIR = new File(System.getProperty("java.io.tmpdir"));
     private static final Path TEMP_PATH = Paths.get(BASE_TEMP_DIR.toURI());
@@ -1189,21 +1190,10 @@ public final class Files {
         }
 
         final InputStream in = newInputStream(path);
-        final ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) size);
-
-        int read;
-        byte[] data = new byte[BUFFER_SIZE];
 
         try {
-            while ((read = in.read(data,
-                                   0,
-                                   data.length)) != -1) {
-                buffer.write(data,
-                             0,
-                             read);
-            }
-            buffer.flush();
-            return buffer.toByteArray();
+            return read(in,
+                        (int) size);
         } catch (java.io.IOException e) {
             throw new IOException(e);
         } finally {
@@ -1215,6 +1205,44 @@ public final class Files {
         }
     }
 
+    /**
+     * Reads the stream straight into an array of the expected size, so the content is held once on heap; the
+     * array only grows if the stream turns out to be longer than the reported size.
+     */
+    private static byte[] read(final InputStream in,
+                               final int initialSize) throws java.io.IOException {
+        int capacity = initialSize;
+        byte[] buf = new byte[capacity];
+        int nread = 0;
+        int n;
+        for (; ; ) {
+            while ((n = in.read(buf,
+                                nread,
+                                capacity - nread)) > 0) {
+                nread += n;
+            }
+
+            if (n < 0 || (n = in.read()) < 0) {
+                break;
+            }
+
+            if (capacity <= MAX_BUFFER_SIZE - capacity) {
+                capacity = Math.max(capacity << 1,
+                                    BUFFER_SIZE);
+            } else {
+                if (capacity == MAX_BUFFER_SIZE) {
+                    throw new OutOfMemoryError("Required array size too large");
+                }
+                capacity = MAX_BUFFER_SIZE;
+            }
+            buf = Arrays.copyOf(buf,
+                                capacity);
+            buf[nread++] = (byte) n;
+        }
+        return (capacity == nread) ? buf : Arrays.copyOf(buf,
+                                                         nread);
+    }
+
     /**
      * @throws IllegalArgumentException
      * @throws NoSuchFileException
@@ -16,7 +16,7 @@ package org.uberfire.java.nio.file.extensions;
 
 public enum FileSystemHooks {
 
-    ExternalUpdate, PostCommit, BranchAccessCheck, BranchAccessFilter;
+    ExternalUpdate, PostCommit, BranchAccessCheck, BranchAccessFilter, BranchUpdate;
 
     @FunctionalInterface
     public interface FileSystemHook {
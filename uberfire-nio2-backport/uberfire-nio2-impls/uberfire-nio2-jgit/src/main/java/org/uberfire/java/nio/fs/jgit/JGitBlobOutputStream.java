@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.util.TemporaryBuffer;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Output stream that writes a blob straight into the repository object database. The content is kept in memory
+ * and inserted with an {@link ObjectInserter} when the stream is closed; the id of the new blob is then handed
+ * to the given consumer, usually to commit it.
+ * <p>
+ * Git needs the length of a blob before writing it, so content bigger than the in memory limit overflows to a
+ * temporary file when the fallback is enabled, and fails otherwise. The temporary file is always removed on close,
+ * and nothing is inserted if a write failed.
+ */
+public class JGitBlobOutputStream extends OutputStream {
+
+    private final Repository repository;
+    private final TemporaryBuffer buffer;
+    private final Consumer<ObjectId> onClose;
+    private boolean closed = false;
+    private boolean failed = false;
+
+    public JGitBlobOutputStream(final Repository repository,
+                                final int inMemoryLimit,
+                                final boolean tempFileFallback,
+                                final Consumer<ObjectId> onClose) {
+        this.repository = checkNotNull("repository",
+                                       repository);
+        this.onClose = checkNotNull("onClose",
+                                    onClose);
+        if (tempFileFallback) {
+            this.buffer = new TemporaryBuffer.LocalFile(null,
+                                                        inMemoryLimit);
+        } else {
+            this.buffer = new TemporaryBuffer.Heap(inMemoryLimit);
+        }
+    }
+
+    @Override
+    public void write(final int b) throws java.io.IOException {
+        checkOpen();
+        try {
+            buffer.write(b);
+        } catch (final java.io.IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws java.io.IOException {
+        checkOpen();
+        try {
+            buffer.write(b,
+                         off,
+                         len);
+        } catch (final java.io.IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws java.io.IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (failed) {
+            buffer.destroy();
+            return;
+        }
+
+        final ObjectId blobId;
+        try {
+            buffer.close();
+            try (final ObjectInserter inserter = repository.newObjectInserter();
+                 final InputStream in = buffer.openInputStream()) {
+                blobId = inserter.insert(Constants.OBJ_BLOB,
+                                         buffer.length(),
+                                         in);
+                inserter.flush();
+            }
+        } finally {
+            buffer.destroy();
+        }
+
+        onClose.accept(blobId);
+    }
+
+    private void checkOpen() throws java.io.IOException {
+        if (closed) {
+            throw new java.io.IOException("Stream closed.");
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.channels.SeekableByteChannel;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Read only channel over a git blob. Small blobs are read from the loader's cached content, large blobs are
+ * streamed from the object database; moving the position backwards reopens the stream.
+ */
+public class JGitBlobSeekableByteChannel implements SeekableByteChannel {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ObjectLoader loader;
+    private final long size;
+    private InputStream stream;
+    private long streamPosition;
+    private long position = 0;
+    private boolean open = true;
+
+    public JGitBlobSeekableByteChannel(final ObjectLoader loader) {
+        this.loader = checkNotNull("loader",
+                                   loader);
+        this.size = loader.getSize();
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must be positive.");
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(final long size) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws java.io.IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        if (position >= size) {
+            return -1;
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+
+        seekStream();
+
+        final int read;
+        if (dst.hasArray()) {
+            read = stream.read(dst.array(),
+                               dst.arrayOffset() + dst.position(),
+                               dst.remaining());
+            if (read > 0) {
+                dst.position(dst.position() + read);
+            }
+        } else {
+            final byte[] buffer = new byte[Math.min(dst.remaining(),
+                                                    BUFFER_SIZE)];
+            read = stream.read(buffer);
+            if (read > 0) {
+                dst.put(buffer,
+                        0,
+                        read);
+            }
+        }
+
+        if (read > 0) {
+            position += read;
+            streamPosition += read;
+        }
+        return read;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws java.io.IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws java.io.IOException {
+        open = false;
+        closeStream();
+    }
+
+    private void seekStream() throws java.io.IOException {
+        if (stream == null || streamPosition > position) {
+            closeStream();
+            stream = loader.openStream();
+            streamPosition = 0;
+        }
+        while (streamPosition < position) {
+            final long skipped = stream.skip(position - streamPosition);
+            if (skipped <= 0) {
+                if (stream.read() < 0) {
+                    break;
+                }
+                streamPosition++;
+            } else {
+                streamPosition += skipped;
+            }
+        }
+    }
+
+    private void closeStream() throws java.io.IOException {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    private void checkOpen() {
+        if (!open) {
+            throw new IOException(new ClosedChannelException());
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.eclipse.jgit.transport.UploadPack;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.uberfire.java.nio.base.FileSystemId;
 import org.uberfire.java.nio.base.FileSystemStateAware;
+import org.uberfire.java.nio.base.SegmentChangesAware;
 import org.uberfire.java.nio.base.options.CommentedOption;
 import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.LockableFileSystem;
@@ -36,6 +37,7 @@ import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
 public interface JGitFileSystem extends FileSystem,
                                         FileSystemId,
                                         FileSystemStateAware,
+                                        SegmentChangesAware,
                                         LockableFileSystem {
 
     Git getGit();
@@ -74,6 +76,13 @@ public interface JGitFileSystem extends FileSystem,
 
     int getNumberOfCommitsSinceLastGC();
 
+    /**
+     * Locks a single branch for writing, see {@link JGitFileSystemLock#lockBranch(String)}.
+     */
+    void lockBranch(String branch);
+
+    void unlockBranch(String branch);
+
     void addPostponedWatchEvents(List<WatchEvent<?>> postponedWatchEvents);
 
     List<WatchEvent<?>> getPostponedWatchEvents();
@@ -88,6 +97,12 @@ public interface JGitFileSystem extends FileSystem,
 
     void notifyPostCommit(int exitCode);
 
+    /**
+     * Notifies that branches of this file system were created, deleted or moved by commits, whether or not a
+     * post-commit script ran.
+     */
+    void notifyBranchUpdate();
+
     void checkBranchAccess(ReceiveCommand command,
                            User user);
 
@@ -30,7 +30,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.ReceiveCommand;
 import org.eclipse.jgit.transport.UploadPack;
@@ -39,6 +41,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.base.FileSystemState;
+import org.uberfire.java.nio.base.SegmentChanges;
 import org.uberfire.java.nio.base.options.CommentedOption;
 import org.uberfire.java.nio.file.FileStore;
 import org.uberfire.java.nio.file.InvalidPathException;
@@ -53,6 +56,7 @@ import org.uberfire.java.nio.file.extensions.FileSystemHooks;
 import org.uberfire.java.nio.file.extensions.FileSystemHooksConstants;
 import org.uberfire.java.nio.file.spi.FileSystemProvider;
 import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.exceptions.GitException;
 import org.uberfire.java.nio.fs.jgit.util.extensions.JGitFSHooks;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
 import org.uberfire.java.nio.fs.jgit.ws.JGitFileSystemsEventsManager;
@@ -66,7 +70,7 @@ import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull
 public class JGitFileSystemImpl implements JGitFileSystem {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JGitFileSystemImpl.class);
-    private static final Set<String> SUPPORTED_ATTR_VIEWS = unmodifiableSet(new HashSet<>(asList("basic",
+    static final Set<String> SUPPORTED_ATTR_VIEWS = unmodifiableSet(new HashSet<>(asList("basic",
                                                                                                  "version")));
     private final JGitFileSystemProvider provider;
     private final Git git;
@@ -459,6 +463,55 @@ public class JGitFileSystemImpl implements JGitFileSystem {
         return numberOfCommitsSinceLastGC.get();
     }
 
+    @Override
+    public String getSegmentHead(final String segment) {
+        final RevCommit head = git.getLastCommit(segment);
+        return head != null ? head.getName() : null;
+    }
+
+    @Override
+    public SegmentChanges getSegmentChanges(final String segment,
+                                            final String fromHead) {
+        final RevCommit head = git.getLastCommit(segment);
+        if (head == null) {
+            return null;
+        }
+
+        final RevCommit from;
+        try {
+            from = git.getCommit(fromHead);
+        } catch (final GitException e) {
+            LOGGER.debug("Commit [" + fromHead + "] not found on [" + name + "].",
+                         e);
+            return null;
+        }
+        if (from == null) {
+            return null;
+        }
+
+        final List<String> changedPaths = new ArrayList<>();
+        final List<String> deletedPaths = new ArrayList<>();
+        if (!from.equals(head)) {
+            for (final DiffEntry entry : git.listDiffs(from.getTree(),
+                                                       head.getTree())) {
+                switch (entry.getChangeType()) {
+                    case DELETE:
+                        deletedPaths.add(entry.getOldPath());
+                        break;
+                    case RENAME:
+                        deletedPaths.add(entry.getOldPath());
+                        changedPaths.add(entry.getNewPath());
+                        break;
+                    default:
+                        changedPaths.add(entry.getNewPath());
+                }
+            }
+        }
+        return new SegmentChanges(head.getName(),
+                                  changedPaths,
+                                  deletedPaths);
+    }
+
     @Override
     public FileSystemState getState() {
         return state;
@@ -474,6 +527,16 @@ public class JGitFileSystemImpl implements JGitFileSystem {
         lock.unlock();
     }
 
+    @Override
+    public void lockBranch(final String branch) {
+        lock.lockBranch(branch);
+    }
+
+    @Override
+    public void unlockBranch(final String branch) {
+        lock.unlockBranch(branch);
+    }
+
     public JGitFileSystemLock getLock() {
         return lock;
     }
@@ -522,6 +585,14 @@ public class JGitFileSystemImpl implements JGitFileSystem {
         }
     }
 
+    @Override
+    public void notifyBranchUpdate() {
+        Object hook = fsHooks.get(FileSystemHooks.BranchUpdate);
+        if (hook != null) {
+            JGitFSHooks.executeFSHooks(hook, FileSystemHooks.BranchUpdate, new FileSystemHookExecutionContext(name));
+        }
+    }
+
     @Override
     public void checkBranchAccess(final ReceiveCommand command,
                                   final User user) {
@@ -550,13 +621,18 @@ public class JGitFileSystemImpl implements JGitFileSystem {
 
     @Override
     public void setPublicURI(Map<String, String> fullHostNames) {
+        toStringContent = publicURIs(name,
+                                     fullHostNames);
+    }
+
+    static String publicURIs(final String name,
+                             final Map<String, String> fullHostNames) {
         if (fullHostNames != null && !fullHostNames.isEmpty()) {
-            toStringContent = fullHostNames.entrySet()
+            return fullHostNames.entrySet()
                     .stream()
                     .map(e -> e.getKey() + "://" + e.getValue() + "/" + name)
                     .collect(Collectors.joining("\n"));
-        } else {
-            toStringContent = "git://" + name;
         }
+        return "git://" + name;
     }
 }
@@ -15,12 +15,40 @@
  */
 package org.uberfire.java.nio.fs.jgit;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.eclipse.jgit.internal.storage.reftree.RefTreeDatabase;
 import org.uberfire.java.nio.fs.jgit.util.Git;
 
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotEmpty;
+
+/**
+ * Read/write lock of a git file system.
+ * <p>
+ * {@link #lock()} is the exclusive repository lock, used by batches and by the operations that touch more than one
+ * ref (receive pack, fetch, branch creation and removal). Commits go through {@link #lockBranch(String)}, which
+ * shares the repository lock with the other branches and serializes only the writers of the same branch, as the
+ * ref update is the only step that can't run concurrently. Reads never take this lock, the trees they walk are
+ * immutable.
+ * <p>
+ * The physical lock on the file system guards against other processes sharing the same repository directory: it is
+ * taken once by the exclusive owner, or shared by all the branch writers of this process while any of them is active.
+ * Ref tree repositories keep all the branches in a single ref, so there branch locks fall back to the exclusive lock.
+ */
 public class JGitFileSystemLock extends FileSystemLock {
 
+    private final ReentrantReadWriteLock repositoryLock = new ReentrantReadWriteLock(true);
+    private final Map<String, ReentrantLock> branchLocks = new ConcurrentHashMap<>();
+    private final Object physicalLockMonitor = new Object();
+    private final boolean branchLocking;
+    private final JGitFileSystemLockMetrics metrics = new JGitFileSystemLockMetrics();
+    private int physicalLockHolders = 0;
+
     public JGitFileSystemLock(Git git,
                               TimeUnit t,
                               long duration) {
@@ -29,5 +57,135 @@ public class JGitFileSystemLock extends FileSystemLock {
               "af.lock",
               t,
               duration);
+        this.branchLocking = !(git.getRepository().getRefDatabase() instanceof RefTreeDatabase);
+    }
+
+    @Override
+    public void lock() {
+        if (repositoryLock.getReadHoldCount() > 0 && !repositoryLock.isWriteLockedByCurrentThread()) {
+            throw new IllegalStateException("Can't take the exclusive lock of [" + getLockName() + "] while holding a branch lock.");
+        }
+        acquire(repositoryLock.writeLock());
+        metrics.onExclusiveAcquired();
+        try {
+            super.lock();
+        } catch (RuntimeException e) {
+            repositoryLock.writeLock().unlock();
+            throw e;
+        }
+    }
+
+    @Override
+    public void unlock() {
+        registerAccess();
+        if (repositoryLock.isWriteLockedByCurrentThread()) {
+            try {
+                super.unlock();
+            } finally {
+                repositoryLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Locks the given branch for writing. Writers of other branches are not blocked, the exclusive lock waits until
+     * all the branch writers are done.
+     */
+    public void lockBranch(final String branch) {
+        checkNotEmpty("branch",
+                      branch);
+        if (!branchLocking) {
+            lock();
+            return;
+        }
+
+        registerAccess();
+        acquire(repositoryLock.readLock());
+        final ReentrantLock branchLock = branchLocks.computeIfAbsent(branch,
+                                                                     b -> new ReentrantLock(true));
+        acquire(branchLock);
+        metrics.onBranchAcquired();
+
+        if (sharesPhysicalLock(branchLock)) {
+            try {
+                acquireSharedPhysicalLock();
+            } catch (RuntimeException e) {
+                branchLock.unlock();
+                repositoryLock.readLock().unlock();
+                throw e;
+            }
+        }
+    }
+
+    public void unlockBranch(final String branch) {
+        checkNotEmpty("branch",
+                      branch);
+        if (!branchLocking) {
+            unlock();
+            return;
+        }
+
+        registerAccess();
+        final ReentrantLock branchLock = branchLocks.get(branch);
+        if (branchLock == null || !branchLock.isHeldByCurrentThread()) {
+            return;
+        }
+        try {
+            if (sharesPhysicalLock(branchLock)) {
+                releaseSharedPhysicalLock();
+            }
+        } finally {
+            branchLock.unlock();
+            repositoryLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean hasBeenInUse() {
+        return super.hasBeenInUse() || repositoryLock.isWriteLocked() || repositoryLock.getReadLockCount() > 0;
+    }
+
+    public JGitFileSystemLockMetrics getMetrics() {
+        return metrics;
+    }
+
+    private boolean sharesPhysicalLock(final ReentrantLock branchLock) {
+        // the exclusive owner already holds the physical lock
+        return branchLock.getHoldCount() == 1 && !lock.isHeldByCurrentThread();
+    }
+
+    private void acquireSharedPhysicalLock() {
+        synchronized (physicalLockMonitor) {
+            if (physicalLockHolders == 0) {
+                physicalLockOnFS();
+            }
+            physicalLockHolders++;
+        }
+    }
+
+    private void releaseSharedPhysicalLock() {
+        synchronized (physicalLockMonitor) {
+            physicalLockHolders--;
+            if (physicalLockHolders == 0) {
+                physicalUnLockOnFS();
+            }
+        }
+    }
+
+    private void acquire(final Lock lock) {
+        final long start = System.nanoTime();
+        boolean acquired;
+        try {
+            // a timed try honours the fairness of the lock, unlike tryLock()
+            acquired = lock.tryLock(0,
+                                    TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            lock.lock();
+            metrics.onContended(System.nanoTime() - start);
+        }
     }
 }
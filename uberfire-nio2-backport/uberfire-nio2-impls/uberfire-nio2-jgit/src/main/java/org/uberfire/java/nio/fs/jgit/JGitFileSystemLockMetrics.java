@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected by {@link JGitFileSystemLock}. An acquisition is contended when the lock could not be taken
+ * right away and the caller had to wait for it.
+ */
+public class JGitFileSystemLockMetrics {
+
+    private final AtomicLong exclusiveAcquisitions = new AtomicLong();
+    private final AtomicLong branchAcquisitions = new AtomicLong();
+    private final AtomicLong contendedAcquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    void onExclusiveAcquired() {
+        exclusiveAcquisitions.incrementAndGet();
+    }
+
+    void onBranchAcquired() {
+        branchAcquisitions.incrementAndGet();
+    }
+
+    void onContended(final long waitNanos) {
+        contendedAcquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos,
+                                      Math::max);
+    }
+
+    public long getExclusiveAcquisitions() {
+        return exclusiveAcquisitions.get();
+    }
+
+    public long getBranchAcquisitions() {
+        return branchAcquisitions.get();
+    }
+
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.get();
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.get();
+    }
+
+    public long getMaxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JGitFileSystemLockMetrics{" +
+                "exclusiveAcquisitions=" + exclusiveAcquisitions +
+                ", branchAcquisitions=" + branchAcquisitions +
+                ", contendedAcquisitions=" + contendedAcquisitions +
+                ", totalWaitNanos=" + totalWaitNanos +
+                ", maxWaitNanos=" + maxWaitNanos +
+                '}';
+    }
+}
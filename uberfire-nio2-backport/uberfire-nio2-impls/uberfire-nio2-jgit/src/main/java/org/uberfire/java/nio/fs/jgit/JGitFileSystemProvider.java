@@ -17,9 +17,7 @@
 package org.uberfire.java.nio.fs.jgit;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FilterOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
@@ -137,11 +135,13 @@ import org.uberfire.java.nio.fs.jgit.daemon.ssh.BaseGitCommand;
 import org.uberfire.java.nio.fs.jgit.daemon.ssh.GitSSHService;
 import org.uberfire.java.nio.fs.jgit.manager.JGitFileSystemsCache;
 import org.uberfire.java.nio.fs.jgit.manager.JGitFileSystemsManager;
+import org.uberfire.java.nio.fs.jgit.manager.JGitGarbageCollectionScheduler;
 import org.uberfire.java.nio.fs.jgit.util.Git;
 import org.uberfire.java.nio.fs.jgit.util.GitHookSupport;
 import org.uberfire.java.nio.fs.jgit.util.ProxyAuthenticator;
 import org.uberfire.java.nio.fs.jgit.util.commands.Clone;
 import org.uberfire.java.nio.fs.jgit.util.commands.PathUtil;
+import org.uberfire.java.nio.fs.jgit.util.model.BlobCommitContent;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitContent;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
 import org.uberfire.java.nio.fs.jgit.util.model.CopyCommitContent;
@@ -157,6 +157,7 @@ import org.uberfire.java.nio.security.SSHAuthenticator;
 import org.uberfire.java.nio.security.SecuredFileSystemProvider;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
 import static org.eclipse.jgit.lib.Constants.DOT_GIT_EXT;
 import static org.kie.soup.commons.validation.PortablePreconditions.checkCondition;
 import static org.kie.soup.commons.validation.PortablePreconditions.checkNotEmpty;
@@ -215,6 +216,8 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
     JGitFileSystemsEventsManager fsEventsManager;
 
+    JGitGarbageCollectionScheduler gcScheduler;
+
     /**
      * Creates a JGit filesystem provider which takes its configuration from system properties. In a normal production
      * deployment of UberFire, this is the constructor that will be invoked by the ServiceLoader mechanism.
@@ -251,6 +254,8 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
         setupFSEvents();
 
+        setupGarbageCollection();
+
         setupGitDefaultCredentials();
 
         setupSSH();
@@ -263,7 +268,11 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     }
 
     private void setupFSEvents() {
-        fsEventsManager = new JGitFileSystemsEventsManager();
+        fsEventsManager = new JGitFileSystemsEventsManager(config.getWatchQueueSize());
+    }
+
+    private void setupGarbageCollection() {
+        gcScheduler = new JGitGarbageCollectionScheduler(config);
     }
 
     protected void setupFileSystemsManager() {
@@ -542,11 +551,15 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     /**
      * Closes and disposes all open filesystems and stops the Git and SSH daemons if they are running. This filesystem
      * provider can be reactivated by attempting to open a new filesystem or by creating a new filesystem.
+     * When warm start is enabled the repositories manifest is written first.
      */
     public void shutdown() {
+        fsManager.storeManifest();
+        fsManager.getWarmStartedFileSystems().forEach(fsEventsManager::close);
         fsManager.getOpenFileSystems().forEach(JGitFileSystem::close);
         shutdownSSH();
         forceStopDaemon();
+        gcScheduler.shutdown();
         fsManager.clear();
     }
 
@@ -619,7 +632,8 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
             init = true;
         }
 
-        if (!env.containsKey(GIT_ENV_KEY_DEFAULT_REMOTE_NAME) && init) {
+        //a warm started fs has branches, so it was already initialized
+        if (!env.containsKey(GIT_ENV_KEY_DEFAULT_REMOTE_NAME) && init && !fsManager.isWarmStarted(fsName)) {
             try {
                 final URI initURI = URI.create(getScheme() + "://master@" + fsName + "/readme.md");
                 final OutputStream stream = newOutputStream(getPath(initURI),
@@ -1028,27 +1042,14 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
             throw new NotDirectoryException(path.toString());
         }
 
-        try {
-            final File file = File.createTempFile("gitz",
-                                                  "woot");
-            return new FilterOutputStream(new FileOutputStream(file)) {
-                @Override
-                public void close() throws java.io.IOException {
-                    super.close();
-
-                    commit(gPath,
-                           buildCommitInfo("{" + toPathImpl(path).getPath() + "}",
-                                           Arrays.asList(options)),
-                           new DefaultCommitContent(new HashMap<String, File>() {{
-                               put(gPath.getPath(),
-                                   file);
-                           }}));
-                }
-            };
-        } catch (java.io.IOException e) {
-            throw new IOException("Could not create file or output stream.",
-                                  e);
-        }
+        return new JGitBlobOutputStream(gPath.getFileSystem().getGit().getRepository(),
+                                        config.getWriteBufferLimit(),
+                                        config.isWriteTempFileFallback(),
+                                        blobId -> commit(gPath,
+                                                         buildCommitInfo("{" + gPath.getPath() + "}",
+                                                                         Arrays.asList(options)),
+                                                         new BlobCommitContent(singletonMap(gPath.getPath(),
+                                                                                            blobId))));
     }
 
     private CommitInfo buildCommitInfo(final String defaultMessage,
@@ -1130,7 +1131,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
         try {
             if (options != null && options.contains(READ)) {
-                return openAByteChannel(path);
+                return openAByteChannel(gPath);
             } else {
                 return createANewByteChannel(path,
                                              options,
@@ -1189,9 +1190,9 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         };
     }
 
-    private SeekableByteChannelFileBasedImpl openAByteChannel(Path path) throws FileNotFoundException {
-        return new SeekableByteChannelFileBasedImpl(new RandomAccessFile(path.toFile(),
-                                                                         "r").getChannel());
+    private SeekableByteChannel openAByteChannel(final JGitPathImpl gPath) {
+        return new JGitBlobSeekableByteChannel(gPath.getFileSystem().getGit().openBlob(gPath.getRefTree(),
+                                                                                       gPath.getPath()));
     }
 
     private boolean shouldCreateOrOpenAByteChannel(Set<? extends OpenOption> options) {
@@ -1482,6 +1483,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         } finally {
             path.getFileSystem().unlock();
         }
+        path.getFileSystem().notifyBranchUpdate();
     }
 
     @Override
@@ -1598,11 +1600,11 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                        final JGitPathImpl target) {
 
         try {
-            target.getFileSystem().lock();
+            target.getFileSystem().lockBranch(target.getRefTree());
             source.getFileSystem().getGit().merge(source.getRefTree(),
                                                   target.getRefTree());
         } finally {
-            target.getFileSystem().unlock();
+            target.getFileSystem().unlockBranch(target.getRefTree());
         }
     }
 
@@ -1610,11 +1612,11 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                             final JGitPathImpl target,
                             final String... commits) {
         try {
-            target.getFileSystem().lock();
+            target.getFileSystem().lockBranch(target.getRefTree());
             source.getFileSystem().getGit().cherryPick(target,
                                                        commits);
         } finally {
-            target.getFileSystem().unlock();
+            target.getFileSystem().unlockBranch(target.getRefTree());
         }
     }
 
@@ -1631,6 +1633,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         }
         createBranch(source,
                      target);
+        target.getFileSystem().notifyBranchUpdate();
     }
 
     private void copyAsset(final JGitPathImpl source,
@@ -2269,9 +2272,9 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     private void lockAndSquash(final Path path,
                                final SquashOption value) {
         final JGitFileSystem fileSystem = (JGitFileSystem) path.getFileSystem();
+        final JGitPathImpl gSource = toPathImpl(path);
         try {
-            fileSystem.lock();
-            final JGitPathImpl gSource = toPathImpl(path);
+            fileSystem.lockBranch(gSource.getRefTree());
             String commitMessage = checkNotEmpty("commitMessage",
                                                  value.getMessage());
             String startCommit = checkNotEmpty("startCommit",
@@ -2280,7 +2283,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                                     startCommit,
                                                     commitMessage);
         } finally {
-            fileSystem.unlock();
+            fileSystem.unlockBranch(gSource.getRefTree());
         }
     }
 
@@ -2414,11 +2417,11 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                         final CommitContent commitContent) {
 
         final JGitFileSystem fileSystem = path.getFileSystem();
+        final String branchName = path.getRefTree();
         try {
-            fileSystem.lock();
+            fileSystem.lockBranch(branchName);
 
             final Git git = fileSystem.getGit();
-            final String branchName = path.getRefTree();
             final boolean batchState = fileSystem.isOnBatch();
             final boolean amend = batchState && fileSystem.isHadCommitOnBatchState(path.getRoot());
             final ObjectId oldHead = path.getFileSystem().getGit().getTreeFromRef(branchName);
@@ -2438,12 +2441,16 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                        commitContent);
             }
 
+            if (hasCommit) {
+                git.getHistoryIndex().update(branchName);
+            }
+
             if (!batchState) {
                 if (hasCommit) {
                     int value = fileSystem.incrementAndGetCommitCount();
                     if (value >= config.getCommitLimit()) {
-                        git.gc();
                         fileSystem.resetCommitCount();
+                        garbageCollect(fileSystem);
                     }
                 }
 
@@ -2492,7 +2499,7 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                                     hasCommit);
             }
         } finally {
-            fileSystem.unlock();
+            fileSystem.unlockBranch(branchName);
         }
     }
 
@@ -2505,6 +2512,8 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
         if (result.getStatus().equals(ProcessResult.Status.OK)) {
             fileSystem.notifyPostCommit(result.getExitCode());
         }
+
+        fileSystem.notifyBranchUpdate();
     }
 
     private void firePostponedBatchEvents(JGitFileSystem fileSystem) {
@@ -2519,12 +2528,20 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
 
             int value = fileSystem.incrementAndGetCommitCount();
             if (value >= config.getCommitLimit()) {
-                fileSystem.getGit().gc();
                 fileSystem.resetCommitCount();
+                garbageCollect(fileSystem);
             }
         }
     }
 
+    private void garbageCollect(final JGitFileSystem fileSystem) {
+        if (config.isGcAsync()) {
+            gcScheduler.schedule(fileSystem);
+        } else {
+            fileSystem.getGit().gc();
+        }
+    }
+
     List<WatchEvent<?>> notifyDiffs(final JGitFileSystem fs,
                                     final String _tree,
                                     final String sessionId,
@@ -2612,7 +2629,8 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
                                               message,
                                               diffEntry.getChangeType().name(),
                                               oldPath,
-                                              newPath);
+                                              newPath,
+                                              newHead != null ? newHead.name() : null);
             events.add(e);
         }
 
@@ -2652,4 +2670,8 @@ public class JGitFileSystemProvider implements SecuredFileSystemProvider,
     public JGitFileSystemsManager getFsManager() {
         return fsManager;
     }
+
+    public JGitGarbageCollectionScheduler getGcScheduler() {
+        return gcScheduler;
+    }
 }
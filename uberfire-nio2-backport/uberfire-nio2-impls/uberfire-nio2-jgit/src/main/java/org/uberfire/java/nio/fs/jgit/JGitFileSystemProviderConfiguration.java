@@ -62,6 +62,14 @@ public class JGitFileSystemProviderConfiguration {
     public static final String GIT_SSH_ALGORITHM = "org.uberfire.nio.git.ssh.algorithm";
     public static final String GIT_SSH_PASSPHRASE = "org.uberfire.nio.git.ssh.passphrase";
     public static final String GIT_GC_LIMIT = "org.uberfire.nio.git.gc.limit";
+    public static final String GIT_GC_ASYNC = "org.uberfire.nio.git.gc.async";
+    public static final String GIT_GC_THREADS = "org.uberfire.nio.git.gc.threads";
+    public static final String GIT_GC_LOOSE_OBJECTS_LIMIT = "org.uberfire.nio.git.gc.loose.objects.limit";
+    public static final String GIT_GC_PACK_FILES_LIMIT = "org.uberfire.nio.git.gc.pack.files.limit";
+    public static final String GIT_WRITE_BUFFER_LIMIT = "org.uberfire.nio.git.write.buffer.limit";
+    public static final String GIT_WRITE_TEMP_FILE_FALLBACK = "org.uberfire.nio.git.write.tempfile.fallback";
+    public static final String GIT_WATCH_QUEUE_SIZE = "org.uberfire.nio.git.watch.queue.size";
+    public static final String GIT_WARM_START_ENABLED = "org.uberfire.nio.git.warmstart.enabled";
     public static final String GIT_HTTP_SSL_VERIFY = "org.uberfire.nio.git.http.sslVerify";
     public static final String SSH_OVER_HTTP = "org.uberfire.nio.git.proxy.ssh.over.http";
     public static final String HTTP_PROXY_HOST = "http.proxyHost";
@@ -108,6 +116,14 @@ public class JGitFileSystemProviderConfiguration {
     public static final String DEFAULT_SSH_ALGORITHM = "RSA";
     public static final String DEFAULT_SSH_CERT_PASSPHRASE = "";
     public static final String DEFAULT_COMMIT_LIMIT_TO_GC = "20";
+    public static final String DEFAULT_GIT_GC_ASYNC = "true";
+    public static final String DEFAULT_GIT_GC_THREADS = "1";
+    public static final String DEFAULT_GIT_GC_LOOSE_OBJECTS_LIMIT = "512";
+    public static final String DEFAULT_GIT_GC_PACK_FILES_LIMIT = "50";
+    public static final String DEFAULT_GIT_WRITE_BUFFER_LIMIT = "1048576";
+    public static final String DEFAULT_GIT_WRITE_TEMP_FILE_FALLBACK = "true";
+    public static final String DEFAULT_GIT_WATCH_QUEUE_SIZE = "1024";
+    public static final String DEFAULT_GIT_WARM_START_ENABLED = "false";
     public static final Boolean DEFAULT_GIT_HTTP_SSL_VERIFY = Boolean.TRUE;
     public static final String DEFAULT_ENABLE_GIT_KETCH = "false";
     public static final String DEFAULT_JGIT_FILE_SYSTEM_INSTANCES_CACHE = "10000";
@@ -117,6 +133,14 @@ public class JGitFileSystemProviderConfiguration {
     public static final TimeUnit DEFAULT_JGIT_CACHE_EVICT_THRESHOLD_TIME_UNIT = TimeUnit.MINUTES;
 
     private int commitLimit;
+    private boolean gcAsync;
+    private int gcThreads;
+    private int gcLooseObjectsLimit;
+    private int gcPackFilesLimit;
+    private int writeBufferLimit;
+    private boolean writeTempFileFallback;
+    private int watchQueueSize;
+    private boolean warmStartEnabled;
     private boolean sslVerify;
     private boolean daemonEnabled;
     private int daemonPort;
@@ -226,6 +250,22 @@ public class JGitFileSystemProviderConfiguration {
                                                                                    DEFAULT_SSH_CERT_PASSPHRASE);
         final ConfigProperties.ConfigProperty commitLimitProp = systemConfig.get(GIT_GC_LIMIT,
                                                                                  DEFAULT_COMMIT_LIMIT_TO_GC);
+        final ConfigProperties.ConfigProperty gcAsyncProp = systemConfig.get(GIT_GC_ASYNC,
+                                                                             DEFAULT_GIT_GC_ASYNC);
+        final ConfigProperties.ConfigProperty gcThreadsProp = systemConfig.get(GIT_GC_THREADS,
+                                                                               DEFAULT_GIT_GC_THREADS);
+        final ConfigProperties.ConfigProperty gcLooseObjectsLimitProp = systemConfig.get(GIT_GC_LOOSE_OBJECTS_LIMIT,
+                                                                                         DEFAULT_GIT_GC_LOOSE_OBJECTS_LIMIT);
+        final ConfigProperties.ConfigProperty gcPackFilesLimitProp = systemConfig.get(GIT_GC_PACK_FILES_LIMIT,
+                                                                                      DEFAULT_GIT_GC_PACK_FILES_LIMIT);
+        final ConfigProperties.ConfigProperty writeBufferLimitProp = systemConfig.get(GIT_WRITE_BUFFER_LIMIT,
+                                                                                      DEFAULT_GIT_WRITE_BUFFER_LIMIT);
+        final ConfigProperties.ConfigProperty writeTempFileFallbackProp = systemConfig.get(GIT_WRITE_TEMP_FILE_FALLBACK,
+                                                                                           DEFAULT_GIT_WRITE_TEMP_FILE_FALLBACK);
+        final ConfigProperties.ConfigProperty watchQueueSizeProp = systemConfig.get(GIT_WATCH_QUEUE_SIZE,
+                                                                                    DEFAULT_GIT_WATCH_QUEUE_SIZE);
+        final ConfigProperties.ConfigProperty warmStartEnabledProp = systemConfig.get(GIT_WARM_START_ENABLED,
+                                                                                      DEFAULT_GIT_WARM_START_ENABLED);
         final ConfigProperties.ConfigProperty sslVerifyProp = systemConfig.get(GIT_HTTP_SSL_VERIFY,
                                                                                DEFAULT_GIT_HTTP_SSL_VERIFY.toString());
         final ConfigProperties.ConfigProperty sshOverHttpProxyProp = systemConfig.get(SSH_OVER_HTTP,
@@ -303,6 +343,23 @@ public class JGitFileSystemProviderConfiguration {
         gitReposParentDir = new File(bareReposDirProp.getValue(),
                                      reposDirNameProp.getValue());
         commitLimit = commitLimitProp.getIntValue();
+        gcAsync = gcAsyncProp.getBooleanValue();
+        gcThreads = gcThreadsProp.getIntValue();
+        if (gcThreads < 1) {
+            gcThreads = Integer.valueOf(DEFAULT_GIT_GC_THREADS);
+        }
+        gcLooseObjectsLimit = gcLooseObjectsLimitProp.getIntValue();
+        gcPackFilesLimit = gcPackFilesLimitProp.getIntValue();
+        writeBufferLimit = writeBufferLimitProp.getIntValue();
+        if (writeBufferLimit < 1) {
+            writeBufferLimit = Integer.valueOf(DEFAULT_GIT_WRITE_BUFFER_LIMIT);
+        }
+        writeTempFileFallback = writeTempFileFallbackProp.getBooleanValue();
+        watchQueueSize = watchQueueSizeProp.getIntValue();
+        if (watchQueueSize < 2) {
+            watchQueueSize = Integer.valueOf(DEFAULT_GIT_WATCH_QUEUE_SIZE);
+        }
+        warmStartEnabled = warmStartEnabledProp.getBooleanValue();
         sslVerify = sslVerifyProp.getBooleanValue();
 
         jgitFileSystemsInstancesCache = jgitFileSystemsInstancesCacheProp.getIntValue();
@@ -390,6 +447,42 @@ public class JGitFileSystemProviderConfiguration {
         return commitLimit;
     }
 
+    public boolean isGcAsync() {
+        return gcAsync;
+    }
+
+    public int getGcThreads() {
+        return gcThreads;
+    }
+
+    public int getGcLooseObjectsLimit() {
+        return gcLooseObjectsLimit;
+    }
+
+    public int getGcPackFilesLimit() {
+        return gcPackFilesLimit;
+    }
+
+    public int getWriteBufferLimit() {
+        return writeBufferLimit;
+    }
+
+    public boolean isWriteTempFileFallback() {
+        return writeTempFileFallback;
+    }
+
+    public int getWatchQueueSize() {
+        return watchQueueSize;
+    }
+
+    /**
+     * Whether file systems are restored from the repositories manifest written on shutdown, see
+     * {@link org.uberfire.java.nio.fs.jgit.manager.JGitRepositoriesManifest}.
+     */
+    public boolean isWarmStartEnabled() {
+        return warmStartEnabled;
+    }
+
     public boolean isSslVerify() {
         return sslVerify;
     }
@@ -530,10 +623,20 @@ public class JGitFileSystemProviderConfiguration {
         return jgitFileSystemsInstancesCache;
     }
 
+    /**
+     * @deprecated not used anymore, {@link org.uberfire.java.nio.fs.jgit.manager.JGitFileSystemsCacheDataStructure}
+     * bounds its eviction sweeps by itself.
+     */
+    @Deprecated
     public int getJgitCacheOverflowCleanupSize() {
         return jgitCacheOverflowCleanupSize;
     }
 
+    /**
+     * @deprecated not used anymore, {@link org.uberfire.java.nio.fs.jgit.manager.JGitFileSystemsCacheDataStructure}
+     * bounds its eviction sweeps by itself.
+     */
+    @Deprecated
     public int getJgitRemoveEldestEntryIterations() {
         return jgitRemoveEldestEntryIterations;
     }
@@ -16,6 +16,8 @@
 
 package org.uberfire.java.nio.fs.jgit;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,6 +29,8 @@ import org.eclipse.jgit.transport.UploadPack;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.uberfire.java.nio.IOException;
 import org.uberfire.java.nio.base.FileSystemState;
+import org.uberfire.java.nio.base.SegmentChanges;
+import org.uberfire.java.nio.base.WarmStartAware;
 import org.uberfire.java.nio.base.options.CommentedOption;
 import org.uberfire.java.nio.file.FileStore;
 import org.uberfire.java.nio.file.InvalidPathException;
@@ -37,19 +41,52 @@ import org.uberfire.java.nio.file.WatchEvent;
 import org.uberfire.java.nio.file.WatchService;
 import org.uberfire.java.nio.file.attribute.UserPrincipalLookupService;
 import org.uberfire.java.nio.file.spi.FileSystemProvider;
+import org.uberfire.java.nio.fs.jgit.manager.JGitFileSystemWarmStart;
 import org.uberfire.java.nio.fs.jgit.util.Git;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
 
-public class JGitFileSystemProxy implements JGitFileSystem {
+public class JGitFileSystemProxy implements JGitFileSystem,
+                                            WarmStartAware {
 
     private String fsName;
     private Supplier<JGitFileSystem> cachedSupplier;
+    private Supplier<JGitFileSystemWarmStart> warmStart;
 
     public JGitFileSystemProxy(String fsName,
                                Supplier<JGitFileSystem> cachedSupplier) {
+        this(fsName,
+             cachedSupplier,
+             () -> null);
+    }
+
+    /**
+     * @param warmStart returns the manifest information while the file system is still unopened, used to answer
+     * without opening it the calls made when it is registered on startup.
+     */
+    public JGitFileSystemProxy(String fsName,
+                               Supplier<JGitFileSystem> cachedSupplier,
+                               Supplier<JGitFileSystemWarmStart> warmStart) {
         this.fsName = fsName;
 
         this.cachedSupplier = cachedSupplier;
+        this.warmStart = warmStart;
+    }
+
+    @Override
+    public boolean isUnchangedSinceLastStart() {
+        return warmStart.get() != null;
+    }
+
+    @Override
+    public Set<String> getWarmStartSegments() {
+        final JGitFileSystemWarmStart ws = warmStart.get();
+        return ws != null ? ws.getBranches() : Collections.emptySet();
+    }
+
+    @Override
+    public Map<String, String> getWarmStartHeads() {
+        final JGitFileSystemWarmStart ws = warmStart.get();
+        return ws != null ? ws.getHeads() : Collections.emptyMap();
     }
 
     @Override
@@ -150,6 +187,18 @@ public class JGitFileSystemProxy implements JGitFileSystem {
         return cachedSupplier.get().getNumberOfCommitsSinceLastGC();
     }
 
+    @Override
+    public String getSegmentHead(String segment) {
+        return cachedSupplier.get().getSegmentHead(segment);
+    }
+
+    @Override
+    public SegmentChanges getSegmentChanges(String segment,
+                                            String fromHead) {
+        return cachedSupplier.get().getSegmentChanges(segment,
+                                                      fromHead);
+    }
+
     @Override
     public void lock() {
         cachedSupplier.get().lock();
@@ -160,6 +209,16 @@ public class JGitFileSystemProxy implements JGitFileSystem {
         cachedSupplier.get().unlock();
     }
 
+    @Override
+    public void lockBranch(String branch) {
+        cachedSupplier.get().lockBranch(branch);
+    }
+
+    @Override
+    public void unlockBranch(String branch) {
+        cachedSupplier.get().unlockBranch(branch);
+    }
+
     @Override
     public void addPostponedWatchEvents(List<WatchEvent<?>> postponedWatchEvents) {
         cachedSupplier.get().addPostponedWatchEvents(postponedWatchEvents);
@@ -195,6 +254,11 @@ public class JGitFileSystemProxy implements JGitFileSystem {
         cachedSupplier.get().notifyPostCommit(exitCode);
     }
 
+    @Override
+    public void notifyBranchUpdate() {
+        cachedSupplier.get().notifyBranchUpdate();
+    }
+
     @Override
     public void checkBranchAccess(final ReceiveCommand command,
                                   final User user) {
@@ -211,11 +275,18 @@ public class JGitFileSystemProxy implements JGitFileSystem {
 
     @Override
     public FileSystemProvider provider() {
+        final JGitFileSystemWarmStart ws = warmStart.get();
+        if (ws != null) {
+            return ws.getProvider();
+        }
         return cachedSupplier.get().provider();
     }
 
     @Override
     public boolean isOpen() {
+        if (warmStart.get() != null) {
+            return true;
+        }
         return cachedSupplier.get().isOpen();
     }
 
@@ -231,6 +302,17 @@ public class JGitFileSystemProxy implements JGitFileSystem {
 
     @Override
     public Iterable<Path> getRootDirectories() {
+        final JGitFileSystemWarmStart ws = warmStart.get();
+        if (ws != null) {
+            final List<Path> roots = new ArrayList<>(ws.getBranches().size());
+            for (final String branch : ws.getBranches()) {
+                roots.add(JGitPathImpl.createRoot(this,
+                                                  "/",
+                                                  branch + "@" + fsName,
+                                                  false));
+            }
+            return roots;
+        }
         return cachedSupplier.get().getRootDirectories();
     }
 
@@ -241,6 +323,9 @@ public class JGitFileSystemProxy implements JGitFileSystem {
 
     @Override
     public Set<String> supportedFileAttributeViews() {
+        if (warmStart.get() != null) {
+            return JGitFileSystemImpl.SUPPORTED_ATTR_VIEWS;
+        }
         return cachedSupplier.get().supportedFileAttributeViews();
     }
 
@@ -263,6 +348,10 @@ public class JGitFileSystemProxy implements JGitFileSystem {
 
     @Override
     public WatchService newWatchService() throws UnsupportedOperationException, IOException {
+        final JGitFileSystemWarmStart ws = warmStart.get();
+        if (ws != null) {
+            return ws.getEventsManager().newWatchService(fsName);
+        }
         return cachedSupplier.get().newWatchService();
     }
 
@@ -297,11 +386,16 @@ public class JGitFileSystemProxy implements JGitFileSystem {
 
     @Override
     public int hashCode() {
-        return cachedSupplier.get().hashCode();
+        return fsName.hashCode();
     }
 
     @Override
     public String toString() {
+        final JGitFileSystemWarmStart ws = warmStart.get();
+        if (ws != null) {
+            return JGitFileSystemImpl.publicURIs(fsName,
+                                                 ws.getFullHostNames());
+        }
         return cachedSupplier.get().toString();
     }
 }
@@ -215,6 +215,13 @@ public class JGitPathImpl extends AbstractPath<JGitFileSystem>
         return new String(path);
     }
 
+    /**
+     * @return the id of the object this path resolved to when it was listed, or null if it wasn't resolved.
+     */
+    public ObjectId getObjectId() {
+        return objectId;
+    }
+
     public boolean isRegularFile()
             throws IllegalAccessError, SecurityException {
         try {
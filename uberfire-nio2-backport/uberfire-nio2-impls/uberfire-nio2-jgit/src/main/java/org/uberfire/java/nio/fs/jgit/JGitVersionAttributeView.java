@@ -16,7 +16,7 @@
 
 package org.uberfire.java.nio.fs.jgit;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -73,53 +73,20 @@ public class JGitVersionAttributeView extends VersionAttributeView<JGitPathImpl>
         }
 
         final Ref refId = fs.getGit().getRef(branchName);
-        final List<VersionRecord> records = new ArrayList<>();
+        final List<VersionRecord> records;
 
         if (refId != null) {
             try {
-                final CommitHistory history = fs.getGit().listCommits(refId, pathInfo.getPath());
-                for (final RevCommit commit : history.getCommits()) {
-                    final String recordPath = history.trackedFileNameChangeFor(commit.getId());
-                    records.add(new VersionRecord() {
-                        @Override
-                        public String id() {
-                            return commit.name();
-                        }
-
-                        @Override
-                        public String author() {
-                            return commit.getAuthorIdent().getName();
-                        }
-
-                        @Override
-                        public String email() {
-                            return commit.getAuthorIdent().getEmailAddress();
-                        }
-
-                        @Override
-                        public String comment() {
-                            return commit.getFullMessage();
-                        }
-
-                        @Override
-                        public Date date() {
-                            return commit.getAuthorIdent().getWhen();
-                        }
-
-                        @Override
-                        public String uri() {
-                            return fs.getPath(commit.name(),
-                                              recordPath).toUri().toString();
-                        }
-                    });
-                }
+                records = new VersionRecordList(fs,
+                                                fs.getGit().listCommits(refId,
+                                                                        pathInfo.getPath()));
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
+        } else {
+            records = Collections.emptyList();
         }
 
-        Collections.reverse(records);
-
         return new VersionAttributes() {
             @Override
             public VersionHistory history() {
@@ -178,4 +145,63 @@ public class JGitVersionAttributeView extends VersionAttributeView<JGitPathImpl>
             }
         };
     }
+
+    /**
+     * Records of a commit history, oldest first. Records are only built for the entries that are actually read,
+     * so paging through a long history doesn't materialize all of it.
+     */
+    private static class VersionRecordList extends AbstractList<VersionRecord> {
+
+        private final JGitFileSystem fs;
+        private final CommitHistory history;
+
+        private VersionRecordList(final JGitFileSystem fs,
+                                  final CommitHistory history) {
+            this.fs = fs;
+            this.history = history;
+        }
+
+        @Override
+        public VersionRecord get(final int index) {
+            final RevCommit commit = history.getCommits().get(size() - 1 - index);
+            final String recordPath = history.trackedFileNameChangeFor(commit.getId());
+            return new VersionRecord() {
+                @Override
+                public String id() {
+                    return commit.name();
+                }
+
+                @Override
+                public String author() {
+                    return commit.getAuthorIdent().getName();
+                }
+
+                @Override
+                public String email() {
+                    return commit.getAuthorIdent().getEmailAddress();
+                }
+
+                @Override
+                public String comment() {
+                    return commit.getFullMessage();
+                }
+
+                @Override
+                public Date date() {
+                    return commit.getAuthorIdent().getWhen();
+                }
+
+                @Override
+                public String uri() {
+                    return fs.getPath(commit.name(),
+                                      recordPath).toUri().toString();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return history.getCommits().size();
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.manager;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProvider;
+import org.uberfire.java.nio.fs.jgit.ws.JGitFileSystemsEventsManager;
+
+/**
+ * What is known about a warm started file system, enough for {@link org.uberfire.java.nio.fs.jgit.JGitFileSystemProxy}
+ * to describe it without opening the repository.
+ */
+public class JGitFileSystemWarmStart {
+
+    private final JGitFileSystemProvider provider;
+    private final JGitFileSystemsEventsManager eventsManager;
+    private final Map<String, String> fullHostNames;
+    private final Map<String, String> heads;
+
+    JGitFileSystemWarmStart(final JGitFileSystemProvider provider,
+                            final JGitFileSystemsEventsManager eventsManager,
+                            final Map<String, String> fullHostNames,
+                            final Map<String, String> heads) {
+        this.provider = provider;
+        this.eventsManager = eventsManager;
+        this.fullHostNames = fullHostNames;
+        this.heads = Collections.unmodifiableMap(new TreeMap<>(heads));
+    }
+
+    public JGitFileSystemProvider getProvider() {
+        return provider;
+    }
+
+    public JGitFileSystemsEventsManager getEventsManager() {
+        return eventsManager;
+    }
+
+    public Map<String, String> getFullHostNames() {
+        return fullHostNames;
+    }
+
+    public Set<String> getBranches() {
+        return heads.keySet();
+    }
+
+    public Map<String, String> getHeads() {
+        return heads;
+    }
+}
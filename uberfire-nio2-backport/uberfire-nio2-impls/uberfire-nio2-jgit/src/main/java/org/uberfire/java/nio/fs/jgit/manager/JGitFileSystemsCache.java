@@ -25,6 +25,7 @@ import java.util.function.Supplier;
 import org.kie.soup.commons.validation.PortablePreconditions;
 import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
 import org.uberfire.java.nio.fs.jgit.JGitFileSystemProviderConfiguration;
+import org.uberfire.java.nio.file.FileSystemNotFoundException;
 import org.uberfire.java.nio.fs.jgit.JGitFileSystemProxy;
 
 public class JGitFileSystemsCache {
@@ -33,7 +34,13 @@ public class JGitFileSystemsCache {
     final Map<String, Supplier<JGitFileSystem>> fileSystemsSuppliers = new ConcurrentHashMap<>();
 
     //limited amount of real instances of FS
-    final Map<String, Supplier<JGitFileSystem>> memoizedSuppliers;
+    final JGitFileSystemsCacheDataStructure memoizedSuppliers;
+
+    //a single proxy per fs, resolving the real instance on each call
+    final Map<String, FileSystemReference> references = new ConcurrentHashMap<>();
+
+    //fs registered from the manifest and not opened yet
+    final Map<String, JGitFileSystemWarmStart> warmStarts = new ConcurrentHashMap<>();
 
     public JGitFileSystemsCache(JGitFileSystemProviderConfiguration config) {
 
@@ -67,21 +74,59 @@ public class JGitFileSystemsCache {
     }
 
     public void remove(String fsName) {
+        final FileSystemReference reference = references.remove(fsName);
+        if (reference != null) {
+            reference.detach();
+        }
         fileSystemsSuppliers.remove(fsName);
         memoizedSuppliers.remove(fsName);
+        warmStarts.remove(fsName);
+    }
+
+    public void addWarmStart(String fsKey,
+                             JGitFileSystemWarmStart warmStart) {
+        PortablePreconditions.checkNotNull("fsKey",
+                                           fsKey);
+        PortablePreconditions.checkNotNull("warmStart",
+                                           warmStart);
+
+        warmStarts.put(fsKey,
+                       warmStart);
+    }
+
+    /**
+     * @return true if the file system was warm started and still unopened.
+     */
+    public boolean removeWarmStart(String fsKey) {
+        return warmStarts.remove(fsKey) != null;
+    }
+
+    public boolean isWarmStarted(String fsKey) {
+        return warmStarts.containsKey(fsKey);
     }
 
     public JGitFileSystem get(String fsName) {
+        if (memoizedSupplier(fsName) == null) {
+            return null;
+        }
+
+        FileSystemReference reference = references.get(fsName);
+        if (reference == null) {
+            reference = references.computeIfAbsent(fsName,
+                                                   FileSystemReference::new);
+        }
+        return reference.proxy;
+    }
 
-        Supplier<JGitFileSystem> memoizedSupplier = memoizedSuppliers.get(fsName);
+    private Supplier<JGitFileSystem> memoizedSupplier(String fsName) {
+        final Supplier<JGitFileSystem> memoizedSupplier = memoizedSuppliers.get(fsName);
         if (memoizedSupplier != null) {
-            return new JGitFileSystemProxy(fsName,
-                                           memoizedSupplier);
-        } else if (fileSystemsSuppliers.get(fsName) != null) {
-            Supplier<JGitFileSystem> newMemoizedSupplier = createMemoizedSupplier(fsName,
-                                                                                  fileSystemsSuppliers.get(fsName));
-            return new JGitFileSystemProxy(fsName,
-                                           newMemoizedSupplier);
+            return memoizedSupplier;
+        }
+        final Supplier<JGitFileSystem> createFSSupplier = fileSystemsSuppliers.get(fsName);
+        if (createFSSupplier != null) {
+            return createMemoizedSupplier(fsName,
+                                          createFSSupplier);
         }
         return null;
     }
@@ -89,14 +134,17 @@ public class JGitFileSystemsCache {
     private Supplier<JGitFileSystem> createMemoizedSupplier(String fsKey,
                                                             Supplier<JGitFileSystem> createFSSupplier) {
         Supplier<JGitFileSystem> memoizedFSSupplier = MemoizedFileSystemsSupplier.of(createFSSupplier);
-        memoizedSuppliers.putIfAbsent(fsKey,
-                                      memoizedFSSupplier);
-        return memoizedFSSupplier;
+        Supplier<JGitFileSystem> previous = memoizedSuppliers.putIfAbsent(fsKey,
+                                                                          memoizedFSSupplier);
+        return previous != null ? previous : memoizedFSSupplier;
     }
 
     public void clear() {
+        references.values().forEach(FileSystemReference::detach);
+        references.clear();
         memoizedSuppliers.clear();
         fileSystemsSuppliers.clear();
+        warmStarts.clear();
     }
 
     public boolean containsKey(String fsName) {
@@ -121,9 +169,53 @@ public class JGitFileSystemsCache {
             return memoizedSuppliers.keySet();
         }
 
+        public long evictions() {
+            return memoizedSuppliers.getEvictions();
+        }
+
         @Override
         public String toString() {
-            return "JGitFileSystemsCacheInfo{fileSystemsCacheSize[" + fileSystemsCacheSize() + "], memoizedFileSystemsCacheKeys[" + memoizedFileSystemsCacheKeys() + "]}";
+            return "JGitFileSystemsCacheInfo{fileSystemsCacheSize[" + fileSystemsCacheSize() + "], memoizedFileSystemsCacheKeys[" + memoizedFileSystemsCacheKeys() + "], evictions[" + evictions() + "]}";
+        }
+    }
+
+    /**
+     * Backs the proxy of a file system, so the proxies handed out always reach the instance currently cached and
+     * never keep an evicted one alive.
+     */
+    private class FileSystemReference implements Supplier<JGitFileSystem> {
+
+        private final String fsName;
+        private final JGitFileSystemProxy proxy;
+
+        //last instance of a removed fs, for the proxies still held by callers
+        private volatile JGitFileSystem detached;
+
+        FileSystemReference(String fsName) {
+            this.fsName = fsName;
+            this.proxy = new JGitFileSystemProxy(fsName,
+                                                 this,
+                                                 () -> warmStarts.get(fsName));
+        }
+
+        @Override
+        public JGitFileSystem get() {
+            final JGitFileSystem fs = detached;
+            if (fs != null) {
+                return fs;
+            }
+            final Supplier<JGitFileSystem> memoizedSupplier = memoizedSupplier(fsName);
+            if (memoizedSupplier == null) {
+                throw new FileSystemNotFoundException("No filesystem for " + fsName + " found.");
+            }
+            return memoizedSupplier.get();
+        }
+
+        void detach() {
+            final Supplier<JGitFileSystem> memoizedSupplier = memoizedSuppliers.get(fsName);
+            if (memoizedSupplier != null) {
+                detached = JGitFileSystemsCacheDataStructure.opened(memoizedSupplier);
+            }
         }
     }
 }
@@ -15,69 +15,172 @@
  */
 package org.uberfire.java.nio.fs.jgit.manager;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
 import org.uberfire.java.nio.fs.jgit.JGitFileSystemProviderConfiguration;
 
+/**
+ * Bounded map of the file system suppliers that hold real instances. Lookups only read a {@link ConcurrentHashMap}
+ * and set the reference bit of the entry, so they never block each other.
+ * <p>
+ * Once the capacity is exceeded entries are evicted with a clock (second chance) sweep in insertion order. A file
+ * system that was never opened holds no repository resources and is evicted right away, an opened one is evicted
+ * once it was not referenced since the last sweep and is not in use anymore. File systems in use are never evicted,
+ * even if that leaves the map over its capacity.
+ * <p>
+ * Evicted instances are only dropped from the map, never closed: paths created by them keep a reference to them and
+ * may still be read. Their repositories keep their pack files open until JGit evicts them from its window cache.
+ */
 public class JGitFileSystemsCacheDataStructure {
 
-    public static Map<String, Supplier<JGitFileSystem>> create(JGitFileSystemProviderConfiguration config) {
+    private final int capacity;
+    private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final Queue<CacheEntry> clock = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong evictions = new AtomicLong();
 
-        return Collections.synchronizedMap(new LinkedHashMap<String, Supplier<JGitFileSystem>>(config.getJgitFileSystemsInstancesCache() + 1,
-                                                                                               0.75f,
-                                                                                               true) {
+    JGitFileSystemsCacheDataStructure(final int capacity) {
+        this.capacity = capacity;
+    }
 
-            //prevent infinite loop if all FS instances are in use
-            private Integer removeEldestEntryIterations = 0;
+    public static JGitFileSystemsCacheDataStructure create(JGitFileSystemProviderConfiguration config) {
+        return new JGitFileSystemsCacheDataStructure(config.getJgitFileSystemsInstancesCache());
+    }
 
-            @Override
-            public Supplier<JGitFileSystem> putIfAbsent(String key, Supplier<JGitFileSystem> value) {
-                Supplier<JGitFileSystem> jGitFileSystemSupplier = super.putIfAbsent(key, value);
-                if (size() > config.getJgitFileSystemsInstancesCache()) {
-                    fitListToCacheSize();
-                }
-                return jGitFileSystemSupplier;
-            }
+    public Supplier<JGitFileSystem> get(String key) {
+        final CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.reference();
+        return entry.supplier;
+    }
 
-            private void fitListToCacheSize() {
-                List<String> itemsToRemove = new ArrayList<>();
-                int maxIterations = config.getJgitCacheOverflowCleanupSize();
-                Object[] entries =  this.entrySet().toArray();
-                for (int i = this.size() - 1; (i >= 0 && (this.size() - i < maxIterations)); i--) {
-                    Map.Entry<String, Supplier<JGitFileSystem>> entry = (Map.Entry) entries[i];
-                    JGitFileSystem targetFS = (JGitFileSystem) ((MemoizedFileSystemsSupplier) entry.getValue()).get();
-                    if (!targetFS.hasBeenInUse()) {
-                        itemsToRemove.add(entry.getKey());
-                    }
-                }
-                itemsToRemove.forEach(item -> this.remove(item));
-            }
+    public Supplier<JGitFileSystem> putIfAbsent(String key,
+                                                Supplier<JGitFileSystem> supplier) {
+        final CacheEntry entry = new CacheEntry(key,
+                                                supplier);
+        final CacheEntry previous = entries.putIfAbsent(key,
+                                                        entry);
+        if (previous != null) {
+            previous.reference();
+            return previous.supplier;
+        }
+        clock.add(entry);
+        if (entries.size() > capacity) {
+            evict(entry);
+        }
+        return null;
+    }
 
-            @Override
-            public boolean removeEldestEntry(Map.Entry eldest) {
-                if (removeEldestEntryIterations > config.getJgitRemoveEldestEntryIterations()) {
-                    removeEldestEntryIterations = 0;
-                    return false;
+    public Supplier<JGitFileSystem> replace(String key,
+                                            Supplier<JGitFileSystem> supplier) {
+        final CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        final Supplier<JGitFileSystem> previous = entry.supplier;
+        entry.supplier = supplier;
+        return previous;
+    }
+
+    public Supplier<JGitFileSystem> remove(String key) {
+        final CacheEntry entry = entries.remove(key);
+        return entry != null ? entry.supplier : null;
+    }
+
+    public void clear() {
+        entries.clear();
+        clock.clear();
+    }
+
+    public boolean containsKey(String key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public Set<String> keySet() {
+        return entries.keySet();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return the real instance held by the supplier, or null if the file system was not opened yet.
+     */
+    static JGitFileSystem opened(final Supplier<JGitFileSystem> supplier) {
+        if (supplier instanceof MemoizedFileSystemsSupplier) {
+            return ((MemoizedFileSystemsSupplier<JGitFileSystem>) supplier).peek();
+        }
+        return supplier.get();
+    }
+
+    private void evict(final CacheEntry inserted) {
+        //a single sweep at a time, the running one keeps going while the map is over its capacity
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            //two turns of the clock, the first one may only clear reference bits
+            int remaining = 2 * clock.size();
+            while (entries.size() > capacity && remaining-- > 0) {
+                final CacheEntry entry = clock.poll();
+                if (entry == null) {
+                    break;
                 }
-                if (size() > config.getJgitFileSystemsInstancesCache()) {
-                    JGitFileSystem targetFS = (JGitFileSystem) ((MemoizedFileSystemsSupplier) eldest.getValue()).get();
-                    if (targetFS.hasBeenInUse()) {
-                        removeEldestEntryIterations++;
-                        this.remove(eldest.getKey());
-                        this.put((String) eldest.getKey(), (MemoizedFileSystemsSupplier) eldest.getValue());
-                        return false;
-                    } else {
-                        return true;
-                    }
+                if (entries.get(entry.key) != entry) {
+                    //removed or replaced, drop it from the clock
+                    continue;
                 }
-                return false;
+                final JGitFileSystem fs = opened(entry.supplier);
+                if (entry == inserted || (fs != null && (entry.referenced || fs.hasBeenInUse()))) {
+                    entry.referenced = false;
+                    clock.add(entry);
+                    continue;
+                }
+                if (entries.remove(entry.key,
+                                   entry)) {
+                    evictions.incrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static class CacheEntry {
+
+        private final String key;
+        private volatile Supplier<JGitFileSystem> supplier;
+        private volatile boolean referenced = true;
+
+        CacheEntry(final String key,
+                   final Supplier<JGitFileSystem> supplier) {
+            this.key = key;
+            this.supplier = supplier;
+        }
+
+        void reference() {
+            //avoid writing the shared field on every lookup of a hot entry
+            if (!referenced) {
+                referenced = true;
             }
-        });
+        }
     }
 }
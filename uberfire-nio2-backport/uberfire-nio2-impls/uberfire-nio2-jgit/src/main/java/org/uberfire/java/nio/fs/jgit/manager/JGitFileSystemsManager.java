@@ -15,6 +15,8 @@
  */
 package org.uberfire.java.nio.fs.jgit.manager;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -26,6 +28,8 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.transport.CredentialsProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.java.nio.file.extensions.FileSystemHooks;
 import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
 import org.uberfire.java.nio.fs.jgit.JGitFileSystemImpl;
@@ -39,9 +43,11 @@ import static org.eclipse.jgit.lib.Constants.DOT_GIT_EXT;
 
 public class JGitFileSystemsManager {
 
-    private final Set<String> closedFileSystems = new HashSet<>();
+    private static final Logger LOG = LoggerFactory.getLogger(JGitFileSystemsManager.class);
 
-    private final Set<String> fileSystemsRoot = new HashSet<>();
+    private final Set<String> closedFileSystems = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> fileSystemsRoot = ConcurrentHashMap.newKeySet();
 
     private final JGitFileSystemProvider jGitFileSystemProvider;
 
@@ -51,11 +57,26 @@ public class JGitFileSystemsManager {
 
     final Map<String, JGitFileSystemLock> fileSystemsLocks = new ConcurrentHashMap<>();
 
+    private final JGitWarmStartMetrics warmStartMetrics = new JGitWarmStartMetrics();
+
+    //null when warm start is disabled
+    private final JGitRepositoriesManifest manifest;
+
     public JGitFileSystemsManager(final JGitFileSystemProvider jGitFileSystemProvider,
                                   final JGitFileSystemProviderConfiguration config) {
         this.jGitFileSystemProvider = jGitFileSystemProvider;
         this.config = config;
+        // evicted instances are dropped, not closed: paths created by them keep a reference to them and may still be read
         this.fsCache = new JGitFileSystemsCache(config);
+        this.manifest = config.isWarmStartEnabled() ? loadManifest() : null;
+    }
+
+    private JGitRepositoriesManifest loadManifest() {
+        final long start = System.currentTimeMillis();
+        final JGitRepositoriesManifest loaded = JGitRepositoriesManifest.load(config.getGitReposParentDir());
+        warmStartMetrics.onManifestLoaded(loaded.getFileSystems().size(),
+                                          System.currentTimeMillis() - start);
+        return loaded;
     }
 
     public void newFileSystem(Supplier<Map<String, String>> fullHostNames,
@@ -72,9 +93,97 @@ public class JGitFileSystemsManager {
                                                                        fsManager,
                                                                        fsHooks);
 
+        final boolean known = fsCache.containsKey(fsName.get());
         fsCache.addSupplier(fsName.get(),
                             fsSupplier);
         fileSystemsRoot.addAll(parseFSRoots(fsName.get()));
+
+        if (manifest != null && !known) {
+            registerWarmStart(fsName.get(),
+                              fullHostNames,
+                              fsManager);
+        }
+    }
+
+    /**
+     * Keeps the file system unopened if its heads on disk are the ones recorded in the manifest, the proxies
+     * returned by {@link #get(String)} then describe it from the manifest until it is actually used.
+     */
+    private void registerWarmStart(final String fsName,
+                                   final Supplier<Map<String, String>> fullHostNames,
+                                   final Supplier<JGitFileSystemsEventsManager> fsEventsManager) {
+        final Map<String, String> recorded = manifest.getHeads(fsName);
+        if (recorded == null) {
+            warmStartMetrics.onUnknown();
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        final Map<String, String> current = JGitRepositoriesManifest.readHeads(repositoryDirectory(fsName));
+        final long duration = System.currentTimeMillis() - start;
+
+        if (!current.isEmpty() && current.equals(recorded)) {
+            fsCache.addWarmStart(fsName,
+                                 new JGitFileSystemWarmStart(jGitFileSystemProvider,
+                                                             fsEventsManager.get(),
+                                                             fullHostNames.get(),
+                                                             current));
+            warmStartMetrics.onUnchanged(duration);
+        } else {
+            LOG.debug("Heads of [{}] changed since the manifest was written.",
+                      fsName);
+            warmStartMetrics.onChanged(duration);
+        }
+    }
+
+    /**
+     * True if the file system was registered from the manifest and hasn't been opened yet.
+     */
+    public boolean isWarmStarted(String fsName) {
+        return fsCache.isWarmStarted(fsName);
+    }
+
+    public Set<String> getWarmStartedFileSystems() {
+        return fsCache.getFileSystems().stream()
+                .filter(fsCache::isWarmStarted)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Records the current heads of every registered file system in the manifest, read from disk so unopened file
+     * systems stay closed. Does nothing when warm start is disabled.
+     */
+    public void storeManifest() {
+        if (manifest == null) {
+            return;
+        }
+        final Set<String> fsNames = new HashSet<>(fsCache.getFileSystems());
+        if (fsNames.isEmpty()) {
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        for (final String fsName : fsNames) {
+            manifest.put(fsName,
+                         JGitRepositoriesManifest.readHeads(repositoryDirectory(fsName)));
+        }
+        manifest.retainAll(fsNames);
+        try {
+            manifest.store();
+            warmStartMetrics.onManifestStored(System.currentTimeMillis() - start);
+        } catch (final IOException e) {
+            LOG.warn("Repositories manifest can't be written, next start will open all file systems.",
+                     e);
+        }
+    }
+
+    public JGitWarmStartMetrics getWarmStartMetrics() {
+        return warmStartMetrics;
+    }
+
+    private File repositoryDirectory(final String fsName) {
+        return new File(config.getGitReposParentDir(),
+                        fsName + DOT_GIT_EXT);
     }
 
     public void updateFSCacheEntry(String fsKey, JGitFileSystem jGitFileSystem) {
@@ -116,12 +225,17 @@ public class JGitFileSystemsManager {
                                                               Supplier<JGitFileSystemsEventsManager> fsManager,
                                                               Supplier<Map<FileSystemHooks, ?>> fsHooks) {
 
-        return () -> newFileSystem(fullHostNames.get(),
-                                   git.get(),
-                                   fsName.get(),
-                                   credential.get(),
-                                   fsManager.get(),
-                                   fsHooks.get());
+        return () -> {
+            if (fsCache.removeWarmStart(fsName.get())) {
+                warmStartMetrics.onOpenedOnDemand();
+            }
+            return newFileSystem(fullHostNames.get(),
+                                 git.get(),
+                                 fsName.get(),
+                                 credential.get(),
+                                 fsManager.get(),
+                                 fsHooks.get());
+        };
     }
 
     private JGitFileSystem newFileSystem(Map<String, String> fullHostNames,
@@ -191,7 +305,7 @@ public class JGitFileSystemsManager {
     }
 
     public Set<JGitFileSystem> getOpenFileSystems() {
-        return fsCache.getFileSystems().stream().filter(fsName -> !closedFileSystems.contains(fsName))
+        return fsCache.getFileSystems().stream().filter(fsName -> !closedFileSystems.contains(fsName) && !fsCache.isWarmStarted(fsName))
                 .map(fsName -> get(fsName)).collect(Collectors.toSet());
     }
 
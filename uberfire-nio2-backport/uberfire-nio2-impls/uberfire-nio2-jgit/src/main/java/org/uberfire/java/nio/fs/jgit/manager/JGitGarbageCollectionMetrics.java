@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.manager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected by {@link JGitGarbageCollectionScheduler}.
+ */
+public class JGitGarbageCollectionMetrics {
+
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalDurationMillis = new AtomicLong();
+    private final AtomicLong lastDurationMillis = new AtomicLong();
+    private final AtomicLong objectsPacked = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+
+    void onScheduled() {
+        scheduled.incrementAndGet();
+    }
+
+    void onSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    void onFailed() {
+        failed.incrementAndGet();
+    }
+
+    void onExecuted(final long durationMillis,
+                    final long packedObjects,
+                    final long reclaimedBytes) {
+        executed.incrementAndGet();
+        totalDurationMillis.addAndGet(durationMillis);
+        lastDurationMillis.set(durationMillis);
+        objectsPacked.addAndGet(packedObjects);
+        bytesReclaimed.addAndGet(Math.max(0,
+                                          reclaimedBytes));
+    }
+
+    public long getScheduled() {
+        return scheduled.get();
+    }
+
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getTotalDurationMillis() {
+        return totalDurationMillis.get();
+    }
+
+    public long getLastDurationMillis() {
+        return lastDurationMillis.get();
+    }
+
+    public long getObjectsPacked() {
+        return objectsPacked.get();
+    }
+
+    public long getBytesReclaimed() {
+        return bytesReclaimed.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JGitGarbageCollectionMetrics{" +
+                "scheduled=" + scheduled +
+                ", executed=" + executed +
+                ", skipped=" + skipped +
+                ", failed=" + failed +
+                ", totalDurationMillis=" + totalDurationMillis +
+                ", lastDurationMillis=" + lastDurationMillis +
+                ", objectsPacked=" + objectsPacked +
+                ", bytesReclaimed=" + bytesReclaimed +
+                '}';
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.manager;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.internal.storage.reftree.RefTreeDatabase;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProviderConfiguration;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Runs git garbage collection out of the commit path. File systems are marked as dirty by the provider once their
+ * commit limit is reached and collected later on a small pool of low priority threads; a file system that is already
+ * waiting to be collected, or being collected, is never queued twice.
+ * <p>
+ * Object repacking and pruning run without holding the file system lock, so writes keep going while the collector
+ * works (new objects stay loose and are protected by the prune expiration). Only the short ref packing step takes
+ * the file system lock, as it competes with ref updates for the same lock files.
+ */
+public class JGitGarbageCollectionScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JGitGarbageCollectionScheduler.class);
+
+    private final ThreadPoolExecutor executor;
+    private final int looseObjectsLimit;
+    private final int packFilesLimit;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final JGitGarbageCollectionMetrics metrics = new JGitGarbageCollectionMetrics();
+
+    public JGitGarbageCollectionScheduler(final JGitFileSystemProviderConfiguration config) {
+        this(config.getGcThreads(),
+             config.getGcLooseObjectsLimit(),
+             config.getGcPackFilesLimit());
+    }
+
+    JGitGarbageCollectionScheduler(final int threads,
+                                   final int looseObjectsLimit,
+                                   final int packFilesLimit) {
+        this.looseObjectsLimit = looseObjectsLimit;
+        this.packFilesLimit = packFilesLimit;
+        this.executor = new ThreadPoolExecutor(threads,
+                                               threads,
+                                               60L,
+                                               TimeUnit.SECONDS,
+                                               new LinkedBlockingQueue<>(),
+                                               new GarbageCollectionThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues the given file system for garbage collection, unless it is already waiting for it.
+     */
+    public void schedule(final JGitFileSystem fileSystem) {
+        checkNotNull("fileSystem",
+                     fileSystem);
+        if (executor.isShutdown() || !pending.add(fileSystem.getName())) {
+            return;
+        }
+        metrics.onScheduled();
+        executor.execute(() -> {
+            try {
+                collect(fileSystem);
+            } finally {
+                pending.remove(fileSystem.getName());
+            }
+        });
+    }
+
+    void collect(final JGitFileSystem fileSystem) {
+        if (!fileSystem.isOpen()) {
+            metrics.onSkipped();
+            return;
+        }
+
+        final Repository repository = fileSystem.getGit().getRepository();
+        if (!(repository instanceof FileRepository) || repository.getRefDatabase() instanceof RefTreeDatabase) {
+            collectInline(fileSystem);
+            return;
+        }
+
+        try {
+            final long start = System.currentTimeMillis();
+            final GC gc = new GC((FileRepository) repository);
+            final GC.RepoStatistics before = gc.getStatistics();
+            if (!needsCollection(before)) {
+                metrics.onSkipped();
+                return;
+            }
+
+            gc.repack();
+            gc.prune(Collections.emptySet());
+
+            fileSystem.lock();
+            try {
+                gc.packRefs();
+            } finally {
+                fileSystem.unlock();
+            }
+
+            final GC.RepoStatistics after = gc.getStatistics();
+            final long duration = System.currentTimeMillis() - start;
+            metrics.onExecuted(duration,
+                               after.numberOfPackedObjects,
+                               (before.sizeOfLooseObjects + before.sizeOfPackedObjects) - (after.sizeOfLooseObjects + after.sizeOfPackedObjects));
+
+            LOG.debug("Garbage collection of '{}' took {}ms ({} loose objects, {} pack files before).",
+                      fileSystem.getName(),
+                      duration,
+                      before.numberOfLooseObjects,
+                      before.numberOfPackFiles);
+        } catch (final Exception e) {
+            metrics.onFailed();
+            LOG.warn("Garbage collection of '" + fileSystem.getName() + "' failed, it will be retried on the next schedule.",
+                     e);
+        }
+    }
+
+    boolean needsCollection(final GC.RepoStatistics statistics) {
+        return statistics.numberOfLooseObjects >= looseObjectsLimit ||
+                statistics.numberOfPackFiles >= packFilesLimit;
+    }
+
+    private void collectInline(final JGitFileSystem fileSystem) {
+        final long start = System.currentTimeMillis();
+        fileSystem.lock();
+        try {
+            fileSystem.getGit().gc();
+            metrics.onExecuted(System.currentTimeMillis() - start,
+                               0,
+                               0);
+        } catch (final Exception e) {
+            metrics.onFailed();
+            LOG.warn("Garbage collection of '" + fileSystem.getName() + "' failed, it will be retried on the next schedule.",
+                     e);
+        } finally {
+            fileSystem.unlock();
+        }
+    }
+
+    public JGitGarbageCollectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Drops all the file systems that are still waiting to be collected. Running collections are left to finish.
+     */
+    public void clear() {
+        executor.getQueue().clear();
+        pending.clear();
+    }
+
+    public void shutdown() {
+        clear();
+        executor.shutdown();
+    }
+
+    private static class GarbageCollectionThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r,
+                                             "jgit-gc-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.manager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact record of the repositories known by the provider and the head of each of their branches, written on
+ * shutdown and read on the next start to register file systems without opening them.
+ * <p>
+ * One line per branch: {@code <fs name> TAB <branch> TAB <object id>}. Entries are only trusted when the heads found
+ * on disk are the same as the recorded ones, so a stale or partial manifest only costs a regular (cold) start.
+ */
+public class JGitRepositoriesManifest {
+
+    public static final String MANIFEST_FILE_NAME = ".repositories.manifest";
+
+    private static final Logger LOG = LoggerFactory.getLogger(JGitRepositoriesManifest.class);
+
+    private static final String HEADER = "# uberfire repositories manifest v1";
+    private static final char SEPARATOR = '\t';
+
+    private final File file;
+    private final Map<String, Map<String, String>> heads = new ConcurrentHashMap<>();
+
+    JGitRepositoriesManifest(final File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the manifest stored in the given git repositories directory, an empty one is returned if it doesn't
+     * exist or can't be read.
+     */
+    public static JGitRepositoriesManifest load(final File gitReposParentDir) {
+        final JGitRepositoriesManifest manifest = new JGitRepositoriesManifest(new File(gitReposParentDir,
+                                                                                        MANIFEST_FILE_NAME));
+        if (!manifest.file.exists()) {
+            return manifest;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(manifest.file.toPath(),
+                                                             StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final int first = line.indexOf(SEPARATOR);
+                final int last = line.lastIndexOf(SEPARATOR);
+                if (first <= 0 || last == first) {
+                    throw new IOException("Invalid manifest entry [" + line + "]");
+                }
+                manifest.heads.computeIfAbsent(line.substring(0,
+                                                              first),
+                                               k -> new TreeMap<>())
+                        .put(line.substring(first + 1,
+                                            last),
+                             line.substring(last + 1));
+            }
+        } catch (final Exception e) {
+            LOG.warn("Repositories manifest [" + manifest.file + "] can't be read, all file systems will be opened.",
+                     e);
+            manifest.heads.clear();
+        }
+        return manifest;
+    }
+
+    /**
+     * Branch heads of a bare repository, read straight from its refs without creating a file system.
+     */
+    public static Map<String, String> readHeads(final File gitDir) {
+        final Map<String, String> result = new TreeMap<>();
+        if (!gitDir.isDirectory()) {
+            return result;
+        }
+        try (Repository repository = new FileRepositoryBuilder()
+                .setGitDir(gitDir)
+                .setMustExist(true)
+                .build()) {
+            for (final Ref ref : repository.getRefDatabase().getRefs(Constants.R_HEADS).values()) {
+                if (ref.getObjectId() != null) {
+                    result.put(Repository.shortenRefName(ref.getName()),
+                               ref.getObjectId().name());
+                }
+            }
+        } catch (final IOException e) {
+            LOG.warn("Heads of repository [" + gitDir + "] can't be read.",
+                     e);
+            result.clear();
+        }
+        return result;
+    }
+
+    public Map<String, String> getHeads(final String fsName) {
+        final Map<String, String> recorded = heads.get(fsName);
+        return recorded == null ? null : Collections.unmodifiableMap(recorded);
+    }
+
+    public Set<String> getFileSystems() {
+        return Collections.unmodifiableSet(heads.keySet());
+    }
+
+    public void put(final String fsName,
+                    final Map<String, String> branchHeads) {
+        if (branchHeads.isEmpty()) {
+            heads.remove(fsName);
+        } else {
+            heads.put(fsName,
+                      new TreeMap<>(branchHeads));
+        }
+    }
+
+    public void retainAll(final Set<String> fsNames) {
+        heads.keySet().retainAll(fsNames);
+    }
+
+    /**
+     * Writes the manifest to a temporary file and moves it over the previous one, so a crash while storing leaves
+     * either the old or the new manifest.
+     */
+    public void store() throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        final File tmp = new File(file.getParentFile(),
+                                  file.getName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(),
+                                                             StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (final Map.Entry<String, Map<String, String>> fs : new TreeMap<>(heads).entrySet()) {
+                for (final Map.Entry<String, String> branch : fs.getValue().entrySet()) {
+                    writer.write(fs.getKey());
+                    writer.write(SEPARATOR);
+                    writer.write(branch.getKey());
+                    writer.write(SEPARATOR);
+                    writer.write(branch.getValue());
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(tmp.toPath(),
+                   file.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    File getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.manager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and timings of the warm start, collected by {@link JGitFileSystemsManager}.
+ */
+public class JGitWarmStartMetrics {
+
+    private final AtomicLong manifestEntries = new AtomicLong();
+    private final AtomicLong manifestLoadMillis = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong unknown = new AtomicLong();
+    private final AtomicLong headsCheckMillis = new AtomicLong();
+    private final AtomicLong openedOnDemand = new AtomicLong();
+    private final AtomicLong manifestStoreMillis = new AtomicLong();
+
+    void onManifestLoaded(final int entries,
+                          final long durationMillis) {
+        manifestEntries.set(entries);
+        manifestLoadMillis.set(durationMillis);
+    }
+
+    void onUnchanged(final long durationMillis) {
+        unchanged.incrementAndGet();
+        headsCheckMillis.addAndGet(durationMillis);
+    }
+
+    void onChanged(final long durationMillis) {
+        changed.incrementAndGet();
+        headsCheckMillis.addAndGet(durationMillis);
+    }
+
+    void onUnknown() {
+        unknown.incrementAndGet();
+    }
+
+    void onOpenedOnDemand() {
+        openedOnDemand.incrementAndGet();
+    }
+
+    void onManifestStored(final long durationMillis) {
+        manifestStoreMillis.set(durationMillis);
+    }
+
+    public long getManifestEntries() {
+        return manifestEntries.get();
+    }
+
+    public long getManifestLoadMillis() {
+        return manifestLoadMillis.get();
+    }
+
+    /**
+     * File systems registered without being opened, their heads matched the manifest.
+     */
+    public long getUnchanged() {
+        return unchanged.get();
+    }
+
+    /**
+     * File systems whose heads differ from the manifest.
+     */
+    public long getChanged() {
+        return changed.get();
+    }
+
+    /**
+     * File systems not present in the manifest.
+     */
+    public long getUnknown() {
+        return unknown.get();
+    }
+
+    /**
+     * Time spent reading heads from disk to compare them with the manifest.
+     */
+    public long getHeadsCheckMillis() {
+        return headsCheckMillis.get();
+    }
+
+    /**
+     * Warm started file systems that were opened afterwards, on first access.
+     */
+    public long getOpenedOnDemand() {
+        return openedOnDemand.get();
+    }
+
+    public long getManifestStoreMillis() {
+        return manifestStoreMillis.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JGitWarmStartMetrics{" +
+                "manifestEntries=" + manifestEntries +
+                ", manifestLoadMillis=" + manifestLoadMillis +
+                ", unchanged=" + unchanged +
+                ", changed=" + changed +
+                ", unknown=" + unknown +
+                ", headsCheckMillis=" + headsCheckMillis +
+                ", openedOnDemand=" + openedOnDemand +
+                ", manifestStoreMillis=" + manifestStoreMillis +
+                '}';
+    }
+}
@@ -37,6 +37,13 @@ public class MemoizedFileSystemsSupplier<T> implements Supplier<T> {
         return t;
     }
 
+    /**
+     * @return the memoized instance, or null if it was not created yet.
+     */
+    public T peek() {
+        return this.map.get(MemoizedFileSystemsSupplier.class);
+    }
+
     public static <T> Supplier<T> of(Supplier<T> provider) {
         return new MemoizedFileSystemsSupplier<>(provider);
     }
@@ -31,6 +31,7 @@ import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.internal.ketch.KetchLeader;
 import org.eclipse.jgit.internal.ketch.KetchLeaderCache;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -228,6 +229,9 @@ public interface Git {
     RevCommit getCommonAncestorCommit(final String branchA,
                                       final String branchB);
 
+    RevCommit getCommonAncestorCommit(final RevCommit commitA,
+                                      final RevCommit commitB);
+
     CommitHistory listCommits(final Ref ref,
                               final String path) throws IOException, GitAPIException;
 
@@ -285,6 +289,9 @@ public interface Git {
     List<String> conflictBranchesChecker(final String branchA,
                                          final String branchB);
 
+    List<String> conflictCommitsChecker(final RevCommit commitA,
+                                        final RevCommit commitB);
+
     void squash(final String branch,
                 final String startCommit,
                 final String commitMessage);
@@ -313,6 +320,9 @@ public interface Git {
     InputStream blobAsInputStream(final String treeRef,
                                   final String path);
 
+    ObjectLoader openBlob(final String treeRef,
+                          final String path);
+
     RevCommit getFirstCommit(final Ref ref) throws IOException;
 
     List<Ref> listRefs();
@@ -330,6 +340,16 @@ public interface Git {
     List<PathInfo> listPathContent(final String branchName,
                                    final String path);
 
+    /**
+     * Index used to serve {@link #getFirstCommit(Ref)} and {@link #listCommits(Ref, String)}.
+     */
+    HistoryIndex getHistoryIndex();
+
+    /**
+     * Cache used to serve {@link #getPathInfo(String, String)} and {@link #listPathContent(String, String)}.
+     */
+    PathInfoCache getPathInfoCache();
+
     boolean isHEADInitialized();
 
     void setHeadAsInitialized();
@@ -44,6 +44,7 @@ import org.eclipse.jgit.internal.ketch.KetchLeader;
 import org.eclipse.jgit.internal.ketch.KetchLeaderCache;
 import org.eclipse.jgit.internal.storage.reftree.RefTreeDatabase;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -70,7 +71,6 @@ import org.uberfire.java.nio.fs.jgit.util.commands.Fetch;
 import org.uberfire.java.nio.fs.jgit.util.commands.GarbageCollector;
 import org.uberfire.java.nio.fs.jgit.util.commands.GetCommit;
 import org.uberfire.java.nio.fs.jgit.util.commands.GetCommonAncestorCommit;
-import org.uberfire.java.nio.fs.jgit.util.commands.GetFirstCommit;
 import org.uberfire.java.nio.fs.jgit.util.commands.GetLastCommit;
 import org.uberfire.java.nio.fs.jgit.util.commands.GetPathInfo;
 import org.uberfire.java.nio.fs.jgit.util.commands.GetRef;
@@ -105,6 +105,9 @@ public class GitImpl implements Git {
     private static final String DEFAULT_JGIT_RETRY_SLEEP_TIME = "50";
     private static int JGIT_RETRY_TIMES = initRetryValue();
     private static final int JGIT_RETRY_SLEEP_TIME = initSleepTime();
+    private static final int JGIT_STREAM_THRESHOLD = initStreamThreshold();
+    private static final String DEFAULT_PATH_INFO_CACHE_SIZE = String.valueOf(32 * 1024 * 1024);
+    private static final PathInfoCache PATH_INFO_CACHE = new PathInfoCache(initPathInfoCacheSize());
     private static final String MASTER_BRANCH = "master";
     private boolean isEnabled = false;
 
@@ -114,6 +117,26 @@ public class GitImpl implements Git {
                           DEFAULT_JGIT_RETRY_SLEEP_TIME).getIntValue();
     }
 
+    private static int initStreamThreshold() {
+        final ConfigProperties config = new ConfigProperties(System.getProperties());
+        try {
+            return config.get("org.uberfire.nio.git.stream.threshold",
+                              String.valueOf(BlobAsInputStream.DEFAULT_STREAM_THRESHOLD)).getIntValue();
+        } catch (NumberFormatException ex) {
+            return BlobAsInputStream.DEFAULT_STREAM_THRESHOLD;
+        }
+    }
+
+    private static long initPathInfoCacheSize() {
+        final ConfigProperties config = new ConfigProperties(System.getProperties());
+        try {
+            return Long.parseLong(config.get("org.uberfire.nio.git.pathinfo.cache.size",
+                                             DEFAULT_PATH_INFO_CACHE_SIZE).getValue());
+        } catch (NumberFormatException ex) {
+            return Long.parseLong(DEFAULT_PATH_INFO_CACHE_SIZE);
+        }
+    }
+
     private static int initRetryValue() {
         final ConfigProperties config = new ConfigProperties(System.getProperties());
         final String osName = config.get("os.name",
@@ -135,6 +158,7 @@ public class GitImpl implements Git {
     private org.eclipse.jgit.api.Git git;
     private KetchLeaderCache leaders;
     private final AtomicBoolean isHeadInitialized = new AtomicBoolean(false);
+    private final HistoryIndex historyIndex = new HistoryIndex(this);
 
     public GitImpl(final org.eclipse.jgit.api.Git git) {
         this(git,
@@ -208,17 +232,23 @@ public class GitImpl implements Git {
     @Override
     public RevCommit getCommonAncestorCommit(final String branchA,
                                              final String branchB) {
+        return getCommonAncestorCommit(getLastCommit(branchA),
+                                       getLastCommit(branchB));
+    }
+
+    @Override
+    public RevCommit getCommonAncestorCommit(final RevCommit commitA,
+                                             final RevCommit commitB) {
         return new GetCommonAncestorCommit(this,
-                                           getLastCommit(branchA),
-                                           getLastCommit(branchB)).execute();
+                                           commitA,
+                                           commitB).execute();
     }
 
     @Override
     public CommitHistory listCommits(final Ref ref,
                                      final String path) throws IOException, GitAPIException {
-        return new ListCommits(this,
-                               ref,
-                               path).execute();
+        return historyIndex.listCommits(ref,
+                                        path);
     }
 
     @Override
@@ -383,6 +413,14 @@ public class GitImpl implements Git {
                                            branchB).execute();
     }
 
+    @Override
+    public List<String> conflictCommitsChecker(final RevCommit commitA,
+                                               final RevCommit commitB) {
+        return new ConflictBranchesChecker(this,
+                                           commitA,
+                                           commitB).execute();
+    }
+
     @Override
     public void squash(final String branch,
                        final String startCommit,
@@ -464,13 +502,23 @@ public class GitImpl implements Git {
         return retryIfNeeded(NoSuchFileException.class,
                              () -> new BlobAsInputStream(this,
                                                          treeRef,
-                                                         normalize(path)).execute().get());
+                                                         normalize(path),
+                                                         JGIT_STREAM_THRESHOLD).execute().get());
+    }
+
+    @Override
+    public ObjectLoader openBlob(final String treeRef,
+                                 final String path) {
+        return retryIfNeeded(NoSuchFileException.class,
+                             () -> new BlobAsInputStream(this,
+                                                         treeRef,
+                                                         normalize(path),
+                                                         JGIT_STREAM_THRESHOLD).load());
     }
 
     @Override
     public RevCommit getFirstCommit(final Ref ref) throws IOException {
-        return new GetFirstCommit(this,
-                                  ref).execute();
+        return historyIndex.getFirstCommit(ref);
     }
 
     @Override
@@ -520,7 +568,8 @@ public class GitImpl implements Git {
         return retryIfNeeded(RuntimeException.class,
                              () -> new GetPathInfo(this,
                                                    branchName,
-                                                   path).execute());
+                                                   path,
+                                                   PATH_INFO_CACHE).execute());
     }
 
     @Override
@@ -529,7 +578,18 @@ public class GitImpl implements Git {
         return retryIfNeeded(RuntimeException.class,
                              () -> new ListPathContent(this,
                                                        branchName,
-                                                       path).execute());
+                                                       path,
+                                                       PATH_INFO_CACHE).execute());
+    }
+
+    @Override
+    public HistoryIndex getHistoryIndex() {
+        return historyIndex;
+    }
+
+    @Override
+    public PathInfoCache getPathInfoCache() {
+        return PATH_INFO_CACHE;
     }
 
     @Override
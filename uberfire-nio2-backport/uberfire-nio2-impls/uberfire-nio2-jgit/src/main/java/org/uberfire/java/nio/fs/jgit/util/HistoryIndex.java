@@ -0,0 +1,991 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.java.nio.fs.jgit.util.commands.GetFirstCommit;
+import org.uberfire.java.nio.fs.jgit.util.commands.ListCommits;
+import org.uberfire.java.nio.fs.jgit.util.model.CommitHistory;
+
+/**
+ * Persistent per repository index of the history queries behind the attribute views: the first commit of each
+ * branch and the commit history (with its rename chain) of any path.
+ * <p>
+ * Every commit is diffed once against each of its parents, with rename detection, and the changed paths are appended
+ * to a log under the git directory. Each branch also records the commits of the walk {@link ListCommits} does from
+ * its head, bound to that head. A path history is then a scan of the branch commits that changed the path, switching
+ * to the old name at each rename as the follow filter does, without diffing any tree.
+ * <p>
+ * Both files are only appended to as commits are made: a head moved by single parent commits, or by an amend, only
+ * indexes the new commits. Any other move (merge, reset, squash) walks the branch again, reusing the commits already
+ * indexed. A damaged or missing file is rebuilt from the repository.
+ */
+public class HistoryIndex {
+
+    public static final String INDEX_DIR = "history-index";
+
+    private static final Logger LOG = LoggerFactory.getLogger(HistoryIndex.class);
+
+    private static final String COMMITS_FILE = "commits";
+    private static final String BRANCH_FILE_SUFFIX = ".branch";
+    private static final int COMMITS_HEADER = 0x55484331;
+
+    private static final byte ADDED = 0;
+    private static final byte MODIFIED = 1;
+    private static final byte DELETED = 2;
+
+    private static final byte FIRST_COMMIT = 0;
+    private static final byte COMMIT = 1;
+    private static final byte EMPTY_COMMIT = 2;
+    private static final byte AMENDING_COMMIT = 3;
+    private static final byte AMENDING_EMPTY_COMMIT = 4;
+    private static final byte ROOT_COMMIT = 5;
+    // plus the index of the parent the walk kept
+    private static final int COLLAPSED_MERGE = 16;
+    private static final int BRANCH_RECORD_SIZE = 1 + Constants.OBJECT_ID_LENGTH;
+
+    private final Git git;
+    private final Map<ObjectId, CommitChanges> commits = new ConcurrentHashMap<>();
+    private final Map<String, BranchCommits> branches = new ConcurrentHashMap<>();
+    private final Map<String, String> paths = new HashMap<>();
+    private boolean loaded;
+
+    public HistoryIndex(final Git git) {
+        this.git = git;
+    }
+
+    public RevCommit getFirstCommit(final Ref ref) throws IOException {
+        if (ref.getObjectId() == null) {
+            return new GetFirstCommit(git,
+                                      ref).execute();
+        }
+        final BranchCommits branch = index(ref);
+        if (branch.firstCommit == null) {
+            return null;
+        }
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            return rw.parseCommit(branch.firstCommit);
+        }
+    }
+
+    public CommitHistory listCommits(final Ref ref,
+                                     final String path) throws IOException, GitAPIException {
+        if (ref.getObjectId() == null) {
+            return new ListCommits(git,
+                                   ref,
+                                   path).execute();
+        }
+        final String key = (path != null && path.startsWith("/")) ? path.substring(1) : path;
+        final BranchCommits branch = index(ref);
+        final List<RevCommit> history = new ArrayList<>();
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            if (key == null || key.isEmpty()) {
+                for (int i = branch.commits.length - 1; i >= 0; i--) {
+                    history.add(rw.parseCommit(branch.commits[i]));
+                }
+                return new CommitHistory(history,
+                                         Collections.emptyMap(),
+                                         null);
+            }
+
+            final Map<AnyObjectId, String> pathByCommit = new HashMap<>();
+            // the follow filter only diffs whole trees when the tracked path is nested, so a top level path is
+            // only followed through renames of top level entries
+            final boolean nested = key.indexOf('/') >= 0;
+            final Set<ObjectId> roots = new HashSet<>(branch.roots);
+            Set<ObjectId> listed = null;
+            String current = key;
+            for (int i = branch.commits.length - 1; i >= 0; i--) {
+                final ObjectId id = branch.commits[i];
+                final CommitChanges changes = commits.get(id);
+                final boolean root = roots.contains(id);
+                final Integer keptParent = branch.collapsedMerges.get(id);
+                final boolean merge = changes.parents > 1 && keptParent == null;
+                final int parent = keptParent != null ? keptParent : 0;
+                if (root) {
+                    if (!exists(rw,
+                                id,
+                                current)) {
+                        continue;
+                    }
+                } else if (merge) {
+                    if (listed == null) {
+                        listed = new HashSet<>(Arrays.asList(branch.commits));
+                    }
+                    if (!includeMerge(rw,
+                                      id,
+                                      changes,
+                                      current,
+                                      listed,
+                                      roots)) {
+                        continue;
+                    }
+                } else if (!changes.changed(parent,
+                                            current)) {
+                    continue;
+                }
+                if (!root && !changes.exists(current) && !exists(rw,
+                                                                 id,
+                                                                 current)) {
+                    continue;
+                }
+                final RevCommit commit = rw.parseCommit(id);
+                history.add(commit);
+                pathByCommit.put(commit.getId(),
+                                 current);
+                if (root || merge) {
+                    continue;
+                }
+                final String renamedFrom = (nested ? changes.renames : changes.topLevelRenames).get(parent).get(current);
+                if (renamedFrom != null) {
+                    current = renamedFrom;
+                }
+            }
+            return new CommitHistory(history,
+                                     pathByCommit,
+                                     key);
+        }
+    }
+
+    /**
+     * A merge is listed if the path differs from every parent. As the follow filter does, parents are checked in
+     * order until one has the same path, and the history of a parent missing the path is cut: the commit of the
+     * walk it stands for is then only listed if it has the path.
+     */
+    private boolean includeMerge(final RevWalk rw,
+                                 final ObjectId id,
+                                 final CommitChanges changes,
+                                 final String path,
+                                 final Set<ObjectId> listed,
+                                 final Set<ObjectId> roots) throws IOException {
+        final RevCommit merge = rw.parseCommit(id);
+        for (int i = 0; i < changes.parents; i++) {
+            if (!changes.changed(i,
+                                 path)) {
+                return false;
+            }
+            RevCommit parent = rw.parseCommit(merge.getParent(i));
+            if (!exists(rw,
+                        parent,
+                        path)) {
+                // the walk skips the commits that change nothing, so the parent it sees is the first listed one
+                while (!listed.contains(parent) && parent.getParentCount() == 1) {
+                    parent = rw.parseCommit(parent.getParent(0));
+                }
+                roots.add(parent.copy());
+            }
+        }
+        return true;
+    }
+
+    private static boolean exists(final RevWalk rw,
+                                  final AnyObjectId id,
+                                  final String path) throws IOException {
+        return TreeWalk.forPath(rw.getObjectReader(),
+                                path,
+                                rw.parseCommit(id).getTree()) != null;
+    }
+
+    /**
+     * Brings the entry of the given branch up to its current head, right after a commit.
+     */
+    public void update(final String branchName) {
+        final Ref ref = git.getRef(branchName);
+        if (ref == null || ref.getObjectId() == null) {
+            return;
+        }
+        try {
+            index(ref);
+        } catch (final IOException e) {
+            LOG.warn("Unable to update the history index of branch [{}].",
+                     branchName,
+                     e);
+            branches.remove(ref.getName());
+        }
+    }
+
+    private BranchCommits index(final Ref ref) throws IOException {
+        final ObjectId head = ref.getObjectId();
+        final BranchCommits known = branches.get(ref.getName());
+        if (known != null && head.equals(known.head)) {
+            return known;
+        }
+        synchronized (this) {
+            load();
+            BranchCommits branch = branches.get(ref.getName());
+            if (branch == null) {
+                branch = readBranch(ref.getName());
+            }
+            if (branch == null || !head.equals(branch.head)) {
+                final BranchCommits caughtUp = branch != null ? catchUp(ref,
+                                                                        branch) : null;
+                branch = caughtUp != null ? caughtUp : walk(ref);
+            }
+            branches.put(ref.getName(),
+                         branch);
+            return branch;
+        }
+    }
+
+    /**
+     * Indexes the commits made on top of the indexed head, or on top of its parent when the head was amended.
+     * @return null if the branch moved any other way.
+     */
+    private BranchCommits catchUp(final Ref ref,
+                                  final BranchCommits branch) throws IOException {
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            final List<RevCommit> newCommits = new ArrayList<>();
+            RevCommit commit = rw.parseCommit(ref.getObjectId());
+            // commits older than the indexed head can't be descendants of it, unless clocks are skewed
+            while (commit.getParentCount() == 1 && commit.getCommitTime() >= branch.headTime) {
+                newCommits.add(commit);
+                final RevCommit parent = rw.parseCommit(commit.getParent(0));
+                final boolean amend = !parent.equals(branch.head) && parent.equals(branch.headParent);
+                if (parent.equals(branch.head) || amend) {
+                    Collections.reverse(newCommits);
+                    return append(ref,
+                                  rw,
+                                  branch,
+                                  newCommits,
+                                  amend);
+                }
+                commit = parent;
+            }
+        }
+        return null;
+    }
+
+    private BranchCommits append(final Ref ref,
+                                 final RevWalk rw,
+                                 final BranchCommits branch,
+                                 final List<RevCommit> newCommits,
+                                 final boolean amend) throws IOException {
+        final List<ObjectId> branchCommits = new ArrayList<>(Arrays.asList(branch.commits));
+        if (amend && branch.headListed) {
+            branchCommits.remove(branchCommits.size() - 1);
+        }
+        final List<byte[]> changes = new ArrayList<>();
+        final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        ObjectId firstCommit = branch.firstCommit;
+        boolean firstCommitChanged = firstCommit == null || (amend && branch.head.equals(firstCommit));
+        final int firstCommitTime = firstCommitChanged ? 0 : rw.parseCommit(firstCommit).getCommitTime();
+        boolean listed = false;
+        for (int i = 0; i < newCommits.size(); i++) {
+            final RevCommit commit = newCommits.get(i);
+            // the walk of ListCommits skips the commits that change nothing
+            listed = !commit.getTree().equals(rw.parseCommit(commit.getParent(0)).getTree());
+            if (listed) {
+                indexCommit(rw,
+                            commit,
+                            changes);
+                branchCommits.add(commit.copy());
+            }
+            final boolean amending = amend && i == 0;
+            writeBranchRecord(records,
+                              amending ? (listed ? AMENDING_COMMIT : AMENDING_EMPTY_COMMIT) : (listed ? COMMIT : EMPTY_COMMIT),
+                              commit);
+            firstCommitChanged |= commit.getCommitTime() < firstCommitTime;
+        }
+        if (firstCommitChanged) {
+            final RevCommit first = new GetFirstCommit(git,
+                                                       ref).execute();
+            firstCommit = first != null ? first.copy() : null;
+            if (firstCommit != null) {
+                writeBranchRecord(records,
+                                  FIRST_COMMIT,
+                                  firstCommit);
+            }
+        }
+        appendCommits(changes);
+        appendBranch(ref.getName(),
+                     records.toByteArray());
+
+        final RevCommit head = newCommits.get(newCommits.size() - 1);
+        return new BranchCommits(head.copy(),
+                                 head.getCommitTime(),
+                                 head.getParent(0).copy(),
+                                 listed,
+                                 firstCommit,
+                                 branchCommits.toArray(new ObjectId[0]),
+                                 branch.roots,
+                                 branch.collapsedMerges);
+    }
+
+    /**
+     * Walks the whole branch the way {@link ListCommits} does and indexes the commits that are not yet.
+     */
+    private BranchCommits walk(final Ref ref) throws IOException {
+        final List<RevCommit> walked = new ArrayList<>();
+        final List<ObjectId> branchCommits = new ArrayList<>();
+        final List<byte[]> changes = new ArrayList<>();
+        final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        final RevCommit head;
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            rw.setTreeFilter(TreeFilter.ANY_DIFF);
+            head = rw.parseCommit(ref.getObjectId());
+            rw.markStart(head);
+            rw.sort(RevSort.TOPO);
+            for (final RevCommit commit : rw) {
+                walked.add(commit);
+                branchCommits.add(commit.copy());
+            }
+        }
+        Collections.reverse(walked);
+        Collections.reverse(branchCommits);
+
+        final Set<ObjectId> listed = new HashSet<>(branchCommits);
+        final Set<ObjectId> roots = new HashSet<>();
+        final Map<ObjectId, Integer> collapsedMerges = new HashMap<>();
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            for (final RevCommit walkedCommit : walked) {
+                final RevCommit commit = rw.parseCommit(walkedCommit);
+                indexCommit(rw,
+                            commit,
+                            changes);
+                // the walk rewrites parents to the commits it lists: it may cut the parents of a merge parent, or
+                // leave a merge with a single parent, and the follow filter sees them as such
+                int type = COMMIT;
+                if (walkedCommit.getParentCount() == 0 && commit.getParentCount() > 0) {
+                    roots.add(commit.copy());
+                    type = ROOT_COMMIT;
+                } else if (walkedCommit.getParentCount() == 1 && commit.getParentCount() > 1) {
+                    final int keptParent = keptParent(rw,
+                                                      commit,
+                                                      walkedCommit.getParent(0),
+                                                      listed);
+                    collapsedMerges.put(commit.copy(),
+                                        keptParent);
+                    type = COLLAPSED_MERGE + keptParent;
+                }
+                writeBranchRecord(records,
+                                  type,
+                                  commit);
+            }
+            final boolean headListed = !branchCommits.isEmpty() && head.equals(branchCommits.get(branchCommits.size() - 1));
+            if (!headListed) {
+                writeBranchRecord(records,
+                                  EMPTY_COMMIT,
+                                  head);
+            }
+            final RevCommit first = new GetFirstCommit(git,
+                                                       ref).execute();
+            if (first != null) {
+                writeBranchRecord(records,
+                                  FIRST_COMMIT,
+                                  first);
+            }
+            appendCommits(changes);
+            writeBranch(ref.getName(),
+                        records.toByteArray());
+
+            final RevCommit parsedHead = rw.parseCommit(head);
+            return new BranchCommits(parsedHead.copy(),
+                                     parsedHead.getCommitTime(),
+                                     parsedHead.getParentCount() == 1 ? parsedHead.getParent(0).copy() : null,
+                                     headListed,
+                                     first != null ? first.copy() : null,
+                                     branchCommits.toArray(new ObjectId[0]),
+                                     roots,
+                                     collapsedMerges);
+        }
+    }
+
+    /**
+     * Index of the parent of the merge the walk rewrote to the given commit: the first one listed on its line.
+     */
+    private static int keptParent(final RevWalk rw,
+                                  final RevCommit merge,
+                                  final AnyObjectId walkParent,
+                                  final Set<ObjectId> listed) throws IOException {
+        for (int i = 0; i < merge.getParentCount(); i++) {
+            RevCommit parent = rw.parseCommit(merge.getParent(i));
+            while (!parent.equals(walkParent) && !listed.contains(parent) && parent.getParentCount() == 1) {
+                parent = rw.parseCommit(parent.getParent(0));
+            }
+            if (parent.equals(walkParent)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private void indexCommit(final RevWalk rw,
+                             final RevCommit commit,
+                             final List<byte[]> changes) throws IOException {
+        if (commits.containsKey(commit)) {
+            return;
+        }
+        final CommitChanges commitChanges = diff(rw,
+                                                 commit);
+        commits.put(commit.copy(),
+                    commitChanges);
+        changes.add(commitChanges.toRecord(commit));
+    }
+
+    /**
+     * Paths changed by the commit against each of its parents (against an empty tree for a root commit), plus the
+     * renames found against each parent the way the follow filter does, either across the whole trees or between
+     * top level entries, depending on whether the tracked path is nested. It only follows them in commits the walk
+     * sees with a single parent.
+     */
+    private CommitChanges diff(final RevWalk rw,
+                               final RevCommit commit) throws IOException {
+        final int sides = Math.max(commit.getParentCount(),
+                                   1);
+        final String[][] changedPaths = new String[sides][];
+        final byte[][] kinds = new byte[sides][];
+        final List<Map<String, String>> renames = new ArrayList<>(sides);
+        final List<Map<String, String>> topLevelRenames = new ArrayList<>(sides);
+        for (int i = 0; i < sides; i++) {
+            final List<DiffEntry> entries;
+            try (final TreeWalk tw = new TreeWalk(rw.getObjectReader())) {
+                tw.setRecursive(true);
+                tw.setFilter(TreeFilter.ANY_DIFF);
+                if (commit.getParentCount() == 0) {
+                    tw.addTree(new EmptyTreeIterator());
+                } else {
+                    tw.addTree(rw.parseCommit(commit.getParent(i)).getTree());
+                }
+                tw.addTree(commit.getTree());
+                entries = DiffEntry.scan(tw);
+            }
+
+            final TreeMap<String, Byte> sorted = new TreeMap<>();
+            boolean hasAdds = false;
+            for (final DiffEntry entry : entries) {
+                switch (entry.getChangeType()) {
+                    case ADD:
+                        sorted.put(intern(entry.getNewPath()),
+                                   ADDED);
+                        hasAdds = true;
+                        break;
+                    case DELETE:
+                        sorted.put(intern(entry.getOldPath()),
+                                   DELETED);
+                        break;
+                    default:
+                        sorted.put(intern(entry.getNewPath()),
+                                   MODIFIED);
+                }
+            }
+            changedPaths[i] = sorted.keySet().toArray(new String[0]);
+            kinds[i] = new byte[changedPaths[i].length];
+            int k = 0;
+            for (final Byte kind : sorted.values()) {
+                kinds[i][k++] = kind;
+            }
+
+            if (commit.getParentCount() > 0 && hasAdds) {
+                renames.add(detectRenames(rw,
+                                          entries));
+                try (final TreeWalk tw = new TreeWalk(rw.getObjectReader())) {
+                    tw.setFilter(TreeFilter.ANY_DIFF);
+                    tw.addTree(rw.parseCommit(commit.getParent(i)).getTree());
+                    tw.addTree(commit.getTree());
+                    topLevelRenames.add(detectRenames(rw,
+                                                      DiffEntry.scan(tw)));
+                }
+            } else {
+                renames.add(Collections.emptyMap());
+                topLevelRenames.add(Collections.emptyMap());
+            }
+        }
+        return new CommitChanges(commit.getParentCount(),
+                                 changedPaths,
+                                 kinds,
+                                 renames,
+                                 topLevelRenames);
+    }
+
+    private Map<String, String> detectRenames(final RevWalk rw,
+                                              final List<DiffEntry> entries) throws IOException {
+        final Map<String, String> renames = new HashMap<>();
+        final RenameDetector renameDetector = new RenameDetector(rw.getObjectReader(),
+                                                                 git.getRepository().getConfig().get(DiffConfig.KEY));
+        renameDetector.addAll(entries);
+        for (final DiffEntry entry : renameDetector.compute()) {
+            if (entry.getChangeType() == DiffEntry.ChangeType.RENAME || entry.getChangeType() == DiffEntry.ChangeType.COPY) {
+                renames.put(intern(entry.getNewPath()),
+                            intern(entry.getOldPath()));
+            }
+        }
+        return renames;
+    }
+
+    private String intern(final String path) {
+        final String known = paths.putIfAbsent(path,
+                                               path);
+        return known != null ? known : path;
+    }
+
+    private File indexDir() {
+        final File gitDir = git.getRepository().getDirectory();
+        return gitDir != null ? new File(gitDir,
+                                         INDEX_DIR) : null;
+    }
+
+    private File branchFile(final String refName) throws IOException {
+        return new File(indexDir(),
+                        URLEncoder.encode(refName,
+                                          StandardCharsets.UTF_8.name()) + BRANCH_FILE_SUFFIX);
+    }
+
+    /**
+     * Reads the commit log once. A record cut by a crash is dropped, an unreadable log is started over.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        final File dir = indexDir();
+        if (dir == null) {
+            return;
+        }
+        final File file = new File(dir,
+                                   COMMITS_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        long valid = 0;
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != COMMITS_HEADER) {
+                throw new IOException("Unknown history index format");
+            }
+            valid = 4;
+            while (true) {
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch (final EOFException e) {
+                    break;
+                }
+                final byte[] record = new byte[length];
+                in.readFully(record);
+                readCommitRecord(record);
+                valid += 4 + length;
+            }
+        } catch (final EOFException e) {
+            LOG.debug("Dropping the last incomplete record of [{}].",
+                      file);
+        } catch (final IOException | RuntimeException e) {
+            LOG.warn("Unable to read the history index [{}], it will be rebuilt.",
+                     file,
+                     e);
+            commits.clear();
+            valid = 0;
+        }
+        try (final RandomAccessFile raf = new RandomAccessFile(file,
+                                                               "rw")) {
+            if (raf.length() != valid) {
+                raf.setLength(valid);
+            }
+        } catch (final IOException e) {
+            LOG.warn("Unable to truncate the history index [{}].",
+                     file,
+                     e);
+        }
+    }
+
+    private void readCommitRecord(final byte[] record) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        final ObjectId id = readObjectId(in);
+        final int parents = in.readUnsignedByte();
+        final int sides = Math.max(parents,
+                                   1);
+        final String[][] changedPaths = new String[sides][];
+        final byte[][] kinds = new byte[sides][];
+        final List<Map<String, String>> renames = new ArrayList<>(sides);
+        final List<Map<String, String>> topLevelRenames = new ArrayList<>(sides);
+        for (int i = 0; i < sides; i++) {
+            final int size = in.readInt();
+            changedPaths[i] = new String[size];
+            kinds[i] = new byte[size];
+            for (int j = 0; j < size; j++) {
+                kinds[i][j] = in.readByte();
+                changedPaths[i][j] = intern(in.readUTF());
+            }
+            renames.add(readRenames(in));
+            topLevelRenames.add(readRenames(in));
+        }
+        commits.put(id,
+                    new CommitChanges(parents,
+                                      changedPaths,
+                                      kinds,
+                                      renames,
+                                      topLevelRenames));
+    }
+
+    private Map<String, String> readRenames(final DataInputStream in) throws IOException {
+        final int size = in.readInt();
+        if (size == 0) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> renames = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            renames.put(intern(in.readUTF()),
+                        intern(in.readUTF()));
+        }
+        return renames;
+    }
+
+    private void appendCommits(final List<byte[]> records) {
+        final File dir = indexDir();
+        if (dir == null || records.isEmpty()) {
+            return;
+        }
+        final File file = new File(dir,
+                                   COMMITS_FILE);
+        try {
+            Files.createDirectories(dir.toPath());
+            final boolean created = !file.exists() || file.length() == 0;
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file,
+                                                                                                                   true)))) {
+                if (created) {
+                    out.writeInt(COMMITS_HEADER);
+                }
+                for (final byte[] record : records) {
+                    out.writeInt(record.length);
+                    out.write(record);
+                }
+            }
+        } catch (final IOException e) {
+            LOG.warn("Unable to write the history index [{}].",
+                     file,
+                     e);
+        }
+    }
+
+    /**
+     * Reads the records of a branch: the commits of its walk, oldest first, each one on top of the previous one or
+     * replacing it when amending, and its first commit. The last commit is the head the branch is indexed for.
+     * @return null if the branch was never indexed or its commits are not all in the log.
+     */
+    private BranchCommits readBranch(final String refName) {
+        final File dir = indexDir();
+        if (dir == null) {
+            return null;
+        }
+        final File file;
+        final byte[] content;
+        try {
+            file = branchFile(refName);
+            if (!file.exists()) {
+                return null;
+            }
+            content = Files.readAllBytes(file.toPath());
+        } catch (final IOException e) {
+            return null;
+        }
+
+        final List<ObjectId> branchCommits = new ArrayList<>();
+        final Set<ObjectId> roots = new HashSet<>();
+        final Map<ObjectId, Integer> collapsedMerges = new HashMap<>();
+        ObjectId head = null;
+        boolean headListed = false;
+        ObjectId firstCommit = null;
+        final int complete = content.length - content.length % BRANCH_RECORD_SIZE;
+        for (int offset = 0; offset < complete; offset += BRANCH_RECORD_SIZE) {
+            final int type = content[offset] & 0xff;
+            final ObjectId id = ObjectId.fromRaw(content,
+                                                 offset + 1);
+            if (type == FIRST_COMMIT) {
+                firstCommit = id;
+                continue;
+            }
+            if ((type == AMENDING_COMMIT || type == AMENDING_EMPTY_COMMIT) && headListed) {
+                branchCommits.remove(branchCommits.size() - 1);
+            }
+            headListed = type == COMMIT || type == AMENDING_COMMIT || type == ROOT_COMMIT || type >= COLLAPSED_MERGE;
+            if (headListed) {
+                if (!commits.containsKey(id)) {
+                    return null;
+                }
+                branchCommits.add(id);
+            }
+            if (type == ROOT_COMMIT) {
+                roots.add(id);
+            } else if (type >= COLLAPSED_MERGE) {
+                collapsedMerges.put(id,
+                                    type - COLLAPSED_MERGE);
+            }
+            head = id;
+        }
+        if (head == null) {
+            return null;
+        }
+
+        try (final RevWalk rw = new RevWalk(git.getRepository())) {
+            final RevCommit parsedHead = rw.parseCommit(head);
+            return new BranchCommits(head,
+                                     parsedHead.getCommitTime(),
+                                     parsedHead.getParentCount() == 1 ? parsedHead.getParent(0).copy() : null,
+                                     headListed,
+                                     firstCommit,
+                                     branchCommits.toArray(new ObjectId[0]),
+                                     roots,
+                                     collapsedMerges);
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    private void appendBranch(final String refName,
+                              final byte[] records) {
+        if (indexDir() == null) {
+            return;
+        }
+        try {
+            final File file = branchFile(refName);
+            if (!file.exists()) {
+                // nothing to append to, the branch is walked again on next start
+                return;
+            }
+            try (final OutputStream out = new FileOutputStream(file,
+                                                               true)) {
+                out.write(records);
+            }
+        } catch (final IOException e) {
+            LOG.warn("Unable to write the history index of branch [{}].",
+                     refName,
+                     e);
+        }
+    }
+
+    private void writeBranch(final String refName,
+                             final byte[] records) {
+        final File dir = indexDir();
+        if (dir == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(dir.toPath());
+            final File file = branchFile(refName);
+            final File tmp = new File(dir,
+                                      file.getName() + ".tmp");
+            Files.write(tmp.toPath(),
+                        records);
+            Files.move(tmp.toPath(),
+                       file.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException e) {
+            LOG.warn("Unable to write the history index of branch [{}].",
+                     refName,
+                     e);
+        }
+    }
+
+    private static void writeBranchRecord(final ByteArrayOutputStream records,
+                                          final int type,
+                                          final AnyObjectId id) {
+        final byte[] record = new byte[BRANCH_RECORD_SIZE];
+        record[0] = (byte) type;
+        id.copyRawTo(record,
+                     1);
+        records.write(record,
+                      0,
+                      record.length);
+    }
+
+    private static ObjectId readObjectId(final DataInputStream in) throws IOException {
+        final byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+        in.readFully(raw);
+        return ObjectId.fromRaw(raw);
+    }
+
+    /**
+     * Commits of a branch, oldest first, as listed by the walk of {@link ListCommits} from its head.
+     */
+    private static class BranchCommits {
+
+        private final ObjectId head;
+        private final int headTime;
+        private final ObjectId headParent;
+        private final boolean headListed;
+        private final ObjectId firstCommit;
+        private final ObjectId[] commits;
+        private final Set<ObjectId> roots;
+        private final Map<ObjectId, Integer> collapsedMerges;
+
+        private BranchCommits(final ObjectId head,
+                              final int headTime,
+                              final ObjectId headParent,
+                              final boolean headListed,
+                              final ObjectId firstCommit,
+                              final ObjectId[] commits,
+                              final Set<ObjectId> roots,
+                              final Map<ObjectId, Integer> collapsedMerges) {
+            this.head = head;
+            this.headTime = headTime;
+            this.headParent = headParent;
+            this.headListed = headListed;
+            this.firstCommit = firstCommit;
+            this.commits = commits;
+            this.roots = roots;
+            this.collapsedMerges = collapsedMerges;
+        }
+    }
+
+    /**
+     * Sorted paths changed by a commit against each of its parents, with the kind of change, and the old path of
+     * the paths it renamed against each of them.
+     */
+    private static class CommitChanges {
+
+        private final int parents;
+        private final String[][] paths;
+        private final byte[][] kinds;
+        private final List<Map<String, String>> renames;
+        private final List<Map<String, String>> topLevelRenames;
+
+        private CommitChanges(final int parents,
+                              final String[][] paths,
+                              final byte[][] kinds,
+                              final List<Map<String, String>> renames,
+                              final List<Map<String, String>> topLevelRenames) {
+            this.parents = parents;
+            this.paths = paths;
+            this.kinds = kinds;
+            this.renames = renames;
+            this.topLevelRenames = topLevelRenames;
+        }
+
+        /**
+         * True if the path, or anything below it, differs from the given parent.
+         */
+        private boolean changed(final int parent,
+                                final String path) {
+            return Arrays.binarySearch(paths[parent],
+                                       path) >= 0 || hasBelow(paths[parent],
+                                                              path);
+        }
+
+        private static boolean hasBelow(final String[] side,
+                                        final String path) {
+            final int index = firstBelow(side,
+                                         path);
+            return index < side.length && side[index].startsWith(path + "/");
+        }
+
+        /**
+         * True if the changes show that the path exists in the commit. False means it has to be looked up in the
+         * tree, as a directory whose changes were all deletions may still hold other files.
+         */
+        private boolean exists(final String path) {
+            final String[] side = paths[0];
+            final int exact = Arrays.binarySearch(side,
+                                                  path);
+            if (exact >= 0 && kinds[0][exact] != DELETED) {
+                return true;
+            }
+            final String prefix = path + "/";
+            for (int i = firstBelow(side,
+                                    path); i < side.length && side[i].startsWith(prefix); i++) {
+                if (kinds[0][i] != DELETED) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Index of the first path that would be below the given one, as paths below it sort right after its prefix.
+         */
+        private static int firstBelow(final String[] side,
+                                      final String path) {
+            final int index = Arrays.binarySearch(side,
+                                                  path + "/");
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private byte[] toRecord(final AnyObjectId id) throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final DataOutputStream out = new DataOutputStream(bytes)) {
+                final byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+                id.copyRawTo(raw,
+                             0);
+                out.write(raw);
+                out.writeByte(parents);
+                for (int i = 0; i < paths.length; i++) {
+                    out.writeInt(paths[i].length);
+                    for (int j = 0; j < paths[i].length; j++) {
+                        out.writeByte(kinds[i][j]);
+                        out.writeUTF(paths[i][j]);
+                    }
+                    writeRenames(out,
+                                 renames.get(i));
+                    writeRenames(out,
+                                 topLevelRenames.get(i));
+                }
+            }
+            return bytes.toByteArray();
+        }
+
+        private static void writeRenames(final DataOutputStream out,
+                                         final Map<String, String> renames) throws IOException {
+            out.writeInt(renames.size());
+            for (final Map.Entry<String, String> rename : renames.entrySet()) {
+                out.writeUTF(rename.getKey());
+                out.writeUTF(rename.getValue());
+            }
+        }
+    }
+}
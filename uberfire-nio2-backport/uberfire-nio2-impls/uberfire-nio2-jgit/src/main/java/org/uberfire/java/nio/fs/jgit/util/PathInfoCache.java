@@ -0,0 +1,249 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
+
+/**
+ * Cache of path lookups, keyed by the id of the root tree they were resolved against and the path. Git trees are
+ * immutable, so an entry never gets stale: a new commit produces a new root tree id, and the entries of the old tree
+ * simply age out. For the same reason the cache can be shared by every repository.
+ * <p>
+ * Lookups only read a {@link ConcurrentHashMap} and set the reference bit of the entry, so they never block each
+ * other. The cache is bounded by an estimate of the memory held by its entries rather than by their number, as a
+ * directory listing can be far bigger than a single path info; once the bound is exceeded, entries are evicted with a
+ * clock (second chance) sweep in insertion order, one sweep at a time. A limit of zero disables the cache.
+ */
+public class PathInfoCache {
+
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int PATH_INFO_OVERHEAD = 64;
+
+    private final long maxWeight;
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>(256);
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong weight = new AtomicLong();
+    private final PathInfoCacheMetrics metrics = new PathInfoCacheMetrics();
+
+    public PathInfoCache(final long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public PathInfo getPathInfo(final AnyObjectId treeId,
+                                final String path,
+                                final Loader<PathInfo> loader) throws IOException {
+        return get(new Key(treeId,
+                           path,
+                           false),
+                   loader);
+    }
+
+    /**
+     * @return an unmodifiable list, whether it was cached or just loaded.
+     */
+    public List<PathInfo> listPathContent(final AnyObjectId treeId,
+                                          final String path,
+                                          final Loader<List<PathInfo>> loader) throws IOException {
+        return get(new Key(treeId,
+                           path,
+                           true),
+                   () -> Collections.unmodifiableList(loader.load()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V get(final Key key,
+                      final Loader<V> loader) throws IOException {
+        if (maxWeight <= 0) {
+            return loader.load();
+        }
+
+        final Entry cached = entries.get(key);
+        if (cached != null) {
+            cached.referenced = true;
+            metrics.onHit();
+            return (V) cached.value;
+        }
+
+        metrics.onMiss();
+        final V value = loader.load();
+        final long entryWeight = weigh(key,
+                                       value);
+        if (entryWeight > maxWeight) {
+            return value;
+        }
+
+        final Entry entry = new Entry(key,
+                                      value,
+                                      entryWeight);
+        final Entry concurrent = entries.putIfAbsent(key,
+                                                     entry);
+        if (concurrent != null) {
+            // loaded at the same time by another thread, keep a single instance
+            return (V) concurrent.value;
+        }
+        clock.add(entry);
+        if (weight.addAndGet(entryWeight) > maxWeight) {
+            evict();
+        }
+        return value;
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            // a sweep is already running, the bound is checked again on the next insertion
+            return;
+        }
+        try {
+            // every entry gets at most one second chance per sweep
+            int scans = 2 * entries.size() + 1;
+            while (weight.get() > maxWeight && scans-- > 0) {
+                final Entry entry = clock.poll();
+                if (entry == null) {
+                    return;
+                }
+                if (entry.referenced) {
+                    entry.referenced = false;
+                    clock.add(entry);
+                } else if (entries.remove(entry.key,
+                                          entry)) {
+                    weight.addAndGet(-entry.weight);
+                    metrics.onEviction();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static long weigh(final Key key,
+                              final Object value) {
+        long result = ENTRY_OVERHEAD + 2L * key.path.length();
+        if (value instanceof PathInfo) {
+            result += weigh((PathInfo) value);
+        } else if (value instanceof List) {
+            for (final Object pathInfo : (List<?>) value) {
+                result += weigh((PathInfo) pathInfo);
+            }
+        }
+        return result;
+    }
+
+    private static long weigh(final PathInfo pathInfo) {
+        return PATH_INFO_OVERHEAD + (pathInfo.getPath() == null ? 0 : 2L * pathInfo.getPath().length());
+    }
+
+    public void clear() {
+        evictionLock.lock();
+        try {
+            Entry entry;
+            while ((entry = clock.poll()) != null) {
+                if (entries.remove(entry.key,
+                                   entry)) {
+                    weight.addAndGet(-entry.weight);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public PathInfoCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    @FunctionalInterface
+    public interface Loader<V> {
+
+        V load() throws IOException;
+    }
+
+    private static class Entry {
+
+        private final Key key;
+        private final Object value;
+        private final long weight;
+        private volatile boolean referenced;
+
+        private Entry(final Key key,
+                      final Object value,
+                      final long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private static class Key {
+
+        private final ObjectId treeId;
+        private final String path;
+        private final boolean listing;
+
+        private Key(final AnyObjectId treeId,
+                    final String path,
+                    final boolean listing) {
+            this.treeId = treeId.copy();
+            this.path = path;
+            this.listing = listing;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return listing == key.listing &&
+                    treeId.equals(key.treeId) &&
+                    path.equals(key.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = treeId.hashCode();
+            result = 31 * result + path.hashCode();
+            result = 31 * result + (listing ? 1 : 0);
+            return result;
+        }
+    }
+}
@@ -16,20 +16,21 @@
 
 package org.uberfire.java.nio.fs.jgit.util.commands;
 
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiConsumer;
 
-import org.eclipse.jgit.dircache.DirCacheEditor;
-import org.eclipse.jgit.dircache.DirCacheEntry;
 import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
-import org.eclipse.jgit.treewalk.TreeWalk;
+import org.uberfire.commons.data.Pair;
 import org.uberfire.java.nio.fs.jgit.util.Git;
 import org.uberfire.java.nio.fs.jgit.util.model.CommitContent;
 
+import static org.eclipse.jgit.lib.FileMode.REGULAR_FILE;
+
 abstract class BaseCreateCommitTree<T extends CommitContent> {
 
     final T commitContent;
@@ -47,46 +48,59 @@ abstract class BaseCreateCommitTree<T extends CommitContent> {
         this.commitContent = commitContent;
     }
 
-    Optional<ObjectId> buildTree(final DirCacheEditor editor) {
-        try {
-            return Optional.ofNullable(editor.getDirCache().writeTree(odi));
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
-        }
+    /**
+     * Creates a tree builder on top of the tree of {@link #headId}, so that only the ancestor trees of the
+     * changed paths get rewritten.
+     */
+    IncrementalTreeBuilder newTreeBuilder() {
+        return new IncrementalTreeBuilder(odi,
+                                          resolveHeadTree());
     }
 
-    void iterateOverTreeWalk(final Git git,
-                             final ObjectId headId,
-                             final BiConsumer<String, CanonicalTreeParser> consumer) {
-        if (headId != null) {
-            try (final TreeWalk treeWalk = new TreeWalk(git.getRepository())) {
-                final int hIdx = treeWalk.addTree(new RevWalk(git.getRepository()).parseTree(headId));
-                treeWalk.setRecursive(true);
-
-                while (treeWalk.next()) {
-                    final String walkPath = treeWalk.getPathString();
-                    final CanonicalTreeParser hTree = treeWalk.getTree(hIdx,
-                                                                       CanonicalTreeParser.class);
+    /**
+     * Builds a tree that points each path to the given blob, or removes it when the blob is <code>null</code>.
+     * Returns empty if the resulting tree is the same as the head tree.
+     */
+    Optional<ObjectId> writeBlobs(final Map<String, ObjectId> blobs) {
+        try (final IncrementalTreeBuilder builder = newTreeBuilder()) {
+            //deletions are resolved against head, so they must be applied before any new content
+            for (final Map.Entry<String, ObjectId> pathAndBlob : blobs.entrySet()) {
+                if (pathAndBlob.getValue() == null) {
+                    builder.remove(PathUtil.normalize(pathAndBlob.getKey()));
+                }
+            }
 
-                    consumer.accept(walkPath,
-                                    hTree);
+            for (final Map.Entry<String, ObjectId> pathAndBlob : blobs.entrySet()) {
+                if (pathAndBlob.getValue() != null) {
+                    final String gPath = PathUtil.normalize(pathAndBlob.getKey());
+                    final Pair<ObjectId, FileMode> current = builder.find(gPath);
+                    if (current == null || !pathAndBlob.getValue().equals(current.getK1())) {
+                        builder.put(gPath,
+                                    pathAndBlob.getValue(),
+                                    REGULAR_FILE);
+                    }
                 }
-            } catch (final Exception ex) {
-                throw new RuntimeException(ex);
             }
+
+            if (!builder.isModified()) {
+                return Optional.empty();
+            }
+
+            return Optional.of(builder.write());
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
-    void addToTemporaryInCoreIndex(final DirCacheEditor editor,
-                                   final DirCacheEntry dcEntry,
-                                   final ObjectId objectId,
-                                   final FileMode fileMode) {
-        editor.add(new DirCacheEditor.PathEdit(dcEntry) {
-            @Override
-            public void apply(final DirCacheEntry ent) {
-                ent.setObjectId(objectId);
-                ent.setFileMode(fileMode);
-            }
-        });
+    private RevTree resolveHeadTree() {
+        if (headId == null) {
+            return null;
+        }
+        try (final ObjectReader reader = odi.newReader();
+             final RevWalk revWalk = new RevWalk(reader)) {
+            return revWalk.parseTree(headId);
+        } catch (final Exception ex) {
+            throw new RuntimeException(ex);
+        }
     }
 }
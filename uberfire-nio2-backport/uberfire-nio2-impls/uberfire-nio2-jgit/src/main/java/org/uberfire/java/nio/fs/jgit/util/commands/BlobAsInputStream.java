@@ -16,12 +16,13 @@
 
 package org.uberfire.java.nio.fs.jgit.util.commands;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.Optional;
 
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.slf4j.Logger;
@@ -29,24 +30,59 @@ import org.slf4j.LoggerFactory;
 import org.uberfire.java.nio.file.NoSuchFileException;
 import org.uberfire.java.nio.fs.jgit.util.Git;
 
+/**
+ * Opens a blob for reading. Blobs up to the stream threshold are served from a single cached byte array, bigger
+ * ones are streamed straight from the object database and never fully materialised on heap.
+ */
 public class BlobAsInputStream {
 
     private static final Logger LOG = LoggerFactory.getLogger(BlobAsInputStream.class);
 
+    public static final int DEFAULT_STREAM_THRESHOLD = 1024 * 1024;
+
     private final Git git;
     private final String treeRef;
     private final String path;
+    private final int streamThreshold;
 
     public BlobAsInputStream(final Git git,
                              final String treeRef,
                              final String path) {
+        this(git,
+             treeRef,
+             path,
+             DEFAULT_STREAM_THRESHOLD);
+    }
+
+    public BlobAsInputStream(final Git git,
+                             final String treeRef,
+                             final String path,
+                             final int streamThreshold) {
         this.git = git;
         this.treeRef = treeRef;
         this.path = path;
+        this.streamThreshold = streamThreshold;
     }
 
     public Optional<InputStream> execute() {
-        try (final TreeWalk tw = new TreeWalk(git.getRepository())) {
+        final ObjectLoader loader = load();
+        try {
+            return Optional.of(loader.openStream());
+        } catch (final Throwable t) {
+            LOG.debug("Unexpected exception, this will trigger a NoSuchFileException.",
+                      t);
+            throw new NoSuchFileException("Can't find '" + path + "' in tree '" + treeRef + "'");
+        }
+    }
+
+    /**
+     * Resolves the loader of the blob. Loaders of blobs bigger than the stream threshold are "large": they hold
+     * no content and every {@link ObjectLoader#openStream()} reads from the object database again.
+     */
+    public ObjectLoader load() {
+        try (final ObjectReader reader = git.getRepository().newObjectReader();
+             final TreeWalk tw = new TreeWalk(reader)) {
+            reader.setStreamFileThreshold(streamThreshold);
             final ObjectId tree = git.getTreeFromRef(treeRef);
             tw.setFilter(PathFilter.create(path));
             tw.reset(tree);
@@ -55,8 +91,8 @@ public class BlobAsInputStream {
                     tw.enterSubtree();
                     continue;
                 }
-                return Optional.of(new ByteArrayInputStream(git.getRepository().open(tw.getObjectId(0),
-                                                                                     Constants.OBJ_BLOB).getBytes()));
+                return reader.open(tw.getObjectId(0),
+                                   Constants.OBJ_BLOB);
             }
         } catch (final Throwable t) {
             LOG.debug("Unexpected exception, this will trigger a NoSuchFileException.",
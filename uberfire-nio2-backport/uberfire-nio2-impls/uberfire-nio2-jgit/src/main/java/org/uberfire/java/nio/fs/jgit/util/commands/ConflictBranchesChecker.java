@@ -38,6 +38,8 @@ public class ConflictBranchesChecker {
     private final Git git;
     private final String branchA;
     private final String branchB;
+    private final RevCommit commitA;
+    private final RevCommit commitB;
 
     public ConflictBranchesChecker(final Git git,
                                    final String branchA,
@@ -48,23 +50,43 @@ public class ConflictBranchesChecker {
                                      branchA);
         this.branchB = checkNotEmpty("branchB",
                                      branchB);
+        this.commitA = null;
+        this.commitB = null;
+    }
+
+    /**
+     * Checks the given commits instead of the current heads of two branches, the result only depends on the commits.
+     */
+    public ConflictBranchesChecker(final Git git,
+                                   final RevCommit commitA,
+                                   final RevCommit commitB) {
+        this.git = checkNotNull("git",
+                                git);
+        this.commitA = checkNotNull("commitA",
+                                    commitA);
+        this.commitB = checkNotNull("commitB",
+                                    commitB);
+        this.branchA = commitA.getName();
+        this.branchB = commitB.getName();
     }
 
     public List<String> execute() {
-        BranchUtil.existsBranch(this.git,
-                                this.branchA);
+        if (this.commitA == null) {
+            BranchUtil.existsBranch(this.git,
+                                    this.branchA);
 
-        BranchUtil.existsBranch(this.git,
-                                this.branchB);
+            BranchUtil.existsBranch(this.git,
+                                    this.branchB);
+        }
 
         List<String> result = new ArrayList<>();
 
         try {
-            final RevCommit commitA = git.getLastCommit(branchA);
-            final RevCommit commitB = git.getLastCommit(branchB);
+            final RevCommit commitA = this.commitA != null ? this.commitA : git.getLastCommit(branchA);
+            final RevCommit commitB = this.commitB != null ? this.commitB : git.getLastCommit(branchB);
 
-            final RevCommit commonAncestor = git.getCommonAncestorCommit(branchA,
-                                                                         branchB);
+            final RevCommit commonAncestor = git.getCommonAncestorCommit(commitA,
+                                                                         commitB);
 
             ThreeWayMerger merger = MergeStrategy.RECURSIVE.newMerger(git.getRepository(),
                                                                       true);
@@ -16,14 +16,15 @@
 
 package org.uberfire.java.nio.fs.jgit.util.commands;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
-import org.eclipse.jgit.dircache.DirCache;
-import org.eclipse.jgit.dircache.DirCacheEditor;
-import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
+import org.uberfire.commons.data.Pair;
 import org.uberfire.java.nio.fs.jgit.util.Git;
 import org.uberfire.java.nio.fs.jgit.util.model.CopyCommitContent;
 
@@ -42,30 +43,26 @@ public class CreateCopyCommitTree extends BaseCreateCommitTree<CopyCommitContent
     public Optional<ObjectId> execute() {
         final Map<String, String> content = commitContent.getContent();
 
-        final DirCacheEditor editor = DirCache.newInCore().editor();
+        try (final IncrementalTreeBuilder builder = newTreeBuilder()) {
+            //sources are resolved against head before any target is written
+            final Map<String, Pair<ObjectId, FileMode>> targets = new HashMap<>(content.size());
+            for (final Map.Entry<String, String> fromTo : content.entrySet()) {
+                final Pair<ObjectId, FileMode> source = builder.find(fromTo.getKey());
+                if (source != null && source.getK2().getObjectType() != Constants.OBJ_TREE) {
+                    targets.put(fromTo.getValue(),
+                                source);
+                }
+            }
 
-        try {
-            iterateOverTreeWalk(git,
-                                headId,
-                                (walkPath, hTree) -> {
-                                    final String toPath = content.get(walkPath);
-                                    addToTemporaryInCoreIndex(editor,
-                                                              new DirCacheEntry(walkPath),
-                                                              hTree.getEntryObjectId(),
-                                                              hTree.getEntryFileMode());
-                                    if (toPath != null) {
-                                        addToTemporaryInCoreIndex(editor,
-                                                                  new DirCacheEntry(toPath),
-                                                                  hTree.getEntryObjectId(),
-                                                                  hTree.getEntryFileMode());
-                                    }
-                                });
+            for (final Map.Entry<String, Pair<ObjectId, FileMode>> target : targets.entrySet()) {
+                builder.put(target.getKey(),
+                            target.getValue().getK1(),
+                            target.getValue().getK2());
+            }
 
-            editor.finish();
+            return Optional.of(builder.write());
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
-
-        return buildTree(editor);
     }
 }
@@ -16,16 +16,15 @@
 
 package org.uberfire.java.nio.fs.jgit.util.commands;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
-import org.eclipse.jgit.dircache.DirCache;
-import org.eclipse.jgit.dircache.DirCacheEditor;
-import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
+import org.uberfire.commons.data.Pair;
 import org.uberfire.java.nio.fs.jgit.util.Git;
 import org.uberfire.java.nio.fs.jgit.util.model.MoveCommitContent;
 
@@ -43,28 +42,33 @@ public class CreateMoveCommitTree extends BaseCreateCommitTree<MoveCommitContent
 
     public Optional<ObjectId> execute() {
         final Map<String, String> content = commitContent.getContent();
-        final DirCacheEditor editor = DirCache.newInCore().editor();
-        final List<String> pathsAdded = new ArrayList<>();
 
-        try {
-            iterateOverTreeWalk(git,
-                                headId,
-                                (walkPath, hTree) -> {
-                                    final String toPath = content.get(walkPath);
-                                    final DirCacheEntry dcEntry = new DirCacheEntry((toPath == null) ? walkPath : toPath);
-                                    if (!pathsAdded.contains(dcEntry.getPathString())) {
-                                        addToTemporaryInCoreIndex(editor,
-                                                                  dcEntry,
-                                                                  hTree.getEntryObjectId(),
-                                                                  hTree.getEntryFileMode());
-                                        pathsAdded.add(dcEntry.getPathString());
-                                    }
-                                });
-            editor.finish();
+        try (final IncrementalTreeBuilder builder = newTreeBuilder()) {
+            //sources are resolved against head, so chained moves (a -> b, b -> c) behave as a single step
+            final Map<String, Pair<ObjectId, FileMode>> targets = new HashMap<>(content.size());
+            for (final Map.Entry<String, String> fromTo : content.entrySet()) {
+                final Pair<ObjectId, FileMode> source = builder.find(fromTo.getKey());
+                if (source != null && source.getK2().getObjectType() != Constants.OBJ_TREE) {
+                    targets.put(fromTo.getValue(),
+                                source);
+                }
+            }
+
+            for (final String from : content.keySet()) {
+                if (!targets.containsKey(from)) {
+                    builder.remove(from);
+                }
+            }
+
+            for (final Map.Entry<String, Pair<ObjectId, FileMode>> target : targets.entrySet()) {
+                builder.put(target.getKey(),
+                            target.getValue().getK1(),
+                            target.getValue().getK2());
+            }
+
+            return Optional.of(builder.write());
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
-
-        return buildTree(editor);
     }
 }
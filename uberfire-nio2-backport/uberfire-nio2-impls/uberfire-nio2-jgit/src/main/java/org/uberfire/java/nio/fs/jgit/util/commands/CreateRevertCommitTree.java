@@ -18,9 +18,6 @@ package org.uberfire.java.nio.fs.jgit.util.commands;
 
 import java.util.Optional;
 
-import org.eclipse.jgit.dircache.DirCache;
-import org.eclipse.jgit.dircache.DirCacheEditor;
-import org.eclipse.jgit.dircache.DirCacheEntry;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectInserter;
 import org.uberfire.java.nio.fs.jgit.util.Git;
@@ -39,23 +36,11 @@ public class CreateRevertCommitTree extends BaseCreateCommitTree<RevertCommitCon
     }
 
     public Optional<ObjectId> execute() {
-        final DirCacheEditor editor = DirCache.newInCore().editor();
-
-        try {
-            iterateOverTreeWalk(git,
-                                headId,
-                                (walkPath, hTree) -> {
-                                    addToTemporaryInCoreIndex(editor,
-                                                              new DirCacheEntry(walkPath),
-                                                              hTree.getEntryObjectId(),
-                                                              hTree.getEntryFileMode());
-                                });
-
-            editor.finish();
+        //reverting reuses the origin tree as is, no need to rebuild it
+        try (final IncrementalTreeBuilder builder = newTreeBuilder()) {
+            return Optional.of(builder.write());
         } catch (final Exception e) {
             throw new RuntimeException(e);
         }
-
-        return buildTree(editor);
     }
 }
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.util.commands;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.uberfire.commons.data.Pair;
+
+/**
+ * Applies path level edits on top of an existing git tree, only parsing and rewriting the trees that are
+ * on the ancestor chain of the edited paths. Untouched subtrees keep their original {@link ObjectId}, so
+ * the cost of a commit is proportional to the depth and width of the changed directories instead of the
+ * size of the whole repository.
+ */
+class IncrementalTreeBuilder implements AutoCloseable {
+
+    private final ObjectReader reader;
+    private final ObjectInserter inserter;
+    private final Node root;
+    private boolean modified = false;
+
+    IncrementalTreeBuilder(final ObjectInserter inserter,
+                           final AnyObjectId baseTreeId) {
+        this.inserter = inserter;
+        this.reader = inserter.newReader();
+        this.root = new Node(baseTreeId == null ? null : baseTreeId.copy());
+    }
+
+    /**
+     * Returns the object id and file mode of the entry stored at the given path, or null if there is none.
+     */
+    Pair<ObjectId, FileMode> find(final String path) throws IOException {
+        final String[] segments = split(path);
+        Node current = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            final Entry entry = current.entries().get(segments[i]);
+            if (entry == null || !entry.isTree()) {
+                return null;
+            }
+            current = entry.subtree();
+        }
+        final Entry entry = current.entries().get(segments[segments.length - 1]);
+        if (entry == null) {
+            return null;
+        }
+        return Pair.newPair(entry.objectId,
+                            entry.mode);
+    }
+
+    /**
+     * Stores the given object at path, creating the missing parent trees. A file found where a parent
+     * directory is required is replaced by that directory.
+     * @return true if the tree changed.
+     */
+    boolean put(final String path,
+                final ObjectId objectId,
+                final FileMode mode) throws IOException {
+        final String[] segments = split(path);
+        final List<Node> chain = new ArrayList<>(segments.length);
+        Node current = root;
+        chain.add(current);
+        for (int i = 0; i < segments.length - 1; i++) {
+            Entry entry = current.entries().get(segments[i]);
+            if (entry == null || !entry.isTree()) {
+                entry = new Entry(segments[i],
+                                  FileMode.TREE,
+                                  null);
+                entry.tree = new Node(null);
+                current.entries().put(segments[i],
+                                      entry);
+            }
+            current = entry.subtree();
+            chain.add(current);
+        }
+
+        final String name = segments[segments.length - 1];
+        final Entry existing = current.entries().get(name);
+        if (existing != null && !existing.isTree() && existing.mode.equals(mode.getBits()) && objectId.equals(existing.objectId)) {
+            return false;
+        }
+        current.entries().put(name,
+                              new Entry(name,
+                                        mode,
+                                        objectId.copy()));
+        markDirty(chain);
+        return true;
+    }
+
+    /**
+     * Removes the file or the whole directory stored at path.
+     * @return true if the tree changed.
+     */
+    boolean remove(final String path) throws IOException {
+        final String[] segments = split(path);
+        final List<Node> chain = new ArrayList<>(segments.length);
+        Node current = root;
+        chain.add(current);
+        for (int i = 0; i < segments.length - 1; i++) {
+            final Entry entry = current.entries().get(segments[i]);
+            if (entry == null || !entry.isTree()) {
+                return false;
+            }
+            current = entry.subtree();
+            chain.add(current);
+        }
+
+        if (current.entries().remove(segments[segments.length - 1]) == null) {
+            return false;
+        }
+        markDirty(chain);
+        return true;
+    }
+
+    boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Inserts every modified tree into the object database and returns the id of the resulting root tree.
+     * Directories left empty by the edits are pruned, as git cannot represent them.
+     */
+    ObjectId write() throws IOException {
+        final ObjectId treeId = write(root);
+        if (treeId == null) {
+            return inserter.insert(new TreeFormatter());
+        }
+        return treeId;
+    }
+
+    @Override
+    public void close() {
+        reader.close();
+    }
+
+    private ObjectId write(final Node node) throws IOException {
+        if (!node.dirty) {
+            return node.treeId;
+        }
+
+        final List<Entry> sorted = new ArrayList<>(node.entries().values());
+        sorted.sort(IncrementalTreeBuilder::compare);
+
+        final TreeFormatter formatter = new TreeFormatter();
+        boolean empty = true;
+        for (final Entry entry : sorted) {
+            final ObjectId entryId;
+            if (entry.isTree() && entry.tree != null) {
+                entryId = write(entry.tree);
+            } else {
+                entryId = entry.objectId;
+            }
+            if (entryId != null) {
+                formatter.append(entry.name,
+                                 entry.mode,
+                                 entryId);
+                empty = false;
+            }
+        }
+
+        if (empty) {
+            return null;
+        }
+        return inserter.insert(formatter);
+    }
+
+    private void markDirty(final List<Node> chain) {
+        for (final Node node : chain) {
+            node.dirty = true;
+        }
+        modified = true;
+    }
+
+    private static String[] split(final String path) {
+        final String normalized = PathUtil.normalize(path);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Empty path not permitted.");
+        }
+        return normalized.split("/");
+    }
+
+    /**
+     * Git canonical ordering: names are compared as raw bytes, with trees sorted as if their name ended with '/'.
+     */
+    private static int compare(final Entry a,
+                               final Entry b) {
+        final byte[] aName = a.rawName();
+        final byte[] bName = b.rawName();
+        final int length = Math.min(aName.length,
+                                    bName.length);
+        for (int i = 0; i < length; i++) {
+            final int cmp = (aName[i] & 0xff) - (bName[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        final int aLast = aName.length > length ? aName[length] & 0xff : (a.isTree() ? '/' : 0);
+        final int bLast = bName.length > length ? bName[length] & 0xff : (b.isTree() ? '/' : 0);
+        return aLast - bLast;
+    }
+
+    private final class Node {
+
+        private final ObjectId treeId;
+        private Map<String, Entry> entries;
+        private boolean dirty = false;
+
+        private Node(final ObjectId treeId) {
+            this.treeId = treeId;
+        }
+
+        private Map<String, Entry> entries() throws IOException {
+            if (entries == null) {
+                entries = new HashMap<>();
+                if (treeId != null) {
+                    final CanonicalTreeParser parser = new CanonicalTreeParser(null,
+                                                                               reader,
+                                                                               treeId);
+                    while (!parser.eof()) {
+                        final String name = parser.getEntryPathString();
+                        entries.put(name,
+                                    new Entry(name,
+                                              parser.getEntryFileMode(),
+                                              parser.getEntryObjectId()));
+                        parser.next();
+                    }
+                }
+            }
+            return entries;
+        }
+    }
+
+    private final class Entry {
+
+        private final String name;
+        private final FileMode mode;
+        private final ObjectId objectId;
+        private Node tree;
+        private byte[] rawName;
+
+        private Entry(final String name,
+                      final FileMode mode,
+                      final ObjectId objectId) {
+            this.name = name;
+            this.mode = mode;
+            this.objectId = objectId;
+        }
+
+        private boolean isTree() {
+            return mode.getObjectType() == Constants.OBJ_TREE;
+        }
+
+        private Node subtree() {
+            if (tree == null) {
+                tree = new Node(objectId);
+            }
+            return tree;
+        }
+
+        private byte[] rawName() {
+            if (rawName == null) {
+                rawName = name.getBytes(StandardCharsets.UTF_8);
+            }
+            return rawName;
+        }
+    }
+}
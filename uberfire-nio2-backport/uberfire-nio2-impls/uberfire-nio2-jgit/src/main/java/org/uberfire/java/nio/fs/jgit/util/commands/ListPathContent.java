@@ -18,12 +18,14 @@ package org.uberfire.java.nio.fs.jgit.util.commands;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.PathInfoCache;
 import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
 
 public class ListPathContent {
@@ -31,23 +33,48 @@ public class ListPathContent {
     private final Git git;
     private final String branchName;
     private final String path;
+    private final PathInfoCache cache;
 
     public ListPathContent(final Git git,
                            final String branchName,
                            final String path) {
+        this(git,
+             branchName,
+             path,
+             null);
+    }
+
+    public ListPathContent(final Git git,
+                           final String branchName,
+                           final String path,
+                           final PathInfoCache cache) {
         this.git = git;
         this.branchName = branchName;
         this.path = path;
+        this.cache = cache;
     }
 
     public List<PathInfo> execute() throws IOException {
 
         final String gitPath = PathUtil.normalize(path);
-        final List<PathInfo> result = new ArrayList<>();
         final ObjectId tree = git.getTreeFromRef(branchName);
         if (tree == null) {
-            return result;
+            return Collections.emptyList();
         }
+
+        if (cache == null) {
+            return Collections.unmodifiableList(walk(tree,
+                                                     gitPath));
+        }
+        return cache.listPathContent(tree,
+                                     gitPath,
+                                     () -> walk(tree,
+                                                gitPath));
+    }
+
+    private List<PathInfo> walk(final ObjectId tree,
+                                final String gitPath) throws IOException {
+        final List<PathInfo> result = new ArrayList<>();
         try (final TreeWalk tw = new TreeWalk(git.getRepository())) {
             boolean found = false;
             if (gitPath.isEmpty()) {
@@ -22,60 +22,39 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.java.nio.file.WatchEvent;
-import org.uberfire.java.nio.file.WatchKey;
 import org.uberfire.java.nio.file.WatchService;
-import org.uberfire.java.nio.file.Watchable;
 
 public class JGitFileSystemWatchServices implements Serializable {
 
     private final Collection<JGitWatchService> watchServices = new CopyOnWriteArrayList<>();
+    private final int queueSize;
 
     public JGitFileSystemWatchServices() {
+        this(JGitWatchService.DEFAULT_QUEUE_SIZE);
+    }
+
+    public JGitFileSystemWatchServices(int queueSize) {
+        this.queueSize = queueSize;
     }
 
     public WatchService newWatchService(String fsName) {
         final JGitWatchService ws = new JGitWatchService(fsName,
-                                                         p -> watchServices.remove(p));
+                                                         p -> watchServices.remove(p),
+                                                         queueSize);
         watchServices.add(ws);
         return ws;
     }
 
-    public synchronized void publishEvents(Path watchable,
-                                           List<WatchEvent<?>> elist) {
+    public void publishEvents(Path watchable,
+                              List<WatchEvent<?>> elist) {
         if (watchServices.isEmpty()) {
             return;
         }
 
         for (JGitWatchService ws : watchServices) {
-            ws.publish(new WatchKey() {
-
-                @Override
-                public boolean isValid() {
-                    return true;
-                }
-
-                @Override
-                public List<WatchEvent<?>> pollEvents() {
-                    return new CopyOnWriteArrayList<>(elist);
-                }
-
-                @Override
-                public boolean reset() {
-                    return !watchServices.isEmpty();
-                }
-
-                @Override
-                public void cancel() {
-                }
-
-                @Override
-                public Watchable watchable() {
-                    return watchable;
-                }
-            });
-            synchronized (ws) {
-                ws.notifyAll();
-            }
+            ws.publish(new JGitWatchKey(watchable,
+                                        elist,
+                                        () -> !watchServices.isEmpty()));
         }
     }
 
@@ -37,9 +37,16 @@ public class JGitFileSystemsEventsManager {
 
     private final ClusterService clusterService;
 
+    private final int watchQueueSize;
+
     JGitEventsBroadcast jGitEventsBroadcast;
 
     public JGitFileSystemsEventsManager() {
+        this(JGitWatchService.DEFAULT_QUEUE_SIZE);
+    }
+
+    public JGitFileSystemsEventsManager(int watchQueueSize) {
+        this.watchQueueSize = watchQueueSize;
         clusterService = createClusterJMSService();
 
         if (clusterService.isAppFormerClustered()) {
@@ -72,7 +79,7 @@ public class JGitFileSystemsEventsManager {
     }
 
     JGitFileSystemWatchServices createFSWatchServicesManager() {
-        return new JGitFileSystemWatchServices();
+        return new JGitFileSystemWatchServices(watchQueueSize);
     }
 
     public void publishEvents(String fsName,
@@ -16,6 +16,7 @@
 package org.uberfire.java.nio.fs.jgit.ws;
 
 import java.net.URI;
+import java.util.Arrays;
 
 import org.eclipse.jgit.diff.DiffEntry;
 import org.slf4j.Logger;
@@ -35,6 +36,7 @@ public class JGitWatchEvent implements WatchEvent {
     private final String userName;
     private final String message;
     private final String changeType;
+    private final String head;
 
     public JGitWatchEvent(String sessionId,
                           String userName,
@@ -43,12 +45,97 @@ public class JGitWatchEvent implements WatchEvent {
                           Path oldPath,
                           Path newPath) {
 
+        this(sessionId,
+             userName,
+             message,
+             changeType,
+             oldPath,
+             newPath,
+             null);
+    }
+
+    /**
+     * @param head id of the commit that made the change, captured when the event is created.
+     */
+    public JGitWatchEvent(String sessionId,
+                          String userName,
+                          String message,
+                          String changeType,
+                          Path oldPath,
+                          Path newPath,
+                          String head) {
+
+        this(sessionId,
+             userName,
+             message,
+             changeType,
+             oldPath != null ? oldPath.toUri() : null,
+             newPath != null ? newPath.toUri() : null,
+             head);
+    }
+
+    private JGitWatchEvent(String sessionId,
+                           String userName,
+                           String message,
+                           String changeType,
+                           URI oldPath,
+                           URI newPath,
+                           String head) {
+
         this.sessionId = sessionId;
         this.userName = userName;
         this.message = message;
         this.changeType = changeType;
-        this.oldPath = oldPath != null ? oldPath.toUri() : null;
-        this.newPath = newPath != null ? newPath.toUri() : null;
+        this.oldPath = oldPath;
+        this.newPath = newPath;
+        this.head = head;
+    }
+
+    /**
+     * Rebuilds an event from its raw values, without resolving its paths.
+     */
+    public static JGitWatchEvent fromURIs(String sessionId,
+                                          String userName,
+                                          String message,
+                                          String changeType,
+                                          URI oldPath,
+                                          URI newPath,
+                                          String head) {
+        return new JGitWatchEvent(sessionId,
+                                  userName,
+                                  message,
+                                  changeType,
+                                  oldPath,
+                                  newPath,
+                                  head);
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getChangeType() {
+        return changeType;
+    }
+
+    public URI getOldPathURI() {
+        return oldPath;
+    }
+
+    public URI getNewPathURI() {
+        return newPath;
+    }
+
+    public String getHead() {
+        return head;
     }
 
     @Override
@@ -112,9 +199,23 @@ public class JGitWatchEvent implements WatchEvent {
             public String getUser() {
                 return userName;
             }
+
+            @Override
+            public String getHead() {
+                return head;
+            }
         };
     }
 
+    /**
+     * Identifies the change this event is about, two events with the same key only differ on who made the change.
+     */
+    Object getChangeKey() {
+        return Arrays.asList(changeType,
+                             oldPath,
+                             newPath);
+    }
+
     @Override
     public String toString() {
         return "WatchEvent{" +
@@ -124,6 +225,7 @@ public class JGitWatchEvent implements WatchEvent {
                 ", userName='" + userName + '\'' +
                 ", message='" + message + '\'' +
                 ", changeType=" + changeType +
+                ", head=" + head +
                 '}';
     }
 }
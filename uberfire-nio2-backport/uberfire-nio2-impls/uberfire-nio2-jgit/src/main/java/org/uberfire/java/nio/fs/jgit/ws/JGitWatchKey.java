@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.ws;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.StandardWatchEventKind;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.Watchable;
+
+/**
+ * Watch key queued by {@link JGitWatchService}. While a key is still waiting to be taken, the events of the next
+ * key for the same watchable and the same origin (session, user and message) are merged into it, and a change that
+ * was already pending for the same path is replaced by the latest one. Keys are only changed under the lock of their
+ * watch service.
+ */
+class JGitWatchKey implements WatchKey {
+
+    private final Path watchable;
+    private final BooleanSupplier reset;
+    private final boolean overflow;
+    private final Object origin;
+    private List<WatchEvent<?>> events;
+    private Map<Object, WatchEvent<?>> coalesced;
+    private int overflowCount;
+
+    JGitWatchKey(final Path watchable,
+                 final List<WatchEvent<?>> events,
+                 final BooleanSupplier reset) {
+        this(watchable,
+             Collections.unmodifiableList(events),
+             reset,
+             false);
+    }
+
+    private JGitWatchKey(final Path watchable,
+                         final List<WatchEvent<?>> events,
+                         final BooleanSupplier reset,
+                         final boolean overflow) {
+        this.watchable = watchable;
+        this.events = events;
+        this.reset = reset;
+        this.overflow = overflow;
+        this.origin = overflow ? null : originOf(events);
+    }
+
+    /**
+     * The session, user and message shared by all the given events, or null if they don't come from a single origin.
+     */
+    private static Object originOf(final List<WatchEvent<?>> events) {
+        Object origin = null;
+        for (final WatchEvent<?> event : events) {
+            if (!(event instanceof JGitWatchEvent)) {
+                return null;
+            }
+            final JGitWatchEvent jgitEvent = (JGitWatchEvent) event;
+            final Object eventOrigin = Arrays.asList(jgitEvent.getSessionId(),
+                                                     jgitEvent.getUserName(),
+                                                     jgitEvent.getMessage());
+            if (origin == null) {
+                origin = eventOrigin;
+            } else if (!origin.equals(eventOrigin)) {
+                return null;
+            }
+        }
+        return origin;
+    }
+
+    static JGitWatchKey overflow(final JGitWatchKey lost) {
+        final JGitWatchKey key = new JGitWatchKey(lost.watchable,
+                                                  null,
+                                                  lost.reset,
+                                                  true);
+        key.overflowCount = lost.size();
+        return key;
+    }
+
+    boolean isOverflow() {
+        return overflow;
+    }
+
+    void addOverflow(final JGitWatchKey lost) {
+        overflowCount += lost.size();
+    }
+
+    int size() {
+        if (overflow) {
+            return 1;
+        }
+        return coalesced != null ? coalesced.size() : events.size();
+    }
+
+    /**
+     * Merges the events of the given key into this one.
+     * @return the number of pending events replaced by the merge, or -1 if the keys can't be merged.
+     */
+    int coalesce(final JGitWatchKey next) {
+        if (!canCoalesce(next)) {
+            return -1;
+        }
+        if (coalesced == null) {
+            coalesced = new LinkedHashMap<>();
+            events.forEach(this::put);
+            events = null;
+        }
+        final int before = coalesced.size() + next.size();
+        next.events.forEach(this::put);
+        return before - coalesced.size();
+    }
+
+    boolean canCoalesce(final JGitWatchKey next) {
+        return !overflow && !next.overflow
+                && watchable != null && watchable.equals(next.watchable)
+                && origin != null && origin.equals(next.origin);
+    }
+
+    private void put(final WatchEvent<?> event) {
+        final Object key = event instanceof JGitWatchEvent ? ((JGitWatchEvent) event).getChangeKey() : new Object();
+        // removed first, so the replaced change moves to the end and the order of the changes is kept
+        coalesced.remove(key);
+        coalesced.put(key,
+                      event);
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public List<WatchEvent<?>> pollEvents() {
+        if (overflow) {
+            return Collections.singletonList(new OverflowEvent(overflowCount));
+        }
+        if (coalesced != null) {
+            events = Collections.unmodifiableList(new ArrayList<>(coalesced.values()));
+            coalesced = null;
+        }
+        return events;
+    }
+
+    @Override
+    public boolean reset() {
+        return reset.getAsBoolean();
+    }
+
+    @Override
+    public void cancel() {
+    }
+
+    @Override
+    public Watchable watchable() {
+        return watchable;
+    }
+
+    private static class OverflowEvent implements WatchEvent<Object> {
+
+        private final int count;
+
+        OverflowEvent(final int count) {
+            this.count = count;
+        }
+
+        @Override
+        public Kind<Object> kind() {
+            return StandardWatchEventKind.OVERFLOW;
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public Object context() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "WatchEvent{" +
+                    "kind=OVERFLOW" +
+                    ", count=" + count +
+                    '}';
+        }
+    }
+}
@@ -15,9 +15,10 @@
  */
 package org.uberfire.java.nio.fs.jgit.ws;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 import org.uberfire.java.nio.IOException;
@@ -26,45 +27,111 @@ import org.uberfire.java.nio.file.InterruptedException;
 import org.uberfire.java.nio.file.WatchKey;
 import org.uberfire.java.nio.file.WatchService;
 
+/**
+ * Watch service backed by a queue bounded by the number of pending events. A key published while the previous one
+ * for the same watchable and origin is still waiting is merged into it; once the queue is full, further events are
+ * dropped and reported to the consumer as a single {@link org.uberfire.java.nio.file.StandardWatchEventKind#OVERFLOW}
+ * event. A key is always accepted by an empty queue, so a single commit larger than the bound is never dropped.
+ */
 public class JGitWatchService implements WatchService {
 
-    private boolean wsClose = false;
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    private volatile boolean wsClose = false;
 
-    private final Queue<WatchKey> events = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<JGitWatchKey> events = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final int queueSize;
+    private int pendingEvents;
+    private final JGitWatchServiceMetrics metrics = new JGitWatchServiceMetrics();
     private final String fsName;
     private Consumer<JGitWatchService> notifyClose;
 
     public JGitWatchService(String fsName,
                             Consumer<JGitWatchService> notifyClose) {
+        this(fsName,
+             notifyClose,
+             DEFAULT_QUEUE_SIZE);
+    }
 
+    public JGitWatchService(String fsName,
+                            Consumer<JGitWatchService> notifyClose,
+                            int queueSize) {
+        if (queueSize < 2) {
+            throw new IllegalArgumentException("Queue size must be at least 2.");
+        }
         this.fsName = fsName;
         this.notifyClose = notifyClose;
+        this.queueSize = queueSize;
     }
 
     @Override
     public WatchKey poll() throws ClosedWatchServiceException {
-        return events.poll();
+        lock.lock();
+        try {
+            checkOpen();
+            return next();
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public WatchKey poll(long timeout,
                          TimeUnit unit) throws ClosedWatchServiceException, org.uberfire.java.nio.file.InterruptedException {
-        return events.poll();
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            checkOpen();
+            while (events.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = await(nanos);
+                checkOpen();
+            }
+            return next();
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
-    public synchronized WatchKey take() throws ClosedWatchServiceException, InterruptedException {
-        while (true) {
-            if (wsClose) {
-                throw new ClosedWatchServiceException("This service is closed.");
-            } else if (events.size() > 0) {
-                return events.poll();
-            } else {
-                try {
-                    this.wait();
-                } catch (final java.lang.InterruptedException e) {
-                }
+    public WatchKey take() throws ClosedWatchServiceException, InterruptedException {
+        lock.lock();
+        try {
+            checkOpen();
+            while (events.isEmpty()) {
+                await(Long.MAX_VALUE);
+                checkOpen();
             }
+            return next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private WatchKey next() {
+        final JGitWatchKey key = events.poll();
+        if (key != null) {
+            pendingEvents -= key.size();
+        }
+        return key;
+    }
+
+    private long await(final long nanos) {
+        try {
+            return notEmpty.awaitNanos(nanos);
+        } catch (final java.lang.InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedException();
+        }
+    }
+
+    private void checkOpen() {
+        if (wsClose) {
+            throw new ClosedWatchServiceException("This service is closed.");
         }
     }
 
@@ -74,15 +141,43 @@ public class JGitWatchService implements WatchService {
     }
 
     @Override
-    public synchronized void close() throws IOException {
-        wsClose = true;
-        notifyAll();
+    public void close() throws IOException {
+        closeWithoutNotifyParent();
         notifyClose.accept(this);
     }
 
-    synchronized void closeWithoutNotifyParent() {
-        wsClose = true;
-        notifyAll();
+    void closeWithoutNotifyParent() {
+        lock.lock();
+        try {
+            wsClose = true;
+            events.clear();
+            pendingEvents = 0;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return events.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPendingEvents() {
+        lock.lock();
+        try {
+            return pendingEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public JGitWatchServiceMetrics getMetrics() {
+        return metrics;
     }
 
     @Override
@@ -92,7 +187,39 @@ public class JGitWatchService implements WatchService {
                 '}';
     }
 
-    public void publish(WatchKey wk) {
-        events.add(wk);
+    void publish(final JGitWatchKey key) {
+        lock.lock();
+        try {
+            if (wsClose) {
+                return;
+            }
+            final JGitWatchKey last = events.peekLast();
+            if (last != null && last.isOverflow()) {
+                last.addOverflow(key);
+                metrics.onDropped(key.size(),
+                                  false);
+                return;
+            }
+            if (last != null && pendingEvents + key.size() > queueSize) {
+                events.addLast(JGitWatchKey.overflow(key));
+                pendingEvents++;
+                metrics.onDropped(key.size(),
+                                  true);
+                notEmpty.signal();
+                return;
+            }
+            if (last != null && last.canCoalesce(key)) {
+                final int before = last.size();
+                metrics.onMerged(last.coalesce(key));
+                pendingEvents += last.size() - before;
+                return;
+            }
+            events.addLast(key);
+            pendingEvents += key.size();
+            metrics.onPublished(events.size());
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
     }
-}
\ No newline at end of file
+}
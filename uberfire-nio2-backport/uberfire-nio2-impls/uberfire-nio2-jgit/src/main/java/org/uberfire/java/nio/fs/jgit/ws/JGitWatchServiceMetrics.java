@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.ws;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected by {@link JGitWatchService}.
+ */
+public class JGitWatchServiceMetrics {
+
+    private final AtomicLong publishedKeys = new AtomicLong();
+    private final AtomicLong mergedKeys = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+
+    void onPublished(final int queueDepth) {
+        publishedKeys.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(queueDepth,
+                                       Math::max);
+    }
+
+    void onMerged(final int replacedEvents) {
+        mergedKeys.incrementAndGet();
+        coalescedEvents.addAndGet(replacedEvents);
+    }
+
+    void onDropped(final int events,
+                   final boolean newOverflow) {
+        droppedEvents.addAndGet(events);
+        if (newOverflow) {
+            overflows.incrementAndGet();
+        }
+    }
+
+    public long getPublishedKeys() {
+        return publishedKeys.get();
+    }
+
+    public long getMergedKeys() {
+        return mergedKeys.get();
+    }
+
+    public long getCoalescedEvents() {
+        return coalescedEvents.get();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public long getOverflows() {
+        return overflows.get();
+    }
+
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JGitWatchServiceMetrics{" +
+                "publishedKeys=" + publishedKeys +
+                ", mergedKeys=" + mergedKeys +
+                ", coalescedEvents=" + coalescedEvents +
+                ", droppedEvents=" + droppedEvents +
+                ", overflows=" + overflows +
+                ", maxQueueDepth=" + maxQueueDepth +
+                '}';
+    }
+}
@@ -15,16 +15,28 @@
  */
 package org.uberfire.java.nio.fs.jgit.ws.cluster;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.uberfire.commons.cluster.ClusterParameters;
 import org.uberfire.commons.cluster.ClusterService;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.java.nio.file.WatchEvent;
 
+/**
+ * Broadcasts the watch events of this node to the other cluster nodes. Events are grouped per channel during a short
+ * window and sent as a single binary message; batches are sent by a single thread, so their order is kept.
+ */
 public class JGitEventsBroadcast {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JGitEventsBroadcast.class);
@@ -33,14 +45,43 @@ public class JGitEventsBroadcast {
     private String nodeId = UUID.randomUUID().toString();
     private Consumer<WatchEventsWrapper> eventsPublisher;
     private final ClusterService clusterService;
+    private final WatchEventsCodec codec = new WatchEventsCodec();
+    private final long batchWindow;
+    private final int batchSize;
+    private final Map<String, Batch> pending = new HashMap<>();
+    private final ScheduledExecutorService sender;
+    private final JGitEventsBroadcastMetrics metrics = new JGitEventsBroadcastMetrics();
 
     public JGitEventsBroadcast(ClusterService clusterService,
                                Consumer<WatchEventsWrapper> eventsPublisher) {
+        this(clusterService,
+             eventsPublisher,
+             new ClusterParameters());
+    }
+
+    JGitEventsBroadcast(ClusterService clusterService,
+                        Consumer<WatchEventsWrapper> eventsPublisher,
+                        ClusterParameters parameters) {
         this.clusterService = clusterService;
         this.eventsPublisher = eventsPublisher;
+        this.batchWindow = parameters.getJmsBatchWindow();
+        this.batchSize = parameters.getJmsBatchSize();
+        this.sender = batchWindow > 0 ? createSender() : null;
         setupJMSConnection();
     }
 
+    private static ScheduledExecutorService createSender() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                                                                                     r -> {
+                                                                                         final Thread thread = new Thread(r,
+                                                                                                                          "jgit-events-broadcast");
+                                                                                         thread.setDaemon(true);
+                                                                                         return thread;
+                                                                                     });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
     private void setupJMSConnection() {
         clusterService.connect();
     }
@@ -49,23 +90,82 @@ public class JGitEventsBroadcast {
         clusterService.createConsumer(
                 ClusterService.DestinationType.PubSub,
                 getChannelName(topicName),
-                WatchEventsWrapper.class,
-                (we) -> {
-                    if (!we.getNodeId().equals(nodeId)) {
-                        eventsPublisher.accept(we);
+                codec,
+                (wrappers) -> {
+                    for (WatchEventsWrapper we : wrappers) {
+                        if (!we.getNodeId().equals(nodeId)) {
+                            eventsPublisher.accept(we);
+                        }
                     }
                 });
     }
 
-    public synchronized void broadcast(String fsName,
-                                       Path watchable,
-                                       List<WatchEvent<?>> events) {
-        clusterService.broadcast(ClusterService.DestinationType.PubSub,
-                                 getChannelName(fsName),
-                                 new WatchEventsWrapper(nodeId,
-                                                        fsName,
-                                                        watchable,
-                                                        events));
+    public void broadcast(String fsName,
+                          Path watchable,
+                          List<WatchEvent<?>> events) {
+        final String channel = getChannelName(fsName);
+        final WatchEventsWrapper wrapper = new WatchEventsWrapper(nodeId,
+                                                                  fsName,
+                                                                  watchable,
+                                                                  events);
+        metrics.onQueued(events.size());
+        if (sender == null) {
+            send(channel,
+                 Collections.singletonList(wrapper),
+                 events.size(),
+                 System.nanoTime());
+            return;
+        }
+
+        synchronized (pending) {
+            Batch batch = pending.get(channel);
+            if (batch == null) {
+                batch = new Batch(channel);
+                pending.put(channel,
+                            batch);
+                final Batch scheduled = batch;
+                sender.schedule(() -> flush(scheduled),
+                                batchWindow,
+                                TimeUnit.MILLISECONDS);
+            }
+            batch.add(wrapper);
+            if (batch.events >= batchSize) {
+                pending.remove(channel);
+                final Batch full = batch;
+                sender.execute(() -> flush(full));
+            }
+        }
+    }
+
+    private void flush(final Batch batch) {
+        synchronized (pending) {
+            pending.remove(batch.channel,
+                           batch);
+            if (batch.sent) {
+                return;
+            }
+            batch.sent = true;
+        }
+        send(batch.channel,
+             batch.wrappers,
+             batch.events,
+             batch.created);
+    }
+
+    private void send(final String channel,
+                      final List<WatchEventsWrapper> wrappers,
+                      final int events,
+                      final long created) {
+        try {
+            clusterService.broadcast(ClusterService.DestinationType.PubSub,
+                                     channel,
+                                     wrappers,
+                                     codec);
+            metrics.onSent(events,
+                           System.nanoTime() - created);
+        } catch (Exception e) {
+            LOGGER.error("Error broadcasting watch events on channel " + channel + ": " + e.getMessage());
+        }
     }
 
     private String getChannelName(String fsName) {
@@ -77,7 +177,43 @@ public class JGitEventsBroadcast {
         return channelName;
     }
 
+    public JGitEventsBroadcastMetrics getMetrics() {
+        return metrics;
+    }
+
     public void close() {
+        if (sender != null) {
+            final List<Batch> batches;
+            synchronized (pending) {
+                batches = new ArrayList<>(pending.values());
+            }
+            batches.forEach(batch -> sender.execute(() -> flush(batch)));
+            sender.shutdown();
+            try {
+                sender.awaitTermination(batchWindow + 1000,
+                                        TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         clusterService.close();
     }
+
+    private static class Batch {
+
+        private final String channel;
+        private final List<WatchEventsWrapper> wrappers = new ArrayList<>();
+        private final long created = System.nanoTime();
+        private int events;
+        private boolean sent;
+
+        Batch(final String channel) {
+            this.channel = channel;
+        }
+
+        void add(final WatchEventsWrapper wrapper) {
+            wrappers.add(wrapper);
+            events += wrapper.getEvents().size();
+        }
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.ws.cluster;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters collected by {@link JGitEventsBroadcast}. The batch delay is the time the first event of a batch waited
+ * before the batch was sent.
+ */
+public class JGitEventsBroadcastMetrics {
+
+    private final AtomicLong eventsQueued = new AtomicLong();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong maxBatchEvents = new AtomicLong();
+    private final AtomicLong totalBatchDelayNanos = new AtomicLong();
+    private final AtomicLong maxBatchDelayNanos = new AtomicLong();
+
+    void onQueued(final int events) {
+        eventsQueued.addAndGet(events);
+    }
+
+    void onSent(final int events,
+                final long delayNanos) {
+        batchesSent.incrementAndGet();
+        eventsSent.addAndGet(events);
+        maxBatchEvents.accumulateAndGet(events,
+                                        Math::max);
+        totalBatchDelayNanos.addAndGet(delayNanos);
+        maxBatchDelayNanos.accumulateAndGet(delayNanos,
+                                            Math::max);
+    }
+
+    public long getEventsQueued() {
+        return eventsQueued.get();
+    }
+
+    public long getEventsSent() {
+        return eventsSent.get();
+    }
+
+    public long getBatchesSent() {
+        return batchesSent.get();
+    }
+
+    public long getMaxBatchEvents() {
+        return maxBatchEvents.get();
+    }
+
+    public long getTotalBatchDelayNanos() {
+        return totalBatchDelayNanos.get();
+    }
+
+    public long getMaxBatchDelayNanos() {
+        return maxBatchDelayNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JGitEventsBroadcastMetrics{" +
+                "eventsQueued=" + eventsQueued +
+                ", eventsSent=" + eventsSent +
+                ", batchesSent=" + batchesSent +
+                ", maxBatchEvents=" + maxBatchEvents +
+                ", totalBatchDelayNanos=" + totalBatchDelayNanos +
+                ", maxBatchDelayNanos=" + maxBatchDelayNanos +
+                '}';
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.ws.cluster;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.uberfire.commons.cluster.ClusterMessageCodec;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.fs.jgit.ws.JGitWatchEvent;
+
+/**
+ * Binary encoding of a batch of {@link WatchEventsWrapper}. Strings are written once per message and referenced by
+ * index afterwards, as node ids, sessions, users, messages and parent folders repeat a lot within a batch. Events other
+ * than {@link JGitWatchEvent} fall back to java serialization.
+ */
+public class WatchEventsCodec implements ClusterMessageCodec<List<WatchEventsWrapper>> {
+
+    private static final int VERSION = 2;
+    // version 1 messages have no commit heads, they are still read during rolling upgrades
+    private static final int VERSION_WITHOUT_HEADS = 1;
+    private static final int JGIT_EVENT = 0;
+    private static final int SERIALIZED_EVENT = 1;
+
+    // string references: 0 is null, 1 a new string, n + 2 the n-th string already written
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+
+    @Override
+    public byte[] encode(final List<WatchEventsWrapper> wrappers) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Writer out = new Writer(new DataOutputStream(bytes));
+        out.data.writeByte(VERSION);
+        out.writeInt(wrappers.size());
+        for (final WatchEventsWrapper wrapper : wrappers) {
+            out.writeString(wrapper.getNodeId());
+            out.writeString(wrapper.getFsName());
+            out.writeURI(wrapper.getWatchableURI());
+            final List<WatchEvent<?>> events = wrapper.getEvents();
+            out.writeInt(events.size());
+            for (final WatchEvent<?> event : events) {
+                if (event instanceof JGitWatchEvent) {
+                    final JGitWatchEvent jgitEvent = (JGitWatchEvent) event;
+                    out.data.writeByte(JGIT_EVENT);
+                    out.writeString(jgitEvent.getChangeType());
+                    out.writeString(jgitEvent.getSessionId());
+                    out.writeString(jgitEvent.getUserName());
+                    out.writeString(jgitEvent.getMessage());
+                    out.writeURI(jgitEvent.getOldPathURI());
+                    out.writeURI(jgitEvent.getNewPathURI());
+                    out.writeString(jgitEvent.getHead());
+                } else {
+                    out.data.writeByte(SERIALIZED_EVENT);
+                    out.writeBytes(serialize(event));
+                }
+            }
+        }
+        out.data.flush();
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public List<WatchEventsWrapper> decode(final byte[] bytes) throws IOException {
+        final Reader in = new Reader(new DataInputStream(new ByteArrayInputStream(bytes)));
+        final int version = in.data.readUnsignedByte();
+        if (version != VERSION && version != VERSION_WITHOUT_HEADS) {
+            throw new IOException("Unsupported watch events encoding version: " + version);
+        }
+        final int size = in.readInt();
+        final List<WatchEventsWrapper> wrappers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final String nodeId = in.readString();
+            final String fsName = in.readString();
+            final URI watchable = in.readURI();
+            final int eventsSize = in.readInt();
+            final List<WatchEvent<?>> events = new ArrayList<>(eventsSize);
+            for (int j = 0; j < eventsSize; j++) {
+                final int type = in.data.readUnsignedByte();
+                if (type == JGIT_EVENT) {
+                    final String changeType = in.readString();
+                    final String sessionId = in.readString();
+                    final String userName = in.readString();
+                    final String message = in.readString();
+                    final URI oldPath = in.readURI();
+                    final URI newPath = in.readURI();
+                    final String head = version != VERSION_WITHOUT_HEADS ? in.readString() : null;
+                    events.add(JGitWatchEvent.fromURIs(sessionId,
+                                                       userName,
+                                                       message,
+                                                       changeType,
+                                                       oldPath,
+                                                       newPath,
+                                                       head));
+                } else if (type == SERIALIZED_EVENT) {
+                    events.add(deserialize(in.readBytes()));
+                } else {
+                    throw new IOException("Unknown watch event type: " + type);
+                }
+            }
+            wrappers.add(new WatchEventsWrapper(nodeId,
+                                                fsName,
+                                                watchable,
+                                                events));
+        }
+        return wrappers;
+    }
+
+    private static byte[] serialize(final WatchEvent<?> event) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(event);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static WatchEvent<?> deserialize(final byte[] bytes) throws IOException {
+        try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (WatchEvent<?>) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Can't read watch event.",
+                                  e);
+        }
+    }
+
+    private static class Writer {
+
+        private final DataOutputStream data;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Writer(final DataOutputStream data) {
+            this.data = data;
+        }
+
+        void writeInt(int value) throws IOException {
+            // variable length, 7 bits per byte
+            while ((value & ~0x7F) != 0) {
+                data.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data.writeByte(value);
+        }
+
+        void writeBytes(final byte[] bytes) throws IOException {
+            writeInt(bytes.length);
+            data.write(bytes);
+        }
+
+        void writeString(final String value) throws IOException {
+            if (value == null) {
+                writeInt(NULL_STRING);
+                return;
+            }
+            final Integer index = strings.get(value);
+            if (index != null) {
+                writeInt(index + 2);
+                return;
+            }
+            strings.put(value,
+                        strings.size());
+            writeInt(NEW_STRING);
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeURI(final URI uri) throws IOException {
+            if (uri == null) {
+                writeString(null);
+                return;
+            }
+            // the parent folder is shared by the paths of the same folder
+            final String value = uri.toString();
+            final int separator = value.lastIndexOf('/') + 1;
+            writeString(value.substring(0,
+                                        separator));
+            writeString(value.substring(separator));
+        }
+    }
+
+    private static class Reader {
+
+        private final DataInputStream data;
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(final DataInputStream data) {
+            this.data = data;
+        }
+
+        int readInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                final int b = data.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed watch events message.");
+        }
+
+        byte[] readBytes() throws IOException {
+            final byte[] bytes = new byte[readInt()];
+            data.readFully(bytes);
+            return bytes;
+        }
+
+        String readString() throws IOException {
+            final int reference = readInt();
+            if (reference == NULL_STRING) {
+                return null;
+            }
+            if (reference == NEW_STRING) {
+                final String value = new String(readBytes(),
+                                                StandardCharsets.UTF_8);
+                strings.add(value);
+                return value;
+            }
+            if (reference - 2 >= strings.size()) {
+                throw new IOException("Malformed watch events message.");
+            }
+            return strings.get(reference - 2);
+        }
+
+        URI readURI() throws IOException {
+            final String parent = readString();
+            if (parent == null) {
+                return null;
+            }
+            return URI.create(parent + readString());
+        }
+    }
+}
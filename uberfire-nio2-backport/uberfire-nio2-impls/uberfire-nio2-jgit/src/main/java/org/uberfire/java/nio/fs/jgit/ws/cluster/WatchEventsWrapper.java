@@ -35,10 +35,21 @@ public class WatchEventsWrapper implements Serializable {
                               Path watchable,
                               List<WatchEvent<?>> events) {
 
+        this(nodeId,
+             fsName,
+             watchable != null ? watchable.toUri() : null,
+             events);
+    }
+
+    WatchEventsWrapper(String nodeId,
+                       String fsName,
+                       URI watchable,
+                       List<WatchEvent<?>> events) {
+
         this.nodeId = nodeId;
         this.fsName = fsName;
         this.events = events;
-        this.watchable = watchable != null ? watchable.toUri() : null;
+        this.watchable = watchable;
     }
 
     public String getFsName() {
@@ -53,6 +64,10 @@ public class WatchEventsWrapper implements Serializable {
         return events;
     }
 
+    URI getWatchableURI() {
+        return watchable;
+    }
+
     public Path getWatchable() {
         if (watchable == null) {
             return null;
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JGitBlobOutputStreamTest extends AbstractTestInfra {
+
+    private Git git;
+    private List<ObjectId> inserted;
+
+    @Before
+    public void setup() throws Exception {
+        git = setupGit();
+        inserted = new ArrayList<>();
+    }
+
+    @Test
+    public void smallContentIsInsertedOnCloseTest() throws Exception {
+        final JGitBlobOutputStream out = new JGitBlobOutputStream(git.getRepository(),
+                                                                  1024,
+                                                                  false,
+                                                                  inserted::add);
+        out.write("new content".getBytes());
+        assertThat(inserted).isEmpty();
+
+        out.close();
+        out.close();
+
+        assertThat(inserted).hasSize(1);
+        assertThat(read(inserted.get(0))).isEqualTo("new content".getBytes());
+    }
+
+    @Test
+    public void largeContentOverflowsWithFallbackTest() throws Exception {
+        final byte[] content = new byte[64 * 1024];
+        new Random(7).nextBytes(content);
+
+        try (final JGitBlobOutputStream out = new JGitBlobOutputStream(git.getRepository(),
+                                                                       1024,
+                                                                       true,
+                                                                       inserted::add)) {
+            for (int i = 0; i < content.length; i += 1000) {
+                out.write(content,
+                          i,
+                          Math.min(1000,
+                                   content.length - i));
+            }
+        }
+
+        assertThat(inserted).hasSize(1);
+        assertThat(read(inserted.get(0))).isEqualTo(content);
+    }
+
+    @Test
+    public void largeContentFailsWithoutFallbackTest() throws Exception {
+        final JGitBlobOutputStream out = new JGitBlobOutputStream(git.getRepository(),
+                                                                  16,
+                                                                  false,
+                                                                  inserted::add);
+
+        assertThatThrownBy(() -> out.write(new byte[32])).isInstanceOf(java.io.IOException.class);
+        out.close();
+
+        assertThat(inserted).isEmpty();
+    }
+
+    @Test
+    public void writeAfterCloseFailsTest() throws Exception {
+        final JGitBlobOutputStream out = new JGitBlobOutputStream(git.getRepository(),
+                                                                  16,
+                                                                  false,
+                                                                  inserted::add);
+        out.close();
+
+        assertThatThrownBy(() -> out.write(1)).isInstanceOf(java.io.IOException.class);
+    }
+
+    private byte[] read(final ObjectId blobId) throws Exception {
+        return git.getRepository().open(blobId,
+                                        Constants.OBJ_BLOB).getBytes();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.file.NoSuchFileException;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.commands.Commit;
+import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
+import org.uberfire.java.nio.fs.jgit.util.model.DefaultCommitContent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JGitBlobSeekableByteChannelTest extends AbstractTestInfra {
+
+    // above the default stream threshold, so the blob is streamed instead of loaded in memory
+    private static final int LARGE_SIZE = 2 * 1024 * 1024 + 17;
+
+    private Git git;
+    private byte[] large;
+
+    @Before
+    public void setup() throws Exception {
+        git = setupGit();
+        large = new byte[LARGE_SIZE];
+        new Random(42).nextBytes(large);
+
+        final File largeFile = tempFile(large);
+        new Commit(git,
+                   "master",
+                   new CommitInfo(null,
+                                  "name",
+                                  "name@example.com",
+                                  "large",
+                                  null,
+                                  null),
+                   false,
+                   null,
+                   new DefaultCommitContent(new HashMap<String, File>() {{
+                       put("large.bin",
+                           largeFile);
+                   }})).execute();
+    }
+
+    @Test
+    public void readSmallBlobTest() throws Exception {
+        try (final JGitBlobSeekableByteChannel channel = new JGitBlobSeekableByteChannel(git.openBlob("master",
+                                                                                                       "file1.txt"))) {
+            assertThat(channel.size()).isEqualTo(7);
+            final ByteBuffer buffer = ByteBuffer.allocate(16);
+            assertThat(channel.read(buffer)).isEqualTo(7);
+            assertThat(new String(buffer.array(),
+                                  0,
+                                  buffer.position())).isEqualTo("content");
+            assertThat(channel.read(buffer)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void readLargeBlobTest() throws Exception {
+        try (final JGitBlobSeekableByteChannel channel = new JGitBlobSeekableByteChannel(git.openBlob("master",
+                                                                                                       "large.bin"))) {
+            assertThat(channel.size()).isEqualTo(LARGE_SIZE);
+
+            final ByteBuffer content = ByteBuffer.allocate(LARGE_SIZE);
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                content.put(buffer);
+                buffer.clear();
+            }
+
+            assertThat(channel.position()).isEqualTo(LARGE_SIZE);
+            assertThat(content.array()).isEqualTo(large);
+        }
+    }
+
+    @Test
+    public void seekForwardAndBackwardTest() throws Exception {
+        try (final JGitBlobSeekableByteChannel channel = new JGitBlobSeekableByteChannel(git.openBlob("master",
+                                                                                                       "large.bin"))) {
+            assertRange(channel,
+                        LARGE_SIZE - 100);
+            assertRange(channel,
+                        10);
+            assertRange(channel,
+                        1024 * 1024);
+
+            channel.position(LARGE_SIZE + 1);
+            assertThat(channel.read(ByteBuffer.allocate(10))).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void channelIsReadOnlyTest() throws Exception {
+        try (final JGitBlobSeekableByteChannel channel = new JGitBlobSeekableByteChannel(git.openBlob("master",
+                                                                                                       "file1.txt"))) {
+            assertThatThrownBy(() -> channel.write(ByteBuffer.wrap("x".getBytes())))
+                    .isInstanceOf(NonWritableChannelException.class);
+            assertThatThrownBy(() -> channel.truncate(0))
+                    .isInstanceOf(NonWritableChannelException.class);
+        }
+    }
+
+    @Test
+    public void openMissingBlobTest() {
+        assertThatThrownBy(() -> git.openBlob("master",
+                                              "missing.txt"))
+                .isInstanceOf(NoSuchFileException.class);
+    }
+
+    private void assertRange(final JGitBlobSeekableByteChannel channel,
+                             final int position) throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        channel.position(position);
+        assertThat(channel.read(buffer)).isEqualTo(64);
+        for (int i = 0; i < 64; i++) {
+            assertThat(buffer.get(i)).isEqualTo(large[position + i]);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectChecker;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.commands.Commit;
+import org.uberfire.java.nio.fs.jgit.util.commands.CreateRepository;
+import org.uberfire.java.nio.fs.jgit.util.model.CommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
+import org.uberfire.java.nio.fs.jgit.util.model.CopyCommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.DefaultCommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.MoveCommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.PathType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JGitCommitTreeTest extends AbstractTestInfra {
+
+    private static final String MASTER_BRANCH = "master";
+
+    private Git git;
+
+    @Before
+    public void setup() throws IOException {
+        final File parentFolder = createTempDirectory();
+        git = new CreateRepository(new File(parentFolder,
+                                            "source/source.git")).execute().get();
+
+        commit(git,
+               MASTER_BRANCH,
+               "initial",
+               content("a/file1.txt",
+                       "a1"),
+               content("a/deep/file2.txt",
+                       "a2"),
+               content("b/file3.txt",
+                       "b3"),
+               content("root.txt",
+                       "root"));
+    }
+
+    @Test
+    public void untouchedSubtreesAreReusedTest() throws IOException {
+        final ObjectId before = subtreeId("b");
+
+        commit(git,
+               MASTER_BRANCH,
+               "update a",
+               content("a/deep/file2.txt",
+                       "changed"));
+
+        assertThat(subtreeId("b")).isEqualTo(before);
+        assertThat(read("a/deep/file2.txt")).isEqualTo("changed");
+        assertThat(read("a/file1.txt")).isEqualTo("a1");
+        assertThat(read("root.txt")).isEqualTo("root");
+        checkTree();
+    }
+
+    @Test
+    public void unchangedContentDoesNotCommitTest() throws IOException {
+        final RevCommit before = git.getLastCommit(MASTER_BRANCH);
+
+        commit(git,
+               MASTER_BRANCH,
+               "same content",
+               content("a/file1.txt",
+                       "a1"));
+
+        assertThat(git.getLastCommit(MASTER_BRANCH)).isEqualTo(before);
+    }
+
+    @Test
+    public void deletePrunesEmptyDirectoriesTest() throws IOException {
+        final Map<String, File> content = new HashMap<>();
+        content.put("a/deep/file2.txt",
+                    null);
+        content.put("b",
+                    null);
+        commit(new DefaultCommitContent(content));
+
+        assertThat(git.getPathInfo(MASTER_BRANCH,
+                                   "a/deep").getPathType()).isEqualTo(PathType.NOT_FOUND);
+        assertThat(git.getPathInfo(MASTER_BRANCH,
+                                   "b").getPathType()).isEqualTo(PathType.NOT_FOUND);
+        assertThat(read("a/file1.txt")).isEqualTo("a1");
+        checkTree();
+    }
+
+    @Test
+    public void deleteAndRecreateInSameCommitTest() throws IOException {
+        final Map<String, File> content = new HashMap<>();
+        content.put("a",
+                    null);
+        content.put("a/new.txt",
+                    tempFile("new"));
+        commit(new DefaultCommitContent(content));
+
+        assertThat(read("a/new.txt")).isEqualTo("new");
+        assertThat(git.getPathInfo(MASTER_BRANCH,
+                                   "a/file1.txt").getPathType()).isEqualTo(PathType.NOT_FOUND);
+        checkTree();
+    }
+
+    @Test
+    public void canonicalOrderingTest() throws IOException {
+        commit(git,
+               MASTER_BRANCH,
+               "ordering",
+               content("a.txt",
+                       "dot"),
+               content("a-b/file.txt",
+                       "dash"),
+               content("a0",
+                       "zero"));
+
+        checkTree();
+    }
+
+    @Test
+    public void moveIsResolvedAgainstHeadTest() throws IOException {
+        final Map<String, String> content = new HashMap<>();
+        content.put("a/file1.txt",
+                    "b/file3.txt");
+        content.put("b/file3.txt",
+                    "c/file3.txt");
+        commit(new MoveCommitContent(content));
+
+        assertThat(git.getPathInfo(MASTER_BRANCH,
+                                   "a/file1.txt").getPathType()).isEqualTo(PathType.NOT_FOUND);
+        assertThat(read("b/file3.txt")).isEqualTo("a1");
+        assertThat(read("c/file3.txt")).isEqualTo("b3");
+        checkTree();
+    }
+
+    @Test
+    public void copyKeepsSourceTest() throws IOException {
+        final Map<String, String> content = new HashMap<>();
+        content.put("root.txt",
+                    "copies/root.txt");
+        commit(new CopyCommitContent(content));
+
+        assertThat(read("root.txt")).isEqualTo("root");
+        assertThat(read("copies/root.txt")).isEqualTo("root");
+        checkTree();
+    }
+
+    private void commit(final CommitContent content) {
+        new Commit(git,
+                   MASTER_BRANCH,
+                   new CommitInfo(null,
+                                  "name",
+                                  "name@example.com",
+                                  "message",
+                                  null,
+                                  null),
+                   false,
+                   null,
+                   content).execute();
+    }
+
+    private String read(final String path) throws IOException {
+        return IOUtils.toString(git.blobAsInputStream(MASTER_BRANCH,
+                                                      path),
+                                "UTF-8");
+    }
+
+    private ObjectId subtreeId(final String path) throws IOException {
+        try (final TreeWalk treeWalk = TreeWalk.forPath(git.getRepository(),
+                                                        path,
+                                                        git.getLastCommit(MASTER_BRANCH).getTree())) {
+            return treeWalk.getObjectId(0);
+        }
+    }
+
+    private void checkTree() throws IOException {
+        final ObjectChecker checker = new ObjectChecker();
+        try (final ObjectReader reader = git.getRepository().newObjectReader();
+             final TreeWalk treeWalk = new TreeWalk(reader)) {
+            final ObjectId rootId = git.getLastCommit(MASTER_BRANCH).getTree();
+            checker.checkTree(reader.open(rootId,
+                                          Constants.OBJ_TREE).getCachedBytes());
+            treeWalk.addTree(rootId);
+            while (treeWalk.next()) {
+                if (treeWalk.isSubtree()) {
+                    checker.checkTree(reader.open(treeWalk.getObjectId(0),
+                                                  Constants.OBJ_TREE).getCachedBytes());
+                    treeWalk.enterSubtree();
+                }
+            }
+        }
+    }
+}
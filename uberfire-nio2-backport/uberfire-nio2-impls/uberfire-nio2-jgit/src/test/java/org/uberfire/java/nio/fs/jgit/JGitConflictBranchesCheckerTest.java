@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.eclipse.jgit.revwalk.RevCommit;
 import org.junit.Before;
 import org.junit.Test;
 import org.uberfire.java.nio.fs.jgit.util.Git;
@@ -111,6 +112,24 @@ public class JGitConflictBranchesCheckerTest extends AbstractTestInfra {
         assertThat(conflicts).isEmpty();
     }
 
+    @Test
+    public void testReportConflictsOfCommits() throws IOException {
+        commit(git, DEVELOP_BRANCH, "Updating files",
+               content(TXT_FILES.get(1), multiline(TXT_FILES.get(1), "Line1", "Line2ChangedDev", "Line3", "Line4")));
+
+        commit(git, MASTER_BRANCH, "Updating files",
+               content(TXT_FILES.get(1), multiline(TXT_FILES.get(1), "Line1", "Line2ChangedMaster", "Line3", "Line4")));
+
+        final RevCommit masterHead = git.getLastCommit(MASTER_BRANCH);
+        final RevCommit developHead = git.getLastCommit(DEVELOP_BRANCH);
+
+        commit(git, DEVELOP_BRANCH, "Reverting files",
+               content(TXT_FILES.get(1), multiline(TXT_FILES.get(1), COMMON_TXT_LINES)));
+
+        assertThat(git.conflictBranchesChecker(MASTER_BRANCH, DEVELOP_BRANCH)).isEmpty();
+        assertThat(git.conflictCommitsChecker(masterHead, developHead)).containsExactly(TXT_FILES.get(1));
+    }
+
     @Test(expected = GitException.class)
     public void testInvalidBranch() {
         git.conflictBranchesChecker(MASTER_BRANCH, "invalid-branch");
@@ -68,6 +68,9 @@ public class JGitFileSystemImplProviderPostCommitHookTest extends AbstractTestIn
     @Mock
     private FileSystemHooks.FileSystemHook postCommitHook;
 
+    @Mock
+    private FileSystemHooks.FileSystemHook branchUpdateHook;
+
     @Captor
     private ArgumentCaptor<FileSystemHookExecutionContext> contextCaptor;
 
@@ -79,6 +82,7 @@ public class JGitFileSystemImplProviderPostCommitHookTest extends AbstractTestIn
 
         final Map<String, Object> env = new HashMap<>();
         env.put(FileSystemHooks.PostCommit.name(), postCommitHook);
+        env.put(FileSystemHooks.BranchUpdate.name(), branchUpdateHook);
 
         fs = (JGitFileSystem) provider.newFileSystem(newRepo, env);
 
@@ -92,6 +96,17 @@ public class JGitFileSystemImplProviderPostCommitHookTest extends AbstractTestIn
         verify(postCommitHook, never()).execute(any());
     }
 
+    @Test
+    public void testBranchUpdateWithoutHook() throws IOException {
+        commitFile();
+
+        verify(branchUpdateHook).execute(contextCaptor.capture());
+
+        Assertions.assertThat(contextCaptor.getValue())
+                .isNotNull()
+                .hasFieldOrPropertyWithValue("fsName", REPO_NAME);
+    }
+
     @Test
     public void testPostCommitHookSuccess() throws IOException {
 
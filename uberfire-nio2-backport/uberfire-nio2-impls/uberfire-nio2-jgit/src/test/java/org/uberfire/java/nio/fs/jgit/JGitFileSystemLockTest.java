@@ -18,9 +18,15 @@ package org.uberfire.java.nio.fs.jgit;
 import java.io.File;
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -32,6 +38,15 @@ import static org.mockito.Mockito.*;
 @RunWith(MockitoJUnitRunner.class)
 public class JGitFileSystemLockTest {
 
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger physicalLocks = new AtomicInteger();
+    private final AtomicInteger physicalUnlocks = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
     @Test
     public void thresholdMaxTest() {
         long lastAccessThreshold = Long.MAX_VALUE;
@@ -52,6 +67,144 @@ public class JGitFileSystemLockTest {
         assertFalse(lock.hasBeenInUse());
     }
 
+    @Test
+    public void branchLockInUseTest() {
+        JGitFileSystemLock lock = createLock(Long.MIN_VALUE);
+
+        lock.lockBranch("master");
+        assertTrue(lock.hasBeenInUse());
+        lock.unlockBranch("master");
+        assertFalse(lock.hasBeenInUse());
+    }
+
+    @Test
+    public void differentBranchesDoNotBlockTest() throws Exception {
+        JGitFileSystemLock lock = createLock(0);
+
+        lock.lockBranch("master");
+        try {
+            executor.submit(() -> {
+                lock.lockBranch("dev");
+                lock.unlockBranch("dev");
+            }).get(5,
+                   TimeUnit.SECONDS);
+        } finally {
+            lock.unlockBranch("master");
+        }
+
+        assertEquals(2,
+                     lock.getMetrics().getBranchAcquisitions());
+        assertEquals(0,
+                     lock.getMetrics().getContendedAcquisitions());
+    }
+
+    @Test
+    public void sameBranchIsSerializedTest() throws Exception {
+        JGitFileSystemLock lock = createLock(0);
+
+        lock.lockBranch("master");
+        Future<?> writer = executor.submit(() -> {
+            lock.lockBranch("master");
+            lock.unlockBranch("master");
+        });
+        assertBlocked(writer);
+        lock.unlockBranch("master");
+        writer.get(5,
+                   TimeUnit.SECONDS);
+
+        assertEquals(1,
+                     lock.getMetrics().getContendedAcquisitions());
+        assertTrue(lock.getMetrics().getMaxWaitNanos() > 0);
+    }
+
+    @Test
+    public void exclusiveLockWaitsForBranchWritersTest() throws Exception {
+        JGitFileSystemLock lock = createLock(0);
+
+        lock.lockBranch("master");
+        Future<?> exclusive = executor.submit(() -> {
+            lock.lock();
+            lock.unlock();
+        });
+        assertBlocked(exclusive);
+        lock.unlockBranch("master");
+        exclusive.get(5,
+                      TimeUnit.SECONDS);
+
+        assertEquals(1,
+                     lock.getMetrics().getExclusiveAcquisitions());
+    }
+
+    @Test
+    public void branchWritersWaitForExclusiveLockTest() throws Exception {
+        JGitFileSystemLock lock = createLock(0);
+
+        lock.lock();
+        Future<?> writer = executor.submit(() -> {
+            lock.lockBranch("dev");
+            lock.unlockBranch("dev");
+        });
+        assertBlocked(writer);
+
+        // the exclusive owner can still write any branch
+        lock.lockBranch("master");
+        lock.unlockBranch("master");
+
+        lock.unlock();
+        writer.get(5,
+                   TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void physicalLockSharedByBranchWritersTest() throws Exception {
+        JGitFileSystemLock lock = createLock(0);
+
+        lock.lockBranch("master");
+        lock.lockBranch("master");
+        executor.submit(() -> lock.lockBranch("dev")).get(5,
+                                                          TimeUnit.SECONDS);
+        assertEquals(1,
+                     physicalLocks.get());
+
+        lock.unlockBranch("master");
+        lock.unlockBranch("master");
+        assertEquals(0,
+                     physicalUnlocks.get());
+        executor.submit(() -> lock.unlockBranch("dev")).get(5,
+                                                            TimeUnit.SECONDS);
+        assertEquals(1,
+                     physicalUnlocks.get());
+
+        lock.lock();
+        lock.lockBranch("master");
+        lock.unlockBranch("master");
+        lock.unlock();
+        // the branch writer reused the physical lock of the exclusive owner
+        assertEquals(2,
+                     physicalLocks.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void exclusiveLockFromBranchWriterTest() {
+        JGitFileSystemLock lock = createLock(0);
+
+        lock.lockBranch("master");
+        try {
+            lock.lock();
+        } finally {
+            lock.unlockBranch("master");
+        }
+    }
+
+    private void assertBlocked(Future<?> future) throws Exception {
+        try {
+            future.get(200,
+                       TimeUnit.MILLISECONDS);
+            fail("lock should not have been acquired");
+        } catch (TimeoutException expected) {
+        }
+    }
+
     private JGitFileSystemLock createLock(long lastAccessThreshold) {
         Git gitMock = mock(Git.class);
         Repository repo = mock(Repository.class);
@@ -68,6 +221,16 @@ public class JGitFileSystemLockTest {
             Path createLockInfra(URI uri) {
                 return mock(Path.class);
             }
+
+            @Override
+            void physicalLockOnFS() {
+                physicalLocks.incrementAndGet();
+            }
+
+            @Override
+            void physicalUnLockOnFS() {
+                physicalUnlocks.incrementAndGet();
+            }
         };
     }
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.fs.jgit.manager.JGitRepositoriesManifest;
+import org.uberfire.java.nio.fs.jgit.manager.JGitWarmStartMetrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.uberfire.java.nio.fs.jgit.JGitFileSystemProviderConfiguration.GIT_NIO_DIR;
+import static org.uberfire.java.nio.fs.jgit.JGitFileSystemProviderConfiguration.GIT_WARM_START_ENABLED;
+
+public class JGitFileSystemWarmStartTest extends AbstractTestInfra {
+
+    private static final URI REPO = URI.create("git://warm-repo");
+
+    private File gitDir;
+
+    @Override
+    public Map<String, String> getGitPreferences() {
+        if (gitDir == null) {
+            try {
+                gitDir = createTempDirectory();
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        final Map<String, String> gitPrefs = super.getGitPreferences();
+        gitPrefs.put(GIT_NIO_DIR,
+                     gitDir.toString());
+        gitPrefs.put(GIT_WARM_START_ENABLED,
+                     "true");
+        return gitPrefs;
+    }
+
+    @Test
+    public void unchangedFileSystemIsRegisteredWithoutOpeningIt() throws IOException {
+        provider.newFileSystem(REPO,
+                               EMPTY_ENV);
+        write(provider,
+              "file.txt",
+              "content");
+        restart();
+
+        final JGitFileSystemProxy fs = (JGitFileSystemProxy) provider.newFileSystem(REPO,
+                                                                                    EMPTY_ENV);
+        final JGitWarmStartMetrics metrics = provider.getFsManager().getWarmStartMetrics();
+
+        assertTrue(fs.isUnchangedSinceLastStart());
+        assertThat(fs.getWarmStartSegments()).containsExactly("master");
+        assertThat(fs.getWarmStartHeads()).containsOnlyKeys("master");
+        assertThat(fs.getRootDirectories()).extracting(root -> root.toUri().toString())
+                .containsExactly("git://master@warm-repo/");
+        assertEquals("git://warm-repo",
+                     fs.toString());
+        assertThat(fs.supportedFileAttributeViews()).contains("version");
+        assertEquals(1,
+                     metrics.getUnchanged());
+        assertEquals(0,
+                     metrics.getOpenedOnDemand());
+
+        assertEquals("content",
+                     read(provider,
+                          "file.txt"));
+
+        assertFalse(fs.isUnchangedSinceLastStart());
+        assertThat(fs.getWarmStartSegments()).isEmpty();
+        assertThat(fs.getWarmStartHeads()).isEmpty();
+        assertEquals(1,
+                     metrics.getOpenedOnDemand());
+    }
+
+    @Test
+    public void changedFileSystemIsOpened() throws IOException {
+        provider.newFileSystem(REPO,
+                               EMPTY_ENV);
+        write(provider,
+              "file.txt",
+              "content");
+        provider.shutdown();
+
+        //commit while the manifest is not maintained
+        final Map<String, String> coldPrefs = getGitPreferences();
+        coldPrefs.put(GIT_WARM_START_ENABLED,
+                      "false");
+        final JGitFileSystemProvider cold = new JGitFileSystemProvider(coldPrefs);
+        cold.newFileSystem(REPO,
+                           EMPTY_ENV);
+        write(cold,
+              "file.txt",
+              "changed");
+        cold.shutdown();
+
+        provider = new JGitFileSystemProvider(getGitPreferences());
+        final JGitFileSystemProxy fs = (JGitFileSystemProxy) provider.newFileSystem(REPO,
+                                                                                    EMPTY_ENV);
+
+        assertFalse(fs.isUnchangedSinceLastStart());
+        assertEquals(1,
+                     provider.getFsManager().getWarmStartMetrics().getChanged());
+        assertEquals("changed",
+                     read(provider,
+                          "file.txt"));
+    }
+
+    @Test
+    public void manifestIsWrittenOnShutdown() throws IOException {
+        provider.newFileSystem(REPO,
+                               EMPTY_ENV);
+        write(provider,
+              "file.txt",
+              "content");
+        provider.shutdown();
+
+        final JGitRepositoriesManifest manifest = JGitRepositoriesManifest.load(provider.getGitRepoContainerDir());
+        assertThat(manifest.getFileSystems()).containsExactly("warm-repo");
+        assertThat(manifest.getHeads("warm-repo")).containsOnlyKeys("master");
+
+        provider = new JGitFileSystemProvider(getGitPreferences());
+    }
+
+    private void restart() {
+        provider.shutdown();
+        provider = new JGitFileSystemProvider(getGitPreferences());
+    }
+
+    private static void write(final JGitFileSystemProvider provider,
+                              final String file,
+                              final String content) throws IOException {
+        final Path path = provider.getPath(URI.create("git://master@warm-repo/" + file));
+        try (OutputStream out = provider.newOutputStream(path)) {
+            out.write(content.getBytes());
+        }
+    }
+
+    private static String read(final JGitFileSystemProvider provider,
+                               final String file) throws IOException {
+        final Path path = provider.getPath(URI.create("git://master@warm-repo/" + file));
+        try (InputStream in = provider.newInputStream(path)) {
+            return IOUtils.toString(in);
+        }
+    }
+}
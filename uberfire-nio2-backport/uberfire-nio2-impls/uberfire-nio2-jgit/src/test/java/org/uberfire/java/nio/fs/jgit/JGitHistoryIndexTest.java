@@ -0,0 +1,221 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+import org.uberfire.java.nio.fs.jgit.util.GitImpl;
+import org.uberfire.java.nio.fs.jgit.util.HistoryIndex;
+import org.uberfire.java.nio.fs.jgit.util.commands.Commit;
+import org.uberfire.java.nio.fs.jgit.util.commands.CreateBranch;
+import org.uberfire.java.nio.fs.jgit.util.commands.GetFirstCommit;
+import org.uberfire.java.nio.fs.jgit.util.commands.ListCommits;
+import org.uberfire.java.nio.fs.jgit.util.model.CommitHistory;
+import org.uberfire.java.nio.fs.jgit.util.model.CommitInfo;
+import org.uberfire.java.nio.fs.jgit.util.model.DefaultCommitContent;
+import org.uberfire.java.nio.fs.jgit.util.model.MessageCommitInfo;
+import org.uberfire.java.nio.fs.jgit.util.model.MoveCommitContent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JGitHistoryIndexTest extends AbstractTestInfra {
+
+    private static final String MASTER_BRANCH = "master";
+    private static final String DEVELOP_BRANCH = "develop";
+
+    private Git git;
+
+    @Before
+    public void setup() throws Exception {
+        git = setupGit();
+        commit(git,
+               MASTER_BRANCH,
+               "second",
+               content("file1.txt",
+                       "content v2"),
+               content("dir/file3.txt",
+                       "content3"));
+    }
+
+    @Test
+    public void indexIsPersistedTest() throws Exception {
+        listCommits("file1.txt");
+        commit(git,
+               MASTER_BRANCH,
+               "third",
+               content("file2.txt",
+                       "content v2"));
+        git.getHistoryIndex().update(MASTER_BRANCH);
+
+        final File indexDir = new File(git.getRepository().getDirectory(),
+                                       HistoryIndex.INDEX_DIR);
+        assertThat(indexDir.list()).contains("commits",
+                                             "refs%2Fheads%2Fmaster.branch");
+
+        final HistoryIndex reloaded = new HistoryIndex(git);
+        for (final String path : new String[]{"file1.txt", "file2.txt", "dir", "dir/file3.txt", ""}) {
+            assertThat(reloaded.listCommits(git.getRef(MASTER_BRANCH),
+                                            path).getCommits())
+                    .containsExactlyElementsOf(new ListCommits(git,
+                                                               git.getRef(MASTER_BRANCH),
+                                                               path).execute().getCommits());
+        }
+        assertThat(reloaded.getFirstCommit(git.getRef(MASTER_BRANCH)).getFullMessage()).isEqualTo("cool1");
+    }
+
+    @Test
+    public void modificationsAreAppliedIncrementallyTest() throws Exception {
+        listCommits("file1.txt");
+        listCommits("file2.txt");
+
+        commit(git,
+               MASTER_BRANCH,
+               "third",
+               content("file1.txt",
+                       "content v3"));
+        git.getHistoryIndex().update(MASTER_BRANCH);
+        commit(git,
+               MASTER_BRANCH,
+               "fourth",
+               content("dir/file3.txt",
+                       "content3 v2"));
+
+        assertThat(listCommits("file1.txt").getCommits()).hasSize(3);
+        assertSameAsWalk("file1.txt");
+        assertSameAsWalk("file2.txt");
+        assertSameAsWalk("dir");
+        assertSameAsWalk("dir/file3.txt");
+    }
+
+    @Test
+    public void renamesAreFollowedTest() throws Exception {
+        listCommits("file1.txt");
+        listCommits("renamed.txt");
+
+        final Map<String, String> content = new HashMap<>();
+        content.put("file1.txt",
+                    "renamed.txt");
+        new Commit(git,
+                   MASTER_BRANCH,
+                   new CommitInfo(null,
+                                  "name",
+                                  "name@example.com",
+                                  "rename",
+                                  null,
+                                  null),
+                   false,
+                   null,
+                   new MoveCommitContent(content)).execute();
+
+        final CommitHistory history = listCommits("renamed.txt");
+        assertThat(history.getCommits()).hasSize(3);
+        assertThat(history.trackedFileNameChangeFor(history.getCommits().get(2))).isEqualTo("/file1.txt");
+        assertSameAsWalk("renamed.txt");
+    }
+
+    @Test
+    public void mergesAreIndexedTest() throws Exception {
+        listCommits("file1.txt");
+
+        new CreateBranch((GitImpl) git,
+                         MASTER_BRANCH,
+                         DEVELOP_BRANCH).execute();
+        commit(git,
+               DEVELOP_BRANCH,
+               "develop",
+               content("dir/file4.txt",
+                       "content4"));
+        commit(git,
+               MASTER_BRANCH,
+               "master",
+               content("file1.txt",
+                       "content v3"));
+        git.merge(DEVELOP_BRANCH,
+                  MASTER_BRANCH,
+                  true,
+                  false,
+                  MessageCommitInfo.createMergeMessage(DEVELOP_BRANCH));
+
+        assertSameAsWalk("");
+        assertSameAsWalk("file1.txt");
+        assertSameAsWalk("dir");
+        assertSameAsWalk("dir/file4.txt");
+    }
+
+    @Test
+    public void amendsReplaceTheHeadTest() throws Exception {
+        listCommits("file1.txt");
+
+        final Map<String, File> content = new HashMap<>();
+        content.put("file2.txt",
+                    tempFile("content v2"));
+        new Commit(git,
+                   MASTER_BRANCH,
+                   new CommitInfo(null,
+                                  "name",
+                                  "name@example.com",
+                                  "amend",
+                                  null,
+                                  null),
+                   true,
+                   null,
+                   new DefaultCommitContent(content)).execute();
+
+        assertSameAsWalk("");
+        assertSameAsWalk("file1.txt");
+        assertSameAsWalk("file2.txt");
+        assertSameAsWalk("dir/file3.txt");
+    }
+
+    @Test
+    public void firstCommitTest() throws Exception {
+        final RevCommit first = git.getFirstCommit(git.getRef(MASTER_BRANCH));
+
+        commit(git,
+               MASTER_BRANCH,
+               "third",
+               content("file1.txt",
+                       "content v3"));
+
+        assertThat(git.getFirstCommit(git.getRef(MASTER_BRANCH))).isEqualTo(first);
+        assertThat(first).isEqualTo(new GetFirstCommit(git,
+                                                       MASTER_BRANCH).execute());
+        assertThat(first.getFullMessage()).isEqualTo("cool1");
+    }
+
+    private CommitHistory listCommits(final String path) throws Exception {
+        return git.listCommits(git.getRef(MASTER_BRANCH),
+                               path);
+    }
+
+    private void assertSameAsWalk(final String path) throws Exception {
+        final CommitHistory indexed = listCommits(path);
+        final CommitHistory walked = new ListCommits(git,
+                                                     git.getRef(MASTER_BRANCH),
+                                                     path).execute();
+
+        assertThat(indexed.getCommits()).containsExactlyElementsOf(walked.getCommits());
+        for (final RevCommit commit : walked.getCommits()) {
+            assertThat(indexed.trackedFileNameChangeFor(commit)).isEqualTo(walked.trackedFileNameChangeFor(commit));
+        }
+    }
+}
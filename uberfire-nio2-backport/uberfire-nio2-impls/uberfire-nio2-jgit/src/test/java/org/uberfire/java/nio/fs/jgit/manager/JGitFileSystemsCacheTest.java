@@ -17,7 +17,12 @@
 package org.uberfire.java.nio.fs.jgit.manager;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -218,6 +223,7 @@ public class JGitFileSystemsCacheTest extends AbstractTestInfra {
         Supplier<JGitFileSystem> fsSupplier1 = getSupplierSpy(fs1);
         cache.addSupplier("fs1",
                           fsSupplier1);
+        open("fs1");
 
         JGitFileSystem fs2 = mock(JGitFileSystem.class);
         Supplier<JGitFileSystem> fsSupplier2 = getSupplierSpy(fs2);
@@ -248,24 +254,28 @@ public class JGitFileSystemsCacheTest extends AbstractTestInfra {
         Supplier<JGitFileSystem> fsSupplier1 = getSupplierSpy(fs1);
         cache.addSupplier("fs1",
                           fsSupplier1);
+        open("fs1");
 
         JGitFileSystem fs2 = mock(JGitFileSystem.class);
         Supplier<JGitFileSystem> fs2Supplier = getSupplierSpy(fs2);
         when(fs2.hasBeenInUse()).thenReturn(true);
         cache.addSupplier("fs2",
                           fs2Supplier);
+        open("fs2");
 
         JGitFileSystem fs3 = mock(JGitFileSystem.class);
         Supplier<JGitFileSystem> fs3Supplier = getSupplierSpy(fs3);
         when(fs3.hasBeenInUse()).thenReturn(true);
         cache.addSupplier("fs3",
                           fs3Supplier);
+        open("fs3");
 
         JGitFileSystem fs4 = mock(JGitFileSystem.class);
         Supplier<JGitFileSystem> fs4Supplier = getSupplierSpy(fs4);
         when(fs4.hasBeenInUse()).thenReturn(true);
         cache.addSupplier("fs4",
                           fs3Supplier);
+        open("fs4");
 
         //> cache because all fs are in use
         assertTrue(cache.memoizedSuppliers.containsKey("fs1"));
@@ -320,6 +330,7 @@ public class JGitFileSystemsCacheTest extends AbstractTestInfra {
         Supplier<JGitFileSystem> fs1Supplier = getSupplierSpy(fs1);
         cache.addSupplier("fs1",
                           fs1Supplier);
+        open("fs1");
 
         fs1.lock();
         fs1.lock();
@@ -341,6 +352,132 @@ public class JGitFileSystemsCacheTest extends AbstractTestInfra {
         assertTrue(cache.memoizedSuppliers.containsKey("fs1"));
     }
 
+    @Test
+    public void notOpenedFileSystemsAreEvictedFirst() {
+        cache = new JGitFileSystemsCache(setupConfigMock());
+
+        JGitFileSystem fs1 = mock(JGitFileSystem.class);
+        cache.addSupplier("fs1",
+                          getSupplierSpy(fs1));
+        open("fs1");
+
+        cache.addSupplier("fs2",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+        cache.addSupplier("fs3",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+
+        //fs1 is older but was opened and referenced since it was added
+        assertTrue(cache.memoizedSuppliers.containsKey("fs1"));
+        assertFalse(cache.memoizedSuppliers.containsKey("fs2"));
+        assertTrue(cache.memoizedSuppliers.containsKey("fs3"));
+        assertEquals(1,
+                     cache.getCacheInfo().evictions());
+    }
+
+    @Test
+    public void evictedOpenedFileSystemsAreNotClosed() {
+        cache = new JGitFileSystemsCache(setupConfigMock());
+
+        JGitFileSystem fs1 = mock(JGitFileSystem.class);
+        cache.addSupplier("fs1",
+                          getSupplierSpy(fs1));
+        open("fs1");
+        JGitFileSystem fs2 = mock(JGitFileSystem.class);
+        cache.addSupplier("fs2",
+                          getSupplierSpy(fs2));
+        open("fs2");
+        cache.addSupplier("fs3",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+        cache.addSupplier("fs4",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+        cache.addSupplier("fs5",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+
+        assertEquals(3,
+                     cache.getCacheInfo().evictions());
+        assertFalse(cache.memoizedSuppliers.containsKey("fs1"));
+        assertFalse(cache.memoizedSuppliers.containsKey("fs2"));
+        //paths created by evicted instances may still be read
+        verify(fs1,
+               never()).close();
+        verify(fs2,
+               never()).close();
+    }
+
+    @Test
+    public void proxiesAreReusedAndFollowTheCachedInstance() {
+        cache = new JGitFileSystemsCache(setupConfigMock());
+
+        JGitFileSystem fs1 = mock(JGitFileSystem.class);
+        Supplier<JGitFileSystem> fs1Supplier = getSupplierSpy(fs1);
+        cache.addSupplier("fs1",
+                          fs1Supplier);
+
+        JGitFileSystemProxy proxy = (JGitFileSystemProxy) cache.get("fs1");
+        assertSame(proxy,
+                   cache.get("fs1"));
+        assertEquals(fs1,
+                     proxy.getRealJGitFileSystem());
+
+        cache.addSupplier("fs2",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+        cache.addSupplier("fs3",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+        cache.addSupplier("fs4",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+        cache.addSupplier("fs5",
+                          getSupplierSpy(mock(JGitFileSystem.class)));
+        assertFalse(cache.memoizedSuppliers.containsKey("fs1"));
+
+        //the proxy held before the eviction brings the fs back to the cache
+        assertEquals(fs1,
+                     proxy.getRealJGitFileSystem());
+        assertTrue(cache.memoizedSuppliers.containsKey("fs1"));
+        verify(fs1Supplier,
+               times(2)).get();
+
+        //a removed fs keeps its last instance for the proxies still around
+        cache.remove("fs1");
+        assertNull(cache.get("fs1"));
+        assertEquals(fs1,
+                     proxy.getRealJGitFileSystem());
+    }
+
+    @Test
+    public void concurrentLookups() throws Exception {
+        cache = new JGitFileSystemsCache(setupConfigMock());
+        for (int i = 0; i < 10; i++) {
+            cache.addSupplier("fs" + i,
+                              getSupplierSpy(mock(JGitFileSystem.class)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        assertNotNull(((JGitFileSystemProxy) cache.get("fs" + (i % 10))).getRealJGitFileSystem());
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30,
+                           TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(10,
+                     cache.getFileSystems().size());
+        assertTrue(cache.memoizedSuppliers.size() <= 10);
+    }
+
+    private void open(String fsName) {
+        ((JGitFileSystemProxy) cache.get(fsName)).getRealJGitFileSystem();
+    }
+
     private void setupCacheToTestOrder(JGitFileSystemProviderConfiguration config, String... fsNames) {
         cache = new JGitFileSystemsCache(config);
 
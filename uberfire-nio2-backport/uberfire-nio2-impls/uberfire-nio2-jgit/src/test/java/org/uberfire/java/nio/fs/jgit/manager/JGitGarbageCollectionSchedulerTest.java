@@ -0,0 +1,195 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.fs.jgit.manager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.internal.storage.file.GC;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.AbstractTestInfra;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
+import org.uberfire.java.nio.fs.jgit.util.Git;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class JGitGarbageCollectionSchedulerTest extends AbstractTestInfra {
+
+    private Git git;
+    private JGitFileSystem fs;
+    private JGitGarbageCollectionScheduler scheduler;
+
+    @Before
+    public void setup() throws Exception {
+        git = setupGit();
+        fs = mock(JGitFileSystem.class);
+        when(fs.getName()).thenReturn("gc-fs");
+        when(fs.isOpen()).thenReturn(true);
+        when(fs.getGit()).thenReturn(git);
+    }
+
+    @After
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void collectPacksLooseObjectsTest() throws Exception {
+        scheduler = new JGitGarbageCollectionScheduler(1,
+                                                       1,
+                                                       50);
+        assertTrue(looseObjects() > 0);
+
+        scheduler.collect(fs);
+
+        assertEquals(0,
+                     looseObjects());
+        assertEquals(1,
+                     scheduler.getMetrics().getExecuted());
+        assertTrue(scheduler.getMetrics().getObjectsPacked() > 0);
+        verify(fs).lock();
+        verify(fs).unlock();
+    }
+
+    @Test
+    public void collectSkippedBelowThresholdsTest() throws Exception {
+        scheduler = new JGitGarbageCollectionScheduler(1,
+                                                       10000,
+                                                       50);
+        final long before = looseObjects();
+
+        scheduler.collect(fs);
+
+        assertEquals(before,
+                     looseObjects());
+        assertEquals(0,
+                     scheduler.getMetrics().getExecuted());
+        assertEquals(1,
+                     scheduler.getMetrics().getSkipped());
+        verify(fs,
+               never()).lock();
+    }
+
+    @Test
+    public void collectSkippedWhenClosedTest() {
+        scheduler = new JGitGarbageCollectionScheduler(1,
+                                                       1,
+                                                       50);
+        when(fs.isOpen()).thenReturn(false);
+
+        scheduler.collect(fs);
+
+        assertEquals(1,
+                     scheduler.getMetrics().getSkipped());
+        verify(fs,
+               never()).getGit();
+    }
+
+    @Test
+    public void collectInlineFailureIsCountedTest() {
+        scheduler = new JGitGarbageCollectionScheduler(1,
+                                                       1,
+                                                       50);
+        final Git inlineGit = mock(Git.class);
+        when(inlineGit.getRepository()).thenReturn(mock(Repository.class));
+        doThrow(new RuntimeException("gc failed")).when(inlineGit).gc();
+        when(fs.getGit()).thenReturn(inlineGit);
+
+        scheduler.collect(fs);
+
+        assertEquals(0,
+                     scheduler.getMetrics().getExecuted());
+        assertEquals(1,
+                     scheduler.getMetrics().getFailed());
+        verify(fs).lock();
+        verify(fs).unlock();
+    }
+
+    @Test
+    public void scheduleAfterShutdownIsIgnoredTest() {
+        scheduler = new JGitGarbageCollectionScheduler(1,
+                                                       1,
+                                                       50);
+        scheduler.shutdown();
+
+        scheduler.schedule(fs);
+
+        assertEquals(0,
+                     scheduler.getMetrics().getScheduled());
+    }
+
+    @Test
+    public void scheduleRunsInBackgroundTest() throws Exception {
+        scheduler = new JGitGarbageCollectionScheduler(1,
+                                                       1,
+                                                       50);
+
+        scheduler.schedule(fs);
+
+        for (int i = 0; i < 100 && scheduler.getMetrics().getExecuted() == 0; i++) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(1,
+                     scheduler.getMetrics().getScheduled());
+        assertEquals(1,
+                     scheduler.getMetrics().getExecuted());
+        assertEquals(0,
+                     looseObjects());
+    }
+
+    @Test
+    public void scheduleWhileCollectingIsIgnoredTest() throws Exception {
+        scheduler = new JGitGarbageCollectionScheduler(2,
+                                                       1,
+                                                       50);
+        final CountDownLatch collecting = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(fs.isOpen()).thenAnswer(invocation -> {
+            collecting.countDown();
+            release.await(10,
+                          TimeUnit.SECONDS);
+            return false;
+        });
+
+        scheduler.schedule(fs);
+        assertTrue(collecting.await(10,
+                                    TimeUnit.SECONDS));
+        scheduler.schedule(fs);
+        release.countDown();
+
+        for (int i = 0; i < 100 && scheduler.getMetrics().getSkipped() == 0; i++) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(1,
+                     scheduler.getMetrics().getScheduled());
+        assertEquals(1,
+                     scheduler.getMetrics().getSkipped());
+    }
+
+    private long looseObjects() throws Exception {
+        return new GC((FileRepository) git.getRepository()).getStatistics().numberOfLooseObjects;
+    }
+}
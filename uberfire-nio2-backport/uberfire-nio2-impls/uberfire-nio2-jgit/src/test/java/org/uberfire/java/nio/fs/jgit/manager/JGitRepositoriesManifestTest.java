@@ -0,0 +1,110 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jgit.util.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JGitRepositoriesManifestTest {
+
+    private File dir;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("manifest").toFile();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtils.delete(dir,
+                         FileUtils.RECURSIVE);
+    }
+
+    @Test
+    public void storeAndLoad() throws IOException {
+        final JGitRepositoriesManifest manifest = JGitRepositoriesManifest.load(dir);
+        assertThat(manifest.getFileSystems()).isEmpty();
+
+        final Map<String, String> heads = new HashMap<>();
+        heads.put("master",
+                  "0123456789012345678901234567890123456789");
+        heads.put("feature/one",
+                  "9876543210987654321098765432109876543210");
+        manifest.put("space/repo",
+                     heads);
+        manifest.put("other",
+                     Collections.singletonMap("master",
+                                              "1111111111111111111111111111111111111111"));
+        manifest.store();
+
+        final JGitRepositoriesManifest loaded = JGitRepositoriesManifest.load(dir);
+        assertThat(loaded.getFileSystems()).containsOnly("space/repo",
+                                                         "other");
+        assertEquals(heads,
+                     loaded.getHeads("space/repo"));
+        assertNull(loaded.getHeads("unknown"));
+        assertThat(new File(dir,
+                            JGitRepositoriesManifest.MANIFEST_FILE_NAME + ".tmp")).doesNotExist();
+    }
+
+    @Test
+    public void retainOnlyRegisteredFileSystems() throws IOException {
+        final JGitRepositoriesManifest manifest = JGitRepositoriesManifest.load(dir);
+        manifest.put("a",
+                     Collections.singletonMap("master",
+                                              "1111111111111111111111111111111111111111"));
+        manifest.put("b",
+                     Collections.singletonMap("master",
+                                              "2222222222222222222222222222222222222222"));
+        manifest.put("c",
+                     Collections.emptyMap());
+
+        manifest.retainAll(Collections.singleton("b"));
+        manifest.store();
+
+        assertThat(JGitRepositoriesManifest.load(dir).getFileSystems()).containsOnly("b");
+    }
+
+    @Test
+    public void invalidManifestIsIgnored() throws IOException {
+        Files.write(new File(dir,
+                             JGitRepositoriesManifest.MANIFEST_FILE_NAME).toPath(),
+                    "repo\tmaster\t1111111111111111111111111111111111111111\nbroken line\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(JGitRepositoriesManifest.load(dir).getFileSystems()).isEmpty();
+    }
+
+    @Test
+    public void headsOfMissingRepository() {
+        assertTrue(JGitRepositoriesManifest.readHeads(new File(dir,
+                                                               "missing.git")).isEmpty());
+    }
+}
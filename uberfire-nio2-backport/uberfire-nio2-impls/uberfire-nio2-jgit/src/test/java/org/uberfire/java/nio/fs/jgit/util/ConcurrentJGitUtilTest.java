@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.jboss.byteman.contrib.bmunit.BMScript;
@@ -32,6 +33,7 @@ import org.uberfire.java.nio.file.NoSuchFileException;
 import org.uberfire.java.nio.fs.jgit.AbstractTestInfra;
 import org.uberfire.java.nio.fs.jgit.util.commands.Commit;
 import org.uberfire.java.nio.fs.jgit.util.commands.CreateRepository;
+import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
 
 import static org.junit.Assert.*;
 
@@ -191,21 +193,21 @@ public class ConcurrentJGitUtilTest extends AbstractTestInfra {
                    }}).execute();
 
         try {
-            assertNotNull(git.listPathContent("master",
-                                              "path/to/"));
-            assertNotNull(git.listPathContent("master",
-                                              "path/to/"));
-            assertNotNull(git.listPathContent("master",
-                                              "path/to/"));
-            assertNotNull(git.listPathContent("master",
-                                              "path/to/"));
+            assertNotNull(listPathContent(git,
+                                          "path/to/"));
+            assertNotNull(listPathContent(git,
+                                          "path/to/"));
+            assertNotNull(listPathContent(git,
+                                          "path/to/"));
+            assertNotNull(listPathContent(git,
+                                          "path/to/"));
         } catch (Exception ex) {
             fail();
         }
 
         try {
-            assertNotNull(git.listPathContent("master",
-                                              "path/to/"));
+            assertNotNull(listPathContent(git,
+                                          "path/to/"));
             fail("forced to fail!");
         } catch (RuntimeException ex) {
         }
@@ -247,21 +249,21 @@ public class ConcurrentJGitUtilTest extends AbstractTestInfra {
                    }}).execute();
 
         try {
-            assertNotNull(git.getPathInfo("master",
-                                          "path/to/file2.txt"));
-            assertNotNull(git.getPathInfo("master",
-                                          "path/to/file2.txt"));
-            assertNotNull(git.getPathInfo("master",
-                                          "path/to/file2.txt"));
-            assertNotNull(git.getPathInfo("master",
-                                          "path/to/file2.txt"));
+            assertNotNull(getPathInfo(git,
+                                      "path/to/file2.txt"));
+            assertNotNull(getPathInfo(git,
+                                      "path/to/file2.txt"));
+            assertNotNull(getPathInfo(git,
+                                      "path/to/file2.txt"));
+            assertNotNull(getPathInfo(git,
+                                      "path/to/file2.txt"));
         } catch (Exception ex) {
             fail();
         }
 
         try {
-            assertNotNull(git.getPathInfo("master",
-                                          "path/to/file2.txt"));
+            assertNotNull(getPathInfo(git,
+                                      "path/to/file2.txt"));
             fail("forced to fail!");
         } catch (RuntimeException ex) {
         }
@@ -372,4 +374,19 @@ public class ConcurrentJGitUtilTest extends AbstractTestInfra {
         } catch (RuntimeException ex) {
         }
     }
-}
\ No newline at end of file
+
+    // lookups are cached by tree id, the cache is dropped so that every call walks the tree again
+    private static List<PathInfo> listPathContent(final Git git,
+                                                  final String path) {
+        git.getPathInfoCache().clear();
+        return git.listPathContent("master",
+                                   path);
+    }
+
+    private static PathInfo getPathInfo(final Git git,
+                                        final String path) {
+        git.getPathInfoCache().clear();
+        return git.getPathInfo("master",
+                               path);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Test;
+import org.uberfire.java.nio.fs.jgit.util.model.PathInfo;
+import org.uberfire.java.nio.fs.jgit.util.model.PathType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PathInfoCacheTest {
+
+    private static final ObjectId TREE_1 = ObjectId.fromString("0123456789012345678901234567890123456789");
+    private static final ObjectId TREE_2 = ObjectId.fromString("9876543210987654321098765432109876543210");
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void sameTreeAndPathIsLoadedOnceTest() throws Exception {
+        final PathInfoCache cache = new PathInfoCache(1024 * 1024);
+
+        final PathInfo first = cache.getPathInfo(TREE_1,
+                                                 "a/b.txt",
+                                                 () -> load("a/b.txt"));
+        final PathInfo second = cache.getPathInfo(TREE_1,
+                                                  "a/b.txt",
+                                                  () -> load("a/b.txt"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getMetrics().getHits()).isEqualTo(1);
+        assertThat(cache.getMetrics().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void newTreeIsLoadedAgainTest() throws Exception {
+        final PathInfoCache cache = new PathInfoCache(1024 * 1024);
+
+        cache.getPathInfo(TREE_1,
+                          "a/b.txt",
+                          () -> load("a/b.txt"));
+        cache.getPathInfo(TREE_2,
+                          "a/b.txt",
+                          () -> load("a/b.txt"));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void pathInfoAndListingAreCachedApartTest() throws Exception {
+        final PathInfoCache cache = new PathInfoCache(1024 * 1024);
+
+        cache.getPathInfo(TREE_1,
+                          "a",
+                          () -> load("a"));
+        final List<PathInfo> content = cache.listPathContent(TREE_1,
+                                                             "a",
+                                                             () -> Collections.singletonList(load("a/b.txt")));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(content).extracting(PathInfo::getPath).containsExactly("a/b.txt");
+        assertThat(cache.listPathContent(TREE_1,
+                                         "a",
+                                         () -> Collections.singletonList(load("a/b.txt")))).isSameAs(content);
+    }
+
+    @Test
+    public void entriesAreEvictedOverTheWeightLimitTest() throws Exception {
+        final PathInfoCache cache = new PathInfoCache(500);
+
+        for (int i = 0; i < 10; i++) {
+            final String path = "file" + i + ".txt";
+            cache.getPathInfo(TREE_1,
+                              path,
+                              () -> load(path));
+        }
+
+        assertThat(cache.getWeight()).isLessThanOrEqualTo(500);
+        assertThat(cache.getMetrics().getEvictions()).isGreaterThan(0);
+        assertThat(cache.size()).isEqualTo(10 - (int) cache.getMetrics().getEvictions());
+
+        cache.getPathInfo(TREE_1,
+                          "file9.txt",
+                          () -> load("file9.txt"));
+        assertThat(cache.getMetrics().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void referencedEntriesGetASecondChanceTest() throws Exception {
+        final PathInfoCache cache = new PathInfoCache(500);
+
+        cache.getPathInfo(TREE_1,
+                          "file0.txt",
+                          () -> load("file0.txt"));
+        cache.getPathInfo(TREE_1,
+                          "file1.txt",
+                          () -> load("file1.txt"));
+        cache.getPathInfo(TREE_1,
+                          "file0.txt",
+                          () -> load("file0.txt"));
+        cache.getPathInfo(TREE_1,
+                          "file2.txt",
+                          () -> load("file2.txt"));
+
+        assertThat(cache.getMetrics().getEvictions()).isEqualTo(1);
+        cache.getPathInfo(TREE_1,
+                          "file0.txt",
+                          () -> load("file0.txt"));
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void listingsAreAlwaysUnmodifiableTest() throws Exception {
+        final PathInfoCache cache = new PathInfoCache(1024 * 1024);
+        final PathInfoCache disabled = new PathInfoCache(0);
+
+        final List<PathInfo> loaded = cache.listPathContent(TREE_1,
+                                                            "a",
+                                                            () -> new ArrayList<>(Collections.singletonList(load("a/b.txt"))));
+        final List<PathInfo> cached = cache.listPathContent(TREE_1,
+                                                            "a",
+                                                            () -> new ArrayList<>(Collections.singletonList(load("a/b.txt"))));
+        final List<PathInfo> uncached = disabled.listPathContent(TREE_1,
+                                                                 "a",
+                                                                 () -> new ArrayList<>(Collections.singletonList(load("a/b.txt"))));
+
+        for (final List<PathInfo> content : Arrays.asList(loaded,
+                                                          cached,
+                                                          uncached)) {
+            assertThatThrownBy(() -> content.add(load("a/c.txt")))
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Test
+    public void disabledCacheAlwaysLoadsTest() throws Exception {
+        final PathInfoCache cache = new PathInfoCache(0);
+
+        cache.getPathInfo(TREE_1,
+                          "a/b.txt",
+                          () -> load("a/b.txt"));
+        cache.getPathInfo(TREE_1,
+                          "a/b.txt",
+                          () -> load("a/b.txt"));
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    private PathInfo load(final String path) {
+        loads.incrementAndGet();
+        return new PathInfo(null,
+                            path,
+                            PathType.FILE);
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.ws;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.uberfire.java.nio.file.ClosedWatchServiceException;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.StandardWatchEventKind;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class JGitWatchServiceTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private JGitWatchService watchService;
+    private Path root;
+
+    @Before
+    public void setup() {
+        watchService = new JGitWatchService("fs",
+                                            ws -> {
+                                            },
+                                            4);
+        root = mock(Path.class);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void pollWaitsForTimeoutTest() {
+        final long start = System.nanoTime();
+        assertNull(watchService.poll(200,
+                                     TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    public void takeWaitsForPublishTest() throws Exception {
+        final Future<WatchKey> key = executor.submit(() -> watchService.take());
+        Thread.sleep(100);
+        assertFalse(key.isDone());
+
+        publish(root,
+                event("MODIFY",
+                      "a.txt"));
+
+        assertEquals(1,
+                     key.get(5,
+                             TimeUnit.SECONDS).pollEvents().size());
+    }
+
+    @Test
+    public void closeWakesUpConsumersTest() throws Exception {
+        final Future<WatchKey> key = executor.submit(() -> watchService.take());
+        Thread.sleep(100);
+
+        watchService.close();
+
+        try {
+            key.get(5,
+                    TimeUnit.SECONDS);
+            fail("take should fail once the service is closed");
+        } catch (java.util.concurrent.ExecutionException e) {
+            assertTrue(e.getCause() instanceof ClosedWatchServiceException);
+        }
+    }
+
+    @Test
+    public void coalesceEventsOfSamePathTest() {
+        final WatchEvent<?> first = event("MODIFY",
+                                          "a.txt");
+        final WatchEvent<?> other = event("MODIFY",
+                                          "b.txt");
+        final WatchEvent<?> last = event("MODIFY",
+                                         "a.txt");
+        publish(root,
+                first,
+                other);
+        publish(root,
+                last);
+        publish(mock(Path.class),
+                event("MODIFY",
+                      "a.txt"));
+
+        assertEquals(2,
+                     watchService.getQueueDepth());
+        assertEquals(3,
+                     watchService.getPendingEvents());
+        assertEquals(Arrays.asList(other,
+                                   last),
+                     watchService.poll().pollEvents());
+        assertEquals(1,
+                     watchService.poll().pollEvents().size());
+        assertEquals(0,
+                     watchService.getPendingEvents());
+        assertEquals(1,
+                     watchService.getMetrics().getMergedKeys());
+        assertEquals(1,
+                     watchService.getMetrics().getCoalescedEvents());
+    }
+
+    @Test
+    public void keepKeysOfDifferentOriginsTest() {
+        final WatchEvent<?> byUser = event("MODIFY",
+                                           "a.txt",
+                                           "user");
+        final WatchEvent<?> byAdmin = event("MODIFY",
+                                            "b.txt",
+                                            "admin");
+        publish(root,
+                byUser);
+        publish(root,
+                byAdmin);
+        publish(root,
+                event("MODIFY",
+                      "c.txt",
+                      "user"),
+                event("MODIFY",
+                      "d.txt",
+                      "admin"));
+
+        assertEquals(3,
+                     watchService.getQueueDepth());
+        assertEquals(Arrays.asList(byUser),
+                     watchService.poll().pollEvents());
+        assertEquals(Arrays.asList(byAdmin),
+                     watchService.poll().pollEvents());
+        assertEquals(2,
+                     watchService.poll().pollEvents().size());
+        assertEquals(0,
+                     watchService.getMetrics().getMergedKeys());
+    }
+
+    @Test
+    public void overflowTest() {
+        for (int i = 0; i < 6; i++) {
+            publish(root,
+                    event("ADD",
+                          "file" + i + ".txt"));
+        }
+
+        assertEquals(2,
+                     watchService.getQueueDepth());
+        assertEquals(5,
+                     watchService.getPendingEvents());
+        final List<WatchEvent<?>> merged = watchService.poll().pollEvents();
+        assertEquals(4,
+                     merged.size());
+        assertEquals(StandardWatchEventKind.ENTRY_CREATE,
+                     merged.get(0).kind());
+        final List<WatchEvent<?>> overflow = watchService.poll().pollEvents();
+        assertEquals(StandardWatchEventKind.OVERFLOW,
+                     overflow.get(0).kind());
+        assertEquals(2,
+                     overflow.get(0).count());
+        assertNull(watchService.poll());
+        assertEquals(0,
+                     watchService.getPendingEvents());
+
+        assertEquals(2,
+                     watchService.getMetrics().getDroppedEvents());
+        assertEquals(1,
+                     watchService.getMetrics().getOverflows());
+        assertEquals(3,
+                     watchService.getMetrics().getMergedKeys());
+    }
+
+    @Test
+    public void overflowOfDifferentOriginsTest() {
+        for (int i = 0; i < 4; i++) {
+            publish(root,
+                    event("ADD",
+                          "file" + i + ".txt",
+                          "user" + i));
+        }
+        publish(root,
+                event("ADD",
+                      "file4.txt",
+                      "user4"));
+
+        assertEquals(5,
+                     watchService.getQueueDepth());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(StandardWatchEventKind.ENTRY_CREATE,
+                         watchService.poll().pollEvents().get(0).kind());
+        }
+        assertEquals(StandardWatchEventKind.OVERFLOW,
+                     watchService.poll().pollEvents().get(0).kind());
+        assertEquals(4,
+                     watchService.getMetrics().getMaxQueueDepth());
+    }
+
+    @Test
+    public void acceptLargeKeyOnEmptyQueueTest() {
+        final WatchEvent<?>[] events = new WatchEvent<?>[10];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = event("ADD",
+                              "file" + i + ".txt");
+        }
+        publish(root,
+                events);
+
+        assertEquals(10,
+                     watchService.poll().pollEvents().size());
+        assertEquals(0,
+                     watchService.getMetrics().getOverflows());
+    }
+
+    private void publish(final Path watchable,
+                         final WatchEvent<?>... events) {
+        watchService.publish(new JGitWatchKey(watchable,
+                                              Arrays.asList(events),
+                                              () -> true));
+    }
+
+    private WatchEvent<?> event(final String changeType,
+                                final String file) {
+        return event(changeType,
+                     file,
+                     "user");
+    }
+
+    private WatchEvent<?> event(final String changeType,
+                                final String file,
+                                final String user) {
+        final Path path = mock(Path.class);
+        when(path.toUri()).thenReturn(URI.create("git://master@fs/" + file));
+        return new JGitWatchEvent("session",
+                                  user,
+                                  "message",
+                                  changeType,
+                                  "ADD".equals(changeType) ? null : path,
+                                  path);
+    }
+}
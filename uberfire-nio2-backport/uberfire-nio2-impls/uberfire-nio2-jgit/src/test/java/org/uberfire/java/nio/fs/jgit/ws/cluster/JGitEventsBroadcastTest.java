@@ -0,0 +1,205 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.ws.cluster;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.commons.cluster.ClusterMessageCodec;
+import org.uberfire.commons.cluster.ClusterParameters;
+import org.uberfire.commons.cluster.ClusterService;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.fs.jgit.ws.JGitWatchEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JGitEventsBroadcastTest {
+
+    @Mock
+    private ClusterService clusterService;
+
+    @Mock
+    private Path watchable;
+
+    private final List<WatchEventsWrapper> published = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        when(watchable.toUri()).thenReturn(URI.create("git://master@space/repo"));
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(ClusterParameters.APPFORMER_JMS_BATCH_WINDOW);
+        System.clearProperty(ClusterParameters.APPFORMER_JMS_BATCH_SIZE);
+    }
+
+    @Test
+    public void sendRightAwayWithoutWindowTest() {
+        final JGitEventsBroadcast broadcast = create("0",
+                                                     "1000");
+
+        broadcast.broadcast("space/repo",
+                            watchable,
+                            events());
+
+        verify(clusterService).broadcast(eq(ClusterService.DestinationType.PubSub),
+                                         eq("space"),
+                                         anyListOf(WatchEventsWrapper.class),
+                                         any());
+        broadcast.close();
+    }
+
+    @Test
+    public void groupEventsOfSameWindowTest() {
+        final JGitEventsBroadcast broadcast = create("200",
+                                                     "1000");
+
+        for (int i = 0; i < 3; i++) {
+            broadcast.broadcast("space/repo",
+                                watchable,
+                                events());
+        }
+        broadcast.broadcast("other/repo",
+                            watchable,
+                            events());
+
+        final ArgumentCaptor<List> batches = ArgumentCaptor.forClass(List.class);
+        verify(clusterService,
+               timeout(5000).times(2)).broadcast(eq(ClusterService.DestinationType.PubSub),
+                                                 anyString(),
+                                                 batches.capture(),
+                                                 any());
+        assertEquals(3,
+                     batches.getAllValues().stream().filter(batch -> batch.size() == 3).findFirst().get().size());
+        assertEquals(4,
+                     broadcast.getMetrics().getEventsSent());
+        assertEquals(2,
+                     broadcast.getMetrics().getBatchesSent());
+        broadcast.close();
+    }
+
+    @Test
+    public void sendFullBatchBeforeWindowTest() {
+        final JGitEventsBroadcast broadcast = create("60000",
+                                                     "2");
+
+        broadcast.broadcast("space/repo",
+                            watchable,
+                            events());
+        broadcast.broadcast("space/repo",
+                            watchable,
+                            events());
+
+        verify(clusterService,
+               timeout(5000)).broadcast(eq(ClusterService.DestinationType.PubSub),
+                                        eq("space"),
+                                        anyListOf(WatchEventsWrapper.class),
+                                        any());
+        broadcast.close();
+    }
+
+    @Test
+    public void closeSendsPendingEventsTest() {
+        final JGitEventsBroadcast broadcast = create("60000",
+                                                     "1000");
+
+        broadcast.broadcast("space/repo",
+                            watchable,
+                            events());
+        broadcast.close();
+
+        verify(clusterService).broadcast(eq(ClusterService.DestinationType.PubSub),
+                                         eq("space"),
+                                         anyListOf(WatchEventsWrapper.class),
+                                         any());
+        verify(clusterService).close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void consumerSkipsEventsOfThisNodeTest() throws Exception {
+        final JGitEventsBroadcast broadcast = create("0",
+                                                     "1000");
+        broadcast.createWatchServiceJMS("space/repo");
+
+        final ArgumentCaptor<ClusterMessageCodec> codec = ArgumentCaptor.forClass(ClusterMessageCodec.class);
+        final ArgumentCaptor<Consumer> consumer = ArgumentCaptor.forClass(Consumer.class);
+        verify(clusterService).createConsumer(eq(ClusterService.DestinationType.PubSub),
+                                              eq("space"),
+                                              codec.capture(),
+                                              consumer.capture());
+
+        broadcast.broadcast("space/repo",
+                            watchable,
+                            events());
+        final ArgumentCaptor<List> sent = ArgumentCaptor.forClass(List.class);
+        verify(clusterService).broadcast(any(),
+                                         any(),
+                                         sent.capture(),
+                                         any());
+        final List<WatchEventsWrapper> received = new ArrayList<>(sent.getValue());
+        received.add(new WatchEventsWrapper("other-node",
+                                            "space/repo",
+                                            watchable,
+                                            events()));
+
+        consumer.getValue().accept(codec.getValue().decode(codec.getValue().encode(received)));
+
+        assertEquals(1,
+                     published.size());
+        assertEquals("other-node",
+                     published.get(0).getNodeId());
+        broadcast.close();
+    }
+
+    private JGitEventsBroadcast create(final String batchWindow,
+                                      final String batchSize) {
+        System.setProperty(ClusterParameters.APPFORMER_JMS_BATCH_WINDOW,
+                           batchWindow);
+        System.setProperty(ClusterParameters.APPFORMER_JMS_BATCH_SIZE,
+                           batchSize);
+        return new JGitEventsBroadcast(clusterService,
+                                       published::add,
+                                       new ClusterParameters());
+    }
+
+    private List<WatchEvent<?>> events() {
+        return Collections.singletonList(JGitWatchEvent.fromURIs("session",
+                                                                 "user",
+                                                                 "message",
+                                                                 "MODIFY",
+                                                                 URI.create("git://master@space/repo/a.txt"),
+                                                                 URI.create("git://master@space/repo/a.txt"),
+                                                                 "c1"));
+    }
+}
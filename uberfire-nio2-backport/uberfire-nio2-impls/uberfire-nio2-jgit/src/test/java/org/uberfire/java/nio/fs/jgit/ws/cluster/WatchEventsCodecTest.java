@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.fs.jgit.ws.cluster;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.StandardWatchEventKind;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.fs.jgit.ws.JGitWatchEvent;
+
+import static org.junit.Assert.*;
+
+public class WatchEventsCodecTest {
+
+    private final WatchEventsCodec codec = new WatchEventsCodec();
+
+    @Test
+    public void roundTripTest() throws Exception {
+        final List<WatchEvent<?>> events = Arrays.asList(
+                JGitWatchEvent.fromURIs("session",
+                                        "user",
+                                        "commit message",
+                                        "ADD",
+                                        null,
+                                        URI.create("git://master@space/repo/src/a.txt"),
+                                        "c1"),
+                JGitWatchEvent.fromURIs("session",
+                                        "user",
+                                        "commit message",
+                                        "RENAME",
+                                        URI.create("git://master@space/repo/src/a.txt"),
+                                        URI.create("git://master@space/repo/src/b.txt"),
+                                        null),
+                new SerializableEvent("custom"));
+        final List<WatchEventsWrapper> wrappers = Arrays.asList(
+                new WatchEventsWrapper("node",
+                                       "space/repo",
+                                       URI.create("git://master@space/repo"),
+                                       events),
+                new WatchEventsWrapper("node",
+                                       "space/other",
+                                       (URI) null,
+                                       Collections.emptyList()));
+
+        final List<WatchEventsWrapper> decoded = codec.decode(codec.encode(wrappers));
+
+        assertEquals(2,
+                     decoded.size());
+        assertEquals("node",
+                     decoded.get(0).getNodeId());
+        assertEquals("space/repo",
+                     decoded.get(0).getFsName());
+        assertEquals(URI.create("git://master@space/repo"),
+                     decoded.get(0).getWatchableURI());
+        assertEquals(3,
+                     decoded.get(0).getEvents().size());
+
+        final JGitWatchEvent added = (JGitWatchEvent) decoded.get(0).getEvents().get(0);
+        assertEquals(StandardWatchEventKind.ENTRY_CREATE,
+                     added.kind());
+        assertEquals("session",
+                     added.getSessionId());
+        assertEquals("user",
+                     added.getUserName());
+        assertEquals("commit message",
+                     added.getMessage());
+        assertNull(added.getOldPathURI());
+        assertEquals(URI.create("git://master@space/repo/src/a.txt"),
+                     added.getNewPathURI());
+        assertEquals("c1",
+                     added.getHead());
+
+        final JGitWatchEvent renamed = (JGitWatchEvent) decoded.get(0).getEvents().get(1);
+        assertEquals(StandardWatchEventKind.ENTRY_RENAME,
+                     renamed.kind());
+        assertEquals(URI.create("git://master@space/repo/src/a.txt"),
+                     renamed.getOldPathURI());
+        assertEquals(URI.create("git://master@space/repo/src/b.txt"),
+                     renamed.getNewPathURI());
+        assertNull(renamed.getHead());
+
+        assertEquals(events.get(2),
+                     decoded.get(0).getEvents().get(2));
+
+        assertNull(decoded.get(1).getWatchableURI());
+        assertTrue(decoded.get(1).getEvents().isEmpty());
+    }
+
+    @Test
+    public void repeatedStringsAreWrittenOnceTest() throws Exception {
+        final WatchEventsWrapper wrapper = new WatchEventsWrapper("node",
+                                                                  "space/repo",
+                                                                  URI.create("git://master@space/repo"),
+                                                                  Collections.singletonList(
+                                                                          JGitWatchEvent.fromURIs("session",
+                                                                                                  "user",
+                                                                                                  "a rather long commit message",
+                                                                                                  "MODIFY",
+                                                                                                  URI.create("git://master@space/repo/a.txt"),
+                                                                                                  URI.create("git://master@space/repo/a.txt"),
+                                                                                                  "c1")));
+
+        final int single = codec.encode(Collections.singletonList(wrapper)).length;
+        final int repeated = codec.encode(Arrays.asList(wrapper,
+                                                        wrapper)).length;
+
+        assertTrue(repeated - single < single / 2);
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void unknownVersionTest() throws Exception {
+        codec.decode(new byte[]{42});
+    }
+
+    private static class SerializableEvent implements WatchEvent<Path>,
+                                                      java.io.Serializable {
+
+        private final String name;
+
+        SerializableEvent(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Kind<Path> kind() {
+            return null;
+        }
+
+        @Override
+        public int count() {
+            return 1;
+        }
+
+        @Override
+        public Path context() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof SerializableEvent && ((SerializableEvent) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+}
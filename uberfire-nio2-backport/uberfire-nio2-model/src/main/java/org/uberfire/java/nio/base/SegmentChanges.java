@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.base;
+
+import java.util.List;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotEmpty;
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Paths of a segment changed between two of its versions, relative to the segment root. Renamed paths are reported as
+ * deleted from their old location and changed in the new one.
+ */
+public class SegmentChanges {
+
+    private final String head;
+    private final List<String> changedPaths;
+    private final List<String> deletedPaths;
+
+    public SegmentChanges(final String head,
+                          final List<String> changedPaths,
+                          final List<String> deletedPaths) {
+        this.head = checkNotEmpty("head",
+                                  head);
+        this.changedPaths = checkNotNull("changedPaths",
+                                         changedPaths);
+        this.deletedPaths = checkNotNull("deletedPaths",
+                                         deletedPaths);
+    }
+
+    /**
+     * @return id of the version the changes lead to.
+     */
+    public String getHead() {
+        return head;
+    }
+
+    /**
+     * @return paths added or modified.
+     */
+    public List<String> getChangedPaths() {
+        return changedPaths;
+    }
+
+    public List<String> getDeletedPaths() {
+        return deletedPaths;
+    }
+
+    public boolean isEmpty() {
+        return changedPaths.isEmpty() && deletedPaths.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SegmentChanges{" +
+                "head='" + head + '\'' +
+                ", changedPaths=" + changedPaths.size() +
+                ", deletedPaths=" + deletedPaths.size() +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.uberfire.java.nio.base;
+
+/**
+ * File systems that keep the history of their segments (branches) and can tell which paths changed since a given
+ * version, so data derived from their content can be brought up to date incrementally.
+ */
+public interface SegmentChangesAware {
+
+    /**
+     * @return id of the current version of the segment, null if the segment doesn't exist.
+     */
+    String getSegmentHead(String segment);
+
+    /**
+     * @return the paths changed from the given version to the current head of the segment, null if that version is
+     * unknown to the file system (e.g. it was garbage collected after a history rewrite).
+     */
+    SegmentChanges getSegmentChanges(String segment,
+                                     String fromHead);
+}
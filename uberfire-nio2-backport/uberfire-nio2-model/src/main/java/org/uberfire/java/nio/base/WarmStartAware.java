@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.uberfire.java.nio.base;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * File systems registered from a manifest persisted on the previous shutdown, which can be described without being
+ * opened as long as their content didn't change since then.
+ */
+public interface WarmStartAware {
+
+    /**
+     * True while the file system hasn't been opened since the server started and its content is the one recorded in
+     * the manifest, so data derived from it before the restart (indexes, caches) is still valid.
+     */
+    boolean isUnchangedSinceLastStart();
+
+    /**
+     * Segments (branches) recorded in the manifest, empty if {@link #isUnchangedSinceLastStart()} is false.
+     */
+    Set<String> getWarmStartSegments();
+
+    /**
+     * Version of each segment recorded in the manifest, empty if {@link #isUnchangedSinceLastStart()} is false.
+     */
+    Map<String, String> getWarmStartHeads();
+}
@@ -29,4 +29,11 @@ public interface WatchContext {
     String getMessage();
 
     String getUser();
+
+    /**
+     * Version of the segment (branch) right after the change, null if the file system doesn't track versions.
+     */
+    default String getHead() {
+        return null;
+    }
 }
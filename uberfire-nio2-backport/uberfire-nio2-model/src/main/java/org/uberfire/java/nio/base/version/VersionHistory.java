@@ -24,4 +24,26 @@ import java.util.List;
 public interface VersionHistory {
 
     List<VersionRecord> records();
+
+    default int size() {
+        return records().size();
+    }
+
+    /**
+     * Returns a page of the records, oldest first.
+     * @param offset index of the first record of the page
+     * @param pageSize maximum number of records of the page
+     */
+    default List<VersionRecord> records(final int offset,
+                                        final int pageSize) {
+        final List<VersionRecord> records = records();
+        final int from = Math.max(0,
+                                  Math.min(offset,
+                                           records.size()));
+        final int to = (int) Math.min((long) from + Math.max(0,
+                                                             pageSize),
+                                      records.size());
+        return records.subList(from,
+                               to);
+    }
 }
@@ -28,6 +28,11 @@ public final class StandardWatchEventKind {
                                                                                          Path.class);
     public static final WatchEvent.Kind<Pair> ENTRY_RENAME = new StdWatchEventKind<Pair>("ENTRY_RENAME",
                                                                                          Pair.class);
+    /**
+     * Some events were lost because the watch service couldn't keep them, its count is the number of lost events.
+     */
+    public static final WatchEvent.Kind<Object> OVERFLOW = new StdWatchEventKind<Object>("OVERFLOW",
+                                                                                         Object.class);
 
     private StandardWatchEventKind() {
     }
@@ -18,6 +18,7 @@ package org.uberfire.preferences.shared;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.jboss.errai.bus.server.annotations.Remote;
 import org.uberfire.preferences.shared.impl.PreferenceScopeResolutionStrategyInfo;
@@ -77,6 +78,15 @@ public interface PreferenceStorage {
     <T> PreferenceScopedValue<T> readWithScope(PreferenceScopeResolutionStrategyInfo scopeResolutionStrategyInfo,
                                                String key);
 
+    /**
+     * Reads several preference values from a scope hierarchy at once.
+     * @param scopeResolutionStrategyInfo Scope hierarchy in which the keys will be searched.
+     * @param keys Preference keys to be read (must not be null).
+     * @return The preference values by key. Keys not defined in any scope in the hierarchy are not included.
+     */
+    Map<String, Object> readAll(PreferenceScopeResolutionStrategyInfo scopeResolutionStrategyInfo,
+                                Collection<String> keys);
+
     /**
      * (Over) Writes a preference value related to a preference key, for a specific scope.
      * @param scope Scope in which the preference will be written.
@@ -1,6 +1,7 @@
 package org.uberfire.preferences.shared.event;
 
 import org.jboss.errai.common.client.api.annotations.Portable;
+import org.uberfire.preferences.shared.PreferenceScope;
 
 /**
  * Event fired when a preference is saved
@@ -10,6 +11,7 @@ public class PreferenceUpdatedEvent {
     
     private String key;
     private Object value;
+    private PreferenceScope scope;
     
     public PreferenceUpdatedEvent() {
     }
@@ -19,6 +21,12 @@ public class PreferenceUpdatedEvent {
         this.value = value;
     }
 
+    public PreferenceUpdatedEvent(String key, Object value, PreferenceScope scope) {
+        this.key = key;
+        this.value = value;
+        this.scope = scope;
+    }
+
     public String getKey() {
         return key;
     }
@@ -27,6 +35,13 @@ public class PreferenceUpdatedEvent {
         return value;
     }
 
+    /**
+     * @return the scope the preference was saved in, or null if unknown.
+     */
+    public PreferenceScope getScope() {
+        return scope;
+    }
+
     public void setKey(String key) {
         this.key = key;
     }
@@ -35,4 +50,8 @@ public class PreferenceUpdatedEvent {
         this.value = value;
     }
 
+    public void setScope(PreferenceScope scope) {
+        this.scope = scope;
+    }
+
 }
\ No newline at end of file
@@ -21,24 +21,43 @@ import static org.uberfire.java.nio.file.Files.walkFileTree;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.jboss.errai.marshalling.server.ServerMarshalling;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.annotations.Customizable;
 import org.uberfire.backend.server.io.object.ObjectStorage;
+import org.uberfire.commons.async.DescriptiveRunnable;
+import org.uberfire.commons.concurrent.Unmanaged;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.IOException;
+import org.uberfire.java.nio.base.WatchContext;
+import org.uberfire.java.nio.file.DirectoryStream;
 import org.uberfire.java.nio.file.FileVisitResult;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.java.nio.file.SimpleFileVisitor;
+import org.uberfire.java.nio.file.StandardWatchEventKind;
+import org.uberfire.java.nio.file.WatchEvent;
+import org.uberfire.java.nio.file.WatchKey;
+import org.uberfire.java.nio.file.WatchService;
 import org.uberfire.java.nio.file.attribute.BasicFileAttributes;
 import org.uberfire.preferences.shared.PreferenceScope;
 import org.uberfire.preferences.shared.PreferenceScopeFactory;
@@ -51,11 +70,22 @@ import org.uberfire.preferences.shared.impl.exception.InvalidPreferenceScopeExce
 import org.uberfire.rpc.SessionInfo;
 import org.uberfire.spaces.SpacesAPI;
 
+/**
+ * Stores preferences as JSON files, one directory per scope, in the preferences file system.
+ * <p>
+ * The stored contents of the most recently used scopes are cached in memory, so resolving a preference through a
+ * scope hierarchy costs one lookup per scope. A scope is dropped from the cache when it is written to, when a
+ * {@link PreferenceUpdatedEvent} names it, and when the file system watch reports a change to one of its files,
+ * which also covers commits replicated from other cluster nodes. Values are unmarshalled on every read, so callers
+ * never share instances.
+ */
 @ApplicationScoped
 public class PreferenceStorageImpl implements PreferenceStorage {
 
     public static final String FILE_FORMAT = ".preferences";
     public static final int FILE_FORMAT_SIZE = FILE_FORMAT.length();
+    public static final String CACHE_SIZE = "org.uberfire.preferences.cache.size";
+    public static final String MONITOR_DISABLED = "org.uberfire.preferences.monitor.disabled";
     private static final Logger logger = LoggerFactory.getLogger(PreferenceStorageImpl.class);
 
     private SpacesAPI spaces;
@@ -72,6 +102,27 @@ public class PreferenceStorageImpl implements PreferenceStorage {
     
     private Event<PreferenceUpdatedEvent> preferenceUpdatedEvent;
 
+    private ExecutorService executorService;
+
+    private final int maxCachedScopes = Integer.parseInt(System.getProperty(CACHE_SIZE,
+                                                                            "1000"));
+
+    // stored JSON contents by key, by scope path, least recently used first; its lock also guards invalidations
+    private final Map<String, Map<String, String>> contentsByScope = Collections.synchronizedMap(new LinkedHashMap<String, Map<String, String>>(16,
+                                                                                                                                              0.75f,
+                                                                                                                                              true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Map<String, String>> eldest) {
+            return size() > maxCachedScopes;
+        }
+    });
+
+    private long invalidations;
+
+    private WatchService watchService;
+
+    private Future<?> watchJob;
+
     protected PreferenceStorageImpl() {
     }
 
@@ -82,7 +133,8 @@ public class PreferenceStorageImpl implements PreferenceStorage {
                                  final PreferenceScopeFactory scopeFactory,
                                  final ObjectStorage objectStorage,
                                  final SpacesAPI spaces,
-                                 final Event<PreferenceUpdatedEvent> preferenceUpdatedEvent) {
+                                 final Event<PreferenceUpdatedEvent> preferenceUpdatedEvent,
+                                 @Unmanaged final ExecutorService executorService) {
         this.ioService = ioService;
         this.sessionInfo = sessionInfo;
         this.scopeTypes = scopeTypes;
@@ -90,6 +142,7 @@ public class PreferenceStorageImpl implements PreferenceStorage {
         this.objectStorage = objectStorage;
         this.spaces = spaces;
         this.preferenceUpdatedEvent = preferenceUpdatedEvent;
+        this.executorService = executorService;
     }
 
     @PostConstruct
@@ -97,13 +150,43 @@ public class PreferenceStorageImpl implements PreferenceStorage {
         objectStorage.init(spaces.resolveFileSystemURI(SpacesAPI.Scheme.DEFAULT,
                                                        SpacesAPI.DEFAULT_SPACE,
                                                        "preferences"));
+
+        if (System.getProperty(MONITOR_DISABLED) == null) {
+            watchService = objectStorage.getPath("/").getFileSystem().newWatchService();
+            watchJob = executorService.submit(new DescriptiveRunnable() {
+                @Override
+                public String getDescription() {
+                    return "Preferences Watch Service";
+                }
+
+                @Override
+                public void run() {
+                    watchPreferences(watchService);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watchJob != null && !watchJob.isDone()) {
+            watchJob.cancel(true);
+        }
+    }
+
+    public void onPreferenceUpdated(@Observes final PreferenceUpdatedEvent event) {
+        if (event.getScope() != null) {
+            invalidate(buildScopePath(event.getScope()));
+        }
     }
 
     @Override
     public boolean exists(final PreferenceScope preferenceScope,
                           final String key) {
-        return objectStorage.exists(buildScopedPreferencePath(preferenceScope,
-                                                              key));
+        return getContents(preferenceScope).containsKey(key);
     }
 
     @Override
@@ -123,9 +206,8 @@ public class PreferenceStorageImpl implements PreferenceStorage {
     @Override
     public <T> T read(final PreferenceScope preferenceScope,
                       final String key) {
-        final String path = buildScopedPreferencePath(preferenceScope,
-                                                      key);
-        return objectStorage.read(path);
+        final String content = getContents(preferenceScope).get(key);
+        return content != null ? unmarshall(content) : null;
     }
 
     @Override
@@ -157,22 +239,61 @@ public class PreferenceStorageImpl implements PreferenceStorage {
         return null;
     }
 
+    @Override
+    public Map<String, Object> readAll(final PreferenceScopeResolutionStrategyInfo scopeResolutionStrategyInfo,
+                                       final Collection<String> keys) {
+        final Map<String, Object> values = new HashMap<>();
+        final Set<String> unresolvedKeys = new LinkedHashSet<>(keys);
+
+        for (PreferenceScope preferenceScope : scopeResolutionStrategyInfo.order()) {
+            if (unresolvedKeys.isEmpty()) {
+                break;
+            }
+
+            final Map<String, String> contents = getContents(preferenceScope);
+            final Iterator<String> iterator = unresolvedKeys.iterator();
+            while (iterator.hasNext()) {
+                final String key = iterator.next();
+                final String content = contents.get(key);
+                if (content != null) {
+                    final Object value = unmarshall(content);
+                    if (value != null) {
+                        values.put(key,
+                                   value);
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+
+        return values;
+    }
+
     @Override
     public void write(final PreferenceScope preferenceScope,
                       final String key,
                       final Object value) {
-        objectStorage.write(buildScopedPreferencePath(preferenceScope,
-                                                      key),
-                                                      value);
-        preferenceUpdatedEvent.fire(new PreferenceUpdatedEvent(key, 
-                                                               value));
+        try {
+            objectStorage.write(buildScopedPreferencePath(preferenceScope,
+                                                          key),
+                                value);
+        } finally {
+            invalidate(buildScopePath(preferenceScope));
+        }
+        preferenceUpdatedEvent.fire(new PreferenceUpdatedEvent(key,
+                                                               value,
+                                                               preferenceScope));
     }
 
     @Override
     public void delete(final PreferenceScope preferenceScope,
                        final String key) {
-        objectStorage.delete(buildScopedPreferencePath(preferenceScope,
-                                                       key));
+        try {
+            objectStorage.delete(buildScopedPreferencePath(preferenceScope,
+                                                           key));
+        } finally {
+            invalidate(buildScopePath(preferenceScope));
+        }
     }
 
     @Override
@@ -238,4 +359,117 @@ public class PreferenceStorageImpl implements PreferenceStorage {
                                      final String key) {
         return buildScopePath(scope) + key + FILE_FORMAT;
     }
+
+    void invalidate(final List<WatchEvent<?>> events) {
+        for (final WatchEvent<?> event : events) {
+            if (event.kind().equals(StandardWatchEventKind.OVERFLOW) || !(event.context() instanceof WatchContext)) {
+                // lost events may include any scope
+                invalidateAll();
+                return;
+            }
+
+            final WatchContext context = (WatchContext) event.context();
+            invalidateParentScope(context.getPath());
+            invalidateParentScope(context.getOldPath());
+        }
+    }
+
+    private Map<String, String> getContents(final PreferenceScope scope) {
+        final String scopePath = buildScopePath(scope);
+        final Map<String, String> cached = contentsByScope.get(scopePath);
+        if (cached != null) {
+            return cached;
+        }
+
+        final long loadInvalidations;
+        synchronized (contentsByScope) {
+            loadInvalidations = invalidations;
+        }
+
+        final Map<String, String> loaded = loadContents(scopePath);
+
+        synchronized (contentsByScope) {
+            // an invalidation during the load may have missed it, so don't cache it
+            if (loadInvalidations == invalidations) {
+                contentsByScope.put(scopePath,
+                                    loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private Map<String, String> loadContents(final String scopePath) {
+        final Map<String, String> contents = new HashMap<>();
+        final Path scopeDirectory = objectStorage.getPath(scopePath);
+
+        try {
+            if (ioService.exists(scopeDirectory)) {
+                try (DirectoryStream<Path> files = ioService.newDirectoryStream(scopeDirectory)) {
+                    for (final Path file : files) {
+                        final String fileName = file.getFileName().toString();
+                        if (fileName.endsWith(FILE_FORMAT)) {
+                            contents.put(fileName.substring(0,
+                                                            fileName.length() - FILE_FORMAT_SIZE),
+                                         ioService.readAllString(file));
+                        }
+                    }
+                }
+            }
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        return Collections.unmodifiableMap(contents);
+    }
+
+    private <T> T unmarshall(final String content) {
+        try {
+            return (T) ServerMarshalling.fromJSON(content);
+        } catch (final Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void invalidateParentScope(final Path file) {
+        if (file != null && file.getParent() != null) {
+            invalidate(file.getParent().toString() + "/");
+        }
+    }
+
+    private void invalidate(final String scopePath) {
+        synchronized (contentsByScope) {
+            invalidations++;
+            contentsByScope.remove(scopePath);
+        }
+    }
+
+    private void invalidateAll() {
+        synchronized (contentsByScope) {
+            invalidations++;
+            contentsByScope.clear();
+        }
+    }
+
+    private void watchPreferences(final WatchService watchService) {
+        while (true) {
+            final WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (final Exception e) {
+                break;
+            }
+
+            try {
+                invalidate(watchKey.pollEvents());
+            } catch (final Exception e) {
+                logger.error("Unable to process preference changes, dropping all cached preferences.",
+                             e);
+                invalidateAll();
+            }
+
+            if (!watchKey.reset()) {
+                break;
+            }
+        }
+    }
 }
@@ -291,10 +291,12 @@ public class PreferenceStoreImpl implements PreferenceStore {
             return all(scopeResolutionStrategyInfo);
         }
 
+        final Map<String, Object> values = storage.readAll(scopeResolutionStrategyInfo,
+                                                           keys);
+
         Map<String, Object> map = new HashMap<>();
         keys.forEach(key -> map.put(key,
-                                    storage.read(scopeResolutionStrategyInfo,
-                                                 key)));
+                                    values.get(key)));
 
         return map;
     }
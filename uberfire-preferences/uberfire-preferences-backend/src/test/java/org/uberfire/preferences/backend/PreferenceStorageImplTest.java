@@ -18,7 +18,11 @@ package org.uberfire.preferences.backend;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import javax.enterprise.event.Event;
 
@@ -31,7 +35,11 @@ import org.uberfire.backend.server.io.object.ObjectStorage;
 import org.uberfire.backend.server.io.object.ObjectStorageImpl;
 import org.uberfire.backend.server.spaces.SpacesAPIImpl;
 import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.WatchContext;
 import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.StandardWatchEventKind;
+import org.uberfire.java.nio.file.WatchEvent;
 import org.uberfire.mocks.FileSystemTestingUtils;
 import org.uberfire.mocks.SessionInfoMock;
 import org.uberfire.preferences.shared.PreferenceScope;
@@ -79,16 +87,22 @@ public class PreferenceStorageImplTest {
 
     private PreferenceScopeTypes scopeTypes;
 
+    private FileSystem fileSystem;
+
+    private IOService ioService;
+
+    private ObjectStorage objectStorage;
+
     @Before
     public void setup() throws IOException {
         MappingContextSingleton.get();
         fileSystemTestingUtils.setup();
 
         final SessionInfo sessionInfo = mockSessionInfo();
-        final FileSystem fileSystem = mockFileSystem();
-        final IOService ioService = mockIoService(fileSystem);
+        fileSystem = mockFileSystem();
+        ioService = mockIoService(fileSystem);
 
-        ObjectStorage objectStorage = new ObjectStorageImpl(ioService);
+        objectStorage = new ObjectStorageImpl(ioService);
 
         scopeTypes = new DefaultPreferenceScopeTypes(new ServerUsernameProvider(sessionInfo));
         scopeFactory = new PreferenceScopeFactoryImpl(scopeTypes);
@@ -101,7 +115,8 @@ public class PreferenceStorageImplTest {
                                                                         scopeFactory,
                                                                         objectStorage,
                                                                         new SpacesAPIImpl(),
-                                                                        preferenceUpdatedEvent);
+                                                                        preferenceUpdatedEvent,
+                                                                        mock(ExecutorService.class));
         preferenceStorageServiceBackendImpl.init();
 
         userEntireApplicationScope = scopeFactory.createScope(userScope,
@@ -454,6 +469,114 @@ public class PreferenceStorageImplTest {
                      keys.size());
     }
 
+    @Test
+    public void readsAreCachedUntilWriteTest() {
+        final PreferenceScope scope = userEntireApplicationScope;
+
+        preferenceStorageServiceBackendImpl.write(scope,
+                                                  "my.preference.key",
+                                                  "text");
+        preferenceStorageServiceBackendImpl.read(scope,
+                                                 "my.preference.key");
+        final boolean exists = preferenceStorageServiceBackendImpl.exists(scope,
+                                                                          "my.preference.key");
+        final String cachedValue = preferenceStorageServiceBackendImpl.read(scope,
+                                                                            "my.preference.key");
+
+        assertTrue(exists);
+        assertEquals("text",
+                     cachedValue);
+        verify(ioService,
+               times(1)).readAllString(any(Path.class));
+
+        preferenceStorageServiceBackendImpl.write(scope,
+                                                  "my.preference.key",
+                                                  "new text");
+        final String newValue = preferenceStorageServiceBackendImpl.read(scope,
+                                                                         "my.preference.key");
+
+        assertEquals("new text",
+                     newValue);
+    }
+
+    @Test
+    public void readsDoNotShareInstancesTest() {
+        final PreferenceScope scope = userEntireApplicationScope;
+
+        preferenceStorageServiceBackendImpl.write(scope,
+                                                  "my.preference.key",
+                                                  new CustomObject(61L,
+                                                                   "some text"));
+        final CustomObject first = preferenceStorageServiceBackendImpl.read(scope,
+                                                                            "my.preference.key");
+        final CustomObject second = preferenceStorageServiceBackendImpl.read(scope,
+                                                                             "my.preference.key");
+
+        assertNotSame(first,
+                      second);
+        assertEquals(first.text,
+                     second.text);
+    }
+
+    @Test
+    public void watchEventInvalidatesScopeTest() {
+        final PreferenceScope scope = userEntireApplicationScope;
+        final String path = preferenceStorageServiceBackendImpl.buildScopedPreferencePath(scope,
+                                                                                          "my.preference.key");
+
+        preferenceStorageServiceBackendImpl.write(scope,
+                                                  "my.preference.key",
+                                                  "text");
+        preferenceStorageServiceBackendImpl.read(scope,
+                                                 "my.preference.key");
+
+        // changed behind the storage's back, e.g. by another cluster node
+        objectStorage.write(path,
+                            "remote text");
+        final String staleValue = preferenceStorageServiceBackendImpl.read(scope,
+                                                                           "my.preference.key");
+
+        final WatchContext context = mock(WatchContext.class);
+        doReturn(fileSystem.getPath(path)).when(context).getPath();
+        final WatchEvent<?> event = mock(WatchEvent.class);
+        doReturn(StandardWatchEventKind.ENTRY_MODIFY).when(event).kind();
+        doReturn(context).when(event).context();
+        preferenceStorageServiceBackendImpl.invalidate(Collections.singletonList(event));
+
+        final String freshValue = preferenceStorageServiceBackendImpl.read(scope,
+                                                                           "my.preference.key");
+
+        assertEquals("text",
+                     staleValue);
+        assertEquals("remote text",
+                     freshValue);
+    }
+
+    @Test
+    public void readAllResolvesEachKeyInItsFirstScopeTest() {
+        preferenceStorageServiceBackendImpl.write(userEntireApplicationScope,
+                                                  "my.first.preference.key",
+                                                  "user value");
+        preferenceStorageServiceBackendImpl.write(allUsersEntireApplicationScope,
+                                                  "my.first.preference.key",
+                                                  "global value");
+        preferenceStorageServiceBackendImpl.write(allUsersEntireApplicationScope,
+                                                  "my.second.preference.key",
+                                                  "global value");
+
+        final Map<String, Object> values = preferenceStorageServiceBackendImpl.readAll(scopeResolutionStrategyInfo,
+                                                                                       Arrays.asList("my.first.preference.key",
+                                                                                                     "my.second.preference.key",
+                                                                                                     "my.nonexistent.preference.key"));
+
+        assertEquals(2,
+                     values.size());
+        assertEquals("user value",
+                     values.get("my.first.preference.key"));
+        assertEquals("global value",
+                     values.get("my.second.preference.key"));
+    }
+
     @Test
     public void buildScopePathForAllUsersEntireApplicationScope() {
         final String path = preferenceStorageServiceBackendImpl.buildScopePath(allUsersEntireApplicationScope);
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import javax.enterprise.event.Event;
 
@@ -129,7 +130,8 @@ public class PreferenceStoreImplTest {
                                                 scopeFactory,
                                                 objectStorage,
                                                 new SpacesAPIImpl(),
-                                                preferenceUpdatedEvent));
+                                                preferenceUpdatedEvent,
+                                                mock(ExecutorService.class)));
         storage.init();
 
         preferenceStore = spy(new PreferenceStoreImpl(storage,
@@ -15,61 +15,306 @@
  */
 package org.uberfire.security.impl.authz;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
+import org.jboss.errai.security.shared.api.Group;
+import org.jboss.errai.security.shared.api.Role;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.uberfire.security.authz.AuthorizationResult;
 import org.uberfire.security.authz.Permission;
 
+/**
+ * Cache of the authorization decisions taken by the {@link DefaultPermissionManager}.
+ * <p>
+ * Decisions are kept per user and the cache can be safely shared between threads. It is bounded
+ * both in the number of users and in the number of decisions per user; once a bound is exceeded
+ * the least recently used users (or the oldest decisions of a user) are evicted. An optional time
+ * to live makes decisions expire even if no invalidation happens.
+ * <p>
+ * Since decisions only depend on the roles and groups of the user, they can be invalidated
+ * for all the users holding a given role or group when its policy changes.
+ */
 public class DefaultAuthzResultCache {
 
-    final Map<Permission, Map<String, AuthorizationResult>> internal = new HashMap<>();
+    public static final int DEFAULT_MAX_USERS = 1000;
+    public static final int DEFAULT_MAX_ENTRIES_PER_USER = 1000;
+
+    final Map<String, UserEntries> internal = new ConcurrentHashMap<>();
+
+    private final int maxUsers;
+    private final int maxEntriesPerUser;
+    private final long ttlMillis;
+    private final AuthzResultCacheMetrics metrics = new AuthzResultCacheMetrics();
+
+    public DefaultAuthzResultCache() {
+        this(DEFAULT_MAX_USERS,
+             DEFAULT_MAX_ENTRIES_PER_USER,
+             0);
+    }
+
+    /**
+     * @param maxUsers maximum number of users with cached decisions
+     * @param maxEntriesPerUser maximum number of decisions cached for a single user
+     * @param ttlMillis time to live of a decision, 0 or less to never expire them
+     */
+    public DefaultAuthzResultCache(final int maxUsers,
+                                   final int maxEntriesPerUser,
+                                   final long ttlMillis) {
+        if (maxUsers <= 0 || maxEntriesPerUser <= 0) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        this.maxUsers = maxUsers;
+        this.maxEntriesPerUser = maxEntriesPerUser;
+        this.ttlMillis = ttlMillis;
+    }
 
     public AuthorizationResult get(final User user,
                                    final Permission permission) {
-        Map<String, AuthorizationResult> result = internal.get(permission);
-        if (result == null) {
+        final UserEntries entries = internal.get(keyOf(user));
+        final CachedResult cached = entries != null ? entries.results.get(permission) : null;
+        if (cached == null) {
+            metrics.onMiss();
+            return null;
+        }
+        final long now = now();
+        if (isExpired(cached,
+                      now)) {
+            if (entries.results.remove(permission,
+                                       cached)) {
+                metrics.onExpired();
+            }
+            metrics.onMiss();
             return null;
         }
-        return result.get(user.getIdentifier());
+        entries.lastAccess = now;
+        metrics.onHit();
+        return cached.result;
     }
 
     public void put(final User user,
                     final Permission permission,
                     final AuthorizationResult authzResult) {
-        if (!internal.containsKey(permission)) {
-            internal.put(permission,
-                         new HashMap<>());
+        final String identifier = keyOf(user);
+        final long now = now();
+        UserEntries entries = internal.get(identifier);
+        if (entries == null || !entries.belongsTo(user)) {
+            // New user or its roles/groups changed since its decisions were cached
+            entries = new UserEntries(user,
+                                      now);
+            final UserEntries replaced = internal.put(identifier,
+                                                      entries);
+            if (replaced != null) {
+                metrics.onInvalidated(replaced.results.size());
+            } else if (internal.size() > maxUsers) {
+                evictUsers(identifier);
+            }
         }
-        final Map<String, AuthorizationResult> result = internal.get(permission);
-        AuthorizationResult knowValue = result.get(user.getIdentifier());
-        if (!(result.containsKey(user.getIdentifier()) && authzResult.equals(knowValue))) {
-            result.put(user.getIdentifier(),
-                       authzResult);
+        entries.lastAccess = now;
+        final CachedResult knownValue = entries.results.get(permission);
+        if (knownValue == null || !authzResult.equals(knownValue.result) || isExpired(knownValue,
+                                                                                      now)) {
+            entries.results.put(permission,
+                                new CachedResult(authzResult,
+                                                 now));
+            if (entries.results.size() > maxEntriesPerUser) {
+                evictEntries(entries,
+                             now);
+            }
         }
     }
 
     public int size(User user) {
-        int count = 0;
-        for (Map<String, AuthorizationResult> userCache : internal.values()) {
-            if (userCache.containsKey(user.getIdentifier())) {
-                count++;
-            }
-        }
-        return count;
+        final UserEntries entries = internal.get(keyOf(user));
+        return entries != null ? entries.results.size() : 0;
     }
 
     public void clear() {
-        internal.clear();
+        for (String identifier : new ArrayList<>(internal.keySet())) {
+            remove(identifier);
+        }
     }
 
     public void invalidate(final User user) {
         if (user == null || user.getIdentifier() == null || user.getIdentifier().isEmpty()) {
             return;
         }
-        for (Map<String, AuthorizationResult> entry : internal.values()) {
-            entry.remove(user.getIdentifier());
+        remove(user.getIdentifier());
+    }
+
+    /**
+     * Drops the decisions of all the users holding the given role.
+     */
+    public void invalidate(final Role role) {
+        if (role == null) {
+            return;
+        }
+        invalidateIf(entries -> entries.roles.contains(role.getName()));
+    }
+
+    /**
+     * Drops the decisions of all the users belonging to the given group.
+     */
+    public void invalidate(final Group group) {
+        if (group == null) {
+            return;
+        }
+        invalidateIf(entries -> entries.groups.contains(group.getName()));
+    }
+
+    public AuthzResultCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    private boolean isExpired(final CachedResult cached,
+                              final long now) {
+        return ttlMillis > 0 && now - cached.created >= ttlMillis;
+    }
+
+    private void invalidateIf(final Predicate<UserEntries> condition) {
+        for (Map.Entry<String, UserEntries> entry : new ArrayList<>(internal.entrySet())) {
+            if (condition.test(entry.getValue()) && internal.remove(entry.getKey(),
+                                                                    entry.getValue())) {
+                metrics.onInvalidated(entry.getValue().results.size());
+            }
+        }
+    }
+
+    private void remove(final String identifier) {
+        final UserEntries removed = internal.remove(identifier);
+        if (removed != null) {
+            metrics.onInvalidated(removed.results.size());
+        }
+    }
+
+    /**
+     * Evicts the least recently used users down to 3/4 of the bound, so the cost of sorting
+     * is paid once every few insertions instead of on every one.
+     */
+    private synchronized void evictUsers(final String keep) {
+        if (internal.size() <= maxUsers) {
+            return;
+        }
+        final List<Map.Entry<String, UserEntries>> candidates = new ArrayList<>(internal.entrySet());
+        candidates.sort((a, b) -> Long.compare(a.getValue().lastAccess,
+                                               b.getValue().lastAccess));
+        int toEvict = candidates.size() - trimmedSize(maxUsers);
+        for (Map.Entry<String, UserEntries> candidate : candidates) {
+            if (toEvict <= 0) {
+                break;
+            }
+            if (!candidate.getKey().equals(keep) && internal.remove(candidate.getKey(),
+                                                                    candidate.getValue())) {
+                metrics.onEvicted(candidate.getValue().results.size());
+                toEvict--;
+            }
+        }
+    }
+
+    /**
+     * Drops the expired decisions of the user and then, if still needed, its oldest ones
+     * down to 3/4 of the bound.
+     */
+    private void evictEntries(final UserEntries entries,
+                              final long now) {
+        synchronized (entries) {
+            if (entries.results.size() <= maxEntriesPerUser) {
+                return;
+            }
+            final List<Map.Entry<Permission, CachedResult>> candidates = new ArrayList<>(entries.results.entrySet());
+            int toEvict = candidates.size() - trimmedSize(maxEntriesPerUser);
+            candidates.sort((a, b) -> Long.compare(a.getValue().created,
+                                                   b.getValue().created));
+            for (Map.Entry<Permission, CachedResult> candidate : candidates) {
+                final boolean expired = isExpired(candidate.getValue(),
+                                                  now);
+                if (toEvict <= 0 && !expired) {
+                    break;
+                }
+                if (entries.results.remove(candidate.getKey(),
+                                           candidate.getValue())) {
+                    if (expired) {
+                        metrics.onExpired();
+                    } else {
+                        metrics.onEvicted(1);
+                    }
+                    toEvict--;
+                }
+            }
+        }
+    }
+
+    private static int trimmedSize(final int bound) {
+        return Math.max(1,
+                        bound - Math.max(1,
+                                         bound / 4));
+    }
+
+    private static String keyOf(final User user) {
+        // Mocked or anonymous users may not have an identifier
+        return user.getIdentifier() != null ? user.getIdentifier() : "";
+    }
+
+    private static Set<String> roleNames(final Set<Role> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<String> names = new HashSet<>();
+        for (Role role : roles) {
+            names.add(role.getName());
+        }
+        return names;
+    }
+
+    private static Set<String> groupNames(final Set<Group> groups) {
+        if (groups == null || groups.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<String> names = new HashSet<>();
+        for (Group group : groups) {
+            names.add(group.getName());
+        }
+        return names;
+    }
+
+    static class UserEntries {
+
+        final Set<String> roles;
+        final Set<String> groups;
+        final Map<Permission, CachedResult> results = new ConcurrentHashMap<>();
+        volatile long lastAccess;
+
+        UserEntries(final User user,
+                    final long now) {
+            this.roles = roleNames(user.getRoles());
+            this.groups = groupNames(user.getGroups());
+            this.lastAccess = now;
+        }
+
+        boolean belongsTo(final User user) {
+            return roles.equals(roleNames(user.getRoles())) && groups.equals(groupNames(user.getGroups()));
+        }
+    }
+
+    static class CachedResult {
+
+        final AuthorizationResult result;
+        final long created;
+
+        CachedResult(final AuthorizationResult result,
+                     final long created) {
+            this.result = result;
+            this.created = created;
         }
     }
 }
@@ -16,9 +16,13 @@
 package org.uberfire.security.impl.authz;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -51,7 +55,7 @@ public class DefaultPermissionManager implements PermissionManager {
     private DefaultAuthzResultCache cache;
     private VotingStrategy defaultVotingStrategy = VotingStrategy.PRIORITY;
     private Map<VotingStrategy, VotingAlgorithm> votingAlgorithmMap = new HashMap<>();
-    private Map<String, PermissionCollection> permissionCollectionCache = new HashMap<>();
+    private Map<String, PermissionCollection> permissionCollectionCache = new ConcurrentHashMap<>();
 
     @Inject
     public DefaultPermissionManager(PermissionTypeRegistry permissionTypeRegistry) {
@@ -81,11 +85,61 @@ public class DefaultPermissionManager implements PermissionManager {
     }
 
     public void setAuthorizationPolicy(AuthorizationPolicy authorizationPolicy) {
+        AuthorizationPolicy previous = this.authorizationPolicy;
         this.authorizationPolicy = authorizationPolicy != null ? authorizationPolicy : new DefaultAuthorizationPolicy();
-        this.cache.clear();
+        invalidateChanges(previous,
+                          this.authorizationPolicy);
         this.permissionCollectionCache.clear();
     }
 
+    public DefaultAuthzResultCache getAuthzResultCache() {
+        return cache;
+    }
+
+    /**
+     * Only drops the cached decisions of the users holding a role or group whose permissions or
+     * priority differ between both policies. Everything is dropped if the default permissions
+     * changed or if the very same (possibly modified) policy instance is set again.
+     */
+    protected void invalidateChanges(AuthorizationPolicy previous,
+                                     AuthorizationPolicy current) {
+        if (previous == null || previous == current || !samePermissions(previous.getPermissions(),
+                                                                         current.getPermissions())) {
+            cache.clear();
+            return;
+        }
+        Set<Role> roles = new HashSet<>(previous.getRoles());
+        roles.addAll(current.getRoles());
+        for (Role role : roles) {
+            if (!previous.getRoles().contains(role) || !current.getRoles().contains(role)
+                    || previous.getPriority(role) != current.getPriority(role)
+                    || !samePermissions(previous.getPermissions(role),
+                                        current.getPermissions(role))) {
+                cache.invalidate(role);
+            }
+        }
+        Set<Group> groups = new HashSet<>(previous.getGroups());
+        groups.addAll(current.getGroups());
+        for (Group group : groups) {
+            if (!previous.getGroups().contains(group) || !current.getGroups().contains(group)
+                    || previous.getPriority(group) != current.getPriority(group)
+                    || !samePermissions(previous.getPermissions(group),
+                                        current.getPermissions(group))) {
+                cache.invalidate(group);
+            }
+        }
+    }
+
+    private boolean samePermissions(PermissionCollection a,
+                                    PermissionCollection b) {
+        Collection<Permission> first = a != null ? a.collection() : null;
+        Collection<Permission> second = b != null ? b.collection() : null;
+        if (first == null || second == null) {
+            return first == second;
+        }
+        return first.size() == second.size() && new HashSet<>(first).equals(new HashSet<>(second));
+    }
+
     @Override
     public AuthorizationPolicyBuilder newAuthorizationPolicy() {
         return new AuthorizationPolicyBuilder(permissionTypeRegistry);
@@ -296,8 +350,10 @@ public class DefaultPermissionManager implements PermissionManager {
             return null;
         }
 
-        if (permissionCollectionCache.containsKey(user.getIdentifier())) {
-            return permissionCollectionCache.get(user.getIdentifier());
+        String identifier = user.getIdentifier();
+        PermissionCollection cached = identifier != null ? permissionCollectionCache.get(identifier) : null;
+        if (cached != null) {
+            return cached;
         }
         // Get the default permissions as lowest priority
         PermissionCollection result = authorizationPolicy.getPermissions();
@@ -310,7 +366,9 @@ public class DefaultPermissionManager implements PermissionManager {
         result = mergeGroupPermissions(user,
                                        result,
                                        priority);
-        permissionCollectionCache.put(user.getIdentifier(), result);
+        if (identifier != null && result != null) {
+            permissionCollectionCache.put(identifier, result);
+        }
         return result;
     }
 
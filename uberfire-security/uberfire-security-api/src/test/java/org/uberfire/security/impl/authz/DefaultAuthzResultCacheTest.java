@@ -1,5 +1,6 @@
 package org.uberfire.security.impl.authz;
 
+import org.jboss.errai.security.shared.api.GroupImpl;
 import org.jboss.errai.security.shared.api.RoleImpl;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.jboss.errai.security.shared.api.identity.UserImpl;
@@ -7,19 +8,32 @@ import org.junit.Test;
 import org.uberfire.security.authz.AuthorizationResult;
 import org.uberfire.security.authz.Permission;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class DefaultAuthzResultCacheTest {
 
     protected User createUserMock(String... roles) {
-        return new UserImpl("username",
-                             Stream.of(roles).map(RoleImpl::new).collect(Collectors.toSet()),
-                             Collections.emptyList());
+        return createNamedUser("username",
+                               roles);
+    }
+
+    protected User createNamedUser(String name,
+                                   String... roles) {
+        return new UserImpl(name,
+                            Stream.of(roles).map(RoleImpl::new).collect(Collectors.toSet()),
+                            Collections.emptyList());
     }
 
     @Test
@@ -38,4 +52,148 @@ public class DefaultAuthzResultCacheTest {
         assertNull(cache.get(user, viewAll));
     }
 
+    @Test
+    public void testInvalidateByRole() {
+        final User admin = createNamedUser("admin", "admin");
+        final User manager = createNamedUser("manager", "manager", "user");
+        final Permission viewAll = new DotNamedPermission("resource.read", true);
+
+        DefaultAuthzResultCache cache = new DefaultAuthzResultCache();
+        cache.put(admin, viewAll, AuthorizationResult.ACCESS_GRANTED);
+        cache.put(manager, viewAll, AuthorizationResult.ACCESS_DENIED);
+
+        cache.invalidate(new RoleImpl("user"));
+
+        assertEquals(AuthorizationResult.ACCESS_GRANTED, cache.get(admin, viewAll));
+        assertNull(cache.get(manager, viewAll));
+        assertEquals(1, cache.getMetrics().getInvalidations());
+    }
+
+    @Test
+    public void testInvalidateByGroup() {
+        final User user = new UserImpl("username",
+                                       Collections.emptyList(),
+                                       Collections.singletonList(new GroupImpl("developers")));
+        final Permission viewAll = new DotNamedPermission("resource.read", true);
+
+        DefaultAuthzResultCache cache = new DefaultAuthzResultCache();
+        cache.put(user, viewAll, AuthorizationResult.ACCESS_GRANTED);
+
+        cache.invalidate(new GroupImpl("testers"));
+        assertEquals(AuthorizationResult.ACCESS_GRANTED, cache.get(user, viewAll));
+
+        cache.invalidate(new GroupImpl("developers"));
+        assertNull(cache.get(user, viewAll));
+    }
+
+    @Test
+    public void testRolesChanged() {
+        final Permission viewAll = new DotNamedPermission("resource.read", true);
+
+        DefaultAuthzResultCache cache = new DefaultAuthzResultCache();
+        cache.put(createUserMock("admin"), viewAll, AuthorizationResult.ACCESS_GRANTED);
+        cache.put(createUserMock("user"), new DotNamedPermission("resource.edit", true), AuthorizationResult.ACCESS_DENIED);
+
+        assertNull(cache.get(createUserMock("user"), viewAll));
+        assertEquals(1, cache.size(createUserMock("user")));
+    }
+
+    @Test
+    public void testMaxEntriesPerUser() {
+        final User user = createUserMock("admin");
+
+        final long[] clock = {0};
+        DefaultAuthzResultCache cache = new DefaultAuthzResultCache(10, 4, 0) {
+            @Override
+            protected long now() {
+                return clock[0]++;
+            }
+        };
+        for (int i = 0; i < 5; i++) {
+            cache.put(user, new DotNamedPermission("resource.read." + i, true), AuthorizationResult.ACCESS_GRANTED);
+        }
+
+        assertTrue(cache.size(user) <= 4);
+        assertEquals(5 - cache.size(user), cache.getMetrics().getEvictions());
+        assertEquals(AuthorizationResult.ACCESS_GRANTED, cache.get(user, new DotNamedPermission("resource.read.4", true)));
+    }
+
+    @Test
+    public void testMaxUsers() {
+        final Permission viewAll = new DotNamedPermission("resource.read", true);
+        final long[] clock = {0};
+        DefaultAuthzResultCache cache = new DefaultAuthzResultCache(4, 10, 0) {
+            @Override
+            protected long now() {
+                return clock[0]++;
+            }
+        };
+        for (int i = 0; i < 4; i++) {
+            cache.put(createNamedUser("user" + i, "admin"), viewAll, AuthorizationResult.ACCESS_GRANTED);
+        }
+        // user0 becomes the most recently used one
+        cache.get(createNamedUser("user0", "admin"), viewAll);
+
+        cache.put(createNamedUser("user4", "admin"), viewAll, AuthorizationResult.ACCESS_GRANTED);
+
+        assertTrue(cache.internal.size() <= 4);
+        assertEquals(1, cache.size(createNamedUser("user0", "admin")));
+        assertEquals(1, cache.size(createNamedUser("user4", "admin")));
+        assertEquals(0, cache.size(createNamedUser("user1", "admin")));
+    }
+
+    @Test
+    public void testTimeToLive() {
+        final User user = createUserMock("admin");
+        final Permission viewAll = new DotNamedPermission("resource.read", true);
+        final long[] clock = {0};
+        DefaultAuthzResultCache cache = new DefaultAuthzResultCache(10, 10, 100) {
+            @Override
+            protected long now() {
+                return clock[0];
+            }
+        };
+        cache.put(user, viewAll, AuthorizationResult.ACCESS_GRANTED);
+
+        clock[0] = 99;
+        assertEquals(AuthorizationResult.ACCESS_GRANTED, cache.get(user, viewAll));
+
+        clock[0] = 100;
+        assertNull(cache.get(user, viewAll));
+        assertEquals(0, cache.size(user));
+        assertEquals(1, cache.getMetrics().getExpirations());
+        assertEquals(1, cache.getMetrics().getHits());
+        assertEquals(1, cache.getMetrics().getMisses());
+        assertEquals(0.5, cache.getMetrics().getHitRate(), 0);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        DefaultAuthzResultCache cache = new DefaultAuthzResultCache(8, 16, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        User user = createNamedUser("user" + (i % 12), "role" + thread);
+                        Permission permission = new DotNamedPermission("resource.read." + (i % 40), true);
+                        if (cache.get(user, permission) == null) {
+                            cache.put(user, permission, AuthorizationResult.ACCESS_GRANTED);
+                        }
+                        if (i % 500 == 0) {
+                            cache.invalidate(new RoleImpl("role" + thread));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(cache.internal.size() <= 8);
+    }
 }
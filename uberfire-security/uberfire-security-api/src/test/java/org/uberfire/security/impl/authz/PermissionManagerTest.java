@@ -396,6 +396,60 @@ public class PermissionManagerTest {
                 0);
     }
 
+    @Test
+    public void testPolicyChangeInvalidatesAffectedRolesOnly() {
+        User viewAllUser = createUserMock("viewAll");
+        User noView1User = createUserMock("noView1");
+        assertEquals(permissionManager.checkPermission(viewAll,
+                                                       viewAllUser),
+                     ACCESS_GRANTED);
+        assertEquals(permissionManager.checkPermission(view1,
+                                                       noView1User),
+                     ACCESS_DENIED);
+
+        permissionManager.setAuthorizationPolicy(permissionManager.newAuthorizationPolicy()
+                                                         .role("viewAll").permission("resource.read",
+                                                                                     true)
+                                                         .role("noViewAll").permission("resource.read",
+                                                                                       false)
+                                                         .role("onlyView1",
+                                                               5).permission("resource.read",
+                                                                             false).permission("resource.read.1",
+                                                                                               true)
+                                                         .role("noView1").permission("resource.read.1",
+                                                                                     true)
+                                                         .role("onlyView12").permission("resource.read.1.2",
+                                                                                        true)
+                                                         .build());
+
+        assertEquals(authzResultCache.size(viewAllUser),
+                     1);
+        assertEquals(authzResultCache.size(noView1User),
+                     0);
+        assertEquals(permissionManager.checkPermission(view1,
+                                                       noView1User),
+                     ACCESS_GRANTED);
+    }
+
+    @Test
+    public void testSamePolicyInstanceClearsCache() {
+        User user = createUserMock("viewAll");
+        permissionManager.checkPermission(viewAll,
+                                          user);
+        assertEquals(authzResultCache.size(user),
+                     1);
+
+        authorizationPolicy.setPermissions(new RoleImpl("viewAll"),
+                                           new DefaultPermissionCollection().add(denyAll));
+        permissionManager.setAuthorizationPolicy(authorizationPolicy);
+
+        assertEquals(authzResultCache.size(user),
+                     0);
+        assertEquals(permissionManager.checkPermission(viewAll,
+                                                       user),
+                     ACCESS_DENIED);
+    }
+
     @Test
     public void testDefaultVotingStrategy() {
         User user = createUserMock("role1");
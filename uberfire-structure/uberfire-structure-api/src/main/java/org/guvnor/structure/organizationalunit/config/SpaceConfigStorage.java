@@ -85,5 +85,8 @@ public interface SpaceConfigStorage {
     List<Long> getChangeRequestCommentIds(final String repositoryAlias,
                                           final Long changeRequestId);
 
+    int countChangeRequestComments(final String repositoryAlias,
+                                   final Long changeRequestId);
+
 
 }
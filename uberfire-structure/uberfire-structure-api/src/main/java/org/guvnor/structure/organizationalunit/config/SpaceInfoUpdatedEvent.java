@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.organizationalunit.config;
+
+import org.jboss.errai.common.client.api.annotations.MapsTo;
+import org.jboss.errai.common.client.api.annotations.Portable;
+import org.uberfire.commons.clusterapi.Clustered;
+
+/**
+ * Fired after the {@link SpaceInfo} of a space was saved, whatever changed in it.
+ */
+@Portable
+@Clustered
+public class SpaceInfoUpdatedEvent {
+
+    private final String spaceName;
+
+    public SpaceInfoUpdatedEvent(@MapsTo("spaceName") final String spaceName) {
+        this.spaceName = spaceName;
+    }
+
+    public String getSpaceName() {
+        return spaceName;
+    }
+}
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -39,6 +40,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.naming.InitialContext;
 
+import org.eclipse.jgit.lib.ObjectId;
 import org.guvnor.structure.backend.config.watch.AsyncConfigWatchService;
 import org.guvnor.structure.backend.config.watch.AsyncWatchServiceCallback;
 import org.guvnor.structure.backend.config.watch.ConfigServiceWatchServiceExecutor;
@@ -64,6 +66,7 @@ import org.uberfire.java.nio.file.WatchEvent;
 import org.uberfire.java.nio.file.WatchKey;
 import org.uberfire.java.nio.file.WatchService;
 import org.uberfire.java.nio.fs.jgit.JGitFileSystem;
+import org.uberfire.java.nio.fs.jgit.JGitPathImpl;
 
 @ApplicationScoped
 public class ConfigurationServiceImpl implements ConfigurationService,
@@ -86,6 +89,12 @@ public class ConfigurationServiceImpl implements ConfigurationService,
     protected final Map<ConfigType, List<ConfigGroup>> configGroupsByTypeWithoutNamespace = new ConcurrentHashMap<>();
     protected final Map<ConfigType, Map<String, List<ConfigGroup>>> configGroupsByTypeWithNamespace = new ConcurrentHashMap<>();
 
+    //Parsed ConfigGroups by file, reused while the file keeps the same content id, so a reload only parses what changed
+    protected final Map<String, VersionedConfigGroup> configGroupsByFile = new ConcurrentHashMap<>();
+
+    //Bumped by every invalidation, so a listing that raced with one is not cached
+    protected final AtomicLong invalidations = new AtomicLong();
+
     protected AtomicLong localLastModifiedValue = new AtomicLong(-1);
 
     protected IOService ioService;
@@ -215,13 +224,16 @@ public class ConfigurationServiceImpl implements ConfigurationService,
             return configGroupsByTypeWithoutNamespace.get(type);
         }
 
+        final long loadInvalidations = invalidations.get();
         final Path typeDir = ioService.get(systemRepository.getUri()).resolve(type.getDir());
 
         final List<ConfigGroup> configGroups = getConfiguration(typeDir,
                                                                 type);
         if (configGroups != null) {
-            configGroupsByTypeWithoutNamespace.put(type,
-                                                   configGroups);
+            if (loadInvalidations == invalidations.get()) {
+                configGroupsByTypeWithoutNamespace.put(type,
+                                                       configGroups);
+            }
         } else {
             return Collections.emptyList();
         }
@@ -243,6 +255,7 @@ public class ConfigurationServiceImpl implements ConfigurationService,
             }
         }
 
+        final long loadInvalidations = invalidations.get();
         final Path typeDir = ioService.get(systemRepository.getUri()).resolve(type.getDir());
         final Path namespaceDir = typeDir.resolve(namespace);
 
@@ -250,13 +263,15 @@ public class ConfigurationServiceImpl implements ConfigurationService,
                                                                 type);
         if (configGroups != null) {
             if (!configGroupsByTypeWithNamespace.containsKey(type)) {
-                configGroupsByTypeWithNamespace.put(type,
-                                                    new ConcurrentHashMap<>());
+                configGroupsByTypeWithNamespace.putIfAbsent(type,
+                                                            new ConcurrentHashMap<>());
             }
 
-            final Map<String, List<ConfigGroup>> configGroupsByNamespace = configGroupsByTypeWithNamespace.get(type);
-            configGroupsByNamespace.put(namespace,
-                                        configGroups);
+            if (loadInvalidations == invalidations.get()) {
+                final Map<String, List<ConfigGroup>> configGroupsByNamespace = configGroupsByTypeWithNamespace.get(type);
+                configGroupsByNamespace.put(namespace,
+                                            configGroups);
+            }
         } else {
             return Collections.emptyList();
         }
@@ -278,15 +293,19 @@ public class ConfigurationServiceImpl implements ConfigurationService,
         final DirectoryStream<Path> foundNamespaces = getDirectoryStreamForDirectories(typeDir);
 
         // Force cache update for all namespaces in that type
+        final Map<String, List<ConfigGroup>> configGroupsByNamespace = new HashMap<>();
         final Iterator<Path> it = foundNamespaces.iterator();
         while (it.hasNext()) {
             final String namespace = Paths.convert(it.next()).getFileName();
-            getConfiguration(type,
-                             namespace);
+            final List<ConfigGroup> configGroups = getConfiguration(type,
+                                                                    namespace);
+            if (!configGroups.isEmpty()) {
+                configGroupsByNamespace.put(namespace,
+                                            configGroups);
+            }
         }
 
-        // Return the updated cache
-        return configGroupsByTypeWithNamespace.get(type);
+        return configGroupsByNamespace;
     }
 
     private List<ConfigGroup> getConfiguration(final Path dir,
@@ -304,9 +323,7 @@ public class ConfigurationServiceImpl implements ConfigurationService,
         final Iterator<Path> it = foundConfigs.iterator();
         if (it.hasNext()) {
             while (it.hasNext()) {
-                final String content = ioService.readAllString(it.next());
-                final ConfigGroup configGroup = marshaller.unmarshall(content);
-                configGroups.add(configGroup);
+                configGroups.add(getConfigGroup(it.next()));
             }
 
             return configGroups;
@@ -315,6 +332,34 @@ public class ConfigurationServiceImpl implements ConfigurationService,
         return null;
     }
 
+    private ConfigGroup getConfigGroup(final Path file) {
+        final String version = getContentId(file);
+        final String key = file.toString();
+
+        final VersionedConfigGroup cached = configGroupsByFile.get(key);
+        if (version != null && cached != null && version.equals(cached.getVersion())) {
+            return cached.getConfigGroup();
+        }
+
+        final String content = ioService.readAllString(file);
+        final ConfigGroup configGroup = marshaller.unmarshall(content);
+        if (version != null) {
+            configGroupsByFile.put(key,
+                                   new VersionedConfigGroup(version,
+                                                            configGroup));
+        }
+
+        return configGroup;
+    }
+
+    private String getContentId(final Path file) {
+        if (file instanceof JGitPathImpl) {
+            final ObjectId objectId = ((JGitPathImpl) file).getObjectId();
+            return objectId != null ? objectId.name() : null;
+        }
+        return null;
+    }
+
     private DirectoryStream<Path> getDirectoryStreamForFilesWithParticularExtension(final Path dir,
                                                                                     final String extension) {
         return ioService.newDirectoryStream(dir,
@@ -377,17 +422,58 @@ public class ConfigurationServiceImpl implements ConfigurationService,
     }
 
     private void invalidateCacheAfterUpdatingConfigGroup(final ConfigGroup configGroup) {
-        final ConfigType type = configGroup.getType();
+        invalidateCache(configGroup.getType(),
+                        configGroup.getNamespace());
+    }
+
+    private void invalidateCache(final ConfigType type,
+                                 final String namespace) {
+        invalidations.incrementAndGet();
 
         if (!type.hasNamespace()) {
             configGroupsByTypeWithoutNamespace.remove(type);
         } else {
             if (configGroupsByTypeWithNamespace.containsKey(type)) {
-                configGroupsByTypeWithNamespace.get(type).remove(configGroup.getNamespace());
+                configGroupsByTypeWithNamespace.get(type).remove(namespace);
+            }
+        }
+    }
+
+    /**
+     * Drops the cached ConfigGroup of a changed file and the cached list of its type and namespace. Files that are
+     * not config groups are ignored.
+     */
+    protected void invalidateCache(final Path file) {
+        if (file == null || file.getFileName() == null) {
+            return;
+        }
+
+        final Path dir = file.getParent();
+        if (dir == null || dir.getFileName() == null) {
+            return;
+        }
+
+        final String fileName = file.getFileName().toString();
+        for (final ConfigType type : ConfigType.values()) {
+            if (!fileName.endsWith(type.getExt())) {
+                continue;
+            }
+
+            final Path typeDir = type.hasNamespace() ? dir.getParent() : dir;
+            if (typeDir != null && typeDir.getFileName() != null && typeDir.getFileName().toString().equals(type.getDir())) {
+                configGroupsByFile.remove(file.toString());
+                invalidateCache(type,
+                                type.hasNamespace() ? dir.getFileName().toString() : null);
             }
         }
     }
 
+    protected void invalidateAllCaches() {
+        invalidations.incrementAndGet();
+        configGroupsByTypeWithoutNamespace.clear();
+        configGroupsByTypeWithNamespace.clear();
+    }
+
     private boolean saveConfiguration(final ConfigGroup configGroup,
                                       final Path path,
                                       final String commitMessage,
@@ -412,6 +498,7 @@ public class ConfigurationServiceImpl implements ConfigurationService,
             ioService.endBatch();
         }
 
+        configGroupsByFile.remove(path.toString());
         invalidateCacheAfterUpdatingConfigGroup(configGroup);
 
         return true;
@@ -438,6 +525,7 @@ public class ConfigurationServiceImpl implements ConfigurationService,
             ioService.endBatch();
         }
 
+        configGroupsByFile.remove(filePath.toString());
         invalidateCacheAfterUpdatingConfigGroup(configGroup);
 
         return result;
@@ -472,11 +560,8 @@ public class ConfigurationServiceImpl implements ConfigurationService,
 
     @Override
     public void callback(long value) {
+        // the changed config groups were already invalidated one by one by the watch
         localLastModifiedValue.set(value);
-
-        // invalidate cached values as system repo has changed
-        configGroupsByTypeWithoutNamespace.clear();
-        configGroupsByTypeWithNamespace.clear();
     }
 
     @Override
@@ -521,10 +606,16 @@ public class ConfigurationServiceImpl implements ConfigurationService,
 
                     final List<WatchEvent<?>> events = wk.pollEvents();
 
+                    invalidateCaches(events);
+
                     boolean markerFileModified = false;
                     for (final WatchEvent<?> event : events) {
                         final WatchContext context = (WatchContext) event.context();
-                        if (event.kind().equals(StandardWatchEventKind.ENTRY_MODIFY)) {
+                        if (event.kind().equals(StandardWatchEventKind.OVERFLOW)) {
+                            // lost events may include the marker file, so check it again
+                            markerFileModified = true;
+                            break;
+                        } else if (event.kind().equals(StandardWatchEventKind.ENTRY_MODIFY)) {
                             if (context.getOldPath().getFileName().toString().equals(LAST_MODIFIED_MARKER_FILE)) {
                                 markerFileModified = true;
                                 break;
@@ -566,6 +657,40 @@ public class ConfigurationServiceImpl implements ConfigurationService,
         public String getDescription() {
             return "Config File Watch Service";
         }
+
+        private void invalidateCaches(final List<WatchEvent<?>> events) {
+            for (final WatchEvent<?> event : events) {
+                if (event.kind().equals(StandardWatchEventKind.OVERFLOW)) {
+                    // lost events may include any config group; unchanged ones are still not parsed again
+                    invalidateAllCaches();
+                    return;
+                }
+
+                final WatchContext context = (WatchContext) event.context();
+                invalidateCache(context.getPath());
+                invalidateCache(context.getOldPath());
+            }
+        }
+    }
+
+    protected static class VersionedConfigGroup {
+
+        private final String version;
+        private final ConfigGroup configGroup;
+
+        VersionedConfigGroup(final String version,
+                             final ConfigGroup configGroup) {
+            this.version = version;
+            this.configGroup = configGroup;
+        }
+
+        String getVersion() {
+            return version;
+        }
+
+        ConfigGroup getConfigGroup() {
+            return configGroup;
+        }
     }
 
     protected ConfigServiceWatchServiceExecutor getWatchServiceExecutor() {
@@ -15,10 +15,6 @@
 
 package org.guvnor.structure.backend.organizationalunit;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -99,6 +95,8 @@ public class OrganizationalUnitServiceImpl implements OrganizationalUnitService
     private Event<SpaceContributorsUpdatedEvent> spaceContributorsUpdatedEvent;
     private ConfigurationService configurationService;
 
+    private SpaceCatalog spaceCatalog;
+
     public OrganizationalUnitServiceImpl() {
     }
 
@@ -117,7 +115,8 @@ public class OrganizationalUnitServiceImpl implements OrganizationalUnitService
                                          final SpaceConfigStorageRegistry spaceConfigStorageRegistry,
                                          final @Named("systemFS") FileSystem systemFS,
                                          final Event<SpaceContributorsUpdatedEvent> spaceContributorsUpdatedEvent,
-                                         final ConfigurationService configurationService) {
+                                         final ConfigurationService configurationService,
+                                         final SpaceCatalog spaceCatalog) {
         this.organizationalUnitFactory = organizationalUnitFactory;
         this.repositoryService = repositoryService;
         this.newOrganizationalUnitEvent = newOrganizationalUnitEvent;
@@ -133,6 +132,7 @@ public class OrganizationalUnitServiceImpl implements OrganizationalUnitService
         this.systemFS = systemFS;
         this.spaceContributorsUpdatedEvent = spaceContributorsUpdatedEvent;
         this.configurationService = configurationService;
+        this.spaceCatalog = spaceCatalog;
     }
 
     public void userRemoved(final @Observes UserDeletedEvent event) {
@@ -166,7 +166,7 @@ public class OrganizationalUnitServiceImpl implements OrganizationalUnitService
     public OrganizationalUnit getOrganizationalUnit(final String name,
                                                     final boolean includeDeleted) {
         if (spaceConfigStorageRegistry.exist(name) && !isDeleted(name)) {
-            SpaceInfo spaceInfo = this.spaceConfigStorageRegistry.get(name).loadSpaceInfo();
+            SpaceInfo spaceInfo = this.spaceCatalog.getSpaceInfo(name);
             if (spaceInfo != null) {
                 return organizationalUnitFactory.newOrganizationalUnit(spaceInfo);
             }
@@ -195,30 +195,20 @@ public class OrganizationalUnitServiceImpl implements OrganizationalUnitService
     public Collection<OrganizationalUnit> getAllOrganizationalUnits(final boolean includeDeleted, final Predicate<OrganizationalUnit> filter) {
         final List<OrganizationalUnit> spaces = new ArrayList<>();
 
-        try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(getNiogitPath())) {
-            for (java.nio.file.Path spacePath : stream) {
-                final File spaceDirectory = spacePath.toFile();
-
-                if (spaceDirectory.isDirectory() && !spaceDirectory.getName().equals("system") && !isDeleted(spaceDirectory.getName())) {
-                    SpaceConfigStorage configStorage = this.spaceConfigStorageRegistry.get(spaceDirectory.getName());
-                    if (configStorage.isInitialized()) {
-                        OrganizationalUnit ou = getOrganizationalUnit(spaceDirectory.getName(),
-                                                                      false);
-                        if (ou != null) {
-                            spaces.add(ou);
-                        }
-                    }
+        for (String spaceName : spaceCatalog.getSpaceNames()) {
+            if (!isDeleted(spaceName)) {
+                final SpaceInfo spaceInfo = spaceCatalog.getSpaceInfo(spaceName);
+                if (spaceInfo != null) {
+                    spaces.add(organizationalUnitFactory.newOrganizationalUnit(spaceInfo));
                 }
             }
+        }
 
-            if (includeDeleted) {
-                spaces.addAll(this.getAllDeletedOrganizationalUnit());
-            }
-
-            return spaces.stream().filter(filter).collect(Collectors.toList());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        if (includeDeleted) {
+            spaces.addAll(this.getAllDeletedOrganizationalUnit());
         }
+
+        return spaces.stream().filter(filter).collect(Collectors.toList());
     }
 
     @Override
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.backend.organizationalunit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.guvnor.structure.backend.config.OrgUnit;
+import org.guvnor.structure.backend.repositories.ConfiguredRepositoriesBySpace;
+import org.guvnor.structure.backend.repositories.git.RepositoryBranchUpdateEvent;
+import org.guvnor.structure.config.SystemRepositoryChangedEvent;
+import org.guvnor.structure.organizationalunit.NewOrganizationalUnitEvent;
+import org.guvnor.structure.organizationalunit.OrganizationalUnit;
+import org.guvnor.structure.organizationalunit.RemoveOrganizationalUnitEvent;
+import org.guvnor.structure.organizationalunit.config.RepositoryInfo;
+import org.guvnor.structure.organizationalunit.config.SpaceConfigStorageRegistry;
+import org.guvnor.structure.organizationalunit.config.SpaceInfo;
+import org.guvnor.structure.organizationalunit.config.SpaceInfoUpdatedEvent;
+import org.guvnor.structure.repositories.NewBranchEvent;
+import org.guvnor.structure.repositories.NewRepositoryEvent;
+import org.guvnor.structure.repositories.Repository;
+import org.guvnor.structure.repositories.RepositoryExternalUpdateEvent;
+import org.guvnor.structure.repositories.RepositoryRemovedEvent;
+import org.guvnor.structure.repositories.RepositoryUpdatedEvent;
+import org.guvnor.structure.server.repositories.RepositoryFactory;
+import org.uberfire.java.nio.file.FileSystem;
+
+/**
+ * In memory catalog of the spaces, their {@link SpaceInfo} and their repositories, so listing them does not touch the
+ * disk.
+ * <p>
+ * Spaces are scanned and loaded on first use. Afterwards the catalog is only updated from events: saved space infos
+ * and created or removed spaces reload a single space, repository and branch events drop a single repository, and a
+ * change of the system configuration, as reported by the config watch, drops everything. The space info and
+ * organizational unit events are clustered, so other nodes follow along.
+ * <p>
+ * Readers get an immutable snapshot and never lock. Loads started before an update are not cached, so a reader
+ * can't put back what an update just dropped.
+ */
+@ApplicationScoped
+public class SpaceCatalog {
+
+    private static final String SYSTEM_SPACE = "system";
+
+    private SpaceConfigStorageRegistry spaceConfigStorageRegistry;
+    private RepositoryFactory repositoryFactory;
+    private FileSystem systemFS;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    // guarded by this, bumped by every update
+    private long generation;
+
+    public SpaceCatalog() {
+    }
+
+    @Inject
+    public SpaceCatalog(final SpaceConfigStorageRegistry spaceConfigStorageRegistry,
+                        final RepositoryFactory repositoryFactory,
+                        final @Named("systemFS") FileSystem systemFS) {
+        this.spaceConfigStorageRegistry = spaceConfigStorageRegistry;
+        this.repositoryFactory = repositoryFactory;
+        this.systemFS = systemFS;
+    }
+
+    /**
+     * @return the names of the initialized spaces, deleted ones included, in the order they were found.
+     */
+    public Collection<String> getSpaceNames() {
+        final Collection<String> spaceNames = snapshot.get().spaceNames;
+        if (spaceNames != null) {
+            return spaceNames;
+        }
+
+        return scanSpaces();
+    }
+
+    /**
+     * @return the info of the space, or null if it is not initialized. The instance is shared and must not be
+     * modified.
+     */
+    public SpaceInfo getSpaceInfo(final String spaceName) {
+        final SpaceEntry entry = getEntry(spaceName);
+        return entry != null ? entry.spaceInfo : null;
+    }
+
+    /**
+     * @return the repositories of the space accepted by the filter. Deleted repositories are built on every call, the
+     * others are built once and shared.
+     */
+    public List<Repository> getRepositories(final String spaceName,
+                                            final Predicate<RepositoryInfo> filter) {
+        final SpaceEntry entry = getEntry(spaceName);
+        if (entry == null || entry.spaceInfo.getRepositories() == null) {
+            return Collections.emptyList();
+        }
+
+        final List<Repository> repositories = new ArrayList<>();
+        for (RepositoryInfo repositoryInfo : entry.spaceInfo.getRepositories()) {
+            if (filter.test(repositoryInfo)) {
+                final Repository repository = repositoryInfo.isDeleted() ?
+                        repositoryFactory.newRepository(repositoryInfo) :
+                        entry.getRepository(repositoryInfo,
+                                            repositoryFactory);
+                if (repository != null) {
+                    repositories.add(repository);
+                }
+            }
+        }
+        return repositories;
+    }
+
+    public void onSpaceInfoUpdated(@Observes final SpaceInfoUpdatedEvent event) {
+        reloadSpace(event.getSpaceName());
+    }
+
+    public void onNewOrganizationalUnit(@Observes final NewOrganizationalUnitEvent event) {
+        if (event.getOrganizationalUnit() != null) {
+            reloadSpace(event.getOrganizationalUnit().getName());
+        }
+    }
+
+    public void onRemoveOrganizationalUnit(@Observes final RemoveOrganizationalUnitEvent event) {
+        final OrganizationalUnit organizationalUnit = event.getOrganizationalUnit();
+        if (organizationalUnit != null) {
+            update(current -> current.withoutSpace(organizationalUnit.getName()));
+        }
+    }
+
+    public void onNewRepository(@Observes final NewRepositoryEvent event) {
+        evictRepository(event.getNewRepository());
+    }
+
+    public void onRepositoryUpdated(@Observes final RepositoryUpdatedEvent event) {
+        evictRepository(event.getRepository());
+    }
+
+    public void onRepositoryRemoved(@Observes final RepositoryRemovedEvent event) {
+        evictRepository(event.getRepository());
+    }
+
+    public void onNewBranch(@Observes final NewBranchEvent event) {
+        evictRepository(event.getRepository());
+    }
+
+    public void onRepositoryExternalUpdate(@Observes final RepositoryExternalUpdateEvent event) {
+        evictRepository(event.getRepository());
+    }
+
+    public void onRepositoryBranchUpdate(@Observes final RepositoryBranchUpdateEvent event) {
+        evictRepository(event.getRepository());
+    }
+
+    public void onConfigurationChanged(@Observes @OrgUnit final SystemRepositoryChangedEvent event) {
+        update(current -> Snapshot.EMPTY);
+    }
+
+    java.nio.file.Path getNiogitPath() {
+        return systemFS.getPath("/").toFile().getParentFile().getParentFile().toPath();
+    }
+
+    private Collection<String> scanSpaces() {
+        final long loadGeneration = currentGeneration();
+        final Set<String> spaceNames = new LinkedHashSet<>();
+        final Map<String, SpaceEntry> entries = new HashMap<>();
+
+        try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(getNiogitPath())) {
+            for (java.nio.file.Path spacePath : stream) {
+                final File spaceDirectory = spacePath.toFile();
+                final String spaceName = spaceDirectory.getName();
+
+                if (spaceDirectory.isDirectory() && !spaceName.equals(SYSTEM_SPACE)) {
+                    final SpaceInfo spaceInfo = spaceConfigStorageRegistry.get(spaceName).loadSpaceInfo();
+                    if (spaceInfo != null) {
+                        spaceNames.add(spaceName);
+                        entries.put(spaceName,
+                                    new SpaceEntry(spaceInfo));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        install(loadGeneration,
+                current -> current.withScan(spaceNames,
+                                            entries));
+
+        return Collections.unmodifiableSet(spaceNames);
+    }
+
+    private SpaceEntry getEntry(final String spaceName) {
+        final SpaceEntry cached = snapshot.get().entries.get(spaceName);
+        if (cached != null) {
+            return cached;
+        }
+
+        final long loadGeneration = currentGeneration();
+        final SpaceInfo spaceInfo = spaceConfigStorageRegistry.get(spaceName).loadSpaceInfo();
+        if (spaceInfo == null) {
+            return null;
+        }
+
+        final SpaceEntry loaded = new SpaceEntry(spaceInfo);
+        final SpaceEntry installed = install(loadGeneration,
+                                             current -> current.withEntry(spaceName,
+                                                                          loaded)).entries.get(spaceName);
+        return installed != null ? installed : loaded;
+    }
+
+    private void reloadSpace(final String spaceName) {
+        if (spaceName != null && !spaceName.equals(SYSTEM_SPACE)) {
+            update(current -> current.withReloadedSpace(spaceName));
+        }
+    }
+
+    private void evictRepository(final Repository repository) {
+        if (repository == null || repository.getSpace() == null) {
+            return;
+        }
+
+        final SpaceEntry entry = snapshot.get().entries.get(repository.getSpace().getName());
+        if (entry != null) {
+            entry.evict(repository.getAlias());
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void update(final UnaryOperator<Snapshot> change) {
+        generation++;
+        snapshot.set(change.apply(snapshot.get()));
+    }
+
+    private synchronized Snapshot install(final long loadGeneration,
+                                          final UnaryOperator<Snapshot> change) {
+        if (loadGeneration == generation) {
+            snapshot.set(change.apply(snapshot.get()));
+        }
+        return snapshot.get();
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(null,
+                                                   Collections.emptyMap());
+
+        // null until the spaces directory was scanned
+        final Collection<String> spaceNames;
+        final Map<String, SpaceEntry> entries;
+
+        Snapshot(final Set<String> spaceNames,
+                 final Map<String, SpaceEntry> entries) {
+            this.spaceNames = spaceNames != null ? Collections.unmodifiableSet(spaceNames) : null;
+            this.entries = Collections.unmodifiableMap(entries);
+        }
+
+        Snapshot withScan(final Set<String> scannedSpaceNames,
+                          final Map<String, SpaceEntry> scannedEntries) {
+            final Map<String, SpaceEntry> newEntries = new HashMap<>(scannedEntries);
+            newEntries.putAll(entries);
+            return new Snapshot(scannedSpaceNames,
+                                newEntries);
+        }
+
+        Snapshot withEntry(final String spaceName,
+                           final SpaceEntry entry) {
+            if (entries.containsKey(spaceName)) {
+                return this;
+            }
+            final Map<String, SpaceEntry> newEntries = new HashMap<>(entries);
+            newEntries.put(spaceName,
+                           entry);
+            return new Snapshot(copyOfSpaceNames(),
+                                newEntries);
+        }
+
+        Snapshot withReloadedSpace(final String spaceName) {
+            final Map<String, SpaceEntry> newEntries = new HashMap<>(entries);
+            newEntries.remove(spaceName);
+            final Set<String> newSpaceNames = copyOfSpaceNames();
+            if (newSpaceNames != null) {
+                newSpaceNames.add(spaceName);
+            }
+            return new Snapshot(newSpaceNames,
+                                newEntries);
+        }
+
+        Snapshot withoutSpace(final String spaceName) {
+            final Map<String, SpaceEntry> newEntries = new HashMap<>(entries);
+            newEntries.remove(spaceName);
+            final Set<String> newSpaceNames = copyOfSpaceNames();
+            if (newSpaceNames != null) {
+                newSpaceNames.remove(spaceName);
+            }
+            return new Snapshot(newSpaceNames,
+                                newEntries);
+        }
+
+        private Set<String> copyOfSpaceNames() {
+            return spaceNames != null ? new LinkedHashSet<>(spaceNames) : null;
+        }
+    }
+
+    private static final class SpaceEntry {
+
+        final SpaceInfo spaceInfo;
+        final ConfiguredRepositoriesBySpace repositories = new ConfiguredRepositoriesBySpace();
+
+        // guarded by this, bumped by every eviction
+        private long evictions;
+
+        SpaceEntry(final SpaceInfo spaceInfo) {
+            this.spaceInfo = spaceInfo;
+        }
+
+        Repository getRepository(final RepositoryInfo repositoryInfo,
+                                 final RepositoryFactory repositoryFactory) {
+            final Repository cached = repositories.get(repositoryInfo.getName());
+            if (cached != null) {
+                return cached;
+            }
+
+            final long loadEvictions;
+            synchronized (this) {
+                loadEvictions = evictions;
+            }
+
+            final Repository repository = repositoryFactory.newRepository(repositoryInfo);
+
+            synchronized (this) {
+                if (repository != null && loadEvictions == evictions) {
+                    repositories.add(repository);
+                }
+            }
+            return repository;
+        }
+
+        synchronized void evict(final String alias) {
+            evictions++;
+            repositories.remove(alias);
+        }
+    }
+}
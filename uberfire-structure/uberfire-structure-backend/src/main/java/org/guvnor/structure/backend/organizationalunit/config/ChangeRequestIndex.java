@@ -0,0 +1,218 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.backend.organizationalunit.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.guvnor.structure.repositories.changerequest.portable.ChangeRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.java.nio.base.SegmentChanges;
+
+/**
+ * Per repository view of the change requests of a space, kept in memory and sorted newest first. Each read checks the
+ * head of the space config file system and, when it moved, replays only the change request files touched since the
+ * indexed head. Comment counts are computed on demand and dropped when a comment of the change request changes.
+ */
+class ChangeRequestIndex {
+
+    static final Comparator<ChangeRequest> NEWEST_FIRST =
+            Comparator.comparing(ChangeRequest::getCreatedDate,
+                                 Comparator.nullsFirst(Comparator.<Date>naturalOrder()))
+                    .thenComparing(ChangeRequest::getId)
+                    .reversed();
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeRequestIndex.class);
+
+    private final SpaceConfigStorageImpl storage;
+    private final Map<String, RepositoryChangeRequests> repositories = new ConcurrentHashMap<>();
+
+    ChangeRequestIndex(final SpaceConfigStorageImpl storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * @return the change requests of the repository, newest first, or null if the head of the storage is unknown and
+     * the caller has to read them on its own.
+     */
+    List<ChangeRequest> getChangeRequests(final String repositoryAlias) {
+        final RepositoryChangeRequests changeRequests = refresh(repositoryAlias);
+        return changeRequests != null ? changeRequests.newestFirst : null;
+    }
+
+    /**
+     * @return the number of comments of the change request, or -1 if the head of the storage is unknown.
+     */
+    int countComments(final String repositoryAlias,
+                      final Long changeRequestId) {
+        final RepositoryChangeRequests changeRequests = refresh(repositoryAlias);
+        if (changeRequests == null) {
+            return -1;
+        }
+        return changeRequests.commentCounts.computeIfAbsent(changeRequestId,
+                                                            id -> storage.getChangeRequestCommentIds(repositoryAlias,
+                                                                                                     id).size());
+    }
+
+    void remove(final String repositoryAlias) {
+        repositories.remove(repositoryAlias);
+    }
+
+    void clear() {
+        repositories.clear();
+    }
+
+    private RepositoryChangeRequests refresh(final String repositoryAlias) {
+        final String head = storage.getStorageHead();
+        if (head == null) {
+            return null;
+        }
+
+        final RepositoryChangeRequests changeRequests = repositories.computeIfAbsent(repositoryAlias,
+                                                                                     alias -> new RepositoryChangeRequests());
+        if (head.equals(changeRequests.head)) {
+            return changeRequests;
+        }
+
+        synchronized (changeRequests) {
+            if (head.equals(changeRequests.head)) {
+                return changeRequests;
+            }
+
+            final SegmentChanges changes = changeRequests.head != null ? storage.getStorageChanges(changeRequests.head) : null;
+            if (changes != null) {
+                apply(repositoryAlias,
+                      changeRequests,
+                      changes);
+            } else {
+                rebuild(repositoryAlias,
+                        changeRequests,
+                        head);
+            }
+            return changeRequests;
+        }
+    }
+
+    private void rebuild(final String repositoryAlias,
+                         final RepositoryChangeRequests changeRequests,
+                         final String head) {
+        final Map<Long, ChangeRequest> byId = new HashMap<>();
+        for (final Long id : storage.getChangeRequestIds(repositoryAlias)) {
+            final ChangeRequest changeRequest = storage.loadChangeRequest(repositoryAlias,
+                                                                          id);
+            if (changeRequest != null) {
+                byId.put(id,
+                         changeRequest);
+            }
+        }
+
+        changeRequests.byId = byId;
+        changeRequests.commentCounts.clear();
+        changeRequests.sort();
+        changeRequests.head = head;
+    }
+
+    private void apply(final String repositoryAlias,
+                       final RepositoryChangeRequests changeRequests,
+                       final SegmentChanges changes) {
+        final String folder = storage.getChangeRequestsFolder(repositoryAlias);
+        boolean modified = false;
+
+        for (final String path : changes.getDeletedPaths()) {
+            modified |= applyChange(repositoryAlias,
+                                    changeRequests,
+                                    folder,
+                                    path,
+                                    true);
+        }
+        for (final String path : changes.getChangedPaths()) {
+            modified |= applyChange(repositoryAlias,
+                                    changeRequests,
+                                    folder,
+                                    path,
+                                    false);
+        }
+
+        if (modified) {
+            changeRequests.sort();
+        }
+        changeRequests.head = changes.getHead();
+    }
+
+    private boolean applyChange(final String repositoryAlias,
+                                final RepositoryChangeRequests changeRequests,
+                                final String folder,
+                                final String path,
+                                final boolean deleted) {
+        if (!path.startsWith(folder)) {
+            return false;
+        }
+
+        final String relativePath = path.substring(folder.length());
+        final int separator = relativePath.indexOf('/');
+        if (separator <= 0) {
+            return false;
+        }
+
+        final Long id;
+        try {
+            id = Long.valueOf(relativePath.substring(0,
+                                                     separator));
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring change of {}, not a change request path.",
+                         path);
+            return false;
+        }
+
+        final String file = relativePath.substring(separator + 1);
+        if (!file.equals(storage.getChangeRequestFileName())) {
+            changeRequests.commentCounts.remove(id);
+            return false;
+        }
+
+        final ChangeRequest changeRequest = deleted ? null : storage.loadChangeRequest(repositoryAlias,
+                                                                                      id);
+        if (changeRequest == null) {
+            changeRequests.commentCounts.remove(id);
+            return changeRequests.byId.remove(id) != null;
+        }
+        changeRequests.byId.put(id,
+                                changeRequest);
+        return true;
+    }
+
+    private static class RepositoryChangeRequests {
+
+        private volatile String head;
+        private volatile List<ChangeRequest> newestFirst = Collections.emptyList();
+        private Map<Long, ChangeRequest> byId = new HashMap<>();
+        private final Map<Long, Integer> commentCounts = new ConcurrentHashMap<>();
+
+        private void sort() {
+            final List<ChangeRequest> sorted = new ArrayList<>(byId.values());
+            sorted.sort(NEWEST_FIRST);
+            newestFirst = Collections.unmodifiableList(sorted);
+        }
+    }
+}
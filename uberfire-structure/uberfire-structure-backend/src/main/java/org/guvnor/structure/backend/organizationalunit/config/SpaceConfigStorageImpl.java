@@ -21,8 +21,10 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -32,13 +34,18 @@ import org.guvnor.structure.organizationalunit.config.BranchPermissions;
 import org.guvnor.structure.organizationalunit.config.RolePermissions;
 import org.guvnor.structure.organizationalunit.config.SpaceConfigStorage;
 import org.guvnor.structure.organizationalunit.config.SpaceInfo;
+import org.guvnor.structure.organizationalunit.config.SpaceInfoUpdatedEvent;
 import org.guvnor.structure.repositories.changerequest.portable.ChangeRequest;
 import org.guvnor.structure.repositories.changerequest.portable.ChangeRequestComment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.uberfire.backend.server.io.object.ObjectStorage;
 import org.uberfire.io.IOService;
+import org.uberfire.java.nio.base.SegmentChanges;
+import org.uberfire.java.nio.base.SegmentChangesAware;
+import org.uberfire.java.nio.base.SegmentedPath;
 import org.uberfire.java.nio.file.DirectoryStream;
+import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.java.nio.file.Files;
 import org.uberfire.java.nio.file.Path;
 import org.uberfire.spaces.SpacesAPI;
@@ -61,16 +68,20 @@ public class SpaceConfigStorageImpl implements SpaceConfigStorage {
 
     private ObjectStorage objectStorage;
     private IOService ioService;
+    private Event<SpaceInfoUpdatedEvent> spaceInfoUpdatedEvent;
     private String spaceName;
+    private final ChangeRequestIndex changeRequestIndex = new ChangeRequestIndex(this);
 
     public SpaceConfigStorageImpl() {
     }
 
     @Inject
     public SpaceConfigStorageImpl(final ObjectStorage objectStorage,
-                                  final @Named("configIO") IOService ioService) {
+                                  final @Named("configIO") IOService ioService,
+                                  final Event<SpaceInfoUpdatedEvent> spaceInfoUpdatedEvent) {
         this.objectStorage = objectStorage;
         this.ioService = ioService;
+        this.spaceInfoUpdatedEvent = spaceInfoUpdatedEvent;
     }
 
     public void setup(final String spaceName) {
@@ -119,12 +130,25 @@ public class SpaceConfigStorageImpl implements SpaceConfigStorage {
     public void deleteRepository(final String repositoryAlias) {
         deleteAllChangeRequests(repositoryAlias);
         objectStorage.delete(buildRepositoryFolderPath(repositoryAlias));
+        changeRequestIndex.remove(repositoryAlias);
     }
 
+    /**
+     * @return the change requests of the repository, newest first when the storage can tell its head and they come
+     * from the change request index.
+     */
     @Override
     public List<ChangeRequest> loadChangeRequests(final String repositoryAlias) {
+        final List<ChangeRequest> changeRequests = changeRequestIndex.getChangeRequests(repositoryAlias);
+        if (changeRequests != null) {
+            return changeRequests;
+        }
+
+        // same order and contents as the index, whether or not it is built
         return getChangeRequestIds(repositoryAlias).stream()
                 .map(changeRequestId -> loadChangeRequest(repositoryAlias, changeRequestId))
+                .filter(Objects::nonNull)
+                .sorted(ChangeRequestIndex.NEWEST_FIRST)
                 .collect(Collectors.toList());
     }
 
@@ -266,6 +290,51 @@ public class SpaceConfigStorageImpl implements SpaceConfigStorage {
         return changeRequestCommentIds;
     }
 
+    @Override
+    public int countChangeRequestComments(final String repositoryAlias,
+                                          final Long changeRequestId) {
+        final int count = changeRequestIndex.countComments(repositoryAlias,
+                                                           changeRequestId);
+        if (count >= 0) {
+            return count;
+        }
+
+        return getChangeRequestCommentIds(repositoryAlias,
+                                          changeRequestId).size();
+    }
+
+    String getStorageHead() {
+        final Path root = objectStorage.getPath("/");
+        if (!(root instanceof SegmentedPath)) {
+            return null;
+        }
+
+        final FileSystem fileSystem = root.getFileSystem();
+        if (!(fileSystem instanceof SegmentChangesAware)) {
+            return null;
+        }
+
+        return ((SegmentChangesAware) fileSystem).getSegmentHead(((SegmentedPath) root).getSegmentId());
+    }
+
+    SegmentChanges getStorageChanges(final String fromHead) {
+        final Path root = objectStorage.getPath("/");
+        return ((SegmentChangesAware) root.getFileSystem()).getSegmentChanges(((SegmentedPath) root).getSegmentId(),
+                                                                              fromHead);
+    }
+
+    /**
+     * @return the folder holding the change requests of the repository, as the storage reports changed paths: relative
+     * to the root and ending with a slash.
+     */
+    String getChangeRequestsFolder(final String repositoryAlias) {
+        return buildChangeRequestsFolderPath(repositoryAlias).substring(1) + "/";
+    }
+
+    String getChangeRequestFileName() {
+        return CHANGE_REQUESTS_FILE;
+    }
+
     BranchPermissions getDefaultBranchPermissions(String branchName) {
         final Map<String, RolePermissions> defaultPermissions = new LinkedHashMap<>();
         defaultPermissions.put(ContributorType.OWNER.name(),
@@ -300,6 +369,7 @@ public class SpaceConfigStorageImpl implements SpaceConfigStorage {
         objectStorage.write(buildSpaceConfigFilePath(SPACE_INFO),
                             spaceInfo,
                             false);
+        spaceInfoUpdatedEvent.fire(new SpaceInfoUpdatedEvent(spaceName));
     }
 
     @Override
@@ -314,6 +384,7 @@ public class SpaceConfigStorageImpl implements SpaceConfigStorage {
 
     @Override
     public void close() {
+        this.changeRequestIndex.clear();
         this.objectStorage.close();
     }
 
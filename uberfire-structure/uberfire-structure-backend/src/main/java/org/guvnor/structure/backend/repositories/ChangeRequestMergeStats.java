@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.backend.repositories;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Outcome of merging a source commit into a target commit.
+ */
+public class ChangeRequestMergeStats {
+
+    private final String mergeBaseId;
+    private final List<String> conflicts;
+
+    public ChangeRequestMergeStats(final String mergeBaseId,
+                                   final List<String> conflicts) {
+        this.mergeBaseId = mergeBaseId;
+        this.conflicts = Collections.unmodifiableList(checkNotNull("conflicts",
+                                                                   conflicts));
+    }
+
+    /**
+     * @return id of the common ancestor of both commits, null if their histories are unrelated.
+     */
+    public String getMergeBaseId() {
+        return mergeBaseId;
+    }
+
+    /**
+     * @return paths that would conflict, sorted ignoring case.
+     */
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    public boolean isConflictFree() {
+        return conflicts.isEmpty();
+    }
+}
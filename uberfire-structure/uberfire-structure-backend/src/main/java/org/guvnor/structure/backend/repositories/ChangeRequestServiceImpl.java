@@ -32,11 +32,13 @@ import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.guvnor.structure.backend.repositories.git.RepositoryBranchUpdateEvent;
 import org.guvnor.structure.organizationalunit.config.SpaceConfigStorageRegistry;
 import org.guvnor.structure.repositories.Branch;
 import org.guvnor.structure.repositories.Repository;
@@ -110,6 +112,7 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
     private final Event<ChangeRequestStatusUpdatedEvent> changeRequestStatusUpdatedEventEvent;
     private final BranchAccessAuthorizer branchAccessAuthorizer;
     private final SessionInfo sessionInfo;
+    private final ChangeRequestStatsCache statsCache;
 
     private Logger logger = LoggerFactory.getLogger(ChangeRequestServiceImpl.class);
 
@@ -121,7 +124,8 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
                                     final Event<ChangeRequestUpdatedEvent> changeRequestUpdatedEvent,
                                     final Event<ChangeRequestStatusUpdatedEvent> changeRequestStatusUpdatedEventEvent,
                                     final BranchAccessAuthorizer branchAccessAuthorizer,
-                                    final SessionInfo sessionInfo) {
+                                    final SessionInfo sessionInfo,
+                                    final ChangeRequestStatsCache statsCache) {
         this.spaceConfigStorageRegistry = spaceConfigStorageRegistry;
         this.repositoryService = repositoryService;
         this.spaces = spaces;
@@ -130,6 +134,7 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
         this.changeRequestStatusUpdatedEventEvent = changeRequestStatusUpdatedEventEvent;
         this.branchAccessAuthorizer = branchAccessAuthorizer;
         this.sessionInfo = sessionInfo;
+        this.statsCache = statsCache;
     }
 
     @Override
@@ -792,6 +797,47 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
                                      true);
     }
 
+    /**
+     * Computes the stats of the open change requests of the repository in the background, so listing them right after
+     * a commit finds them cached.
+     */
+    public void onRepositoryBranchUpdate(@Observes final RepositoryBranchUpdateEvent event) {
+        final String spaceName = event.getRepository().getSpace().getName();
+        final String repositoryAlias = event.getRepository().getAlias();
+
+        statsCache.refresh(spaceName + "/" + repositoryAlias,
+                           () -> refreshChangeRequestStats(spaceName,
+                                                           repositoryAlias));
+    }
+
+    void refreshChangeRequestStats(final String spaceName,
+                                   final String repositoryAlias) {
+        final Repository repository = resolveRepository(spaceName,
+                                                        repositoryAlias);
+
+        spaceConfigStorageRegistry.get(spaceName).loadChangeRequests(repositoryAlias)
+                .stream()
+                .filter(changeRequest -> changeRequest.getStatus() == ChangeRequestStatus.OPEN)
+                .filter(changeRequest -> hasBranches(repository,
+                                                     changeRequest))
+                .forEach(changeRequest -> {
+                    countChangeRequestDiffs(repository,
+                                            changeRequest);
+
+                    final ChangeRequestMergeStats mergeStats = getMergeStats(repository,
+                                                                             changeRequest.getSourceBranch(),
+                                                                             changeRequest.getTargetBranch());
+
+                    getTextualDiff(repository,
+                                   changeRequest.getSourceBranch(),
+                                   changeRequest.getTargetBranch(),
+                                   changeRequest.getStartCommitId() != null ?
+                                           changeRequest.getStartCommitId() :
+                                           mergeStats.getMergeBaseId(),
+                                   changeRequest.getEndCommitId());
+                });
+    }
+
     private ChangeRequest getChangeRequestById(final String spaceName,
                                                final String repositoryAlias,
                                                final boolean withFullContent,
@@ -926,29 +972,22 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
             return changeRequests;
         }
 
-        final Map<Integer, List<ChangeRequest>> map = IntStream.iterate(0,
-                                                                        i -> i + pageSize)
-                .limit((changeRequests.size() + pageSize - 1) / pageSize)
-                .boxed()
-                .collect(toMap(i -> i / pageSize,
-                               i -> changeRequests.subList(i,
-                                                           min(i + pageSize,
-                                                               changeRequests.size()))));
-
-        List<ChangeRequest> paginatedChangeRequests = new ArrayList<>();
+        final int fromIndex = page * pageSize;
 
-        if (map.containsKey(page)) {
-            paginatedChangeRequests.addAll(map.get(page));
+        if (fromIndex >= changeRequests.size()) {
+            return new ArrayList<>();
         }
 
-        return paginatedChangeRequests;
+        return new ArrayList<>(changeRequests.subList(fromIndex,
+                                                      min(fromIndex + pageSize,
+                                                          changeRequests.size())));
     }
 
     private Integer countChangeRequestComments(final String spaceName,
                                                final String repositoryAlias,
                                                final Long changeRequestId) {
-        return spaceConfigStorageRegistry.get(spaceName).getChangeRequestCommentIds(repositoryAlias,
-                                                                                    changeRequestId).size();
+        return spaceConfigStorageRegistry.get(spaceName).countChangeRequestComments(repositoryAlias,
+                                                                                    changeRequestId);
     }
 
     private List<ChangeRequestComment> paginateComments(final List<ChangeRequestComment> comments,
@@ -1091,14 +1130,16 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
         final Branch targetBranch = resolveBranch(repository,
                                                   targetBranchName);
 
-        final List<String> conflicts = getConflicts(repository,
-                                                    sourceBranchName,
-                                                    targetBranchName);
+        final ChangeRequestMergeStats mergeStats = getMergeStats(repository,
+                                                                 sourceBranchName,
+                                                                 targetBranchName);
+
+        final List<String> conflicts = mergeStats.getConflicts();
 
         return getTextualDiff(repository,
                               sourceBranchName,
                               targetBranchName,
-                              startCommitId,
+                              startCommitId != null ? startCommitId : mergeStats.getMergeBaseId(),
                               lastCommitId)
                 .stream()
                 .sorted(Comparator.comparing(TextualDiff::getChangeType))
@@ -1122,18 +1163,67 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
 
     private int countChangeRequestDiffs(final Repository repository,
                                         final ChangeRequest changeRequest) {
-        return getDiffEntries(repository,
-                              changeRequest.getSourceBranch(),
-                              changeRequest.getTargetBranch(),
-                              changeRequest.getStartCommitId(),
-                              changeRequest.getEndCommitId()).size();
+        if (!hasBranches(repository,
+                         changeRequest)) {
+            return 0;
+        }
+
+        final String endCommitId = changeRequest.getEndCommitId() != null ?
+                changeRequest.getEndCommitId() :
+                getLastCommitId(repository,
+                                changeRequest.getSourceBranch());
+
+        return statsCache.getDiffCount(changeRequest.getStartCommitId(),
+                                       endCommitId,
+                                       () -> getDiffEntries(repository,
+                                                            changeRequest.getSourceBranch(),
+                                                            changeRequest.getTargetBranch(),
+                                                            changeRequest.getStartCommitId(),
+                                                            endCommitId).size());
     }
 
     private boolean isChangeRequestConflictFree(final Repository repository,
                                                 final ChangeRequest changeRequest) {
-        return getConflicts(repository,
-                            changeRequest.getSourceBranch(),
-                            changeRequest.getTargetBranch()).isEmpty();
+        if (!hasBranches(repository,
+                         changeRequest)) {
+            return true;
+        }
+
+        return getMergeStats(repository,
+                             changeRequest.getSourceBranch(),
+                             changeRequest.getTargetBranch()).isConflictFree();
+    }
+
+    /**
+     * Merges the current heads of both branches, or reuses the outcome of an earlier merge of the same commits.
+     */
+    private ChangeRequestMergeStats getMergeStats(final Repository repository,
+                                                  final String sourceBranchName,
+                                                  final String targetBranchName) {
+        final Git git = getGitFromBranch(repository,
+                                         sourceBranchName);
+
+        final RevCommit sourceCommit = getLastCommit(repository,
+                                                     sourceBranchName);
+        final RevCommit targetCommit = getLastCommit(repository,
+                                                     targetBranchName);
+
+        return statsCache.getMergeStats(targetCommit.getName(),
+                                        sourceCommit.getName(),
+                                        () -> {
+                                            final RevCommit mergeBase = git.getCommonAncestorCommit(targetCommit,
+                                                                                                    sourceCommit);
+
+                                            return new ChangeRequestMergeStats(mergeBase != null ? mergeBase.getName() : null,
+                                                                               git.conflictCommitsChecker(targetCommit,
+                                                                                                          sourceCommit));
+                                        });
+    }
+
+    private boolean hasBranches(final Repository repository,
+                                final ChangeRequest changeRequest) {
+        return repository.getBranch(changeRequest.getSourceBranch()).isPresent()
+                && repository.getBranch(changeRequest.getTargetBranch()).isPresent();
     }
 
     private boolean tryMergeChangeRequest(final Repository repository,
@@ -1359,10 +1449,24 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
             final Git git = getGitFromBranch(repository,
                                              sourceBranchName);
 
-            return git.textualDiffRefs(targetBranchName,
-                                       sourceBranchName,
-                                       startCommitId,
-                                       endCommitId);
+            final String resolvedEndCommitId = endCommitId != null ?
+                    endCommitId :
+                    getLastCommitId(repository,
+                                    sourceBranchName);
+
+            if (startCommitId == null) {
+                return git.textualDiffRefs(targetBranchName,
+                                           sourceBranchName,
+                                           null,
+                                           resolvedEndCommitId);
+            }
+
+            return statsCache.getTextualDiffs(startCommitId,
+                                              resolvedEndCommitId,
+                                              () -> git.textualDiffRefs(targetBranchName,
+                                                                        sourceBranchName,
+                                                                        startCommitId,
+                                                                        resolvedEndCommitId));
         }
 
         return Collections.emptyList();
@@ -1389,23 +1493,6 @@ public class ChangeRequestServiceImpl implements ChangeRequestService {
         return Collections.emptyList();
     }
 
-    private List<String> getConflicts(final Repository repository,
-                                      final String sourceBranchName,
-                                      final String targetBranchName) {
-        final Optional<Branch> sourceBranch = repository.getBranch(sourceBranchName);
-        final Optional<Branch> targetBranch = repository.getBranch(targetBranchName);
-
-        if (sourceBranch.isPresent() && targetBranch.isPresent()) {
-            final Git git = getGitFromBranch(repository,
-                                             sourceBranchName);
-
-            return git.conflictBranchesChecker(targetBranchName,
-                                               sourceBranchName);
-        }
-
-        return Collections.emptyList();
-    }
-
     private Git getGitFromBranch(final Repository repository,
                                  final String branchName) {
         return getFileSystemFromBranch(repository,
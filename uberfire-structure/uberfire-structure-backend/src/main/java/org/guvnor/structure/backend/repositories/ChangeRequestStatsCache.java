@@ -0,0 +1,503 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.backend.repositories;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.uberfire.commons.concurrent.Managed;
+import org.uberfire.java.nio.base.TextualDiff;
+import org.uberfire.java.nio.fs.jgit.JGitFileSystemProviderConfiguration;
+
+import static org.kie.soup.commons.validation.PortablePreconditions.checkNotNull;
+
+/**
+ * Merge outcomes, diff sizes and textual diffs of change requests, keyed by the commits they were computed from. A
+ * commit pair always gives the same answer, so entries never go stale: they are kept in memory up to a bound and
+ * written to a content addressed directory that survives restarts. Entries are filled in the background by
+ * {@link #refresh(String, Runnable)} when branches move, lookups only compute on the calling thread on a miss. The
+ * directory is bounded too, each refresh following new writes removes the least recently used files above the bound.
+ */
+@ApplicationScoped
+public class ChangeRequestStatsCache {
+
+    public static final String MAX_ENTRIES = "org.uberfire.changerequest.stats.cache.size";
+    public static final String CACHE_DIR = "org.uberfire.changerequest.stats.cache.dir";
+    public static final String MAX_DISK_SIZE_MB = "org.uberfire.changerequest.stats.cache.disk.size.mb";
+
+    private static final String DEFAULT_CACHE_DIR_NAME = ".changerequest-stats";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeRequestStatsCache.class);
+
+    private final ChangeRequestStatsCacheMetrics metrics = new ChangeRequestStatsCacheMetrics();
+    private final Map<String, Boolean> refreshes = new ConcurrentHashMap<>();
+    private final AtomicBoolean pruneNeeded = new AtomicBoolean(true);
+
+    private Executor executor;
+    private File directory;
+    private long maxDiskBytes;
+    private Tier<ChangeRequestMergeStats> merges;
+    private Tier<Integer> diffCounts;
+    private Tier<List<TextualDiff>> textualDiffs;
+
+    public ChangeRequestStatsCache() {
+    }
+
+    @Inject
+    public ChangeRequestStatsCache(final @Managed ExecutorService executorService) {
+        this(executorService,
+             defaultDirectory(),
+             Integer.parseInt(System.getProperty(MAX_ENTRIES,
+                                                 "1024")),
+             Long.parseLong(System.getProperty(MAX_DISK_SIZE_MB,
+                                               "256")) * 1024 * 1024);
+    }
+
+    /**
+     * @param directory where entries are persisted, null keeps them in memory only.
+     */
+    public ChangeRequestStatsCache(final Executor executor,
+                                   final File directory,
+                                   final int maxEntries) {
+        this(executor,
+             directory,
+             maxEntries,
+             Long.MAX_VALUE);
+    }
+
+    /**
+     * @param directory where entries are persisted, null keeps them in memory only.
+     * @param maxDiskBytes size of the persisted entries above which the least recently used ones are removed.
+     */
+    public ChangeRequestStatsCache(final Executor executor,
+                                   final File directory,
+                                   final int maxEntries,
+                                   final long maxDiskBytes) {
+        this.executor = checkNotNull("executor",
+                                     executor);
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.merges = new Tier<>("merge",
+                                 maxEntries,
+                                 ChangeRequestStatsCache::writeMergeStats,
+                                 ChangeRequestStatsCache::readMergeStats);
+        this.diffCounts = new Tier<>("diffcount",
+                                     maxEntries,
+                                     DataOutput::writeInt,
+                                     DataInput::readInt);
+        // textual diffs hold whole file contents, keep fewer of them in memory
+        this.textualDiffs = new Tier<>("textualdiff",
+                                       Math.max(16,
+                                                maxEntries / 8),
+                                       ChangeRequestStatsCache::writeTextualDiffs,
+                                       ChangeRequestStatsCache::readTextualDiffs);
+    }
+
+    public ChangeRequestMergeStats getMergeStats(final String targetCommitId,
+                                                 final String sourceCommitId,
+                                                 final Supplier<ChangeRequestMergeStats> mergeStats) {
+        return get(merges,
+                   key(targetCommitId,
+                       sourceCommitId),
+                   mergeStats);
+    }
+
+    public int getDiffCount(final String fromCommitId,
+                            final String toCommitId,
+                            final Supplier<Integer> diffCount) {
+        return get(diffCounts,
+                   key(fromCommitId,
+                       toCommitId),
+                   diffCount);
+    }
+
+    public List<TextualDiff> getTextualDiffs(final String fromCommitId,
+                                             final String toCommitId,
+                                             final Supplier<List<TextualDiff>> textualDiffs) {
+        return get(this.textualDiffs,
+                   key(fromCommitId,
+                       toCommitId),
+                   textualDiffs);
+    }
+
+    /**
+     * Runs the given fill on the executor, unless one with the same key is already queued. A request arriving while
+     * the fill runs makes it run once more, so it sees the latest heads.
+     */
+    public void refresh(final String key,
+                        final Runnable fill) {
+        if (refreshes.put(key,
+                          Boolean.TRUE) == null) {
+            executor.execute(() -> runRefresh(key,
+                                              fill));
+        }
+    }
+
+    public ChangeRequestStatsCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void runRefresh(final String key,
+                            final Runnable fill) {
+        do {
+            refreshes.put(key,
+                          Boolean.FALSE);
+            try {
+                fill.run();
+                metrics.onRefresh();
+            } catch (final RuntimeException e) {
+                metrics.onFailedRefresh();
+                logger.warn("Unable to refresh the change request stats of " + key,
+                            e);
+            }
+            if (pruneNeeded.compareAndSet(true,
+                                          false)) {
+                prune();
+            }
+        } while (!refreshes.remove(key,
+                                   Boolean.FALSE));
+    }
+
+    /**
+     * Removes the least recently used files until the persisted entries fit in the bound. Disk hits touch their file,
+     * so the modification time tells when an entry was last used.
+     */
+    void prune() {
+        if (directory == null || maxDiskBytes == Long.MAX_VALUE) {
+            return;
+        }
+
+        final List<StoredEntry> entries = new ArrayList<>();
+        collect(directory,
+                entries);
+        long size = 0;
+        for (final StoredEntry entry : entries) {
+            size += entry.length;
+        }
+        if (size <= maxDiskBytes) {
+            return;
+        }
+
+        entries.sort(Comparator.comparingLong(entry -> entry.lastModified));
+        for (final StoredEntry entry : entries) {
+            if (size <= maxDiskBytes) {
+                break;
+            }
+            if (entry.file.delete()) {
+                size -= entry.length;
+                metrics.onDiskEviction();
+            }
+        }
+    }
+
+    private static void collect(final File directory,
+                                final List<StoredEntry> entries) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (final File file : files) {
+            if (file.isDirectory()) {
+                collect(file,
+                        entries);
+            } else if (!file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                entries.add(new StoredEntry(file));
+            }
+        }
+    }
+
+    private <V> V get(final Tier<V> tier,
+                      final String key,
+                      final Supplier<V> value) {
+        final V cached = tier.memory.get(key);
+        if (cached != null) {
+            metrics.onMemoryHit();
+            return cached;
+        }
+
+        final File file = file(tier,
+                               key);
+        final V stored = read(tier,
+                              file,
+                              key);
+        if (stored != null) {
+            metrics.onDiskHit();
+            file.setLastModified(System.currentTimeMillis());
+            tier.memory.put(key,
+                            stored);
+            return stored;
+        }
+
+        metrics.onMiss();
+        final V computed = value.get();
+        tier.memory.put(key,
+                        computed);
+        write(tier,
+              file,
+              key,
+              computed);
+        return computed;
+    }
+
+    private File file(final Tier<?> tier,
+                      final String key) {
+        if (directory == null) {
+            return null;
+        }
+
+        final String hash = sha1(key);
+        return new File(directory,
+                        tier.name + File.separator + hash.substring(0,
+                                                                    2) + File.separator + hash.substring(2));
+    }
+
+    private <V> V read(final Tier<V> tier,
+                       final File file,
+                       final String key) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+            return tier.reader.read(in);
+        } catch (final IOException e) {
+            logger.debug("Ignoring unreadable change request stats " + file,
+                         e);
+            return null;
+        }
+    }
+
+    /**
+     * Entries are written to a temporary file that is then moved in place, readers never see a partial entry. Two
+     * threads writing the same key write the same content.
+     */
+    private <V> void write(final Tier<V> tier,
+                           final File file,
+                           final String key,
+                           final V value) {
+        if (file == null) {
+            return;
+        }
+
+        File temp = null;
+        try {
+            final File parent = file.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+                throw new IOException("Unable to create " + parent);
+            }
+            temp = File.createTempFile(file.getName(),
+                                       TEMP_FILE_SUFFIX,
+                                       parent);
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                tier.writer.write(out,
+                                  value);
+            }
+            Files.move(temp.toPath(),
+                       file.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            pruneNeeded.set(true);
+        } catch (final IOException e) {
+            metrics.onFailedWrite();
+            logger.warn("Unable to store change request stats in " + file,
+                        e);
+            if (temp != null && !temp.delete()) {
+                temp.deleteOnExit();
+            }
+        }
+    }
+
+    private static String key(final String first,
+                              final String second) {
+        return first + ".." + second;
+    }
+
+    private static String sha1(final String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF,
+                                              16))
+                        .append(Character.forDigit(b & 0xF,
+                                                   16));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static File defaultDirectory() {
+        final String directory = System.getProperty(CACHE_DIR);
+        if (directory != null) {
+            return new File(directory);
+        }
+
+        return new File(System.getProperty(JGitFileSystemProviderConfiguration.GIT_NIO_DIR,
+                                           System.getProperty("user.dir")),
+                        DEFAULT_CACHE_DIR_NAME);
+    }
+
+    private static void writeMergeStats(final DataOutput out,
+                                        final ChangeRequestMergeStats mergeStats) throws IOException {
+        out.writeBoolean(mergeStats.getMergeBaseId() != null);
+        if (mergeStats.getMergeBaseId() != null) {
+            out.writeUTF(mergeStats.getMergeBaseId());
+        }
+        out.writeInt(mergeStats.getConflicts().size());
+        for (final String conflict : mergeStats.getConflicts()) {
+            out.writeUTF(conflict);
+        }
+    }
+
+    private static ChangeRequestMergeStats readMergeStats(final DataInput in) throws IOException {
+        final String mergeBaseId = in.readBoolean() ? in.readUTF() : null;
+        final int size = in.readInt();
+        final List<String> conflicts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            conflicts.add(in.readUTF());
+        }
+        return new ChangeRequestMergeStats(mergeBaseId,
+                                           conflicts);
+    }
+
+    private static void writeTextualDiffs(final DataOutput out,
+                                          final List<TextualDiff> textualDiffs) throws IOException {
+        out.writeInt(textualDiffs.size());
+        for (final TextualDiff textualDiff : textualDiffs) {
+            out.writeUTF(textualDiff.getOldFilePath());
+            out.writeUTF(textualDiff.getNewFilePath());
+            out.writeUTF(textualDiff.getChangeType());
+            out.writeInt(textualDiff.getLinesAdded());
+            out.writeInt(textualDiff.getLinesDeleted());
+            // writeUTF is limited to 64k, diffs are not
+            final byte[] diffText = textualDiff.getDiffText().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(diffText.length);
+            out.write(diffText);
+        }
+    }
+
+    private static List<TextualDiff> readTextualDiffs(final DataInput in) throws IOException {
+        final int size = in.readInt();
+        final List<TextualDiff> textualDiffs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final String oldFilePath = in.readUTF();
+            final String newFilePath = in.readUTF();
+            final String changeType = in.readUTF();
+            final int linesAdded = in.readInt();
+            final int linesDeleted = in.readInt();
+            final byte[] diffText = new byte[in.readInt()];
+            in.readFully(diffText);
+            textualDiffs.add(new TextualDiff(oldFilePath,
+                                             newFilePath,
+                                             changeType,
+                                             linesAdded,
+                                             linesDeleted,
+                                             new String(diffText,
+                                                        StandardCharsets.UTF_8)));
+        }
+        return Collections.unmodifiableList(textualDiffs);
+    }
+
+    @FunctionalInterface
+    private interface Writer<V> {
+
+        void write(DataOutput out,
+                   V value) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<V> {
+
+        V read(DataInput in) throws IOException;
+    }
+
+    private static class StoredEntry {
+
+        private final File file;
+        private final long length;
+        private final long lastModified;
+
+        private StoredEntry(final File file) {
+            this.file = file;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+    }
+
+    private static class Tier<V> {
+
+        private final String name;
+        private final Map<String, V> memory;
+        private final Writer<V> writer;
+        private final Reader<V> reader;
+
+        private Tier(final String name,
+                     final int maxEntries,
+                     final Writer<V> writer,
+                     final Reader<V> reader) {
+            this.name = name;
+            this.writer = writer;
+            this.reader = reader;
+            this.memory = Collections.synchronizedMap(new LinkedHashMap<String, V>(16,
+                                                                                   0.75f,
+                                                                                   true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, V> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+        }
+    }
+}
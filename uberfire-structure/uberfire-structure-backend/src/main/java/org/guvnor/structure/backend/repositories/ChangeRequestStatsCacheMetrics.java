@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.backend.repositories;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lookups and background refreshes of a {@link ChangeRequestStatsCache}.
+ */
+public class ChangeRequestStatsCacheMetrics {
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failedRefreshes = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    void onMemoryHit() {
+        memoryHits.incrementAndGet();
+    }
+
+    void onDiskHit() {
+        diskHits.incrementAndGet();
+    }
+
+    void onMiss() {
+        misses.incrementAndGet();
+    }
+
+    void onRefresh() {
+        refreshes.incrementAndGet();
+    }
+
+    void onFailedRefresh() {
+        failedRefreshes.incrementAndGet();
+    }
+
+    void onFailedWrite() {
+        failedWrites.incrementAndGet();
+    }
+
+    void onDiskEviction() {
+        diskEvictions.incrementAndGet();
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * Lookups computed on the calling thread, either because no refresh ran for the commits yet or because the entry
+     * was evicted from both tiers.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    public long getFailedRefreshes() {
+        return failedRefreshes.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    /**
+     * Persisted entries removed to keep the cache directory within its bound.
+     */
+    public long getDiskEvictions() {
+        return diskEvictions.get();
+    }
+
+    /**
+     * @return the fraction of the lookups served from memory or disk, 1 when nothing was looked up yet.
+     */
+    public double getHitRatio() {
+        final long hits = memoryHits.get() + diskHits.get();
+        final long lookups = hits + misses.get();
+        return lookups == 0 ? 1d : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeRequestStatsCacheMetrics{" +
+                "memoryHits=" + memoryHits +
+                ", diskHits=" + diskHits +
+                ", misses=" + misses +
+                ", refreshes=" + refreshes +
+                ", failedRefreshes=" + failedRefreshes +
+                ", failedWrites=" + failedWrites +
+                ", diskEvictions=" + diskEvictions +
+                '}';
+    }
+}
@@ -13,13 +13,12 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
 package org.guvnor.structure.backend.repositories;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.guvnor.structure.repositories.Branch;
@@ -27,20 +26,27 @@ import org.guvnor.structure.repositories.Repository;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 
+/**
+ * The repositories of a space, indexed by alias and by branch root. Writers replace an immutable snapshot, so readers
+ * never lock and always see both indexes in the same state.
+ */
 public class ConfiguredRepositoriesBySpace {
 
-    private Map<String, Repository> repositoriesByAlias = Collections.synchronizedMap(new HashMap<>());
-    private Map<Path, Repository> repositoriesByBranchRoot = Collections.synchronizedMap(new HashMap<>());
-
-    public void clear() {
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
 
-        repositoriesByAlias.clear();
-        repositoriesByBranchRoot.clear();
+    public synchronized void clear() {
+        snapshot = Snapshot.EMPTY;
     }
 
-    public void add(Repository repository) {
-        repositoriesByAlias.put(repository.getAlias(),
-                                repository);
+    public synchronized void add(Repository repository) {
+        final Map<String, Repository> repositoriesByAlias = new LinkedHashMap<>(snapshot.repositoriesByAlias);
+        final Map<Path, Repository> repositoriesByBranchRoot = new LinkedHashMap<>(snapshot.repositoriesByBranchRoot);
+
+        final Repository replaced = repositoriesByAlias.put(repository.getAlias(),
+                                                            repository);
+        if (replaced != null) {
+            repositoriesByBranchRoot.values().removeIf(r -> r.getAlias().equals(repository.getAlias()));
+        }
 
         if (repository.getBranches() != null) {
             for (final Branch branch : repository.getBranches()) {
@@ -48,50 +54,70 @@ public class ConfiguredRepositoriesBySpace {
                                              repository);
             }
         }
+
+        snapshot = new Snapshot(repositoriesByAlias,
+                                repositoriesByBranchRoot);
     }
 
     public Repository get(String alias) {
-        return repositoriesByAlias.get(alias);
+        return snapshot.repositoriesByAlias.get(alias);
     }
 
     public Map<String, Repository> getRepositoriesByAlias() {
-        return repositoriesByAlias;
+        return snapshot.repositoriesByAlias;
     }
 
     public Repository get(Path root) {
-        return repositoriesByBranchRoot.get(Paths.normalizePath(root));
+        return snapshot.repositoriesByBranchRoot.get(Paths.normalizePath(root));
     }
 
     public boolean containsRepository(String alias) {
-        return repositoriesByAlias.containsKey(alias);
+        return snapshot.repositoriesByAlias.containsKey(alias);
     }
 
-    Repository remove(final String alias) {
-
-        final Repository removed = repositoriesByAlias.remove(alias);
+    public synchronized Repository remove(final String alias) {
+        final Repository removed = snapshot.repositoriesByAlias.get(alias);
 
-        removeFromRootByAlias(alias);
+        if (removed != null) {
+            final Map<String, Repository> repositoriesByAlias = new LinkedHashMap<>(snapshot.repositoriesByAlias);
+            repositoriesByAlias.remove(alias);
+            snapshot = new Snapshot(repositoriesByAlias,
+                                    withoutAlias(snapshot.repositoriesByBranchRoot,
+                                                 alias));
+        }
 
         return removed;
     }
 
-    void removeFromRootByAlias(final String alias) {
-        for (Path path : findFromRootMapByAlias(alias)) {
-            repositoriesByBranchRoot.remove(path);
-        }
+    synchronized void removeFromRootByAlias(final String alias) {
+        snapshot = new Snapshot(snapshot.repositoriesByAlias,
+                                withoutAlias(snapshot.repositoriesByBranchRoot,
+                                             alias));
     }
 
-    private List<Path> findFromRootMapByAlias(final String alias) {
-        List<Path> result = new ArrayList<>();
-        for (Path path : repositoriesByBranchRoot.keySet()) {
-            if (repositoriesByBranchRoot.get(path).getAlias().equals(alias)) {
-                result.add(path);
-            }
-        }
+    private static Map<Path, Repository> withoutAlias(final Map<Path, Repository> repositoriesByBranchRoot,
+                                                      final String alias) {
+        final Map<Path, Repository> result = new LinkedHashMap<>(repositoriesByBranchRoot);
+        result.values().removeIf(repository -> repository.getAlias().equals(alias));
         return result;
     }
 
     public Collection<Repository> getAllConfiguredRepositories() {
-        return repositoriesByAlias.values();
+        return snapshot.repositoriesByAlias.values();
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(),
+                                                   Collections.emptyMap());
+
+        final Map<String, Repository> repositoriesByAlias;
+        final Map<Path, Repository> repositoriesByBranchRoot;
+
+        Snapshot(final Map<String, Repository> repositoriesByAlias,
+                 final Map<Path, Repository> repositoriesByBranchRoot) {
+            this.repositoriesByAlias = Collections.unmodifiableMap(repositoriesByAlias);
+            this.repositoriesByBranchRoot = Collections.unmodifiableMap(repositoriesByBranchRoot);
+        }
     }
 }
@@ -19,15 +19,14 @@ package org.guvnor.structure.backend.repositories;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.guvnor.structure.backend.organizationalunit.SpaceCatalog;
 import org.guvnor.structure.organizationalunit.config.RepositoryInfo;
-import org.guvnor.structure.organizationalunit.config.SpaceConfigStorageRegistry;
+import org.guvnor.structure.organizationalunit.config.SpaceInfo;
 import org.guvnor.structure.repositories.Branch;
 import org.guvnor.structure.repositories.Repository;
-import org.guvnor.structure.server.repositories.RepositoryFactory;
 import org.uberfire.backend.server.util.Paths;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.spaces.Space;
@@ -44,17 +43,14 @@ import org.uberfire.spaces.Space;
 @ApplicationScoped
 public class ConfiguredRepositoriesImpl implements ConfiguredRepositories {
 
-    private RepositoryFactory repositoryFactory;
-    private SpaceConfigStorageRegistry spaceConfigStorage;
+    private SpaceCatalog spaceCatalog;
 
     public ConfiguredRepositoriesImpl() {
     }
 
     @Inject
-    public ConfiguredRepositoriesImpl(final RepositoryFactory repositoryFactory,
-                                      final SpaceConfigStorageRegistry spaceConfigStorage) {
-        this.repositoryFactory = repositoryFactory;
-        this.spaceConfigStorage = spaceConfigStorage;
+    public ConfiguredRepositoriesImpl(final SpaceCatalog spaceCatalog) {
+        this.spaceCatalog = spaceCatalog;
     }
 
     /**
@@ -79,21 +75,18 @@ public class ConfiguredRepositoriesImpl implements ConfiguredRepositories {
                                                      final String alias,
                                                      final boolean includeDeleted) {
 
-        List<RepositoryInfo> repositories = getAllRepositoryInfo(space);
-
-        return repositories.stream()
-                .filter(this.getRepository(alias,
-                                           includeDeleted))
+        return getConfiguredRepositories(space,
+                                         this.getRepository(alias,
+                                                            includeDeleted))
+                .stream()
                 .findAny()
-                .map(repo -> repositoryFactory.newRepository(repo))
                 .orElse(null);
     }
 
     private List<RepositoryInfo> getAllRepositoryInfo(Space space) {
         try {
-            return this.spaceConfigStorage.get(space.getName())
-                    .loadSpaceInfo()
-                    .getRepositories();
+            final SpaceInfo spaceInfo = this.spaceCatalog.getSpaceInfo(space.getName());
+            return spaceInfo != null && spaceInfo.getRepositories() != null ? spaceInfo.getRepositories() : new ArrayList<>();
         } catch (Exception e) {
             return new ArrayList<>();
         }
@@ -152,12 +145,12 @@ public class ConfiguredRepositoriesImpl implements ConfiguredRepositories {
 
     private List<Repository> getConfiguredRepositories(Space space,
                                                        Predicate<RepositoryInfo> predicate) {
-        List<RepositoryInfo> repositories = getAllRepositoryInfo(space);
-
-        return repositories.stream()
-                .filter(predicate)
-                .map(repo -> repositoryFactory.newRepository(repo))
-                .collect(Collectors.toList());
+        try {
+            return this.spaceCatalog.getRepositories(space.getName(),
+                                                     predicate);
+        } catch (Exception e) {
+            return new ArrayList<>();
+        }
     }
 
     public boolean containsAlias(final Space space,
@@ -16,11 +16,16 @@
 
 package org.guvnor.structure.backend.repositories;
 
+import java.util.Collection;
+
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import org.guvnor.structure.organizationalunit.OrganizationalUnit;
 import org.guvnor.structure.organizationalunit.OrganizationalUnitService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.uberfire.commons.services.cdi.Startup;
 import org.uberfire.java.nio.file.api.FileSystemUtils;
 
@@ -31,6 +36,8 @@ import org.uberfire.java.nio.file.api.FileSystemUtils;
 @Startup
 public class LoadReposOnAppInit {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadReposOnAppInit.class);
+
     private ConfiguredRepositories configuredRepositories;
     private OrganizationalUnitService organizationalUnitService;
 
@@ -48,9 +55,20 @@ public class LoadReposOnAppInit {
     @PostConstruct
     public void execute() {
         if (this.isGitDefaultFileSystem()) {
-            organizationalUnitService
-                    .getAllOrganizationalUnits()
-                    .forEach(ou -> configuredRepositories.getAllConfiguredRepositories(ou.getSpace()));
+            final long start = System.currentTimeMillis();
+            final Collection<OrganizationalUnit> spaces = organizationalUnitService.getAllOrganizationalUnits();
+            final long spacesLoaded = System.currentTimeMillis();
+
+            int repositories = 0;
+            for (final OrganizationalUnit ou : spaces) {
+                repositories += configuredRepositories.getAllConfiguredRepositories(ou.getSpace()).size();
+            }
+
+            LOGGER.info("Startup: loaded {} spaces in {} ms, registered {} repositories in {} ms.",
+                        spaces.size(),
+                        spacesLoaded - start,
+                        repositories,
+                        System.currentTimeMillis() - spacesLoaded);
         }
     }
 
@@ -57,6 +57,7 @@ public class GitRepositoryBuilder {
     private final PasswordService secureService;
     private SpacesAPI spacesAPI;
     private Event<RepositoryExternalUpdateEvent> repositoryExternalUpdate;
+    private Event<RepositoryBranchUpdateEvent> repositoryBranchUpdate;
     private PostCommitNotificationService postCommitNotificationService;
     private GitRepository repo;
     private BranchAccessAuthorizer branchAccessAuthorizer;
@@ -65,12 +66,14 @@ public class GitRepositoryBuilder {
                                 final PasswordService secureService,
                                 final SpacesAPI spacesAPI,
                                 final Event<RepositoryExternalUpdateEvent> repositoryExternalUpdate,
+                                final Event<RepositoryBranchUpdateEvent> repositoryBranchUpdate,
                                 final PostCommitNotificationService postCommitNotificationService,
                                 final BranchAccessAuthorizer branchAccessAuthorizer) {
         this.ioService = ioService;
         this.secureService = secureService;
         this.spacesAPI = spacesAPI;
         this.repositoryExternalUpdate = repositoryExternalUpdate;
+        this.repositoryBranchUpdate = repositoryBranchUpdate;
         this.postCommitNotificationService = postCommitNotificationService;
         this.branchAccessAuthorizer = branchAccessAuthorizer;
     }
@@ -175,6 +178,8 @@ public class GitRepositoryBuilder {
                                                externalUpdatedCallBack());
                                            put(FileSystemHooks.PostCommit.name(),
                                                postCommitCallback());
+                                           put(FileSystemHooks.BranchUpdate.name(),
+                                               branchUpdateCallback());
                                            put(FileSystemHooks.BranchAccessCheck.name(),
                                                checkBranchAccessCallback());
                                            put(FileSystemHooks.BranchAccessFilter.name(),
@@ -191,6 +196,10 @@ public class GitRepositoryBuilder {
                                                                (Integer) ctx.getParamValue(FileSystemHooksConstants.POST_COMMIT_EXIT_CODE));
     }
 
+    private FileSystemHooks.FileSystemHook branchUpdateCallback() {
+        return ctx -> repositoryBranchUpdate.fire(new RepositoryBranchUpdateEvent(repo));
+    }
+
     private FileSystemHooks.FileSystemHook checkBranchAccessCallback() {
         return ctx -> {
             final ReceiveCommand command = (ReceiveCommand) ctx.getParamValue(FileSystemHooksConstants.RECEIVE_COMMAND);
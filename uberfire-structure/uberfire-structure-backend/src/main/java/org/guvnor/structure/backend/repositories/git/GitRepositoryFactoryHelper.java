@@ -50,6 +50,8 @@ public class GitRepositoryFactoryHelper implements RepositoryFactoryHelper {
 
     private Event<RepositoryExternalUpdateEvent> repositoryExternalUpdate;
 
+    private Event<RepositoryBranchUpdateEvent> repositoryBranchUpdate;
+
     private PostCommitNotificationService postCommitNotificationService;
 
     private BranchAccessAuthorizer branchAccessAuthorizer;
@@ -64,6 +66,7 @@ public class GitRepositoryFactoryHelper implements RepositoryFactoryHelper {
                                       @Named("configIO") IOService notIndexedIOService,
                                       SpacesAPI spacesAPI,
                                       Event<RepositoryExternalUpdateEvent> repositoryExternalUpdate,
+                                      Event<RepositoryBranchUpdateEvent> repositoryBranchUpdate,
                                       PostCommitNotificationService postCommitNotificationService,
                                       BranchAccessAuthorizer branchAccessAuthorizer,
                                       PasswordService secureService) {
@@ -71,6 +74,7 @@ public class GitRepositoryFactoryHelper implements RepositoryFactoryHelper {
         this.notIndexedIOService = notIndexedIOService;
         this.spacesAPI = spacesAPI;
         this.repositoryExternalUpdate = repositoryExternalUpdate;
+        this.repositoryBranchUpdate = repositoryBranchUpdate;
         this.postCommitNotificationService = postCommitNotificationService;
         this.branchAccessAuthorizer = branchAccessAuthorizer;
         this.secureService = secureService;
@@ -97,6 +101,7 @@ public class GitRepositoryFactoryHelper implements RepositoryFactoryHelper {
                                             secureService,
                                             spacesAPI,
                                             repositoryExternalUpdate,
+                                            repositoryBranchUpdate,
                                             postCommitNotificationService,
                                             branchAccessAuthorizer).build(repositoryInfo);
         }
@@ -105,6 +110,7 @@ public class GitRepositoryFactoryHelper implements RepositoryFactoryHelper {
                                         secureService,
                                         spacesAPI,
                                         repositoryExternalUpdate,
+                                        repositoryBranchUpdate,
                                         postCommitNotificationService,
                                         branchAccessAuthorizer).build(repositoryInfo);
     }
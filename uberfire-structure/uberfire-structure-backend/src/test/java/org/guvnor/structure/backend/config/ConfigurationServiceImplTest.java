@@ -36,6 +36,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.io.IOService;
 import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Path;
 import org.uberfire.mocks.FileSystemTestingUtils;
 
 import static org.junit.Assert.*;
@@ -287,6 +288,60 @@ public class ConfigurationServiceImplTest {
                      configGroups.size());
     }
 
+    @Test
+    public void reloadParsesOnlyChangedConfigGroupsTest() {
+        final ConfigGroup changed = configurationFactory.newConfigGroup(ConfigType.GLOBAL,
+                                                                        "changed",
+                                                                        "description");
+        configurationService.addConfiguration(changed);
+        configurationService.addConfiguration(configurationFactory.newConfigGroup(ConfigType.GLOBAL,
+                                                                                  "unchanged",
+                                                                                  "description"));
+
+        final List<ConfigGroup> configGroups = configurationService.getConfiguration(ConfigType.GLOBAL);
+        changed.setDescription("new-description");
+        configurationService.updateConfiguration(changed);
+        final List<ConfigGroup> reloadedConfigGroups = configurationService.getConfiguration(ConfigType.GLOBAL);
+
+        verify(ioService,
+               times(3)).readAllString(any(Path.class));
+        assertSame(configGroups.get(1),
+                   reloadedConfigGroups.get(1));
+        assertEquals("new-description",
+                     reloadedConfigGroups.get(0).getDescription());
+    }
+
+    @Test
+    public void changedConfigGroupFileInvalidatesItsNamespaceTest() {
+        final ConfigGroup config = configurationFactory.newConfigGroup(ConfigType.REPOSITORY,
+                                                                       "namespace",
+                                                                       "config",
+                                                                       "description");
+        configurationService.addConfiguration(config);
+        configurationService.getConfiguration(ConfigType.REPOSITORY,
+                                              "namespace");
+
+        // changed behind the service's back, e.g. by another cluster node
+        final Path file = ioService.get(systemRepository.getUri())
+                .resolve(ConfigType.REPOSITORY.getDir())
+                .resolve("namespace")
+                .resolve("config" + ConfigType.REPOSITORY.getExt());
+        config.setDescription("remote-description");
+        ioService.write(file,
+                        marshaller.marshall(config));
+
+        final String staleDescription = configurationService.getConfiguration(ConfigType.REPOSITORY,
+                                                                              "namespace").get(0).getDescription();
+        ((ConfigurationServiceImpl) configurationService).invalidateCache(file);
+        final String freshDescription = configurationService.getConfiguration(ConfigType.REPOSITORY,
+                                                                              "namespace").get(0).getDescription();
+
+        assertEquals("description",
+                     staleDescription);
+        assertEquals("remote-description",
+                     freshDescription);
+    }
+
     @Test
     public void cleanUpSystemRepositoryTest() {
         final ConfigGroup config = configurationFactory.newConfigGroup(ConfigType.REPOSITORY,
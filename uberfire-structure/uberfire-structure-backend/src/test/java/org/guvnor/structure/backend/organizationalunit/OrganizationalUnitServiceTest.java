@@ -49,6 +49,7 @@ import org.guvnor.structure.security.OrganizationalUnitAction;
 import org.guvnor.structure.server.config.ConfigGroup;
 import org.guvnor.structure.server.config.ConfigType;
 import org.guvnor.structure.server.config.ConfigurationService;
+import org.guvnor.structure.server.repositories.RepositoryFactory;
 import org.jboss.errai.security.shared.api.identity.User;
 import org.junit.Before;
 import org.junit.Test;
@@ -156,6 +157,11 @@ public class OrganizationalUnitServiceTest {
     @Mock
     private Event<SpaceContributorsUpdatedEvent> spaceContributorsUpdatedEvent;
 
+    @Mock
+    private RepositoryFactory repositoryFactory;
+
+    private SpaceCatalog spaceCatalog;
+
     @Captor
     private ArgumentCaptor<List<Contributor>> contributorsCapture;
 
@@ -180,6 +186,10 @@ public class OrganizationalUnitServiceTest {
 
         sessionInfo = new SessionInfoMock();
 
+        spaceCatalog = spy(new SpaceCatalog(spaceConfigStorageRegistry,
+                                            repositoryFactory,
+                                            systemFS));
+
         organizationalUnitFactory = spy(new OrganizationalUnitFactoryImpl(repositoryService,
                                                                           spacesAPI));
         organizationalUnitService = spy(new OrganizationalUnitServiceImpl(organizationalUnitFactory,
@@ -196,7 +206,8 @@ public class OrganizationalUnitServiceTest {
                                                                           spaceConfigStorageRegistry,
                                                                           systemFS,
                                                                           spaceContributorsUpdatedEvent,
-                                                                          configurationService));
+                                                                          configurationService,
+                                                                          spaceCatalog));
 
         when(authorizationManager.authorize(any(Resource.class),
                                             any(User.class))).thenReturn(false);
@@ -204,6 +215,7 @@ public class OrganizationalUnitServiceTest {
         doAnswer(invocation -> false).when(organizationalUnitService).isDeleted(any());
 
         doReturn(Paths.get("src/test/resources/niogit").toFile().toPath()).when(organizationalUnitService).getNiogitPath();
+        doReturn(Paths.get("src/test/resources/niogit").toFile().toPath()).when(spaceCatalog).getNiogitPath();
     }
 
     @Test
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.backend.organizationalunit;
+
+import java.util.Collections;
+
+import org.guvnor.structure.config.SystemRepositoryChangedEvent;
+import org.guvnor.structure.organizationalunit.NewOrganizationalUnitEvent;
+import org.guvnor.structure.organizationalunit.RemoveOrganizationalUnitEvent;
+import org.guvnor.structure.organizationalunit.config.SpaceConfigStorage;
+import org.guvnor.structure.organizationalunit.config.SpaceConfigStorageRegistry;
+import org.guvnor.structure.organizationalunit.config.SpaceInfo;
+import org.guvnor.structure.organizationalunit.config.SpaceInfoUpdatedEvent;
+import org.guvnor.structure.organizationalunit.impl.OrganizationalUnitImpl;
+import org.guvnor.structure.server.repositories.RepositoryFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SpaceCatalogTest {
+
+    @Mock
+    private SpaceConfigStorageRegistry spaceConfigStorageRegistry;
+
+    @Mock
+    private SpaceConfigStorage space1Storage;
+
+    @Mock
+    private SpaceConfigStorage space2Storage;
+
+    @Mock
+    private RepositoryFactory repositoryFactory;
+
+    @Mock
+    private FileSystem systemFS;
+
+    private SpaceCatalog spaceCatalog;
+
+    @Before
+    public void setup() {
+        doReturn(space1Storage).when(spaceConfigStorageRegistry).get("space1");
+        doReturn(space2Storage).when(spaceConfigStorageRegistry).get("space2");
+        doReturn(newSpaceInfo("space1")).when(space1Storage).loadSpaceInfo();
+        doReturn(newSpaceInfo("space2")).when(space2Storage).loadSpaceInfo();
+
+        spaceCatalog = spy(new SpaceCatalog(spaceConfigStorageRegistry,
+                                            repositoryFactory,
+                                            systemFS));
+        doReturn(Paths.get("src/test/resources/niogit").toFile().toPath()).when(spaceCatalog).getNiogitPath();
+    }
+
+    @Test
+    public void spacesAreScannedOnceTest() {
+        assertThat(spaceCatalog.getSpaceNames()).containsOnly("space1",
+                                                              "space2");
+        assertThat(spaceCatalog.getSpaceNames()).containsOnly("space1",
+                                                              "space2");
+        assertThat(spaceCatalog.getSpaceInfo("space1").getName()).isEqualTo("space1");
+
+        verify(spaceCatalog,
+               times(1)).getNiogitPath();
+        verify(space1Storage,
+               times(1)).loadSpaceInfo();
+        verify(space2Storage,
+               times(1)).loadSpaceInfo();
+    }
+
+    @Test
+    public void spaceInfoUpdateReloadsOnlyThatSpaceTest() {
+        spaceCatalog.getSpaceNames();
+
+        final SpaceInfo updated = newSpaceInfo("space1");
+        doReturn(updated).when(space1Storage).loadSpaceInfo();
+        spaceCatalog.onSpaceInfoUpdated(new SpaceInfoUpdatedEvent("space1"));
+
+        assertThat(spaceCatalog.getSpaceInfo("space1")).isSameAs(updated);
+        spaceCatalog.getSpaceInfo("space2");
+
+        verify(space1Storage,
+               times(2)).loadSpaceInfo();
+        verify(space2Storage,
+               times(1)).loadSpaceInfo();
+        verify(spaceCatalog,
+               times(1)).getNiogitPath();
+    }
+
+    @Test
+    public void newSpaceIsListedWithoutRescanTest() {
+        spaceCatalog.getSpaceNames();
+
+        final SpaceConfigStorage space3Storage = mock(SpaceConfigStorage.class);
+        doReturn(space3Storage).when(spaceConfigStorageRegistry).get("space3");
+        doReturn(newSpaceInfo("space3")).when(space3Storage).loadSpaceInfo();
+        spaceCatalog.onNewOrganizationalUnit(new NewOrganizationalUnitEvent(new OrganizationalUnitImpl("space3",
+                                                                                                       "org.space3"),
+                                                                            "user"));
+
+        assertThat(spaceCatalog.getSpaceNames()).containsOnly("space1",
+                                                              "space2",
+                                                              "space3");
+        assertThat(spaceCatalog.getSpaceInfo("space3").getName()).isEqualTo("space3");
+        verify(spaceCatalog,
+               times(1)).getNiogitPath();
+    }
+
+    @Test
+    public void removedSpaceIsDroppedTest() {
+        spaceCatalog.getSpaceNames();
+
+        spaceCatalog.onRemoveOrganizationalUnit(new RemoveOrganizationalUnitEvent(new OrganizationalUnitImpl("space1",
+                                                                                                             "org.space1"),
+                                                                                  "user"));
+
+        assertThat(spaceCatalog.getSpaceNames()).containsExactly("space2");
+    }
+
+    @Test
+    public void configurationChangeRescansTest() {
+        spaceCatalog.getSpaceNames();
+
+        spaceCatalog.onConfigurationChanged(new SystemRepositoryChangedEvent());
+        spaceCatalog.getSpaceNames();
+
+        verify(spaceCatalog,
+               times(2)).getNiogitPath();
+        verify(space1Storage,
+               times(2)).loadSpaceInfo();
+    }
+
+    private SpaceInfo newSpaceInfo(final String name) {
+        return new SpaceInfo(name,
+                             "",
+                             "org." + name,
+                             Collections.emptyList(),
+                             Collections.emptyList(),
+                             Collections.emptyList());
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.backend.organizationalunit.config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import org.guvnor.structure.repositories.changerequest.portable.ChangeRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.java.nio.base.SegmentChanges;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ChangeRequestIndexTest {
+
+    private static final String REPOSITORY = "myRepository";
+
+    @Mock
+    private SpaceConfigStorageImpl storage;
+
+    private ChangeRequest first;
+    private ChangeRequest second;
+
+    private ChangeRequestIndex index;
+
+    @Before
+    public void setup() {
+        first = changeRequest(1L,
+                              1000L);
+        second = changeRequest(2L,
+                               2000L);
+
+        doReturn(REPOSITORY + "/change_requests/").when(storage).getChangeRequestsFolder(REPOSITORY);
+        doReturn("information.cr").when(storage).getChangeRequestFileName();
+        doReturn(Arrays.asList(1L,
+                               2L)).when(storage).getChangeRequestIds(REPOSITORY);
+        doReturn(first).when(storage).loadChangeRequest(REPOSITORY,
+                                                        1L);
+        doReturn(second).when(storage).loadChangeRequest(REPOSITORY,
+                                                         2L);
+
+        index = new ChangeRequestIndex(storage);
+    }
+
+    @Test
+    public void unknownHeadIsLeftToTheCallerTest() {
+        assertThat(index.getChangeRequests(REPOSITORY)).isNull();
+        assertThat(index.countComments(REPOSITORY,
+                                       1L)).isEqualTo(-1);
+
+        verify(storage,
+               never()).getChangeRequestIds(anyString());
+    }
+
+    @Test
+    public void changeRequestsAreLoadedOncePerHeadTest() {
+        doReturn("head1").when(storage).getStorageHead();
+
+        assertThat(index.getChangeRequests(REPOSITORY)).containsExactly(second,
+                                                                        first);
+        assertThat(index.getChangeRequests(REPOSITORY)).containsExactly(second,
+                                                                        first);
+
+        verify(storage,
+               times(1)).getChangeRequestIds(REPOSITORY);
+        verify(storage,
+               times(1)).loadChangeRequest(REPOSITORY,
+                                           1L);
+    }
+
+    @Test
+    public void onlyChangedChangeRequestsAreReloadedTest() {
+        doReturn("head1").when(storage).getStorageHead();
+        index.getChangeRequests(REPOSITORY);
+
+        final ChangeRequest third = changeRequest(3L,
+                                                  3000L);
+        doReturn(third).when(storage).loadChangeRequest(REPOSITORY,
+                                                        3L);
+        doReturn("head2").when(storage).getStorageHead();
+        doReturn(new SegmentChanges("head2",
+                                    Arrays.asList(REPOSITORY + "/change_requests/3/information.cr",
+                                                  "otherRepository/change_requests/4/information.cr"),
+                                    Collections.singletonList(REPOSITORY + "/change_requests/1/information.cr")))
+                .when(storage).getStorageChanges("head1");
+
+        assertThat(index.getChangeRequests(REPOSITORY)).containsExactly(third,
+                                                                        second);
+
+        verify(storage,
+               times(1)).getChangeRequestIds(REPOSITORY);
+        verify(storage,
+               times(1)).loadChangeRequest(REPOSITORY,
+                                           2L);
+        verify(storage,
+               never()).loadChangeRequest("otherRepository",
+                                          4L);
+    }
+
+    @Test
+    public void unreachableHeadRebuildsTheIndexTest() {
+        doReturn("head1").when(storage).getStorageHead();
+        index.getChangeRequests(REPOSITORY);
+
+        doReturn("head2").when(storage).getStorageHead();
+        doReturn(null).when(storage).getStorageChanges("head1");
+
+        assertThat(index.getChangeRequests(REPOSITORY)).containsExactly(second,
+                                                                        first);
+
+        verify(storage,
+               times(2)).getChangeRequestIds(REPOSITORY);
+    }
+
+    @Test
+    public void commentCountsAreDroppedWhenACommentChangesTest() {
+        doReturn("head1").when(storage).getStorageHead();
+        doReturn(Arrays.asList(1L,
+                               2L)).when(storage).getChangeRequestCommentIds(REPOSITORY,
+                                                                             1L);
+
+        assertThat(index.countComments(REPOSITORY,
+                                       1L)).isEqualTo(2);
+        assertThat(index.countComments(REPOSITORY,
+                                       1L)).isEqualTo(2);
+        verify(storage,
+               times(1)).getChangeRequestCommentIds(REPOSITORY,
+                                                    1L);
+
+        doReturn("head2").when(storage).getStorageHead();
+        doReturn(new SegmentChanges("head2",
+                                    Collections.singletonList(REPOSITORY + "/change_requests/1/comments/3.comment"),
+                                    Collections.emptyList()))
+                .when(storage).getStorageChanges("head1");
+        doReturn(Arrays.asList(1L,
+                               2L,
+                               3L)).when(storage).getChangeRequestCommentIds(REPOSITORY,
+                                                                             1L);
+
+        assertThat(index.countComments(REPOSITORY,
+                                       1L)).isEqualTo(3);
+        verify(storage,
+               times(1)).loadChangeRequest(REPOSITORY,
+                                           1L);
+    }
+
+    private static ChangeRequest changeRequest(final Long id,
+                                               final long createdDate) {
+        final ChangeRequest changeRequest = mock(ChangeRequest.class);
+        doReturn(id).when(changeRequest).getId();
+        doReturn(new Date(createdDate)).when(changeRequest).getCreatedDate();
+        return changeRequest;
+    }
+}
@@ -18,21 +18,28 @@ package org.guvnor.structure.backend.organizationalunit.config;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
+import javax.enterprise.event.Event;
+
 import org.guvnor.structure.organizationalunit.config.BranchPermissions;
+import org.guvnor.structure.organizationalunit.config.SpaceInfo;
+import org.guvnor.structure.organizationalunit.config.SpaceInfoUpdatedEvent;
 import org.guvnor.structure.repositories.changerequest.portable.ChangeRequest;
 import org.guvnor.structure.repositories.changerequest.portable.ChangeRequestComment;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.backend.server.io.object.ObjectStorage;
 import org.uberfire.io.IOService;
 import org.uberfire.mocks.FileSystemTestingUtils;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.eq;
@@ -51,6 +58,9 @@ public class SpaceConfigStorageImplTest {
 
     private IOService ioService;
 
+    @Mock
+    private Event<SpaceInfoUpdatedEvent> spaceInfoUpdatedEvent;
+
     private SpaceConfigStorageImpl spaceConfigStorage;
 
     private static FileSystemTestingUtils fileSystemTestingUtils = new FileSystemTestingUtils();
@@ -62,7 +72,8 @@ public class SpaceConfigStorageImplTest {
         ioService = spy(fileSystemTestingUtils.getIoService());
 
         spaceConfigStorage = spy(new SpaceConfigStorageImpl(objectStorage,
-                                                            ioService));
+                                                            ioService,
+                                                            spaceInfoUpdatedEvent));
     }
 
     @After
@@ -121,20 +132,26 @@ public class SpaceConfigStorageImplTest {
             add(2L);
         }};
 
-        final ChangeRequest expectedChangeRequest0 = mock(ChangeRequest.class);
-        final ChangeRequest expectedChangeRequest1 = mock(ChangeRequest.class);
+        final ChangeRequest olderChangeRequest = mock(ChangeRequest.class);
+        final ChangeRequest newerChangeRequest = mock(ChangeRequest.class);
+        doReturn(1L).when(olderChangeRequest).getId();
+        doReturn(new Date(1000L)).when(olderChangeRequest).getCreatedDate();
+        doReturn(2L).when(newerChangeRequest).getId();
+        doReturn(new Date(2000L)).when(newerChangeRequest).getCreatedDate();
 
         doReturn(ids).when(spaceConfigStorage).getChangeRequestIds("MyProject");
 
-        doReturn(expectedChangeRequest0).when(objectStorage).read("/MyProject/change_requests/1/information.cr");
-        doReturn(expectedChangeRequest1).when(objectStorage).read("/MyProject/change_requests/2/information.cr");
+        doReturn(olderChangeRequest).when(objectStorage).read("/MyProject/change_requests/1/information.cr");
+        doReturn(newerChangeRequest).when(objectStorage).read("/MyProject/change_requests/2/information.cr");
 
         final List<ChangeRequest> changeRequests = spaceConfigStorage.loadChangeRequests("MyProject");
 
-        assertSame(expectedChangeRequest0,
+        // newest first, as when they come from the index
+        assertEquals(2,
+                     changeRequests.size());
+        assertSame(newerChangeRequest,
                    changeRequests.get(0));
-
-        assertSame(expectedChangeRequest1,
+        assertSame(olderChangeRequest,
                    changeRequests.get(1));
     }
 
@@ -399,4 +416,20 @@ public class SpaceConfigStorageImplTest {
 
         assertSame(0, ids.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void saveSpaceInfoFiresUpdateTest() {
+        final SpaceInfo spaceInfo = mock(SpaceInfo.class);
+        spaceConfigStorage.setup("mySpace");
+
+        spaceConfigStorage.saveSpaceInfo(spaceInfo);
+
+        verify(objectStorage).write("/config/SpaceInfo.json",
+                                    spaceInfo,
+                                    false);
+        final ArgumentCaptor<SpaceInfoUpdatedEvent> eventCaptor = ArgumentCaptor.forClass(SpaceInfoUpdatedEvent.class);
+        verify(spaceInfoUpdatedEvent).fire(eventCaptor.capture());
+        assertEquals("mySpace",
+                     eventCaptor.getValue().getSpaceName());
+    }
+}
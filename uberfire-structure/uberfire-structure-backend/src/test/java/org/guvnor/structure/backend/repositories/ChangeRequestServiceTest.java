@@ -31,6 +31,7 @@ import javax.enterprise.event.Event;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.guvnor.structure.backend.repositories.git.RepositoryBranchUpdateEvent;
 import org.guvnor.structure.organizationalunit.config.SpaceConfigStorage;
 import org.guvnor.structure.organizationalunit.config.SpaceConfigStorageRegistry;
 import org.guvnor.structure.repositories.Branch;
@@ -196,7 +197,10 @@ public class ChangeRequestServiceTest {
                                                         changeRequestUpdatedEvent,
                                                         changeRequestStatusUpdatedEventEvent,
                                                         branchAccessAuthorizer,
-                                                        sessionInfo));
+                                                        sessionInfo,
+                                                        new ChangeRequestStatsCache(Runnable::run,
+                                                                                    null,
+                                                                                    16)));
 
         doReturn(fs).when(service).getFileSystemFromBranch(repository, "sourceBranch");
         doReturn(fs).when(service).getFileSystemFromBranch(repository, "targetBranch");
@@ -632,6 +636,47 @@ public class ChangeRequestServiceTest {
         assertThat(diffs).hasSize(10);
     }
 
+    @Test
+    public void branchUpdateWarmsStatsCacheTest() {
+        List<ChangeRequest> crList = Collections.singletonList(createCommonChangeRequest());
+        doReturn(crList).when(spaceConfigStorage).loadChangeRequests("myRepository");
+
+        doReturn(mock(Path.class)).when(sourceBranch).getPath();
+
+        doReturn(mock(Path.class)).when(targetBranch).getPath();
+
+        doReturn(commonCommit).when(git).getCommonAncestorCommit(any(RevCommit.class),
+                                                                 any(RevCommit.class));
+
+        TextualDiff textualDiff = new TextualDiff("old/file/path",
+                                                  "new/file/path",
+                                                  "ADD",
+                                                  10,
+                                                  10,
+                                                  "diff text");
+
+        doReturn(Collections.nCopies(10, textualDiff)).when(git).textualDiffRefs(anyString(),
+                                                                                 anyString(),
+                                                                                 anyString(),
+                                                                                 anyString());
+
+        service.onRepositoryBranchUpdate(new RepositoryBranchUpdateEvent(repository));
+
+        List<ChangeRequestDiff> diffs = service.getDiff("mySpace",
+                                                        "myRepository",
+                                                        1L);
+
+        assertThat(diffs).hasSize(10);
+        verify(git,
+               times(1)).conflictCommitsChecker(any(RevCommit.class),
+                                                any(RevCommit.class));
+        verify(git,
+               times(1)).textualDiffRefs(anyString(),
+                                         anyString(),
+                                         anyString(),
+                                         anyString());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void getDiffTestInvalidBranchTest() {
         doReturn(Optional.ofNullable(null)).when(repository).getBranch("branchA");
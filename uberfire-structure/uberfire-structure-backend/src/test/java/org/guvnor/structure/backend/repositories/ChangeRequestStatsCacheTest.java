@@ -0,0 +1,247 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.guvnor.structure.backend.repositories;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.uberfire.java.nio.base.TextualDiff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangeRequestStatsCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private ChangeRequestStatsCache cache;
+
+    @Before
+    public void setup() throws Exception {
+        cache = new ChangeRequestStatsCache(Runnable::run,
+                                            tempFolder.newFolder("stats"),
+                                            2);
+    }
+
+    @Test
+    public void computesOnlyOnceInMemory() {
+        final AtomicInteger computations = new AtomicInteger();
+
+        assertThat(cache.getDiffCount("a",
+                                      "b",
+                                      computations::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.getDiffCount("a",
+                                      "b",
+                                      computations::incrementAndGet)).isEqualTo(1);
+
+        assertThat(computations.get()).isEqualTo(1);
+        assertThat(cache.getMetrics().getMisses()).isEqualTo(1);
+        assertThat(cache.getMetrics().getMemoryHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void reloadsFromDisk() throws Exception {
+        final String diffText = diffText(70_000);
+
+        cache.getDiffCount("a",
+                           "b",
+                           () -> 3);
+        cache.getMergeStats("target",
+                            "source",
+                            () -> new ChangeRequestMergeStats("base",
+                                                              Arrays.asList("file1",
+                                                                            "file2")));
+        cache.getTextualDiffs("a",
+                              "b",
+                              () -> Collections.singletonList(new TextualDiff("old",
+                                                                              "new",
+                                                                              "MODIFY",
+                                                                              1,
+                                                                              2,
+                                                                              diffText)));
+
+        final ChangeRequestStatsCache reopened = new ChangeRequestStatsCache(Runnable::run,
+                                                                             tempFolder.getRoot().toPath().resolve("stats").toFile(),
+                                                                             2);
+
+        assertThat(reopened.getDiffCount("a",
+                                         "b",
+                                         () -> 99)).isEqualTo(3);
+
+        final ChangeRequestMergeStats mergeStats = reopened.getMergeStats("target",
+                                                                          "source",
+                                                                          () -> null);
+        assertThat(mergeStats.getMergeBaseId()).isEqualTo("base");
+        assertThat(mergeStats.getConflicts()).containsExactly("file1",
+                                                              "file2");
+        assertThat(mergeStats.isConflictFree()).isFalse();
+
+        final List<TextualDiff> diffs = reopened.getTextualDiffs("a",
+                                                                 "b",
+                                                                 () -> null);
+        assertThat(diffs).hasSize(1);
+        assertThat(diffs.get(0).getChangeType()).isEqualTo("MODIFY");
+        assertThat(diffs.get(0).getLinesDeleted()).isEqualTo(2);
+        assertThat(diffs.get(0).getDiffText()).isEqualTo(diffText);
+
+        assertThat(reopened.getMetrics().getDiskHits()).isEqualTo(3);
+        assertThat(reopened.getMetrics().getMisses()).isZero();
+        assertThat(reopened.getMetrics().getFailedWrites()).isZero();
+    }
+
+    @Test
+    public void keepsWorkingInMemoryOnly() {
+        final ChangeRequestStatsCache memoryOnly = new ChangeRequestStatsCache(Runnable::run,
+                                                                               null,
+                                                                               2);
+
+        memoryOnly.getMergeStats("target",
+                                 "source",
+                                 () -> new ChangeRequestMergeStats(null,
+                                                                   Collections.emptyList()));
+
+        assertThat(memoryOnly.getMergeStats("target",
+                                            "source",
+                                            () -> null).isConflictFree()).isTrue();
+        assertThat(memoryOnly.getMetrics().getMemoryHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void coalescesRefreshesOfTheSameKey() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final ChangeRequestStatsCache asyncCache = new ChangeRequestStatsCache(executor,
+                                                                                   null,
+                                                                                   2);
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final AtomicInteger runs = new AtomicInteger();
+
+            final Runnable fill = () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+
+            asyncCache.refresh("space/repo",
+                               fill);
+            assertThat(started.await(5,
+                                     TimeUnit.SECONDS)).isTrue();
+
+            asyncCache.refresh("space/repo",
+                               fill);
+            asyncCache.refresh("space/repo",
+                               fill);
+            release.countDown();
+
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5,
+                                                 TimeUnit.SECONDS)).isTrue();
+
+            assertThat(runs.get()).isEqualTo(2);
+            assertThat(asyncCache.getMetrics().getRefreshes()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedFilesAboveTheDiskBound() throws Exception {
+        final File directory = tempFolder.newFolder("bounded");
+        final long now = System.currentTimeMillis();
+        // each diff count entry takes 15 bytes: format version, key and count
+        final ChangeRequestStatsCache bounded = new ChangeRequestStatsCache(Runnable::run,
+                                                                            directory,
+                                                                            2,
+                                                                            30);
+
+        bounded.getDiffCount("c1",
+                             "x",
+                             () -> 1);
+        touchFilesNewerThan(directory,
+                            0,
+                            now - 3000);
+        bounded.getDiffCount("c2",
+                             "x",
+                             () -> 2);
+        touchFilesNewerThan(directory,
+                            now - 2500,
+                            now - 2000);
+        bounded.getDiffCount("c3",
+                             "x",
+                             () -> 3);
+
+        bounded.refresh("space/repo",
+                        () -> {
+                        });
+
+        assertThat(bounded.getMetrics().getDiskEvictions()).isEqualTo(1);
+
+        final ChangeRequestStatsCache reopened = new ChangeRequestStatsCache(Runnable::run,
+                                                                             directory,
+                                                                             2,
+                                                                             30);
+        assertThat(reopened.getDiffCount("c2",
+                                         "x",
+                                         () -> 99)).isEqualTo(2);
+        assertThat(reopened.getDiffCount("c3",
+                                         "x",
+                                         () -> 99)).isEqualTo(3);
+        assertThat(reopened.getDiffCount("c1",
+                                         "x",
+                                         () -> 99)).isEqualTo(99);
+        assertThat(reopened.getMetrics().getDiskHits()).isEqualTo(2);
+    }
+
+    private static void touchFilesNewerThan(final File directory,
+                                            final long newerThan,
+                                            final long lastModified) throws IOException {
+        try (final Stream<Path> files = Files.walk(directory.toPath())) {
+            files.filter(Files::isRegularFile)
+                    .map(Path::toFile)
+                    .filter(file -> file.lastModified() > newerThan)
+                    .forEach(file -> file.setLastModified(lastModified));
+        }
+    }
+
+    private static String diffText(final int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        return builder.toString();
+    }
+}
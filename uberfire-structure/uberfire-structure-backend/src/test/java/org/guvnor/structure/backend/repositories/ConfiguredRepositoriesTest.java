@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.guvnor.structure.backend.organizationalunit.SpaceCatalog;
 import org.guvnor.structure.contributors.Contributor;
 import org.guvnor.structure.contributors.ContributorType;
 import org.guvnor.structure.organizationalunit.config.RepositoryConfiguration;
@@ -31,6 +32,7 @@ import org.guvnor.structure.organizationalunit.config.SpaceConfigStorageRegistry
 import org.guvnor.structure.organizationalunit.config.SpaceInfo;
 import org.guvnor.structure.repositories.Branch;
 import org.guvnor.structure.repositories.Repository;
+import org.guvnor.structure.repositories.RepositoryUpdatedEvent;
 import org.guvnor.structure.repositories.impl.git.GitRepository;
 import org.guvnor.structure.server.repositories.RepositoryFactory;
 import org.junit.Before;
@@ -40,6 +42,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.uberfire.backend.vfs.Path;
 import org.uberfire.backend.vfs.PathFactory;
+import org.uberfire.java.nio.file.FileSystem;
 import org.uberfire.spaces.Space;
 
 import static org.junit.Assert.*;
@@ -60,6 +63,10 @@ public class ConfiguredRepositoriesTest {
     @Mock
     private RepositoryFactory repositoryFactory;
 
+    private SpaceCatalog spaceCatalog;
+
+    private Map<String, RepositoryInfo> repositoryInfos = new HashMap<>();
+
     private ConfiguredRepositories configuredRepositories;
 
     @Mock
@@ -127,8 +134,10 @@ public class ConfiguredRepositoriesTest {
             return spaceConfigStorage;
         }).when(spaceConfigStorageRegistry).get(any());
 
-        configuredRepositories = new ConfiguredRepositoriesImpl(repositoryFactory,
-                                                                spaceConfigStorageRegistry);
+        spaceCatalog = new SpaceCatalog(spaceConfigStorageRegistry,
+                                        repositoryFactory,
+                                        mock(FileSystem.class));
+        configuredRepositories = new ConfiguredRepositoriesImpl(spaceCatalog);
     }
 
     private List<Contributor> createAdminContributors(String... username) {
@@ -166,6 +175,8 @@ public class ConfiguredRepositoriesTest {
         }
         repository.setBranches(branchMap);
         when(repositoryFactory.newRepository(repositoryInfo)).thenReturn(repository);
+        repositoryInfos.put(alias,
+                            repositoryInfo);
         return repositoryInfo;
     }
 
@@ -196,4 +207,24 @@ public class ConfiguredRepositoriesTest {
         assertNotNull(single.getBranch("dev"));
         assertNotNull(single.getBranch("release"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRepositoriesAreBuiltOnceUntilUpdated() {
+        final Repository first = configuredRepositories.getRepositoryByRepositoryAlias(SPACE1,
+                                                                                       REPO1S1);
+        final Repository second = configuredRepositories.getRepositoryByRepositoryAlias(SPACE1,
+                                                                                        REPO1S1);
+
+        assertSame(first,
+                   second);
+        verify(repositoryFactory,
+               times(1)).newRepository(repositoryInfos.get(REPO1S1));
+
+        spaceCatalog.onRepositoryUpdated(new RepositoryUpdatedEvent(first));
+        configuredRepositories.getRepositoryByRepositoryAlias(SPACE1,
+                                                              REPO1S1);
+
+        verify(repositoryFactory,
+               times(2)).newRepository(repositoryInfos.get(REPO1S1));
+    }
+}
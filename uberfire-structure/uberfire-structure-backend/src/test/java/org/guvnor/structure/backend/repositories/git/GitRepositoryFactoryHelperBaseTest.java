@@ -69,6 +69,9 @@ public abstract class GitRepositoryFactoryHelperBaseTest {
     @Mock
     protected Event<RepositoryExternalUpdateEvent> repositoryExternalUpdate;
 
+    @Mock
+    protected Event<RepositoryBranchUpdateEvent> repositoryBranchUpdate;
+
     @Mock
     protected PostCommitNotificationService postCommitNotificationService;
 
@@ -93,6 +96,7 @@ public abstract class GitRepositoryFactoryHelperBaseTest {
                                                 notIndexed,
                                                 spacesAPI,
                                                 repositoryExternalUpdate,
+                                                repositoryBranchUpdate,
                                                 postCommitNotificationService,
                                                 branchAccessAuthorizer,
                                                 passwordService);
@@ -208,6 +212,14 @@ public abstract class GitRepositoryFactoryHelperBaseTest {
         hook.execute(ctx);
         verify(postCommitNotificationService).notifyUser(any(),
                                                          eq(0));
+
+        Assertions.assertThat(params.get(FileSystemHooks.BranchUpdate.name()))
+                .isNotNull()
+                .isInstanceOf(FileSystemHooks.FileSystemHook.class);
+
+        hook = (FileSystemHooks.FileSystemHook) params.get(FileSystemHooks.BranchUpdate.name());
+        hook.execute(ctx);
+        verify(repositoryBranchUpdate).fire(any(RepositoryBranchUpdateEvent.class));
     }
 
     private IOService getServiceToTest() {